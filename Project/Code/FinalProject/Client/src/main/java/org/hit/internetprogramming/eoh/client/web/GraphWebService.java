@@ -3,6 +3,8 @@ package org.hit.internetprogramming.eoh.client.web;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.log4j.Log4j2;
 import org.hit.internetprogramming.eoh.common.action.ActionType;
+import org.hit.internetprogramming.eoh.common.comms.FrameOutputStream;
+import org.hit.internetprogramming.eoh.common.comms.FramedProtocol;
 import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
 import org.hit.internetprogramming.eoh.common.comms.Request;
 import org.hit.internetprogramming.eoh.common.comms.Response;
@@ -18,17 +20,29 @@ import java.util.concurrent.TimeUnit;
  * A singleton class where we manage the communication with server.<br/>
  * This class wraps the handshake with server ({@link #connect()}, an object mapper
  * to marshall java models into json string ({@link #getObjectMapper()}), and an API for
- * executing requests in front of the server. ({@link #executeRequest(Request)})
+ * executing requests in front of the server. ({@link #executeRequest(Request)})<br/>
+ * By default, we communicate with server using {@link FramedProtocol length-prefixed frames}. Use -Deoh.client.framed=false
+ * in order to use the line based protocol instead.
  * @author Haim Adrian
  * @since 23-Apr-21
  */
 @Log4j2
 public class GraphWebService {
     private static final GraphWebService instance = new GraphWebService();
+
+    /**
+     * Whether to use the framed protocol, or the line based one
+     */
+    private static final boolean USE_FRAMED_PROTOCOL = Boolean.parseBoolean(System.getProperty("eoh.client.framed", "true"));
+
     private Socket clientSocket;
     private BufferedWriter outToServer;
     private BufferedReader inFromServer;
 
+    // Streams used when we communicate with server using frames
+    private OutputStream frameOutToServer;
+    private InputStream frameInFromServer;
+
     /**
      * Jackson object mapper to convert json string to bean and vice versa
      */
@@ -63,8 +77,16 @@ public class GraphWebService {
 
             clientSocket = new Socket(ip, port);
             clientSocket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(1));
-            inFromServer = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-            outToServer = new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream()));
+            if (USE_FRAMED_PROTOCOL) {
+                frameInFromServer = new BufferedInputStream(clientSocket.getInputStream());
+                frameOutToServer = new BufferedOutputStream(clientSocket.getOutputStream());
+
+                // Tell the server we are using frames. It will be flushed with the first request.
+                frameOutToServer.write(FramedProtocol.MAGIC);
+            } else {
+                inFromServer = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
+                outToServer = new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream()));
+            }
         } catch (Exception e) {
             log.error("Error has occurred: ", e);
         }
@@ -99,6 +121,22 @@ public class GraphWebService {
         } catch (IOException ignore) {
         }
 
+        try {
+            if (frameOutToServer != null) {
+                frameOutToServer.close();
+                frameOutToServer = null;
+            }
+        } catch (IOException ignore) {
+        }
+
+        try {
+            if (frameInFromServer != null) {
+                frameInFromServer.close();
+                frameInFromServer = null;
+            }
+        } catch (IOException ignore) {
+        }
+
         try {
             if (clientSocket != null) {
                 clientSocket.close();
@@ -117,11 +155,13 @@ public class GraphWebService {
     public Response executeRequest(Request request) {
         Response response = null;
         try {
-            if (outToServer == null) {
+            if ((outToServer == null) && (frameOutToServer == null)) {
                 connect();
             }
 
-            if (outToServer != null) {
+            if (frameOutToServer != null) {
+                response = executeFramedRequest(request);
+            } else if (outToServer != null) {
                 String requestJson = objectMapper.writeValueAsString(request);
                 log.info("Sending request: " + requestJson);
 
@@ -153,4 +193,32 @@ public class GraphWebService {
 
         return response;
     }
+
+    private Response executeFramedRequest(Request request) throws IOException {
+        // Marshall the request right into the frame, and write the frame as is
+        FrameOutputStream requestFrame = new FrameOutputStream();
+        objectMapper.writeValue(requestFrame, request);
+        log.info("Sending request: " + request.getActionType() + " (" + requestFrame.getPayloadLength() + " bytes)");
+
+        requestFrame.writeFrameTo(frameOutToServer);
+        frameOutToServer.flush();
+
+        Response response;
+        try {
+            byte[] responseFrame = FramedProtocol.readFrame(frameInFromServer);
+            if (responseFrame == null) {
+                log.info("Response: Server has closed the connection");
+                closeStreams();
+                response = new Response(HttpStatus.INTERNAL_SERVER_ERROR.getCode(), HttpStatus.INTERNAL_SERVER_ERROR.getMessage(), new ArrayList<>(), false);
+            } else {
+                response = objectMapper.readValue(responseFrame, Response.class);
+                log.info("Response: " + response.getStatus() + " (" + responseFrame.length + " bytes)");
+            }
+        } catch (SocketTimeoutException e) {
+            closeStreams();
+            response = new Response(HttpStatus.TIME_OUT.getCode(), HttpStatus.TIME_OUT.getMessage(), new ArrayList<>(), false);
+        }
+
+        return response;
+    }
 }
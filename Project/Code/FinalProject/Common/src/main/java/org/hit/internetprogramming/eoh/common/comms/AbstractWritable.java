@@ -2,17 +2,27 @@ package org.hit.internetprogramming.eoh.common.comms;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.hit.internetprogramming.eoh.common.action.ActionType;
 import org.hit.internetprogramming.eoh.common.util.JsonUtils;
 
+import java.io.IOException;
+
 /**
  * This class is the base class of {@link Request} and {@link Response}.<br/>
  * Here we manage the content (body) of a request/response, to ease the usage of it as a generic content.<br/>
- * This way we can use anything as a body, and work with it with generic type, hiding the marshalling here.
+ * This way we can use anything as a body, and work with it with generic type, hiding the marshalling here.<br/>
+ * A body is kept lazily: a body we have received is kept as the json tokens read from the input, and it is decoded
+ * only when someone asks for it with a specific type. A body we create is kept as is, and written straight to the output
+ * when this writable is serialized. This way a huge body (e.g. a graph) is never converted into a {@link JsonNode} tree.
  * @author Haim Adrian
  * @since 10-Jul-2021
  */
@@ -27,9 +37,11 @@ public abstract class AbstractWritable {
      *     <li>{@code Index} - When sending GET neighbors / reachables request, there is additional parameter telling the location to get the response for.
      *                         When sending a GENERATE request, we use this as the dimension of a matrix. e.g. 3x3</li>
      * </ul>
+     * When a writable is read from json, the body is a {@link TokenBuffer} holding the json tokens of the body.
      */
     @JsonProperty("body")
-    private final JsonNode body;
+    @JsonSerialize(using = BodySerializer.class)
+    private final Object body;
 
     /**
      * Used to mark requests that we detect as HTTP requests, so the response can be an HTTP response.<br/>
@@ -46,7 +58,7 @@ public abstract class AbstractWritable {
      * @param isHttpRequest Whether this is an HTTP request or regular socket one. Default value is false.
      */
     public AbstractWritable(Object body, boolean isHttpRequest) {
-        this.body = body == null ? null : (body instanceof JsonNode ? (JsonNode) body : JsonUtils.convertValueToJsonNode(body));
+        this.body = body;
         this.isHttp = isHttpRequest;
     }
 
@@ -57,17 +69,20 @@ public abstract class AbstractWritable {
      * @param <T> Underlying type
      * @return Body as requested type, or {@code null} in case there is no body
      */
-    @SuppressWarnings("unchecked")
     public <T> T getBodyAs(Class<T> type) {
         if (body == null) {
             return null;
         }
 
-        if (type.equals(JsonNode.class)) {
-            return (T)body;
+        if (type.isInstance(body)) {
+            return type.cast(body);
+        }
+
+        if (body instanceof TokenBuffer) {
+            return JsonUtils.readValue((TokenBuffer) body, type);
         }
 
-        return JsonUtils.convertValueFromJsonNode(body, type);
+        return JsonUtils.convertValue(body, type);
     }
 
     /**
@@ -79,16 +94,46 @@ public abstract class AbstractWritable {
      * @param <T> Underlying type
      * @return Body as requested type, or {@code null} in case there is no body
      */
+    @SuppressWarnings("unchecked")
     public <T> T getBodyAs(TypeReference<T> type) {
         if (body == null) {
             return null;
         }
 
-        return JsonUtils.convertValueFromJsonNode(body, type);
+        // We cannot verify type arguments of a body we hold, so only a non-generic type can be returned as is
+        if ((type.getType() instanceof Class) && ((Class<?>) type.getType()).isInstance(body)) {
+            return (T) body;
+        }
+
+        if (body instanceof TokenBuffer) {
+            return JsonUtils.readValue((TokenBuffer) body, type);
+        }
+
+        return JsonUtils.convertValue(body, type);
     }
 
     @JsonIgnore
     public boolean isHttp() {
         return isHttp;
     }
+
+    /**
+     * Writes a body straight to the json generator.<br/>
+     * Received bodies are written by replaying their tokens, and other bodies are written using the serializer of their
+     * runtime type, including type info. (e.g. the "_type" of an {@code IGraph})
+     */
+    static class BodySerializer extends StdSerializer<Object> {
+        BodySerializer() {
+            super(Object.class);
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value instanceof TokenBuffer) {
+                ((TokenBuffer) value).serialize(gen);
+            } else {
+                provider.findTypedValueSerializer(value.getClass(), true, null).serialize(value, gen, provider);
+            }
+        }
+    }
 }
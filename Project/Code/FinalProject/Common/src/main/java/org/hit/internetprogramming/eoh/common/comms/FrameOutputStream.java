@@ -0,0 +1,66 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An output stream used to build a single {@link FramedProtocol frame}.<br/>
+ * The stream reserves room for the frame header at the beginning of its buffer, so a payload can be written
+ * directly into it (e.g. by Jackson), and then the whole frame is written to a socket at once, without copying the payload.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class FrameOutputStream extends ByteArrayOutputStream {
+    /**
+     * Constructs a new {@link FrameOutputStream} with default payload capacity. (1KB)
+     */
+    public FrameOutputStream() {
+        this(1024);
+    }
+
+    /**
+     * Constructs a new {@link FrameOutputStream}
+     * @param payloadCapacity Initial capacity of the payload. The stream grows as needed.
+     */
+    public FrameOutputStream(int payloadCapacity) {
+        super(payloadCapacity + FramedProtocol.HEADER_LENGTH);
+        count = FramedProtocol.HEADER_LENGTH;
+    }
+
+    /**
+     * Discard the payload, so the stream can be reused for another frame
+     */
+    @Override
+    public synchronized void reset() {
+        count = FramedProtocol.HEADER_LENGTH;
+    }
+
+    /**
+     * @return The length of the payload written so far
+     */
+    public synchronized int getPayloadLength() {
+        return count - FramedProtocol.HEADER_LENGTH;
+    }
+
+    /**
+     * Write the whole frame (header and payload) to the specified output stream
+     * @param output Where to write the frame to
+     * @throws IOException In case we have failed to write the frame
+     */
+    public synchronized void writeFrameTo(OutputStream output) throws IOException {
+        FramedProtocol.putLength(buf, 0, getPayloadLength());
+        output.write(buf, 0, count);
+    }
+
+    /**
+     * Wrap the whole frame (header and payload) by a {@link ByteBuffer}, without copying it.<br/>
+     * Note that the buffer refers to the internal array of this stream, so do not reuse this stream until the buffer is consumed.
+     * @return The frame, as a byte buffer
+     */
+    public synchronized ByteBuffer toFrameBuffer() {
+        FramedProtocol.putLength(buf, 0, getPayloadLength());
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
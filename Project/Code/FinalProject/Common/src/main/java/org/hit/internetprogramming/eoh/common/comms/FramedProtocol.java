@@ -0,0 +1,126 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Length-prefixed binary framing, used between MatrixClient and server, alongside the line based (text) protocol.<br/>
+ * A client that would like to use framing sends {@link #MAGIC} as the first byte of a connection. From that moment on, every
+ * request and every response on that connection is a frame: {@link #HEADER_LENGTH 4 bytes} (big endian) holding the payload length,
+ * followed by the payload bytes. (UTF-8 json)<br/>
+ * This way payloads may contain new lines, and the receiver knows how many bytes to read without scanning them.
+ * The magic byte can never be the first byte of a text request, as it is not a valid UTF-8 byte at all.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see FrameOutputStream
+ */
+public class FramedProtocol {
+    /**
+     * The first byte a client sends in order to tell the server that it is using framing
+     */
+    public static final byte MAGIC = (byte) 0xFE;
+
+    /**
+     * Length of a frame header, which is the length of the payload as a big endian int
+     */
+    public static final int HEADER_LENGTH = Integer.BYTES;
+
+    /**
+     * Maximum payload length we accept, so a corrupted header will not make us allocate the whole heap
+     */
+    public static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+
+    private FramedProtocol() {
+
+    }
+
+    /**
+     * Write a frame, which is a header with the payload length followed by the payload
+     * @param output Where to write the frame to
+     * @param payload The payload to write
+     * @throws IOException In case we have failed to write the frame
+     */
+    public static void writeFrame(OutputStream output, byte[] payload) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        putLength(header, 0, payload.length);
+        output.write(header);
+        output.write(payload);
+    }
+
+    /**
+     * Read a whole frame from the specified input stream, blocking until it is fully read.
+     * @param input Where to read a frame from
+     * @return The payload of the frame, or {@code null} in case input has ended before a frame has started
+     * @throws IOException In case we have failed to read a frame, or the input has ended in the middle of a frame
+     */
+    public static byte[] readFrame(InputStream input) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        if (!readFully(input, header)) {
+            return null;
+        }
+
+        byte[] payload = new byte[readLength(header, 0)];
+        if (!readFully(input, payload)) {
+            throw new EOFException("Input has ended in the middle of a frame");
+        }
+
+        return payload;
+    }
+
+    /**
+     * Read the payload length out of a frame header
+     * @param header The array to read the header from
+     * @param offset Where the header starts at
+     * @return The payload length
+     * @throws IOException In case the length is negative or larger than {@link #MAX_FRAME_LENGTH}
+     */
+    public static int readLength(byte[] header, int offset) throws IOException {
+        int length = ((header[offset] & 0xFF) << 24) | ((header[offset + 1] & 0xFF) << 16) | ((header[offset + 2] & 0xFF) << 8) | (header[offset + 3] & 0xFF);
+        validateLength(length);
+        return length;
+    }
+
+    /**
+     * Write the payload length into a frame header
+     * @param header The array to write the header to
+     * @param offset Where the header starts at
+     * @param length The payload length
+     */
+    public static void putLength(byte[] header, int offset, int length) {
+        header[offset] = (byte) (length >>> 24);
+        header[offset + 1] = (byte) (length >>> 16);
+        header[offset + 2] = (byte) (length >>> 8);
+        header[offset + 3] = (byte) length;
+    }
+
+    /**
+     * Make sure a payload length is legal
+     * @param length The length to validate
+     * @throws IOException In case the length is negative or larger than {@link #MAX_FRAME_LENGTH}
+     */
+    public static void validateLength(int length) throws IOException {
+        if ((length < 0) || (length > MAX_FRAME_LENGTH)) {
+            throw new IOException("Illegal frame length: " + length + ". Maximum frame length is: " + MAX_FRAME_LENGTH);
+        }
+    }
+
+    private static boolean readFully(InputStream input, byte[] dest) throws IOException {
+        int total = 0;
+        while (total < dest.length) {
+            int bytesRead = input.read(dest, total, dest.length - total);
+            if (bytesRead < 0) {
+                if (total == 0) {
+                    return false;
+                }
+
+                throw new EOFException("Input has ended in the middle of a frame");
+            }
+
+            total += bytesRead;
+        }
+
+        return true;
+    }
+}
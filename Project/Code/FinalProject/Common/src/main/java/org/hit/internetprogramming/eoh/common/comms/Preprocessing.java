@@ -0,0 +1,31 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+/**
+ * A preprocessing of a cached graph, which a shortest paths request may ask to use.<br/>
+ * A preprocessing is built on the first request that asks for it, and it is kept next to the graph until the client puts
+ * another graph. So it pays off for clients that issue many queries against the same graph.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see ShortestPathsBody#getPreprocessing()
+ */
+public enum Preprocessing {
+    /**
+     * Every query starts from scratch
+     */
+    NONE,
+
+    /**
+     * Distances from a few landmarks to all vertices, which let A* estimate the distance to destination using the
+     * triangle inequality (ALT). Used by SHORTEST_PATHS_IN_WEIGHTED_GRAPH, and ignored by SHORTEST_PATHS.
+     */
+    LANDMARKS,
+
+    /**
+     * Vertices contracted by importance, with shortcuts between the remaining ones, so a query searches upward from both
+     * ends only. Takes longer to build than landmarks, and answers a query much faster. Hence it is built in the
+     * background, and requests are answered without it until it is ready.<br/>
+     * Used by {@link ShortestPathsBody#isSinglePath() single path} requests of SHORTEST_PATHS_IN_WEIGHTED_GRAPH, as a
+     * hierarchy keeps a single shortest path between two vertices. Other requests are answered without it.
+     */
+    CONTRACTION_HIERARCHY
+}
@@ -2,7 +2,7 @@ package org.hit.internetprogramming.eoh.common.comms;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -42,12 +42,12 @@ public class Request extends AbstractWritable {
     }
 
     /**
-     * Constructs a new {@link Request} with json body. This constructor is for json marshalling. Don't use it
+     * Constructs a new {@link Request} with json body, as read by the json parser. This constructor is for json marshalling. Don't use it
      * @param actionType The {@link ActionType action type}
      * @param body The body to set
      */
     @JsonCreator
-    public Request(@JsonProperty("actionType") ActionType actionType, @JsonProperty(value = "body") JsonNode body) {
+    public Request(@JsonProperty("actionType") ActionType actionType, @JsonProperty(value = "body") TokenBuffer body) {
         this(actionType, body, false);
     }
 
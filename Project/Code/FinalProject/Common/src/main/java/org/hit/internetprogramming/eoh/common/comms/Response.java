@@ -2,7 +2,7 @@ package org.hit.internetprogramming.eoh.common.comms;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -56,13 +56,13 @@ public class Response extends AbstractWritable {
     }
 
     /**
-     * Constructs a new {@link Response} with json body. This constructor is for json marshalling. Don't use it
+     * Constructs a new {@link Response} with json body, as read by the json parser. This constructor is for json marshalling. Don't use it
      * @param status {@link HttpStatus HTTP status} to mark this response as.
      * @param message An optional message, in case of simple success, or a failure.
      * @param body The body to set
      */
     @JsonCreator
-    public Response(@JsonProperty(value = "status") int status, @JsonProperty(value = "message") String message, @JsonProperty(value = "body") JsonNode body) {
+    public Response(@JsonProperty(value = "status") int status, @JsonProperty(value = "message") String message, @JsonProperty(value = "body") TokenBuffer body) {
         this(status, message, body, false);
     }
 
@@ -0,0 +1,115 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * This class represents a request body of SHORTEST_PATHS algorithms.<br/>
+ * In addition to source and destination vertices, it may specify a page of shortest paths to get. Amount of shortest
+ * paths is exponential on open grids, so instead of getting all of them, a client can get their amount only, or a page
+ * of them at a time. When no page is specified, all shortest paths are returned, as long as there are not too many of them.<br/>
+ * A client that needs one shortest path rather than all of them can ask for a single path, which is found faster.<br/>
+ * A client that issues many queries against the same graph can ask to use a {@link Preprocessing} of the graph.
+ * @param <T> Type of a vertex. (Index)
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see ShortestPathsPage
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ShortestPathsBody<T> extends TwoVerticesBody<T> {
+    /**
+     * Rank of the first path to get. Optional
+     */
+    private Long offset;
+
+    /**
+     * Maximum amount of paths to get. Optional
+     */
+    private Integer limit;
+
+    /**
+     * Whether to get the amount of shortest paths and their distance only, without the paths
+     */
+    private boolean countOnly;
+
+    /**
+     * Whether to get a single shortest path, rather than all of them. When specified, the page is ignored
+     */
+    private boolean singlePath;
+
+    /**
+     * Whether to get the jump points of a {@link #singlePath single path} only, rather than all of its vertices. Jump
+     * points are the vertices where the path changes its direction, so each two consecutive jump points are on a
+     * straight or a diagonal line. Ignored when the path is not found by Jump Point Search.
+     */
+    private boolean jumpPointsOnly;
+
+    /**
+     * A preprocessing of the graph to answer this request with. Optional. When {@code null}, there is no preprocessing
+     */
+    private Preprocessing preprocessing;
+
+    /**
+     * Constructs a new {@link ShortestPathsBody}
+     * @param first First vertex (source)
+     * @param second Second vertex (destination)
+     * @param offset Rank of the first path to get. Optional
+     * @param limit Maximum amount of paths to get. Optional
+     * @param countOnly Whether to get the amount of shortest paths and their distance only
+     * @param singlePath Whether to get a single shortest path, rather than all of them
+     * @param jumpPointsOnly Whether to get the jump points of a single path only, rather than all of its vertices
+     * @param preprocessing A preprocessing of the graph to answer this request with. Optional
+     */
+    @JsonCreator
+    public ShortestPathsBody(@JsonProperty("first") T first,
+                             @JsonProperty("second") T second,
+                             @JsonProperty("offset") Long offset,
+                             @JsonProperty("limit") Integer limit,
+                             @JsonProperty("countOnly") boolean countOnly,
+                             @JsonProperty("singlePath") boolean singlePath,
+                             @JsonProperty("jumpPointsOnly") boolean jumpPointsOnly,
+                             @JsonProperty("preprocessing") Preprocessing preprocessing) {
+        super(first, second);
+        this.offset = offset;
+        this.limit = limit;
+        this.countOnly = countOnly;
+        this.singlePath = singlePath;
+        this.jumpPointsOnly = jumpPointsOnly;
+        this.preprocessing = preprocessing;
+    }
+
+    /**
+     * Constructs a new {@link ShortestPathsBody}, to get a page of the shortest paths
+     * @param first First vertex (source)
+     * @param second Second vertex (destination)
+     * @param offset Rank of the first path to get. Optional
+     * @param limit Maximum amount of paths to get. Optional
+     * @param countOnly Whether to get the amount of shortest paths and their distance only
+     */
+    public ShortestPathsBody(T first, T second, Long offset, Integer limit, boolean countOnly) {
+        this(first, second, offset, limit, countOnly, false, false, null);
+    }
+
+    /**
+     * Constructs a new {@link ShortestPathsBody}, to get all shortest paths
+     * @param first First vertex (source)
+     * @param second Second vertex (destination)
+     */
+    public ShortestPathsBody(T first, T second) {
+        this(first, second, null, null, false);
+    }
+
+    /**
+     * @return Whether a page of shortest paths was requested, rather than all of them
+     */
+    @JsonIgnore
+    public boolean isPaged() {
+        return countOnly || (offset != null) || (limit != null);
+    }
+}
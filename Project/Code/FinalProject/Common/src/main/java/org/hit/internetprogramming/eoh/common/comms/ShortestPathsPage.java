@@ -0,0 +1,77 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class represents a response body of a paged SHORTEST_PATHS request.<br/>
+ * It holds the amount of shortest paths and their distance, which are known even when there are too many paths to
+ * return all of them, and a page of the paths themselves.
+ * @param <T> Type of a vertex. (Index)
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see ShortestPathsBody
+ */
+@Data
+public class ShortestPathsPage<T> {
+    /**
+     * Length of the shortest paths, which is the amount of edges in a graph, or the sum of weights in a weighted graph.
+     * {@code null} when destination is not reachable
+     */
+    private final Long distance;
+
+    /**
+     * Amount of shortest paths. Might exceed a long on large open grids
+     */
+    private final BigInteger count;
+
+    /**
+     * Rank of the first path in {@link #paths}
+     */
+    private final long offset;
+
+    /**
+     * A page of shortest paths
+     */
+    private final List<Collection<T>> paths;
+
+    /**
+     * Constructs a new {@link ShortestPathsPage}
+     * @param distance Length of the shortest paths, or {@code null} when destination is not reachable
+     * @param count Amount of shortest paths
+     * @param offset Rank of the first path in the page
+     * @param paths A page of shortest paths
+     */
+    @JsonCreator
+    public ShortestPathsPage(@JsonProperty("distance") Long distance,
+                             @JsonProperty("count") BigInteger count,
+                             @JsonProperty("offset") long offset,
+                             @JsonProperty("paths") List<Collection<T>> paths) {
+        this.distance = distance;
+        this.count = count;
+        this.offset = offset;
+        this.paths = paths;
+    }
+
+    /**
+     * Create a page out of all shortest paths, for algorithms that cannot count paths without finding them
+     * @param paths All shortest paths
+     * @param distance Length of the shortest paths, or {@code null} when destination is not reachable
+     * @param offset Rank of the first path to keep
+     * @param limit Maximum amount of paths to keep
+     * @param <T> Type of a vertex
+     * @return A page of the specified paths
+     */
+    public static <T> ShortestPathsPage<T> of(List<Collection<T>> paths, Long distance, long offset, int limit) {
+        int from = (int) Math.min(Math.max(0, offset), paths.size());
+        int to = (int) Math.min((long) from + Math.max(0, limit), paths.size());
+
+        return new ShortestPathsPage<>(distance, BigInteger.valueOf(paths.size()), offset, new ArrayList<>(paths.subList(from, to)));
+    }
+}
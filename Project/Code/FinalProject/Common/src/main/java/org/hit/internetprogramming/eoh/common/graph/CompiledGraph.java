@@ -0,0 +1,467 @@
+package org.hit.internetprogramming.eoh.common.graph;
+
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable snapshot of an {@link IGraph} of {@link Index}, compiled into a compressed sparse row (CSR) adjacency.<br/>
+ * Every vertex gets a dense id in range [0, {@link #vertexCount()}), in the order of {@link IGraph#getVertices()}, and
+ * the reachable vertices of vertex {@code id} are the targets of edges {@code [firstEdge(id), endEdge(id))}.<br/>
+ * The weight of an edge is the value of its target vertex, same as the weighted algorithms read it using {@link IGraph#getValue(Object)}.
+ * <p>
+ * Compiling a graph costs a single pass over its vertices, and from then on algorithms do not have to look for neighbors
+ * in a matrix, check whether they have value and create indices for them. This class is an {@link IGraph} by itself,
+ * so the existing algorithms can run on it as is, while primitive algorithms can work with ids and edges directly.
+ * </p>
+ * Use {@link #withRoot(Index)} to traverse from another vertex. It shares the compiled arrays, so it is cheap.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see MatrixGraphAdapter
+ */
+public final class CompiledGraph implements IGraph<Index> {
+    /**
+     * Returned by {@link #idOf(Index)} for locations that are not vertices of this graph
+     */
+    public static final int NO_VERTEX = -1;
+
+    /**
+     * The graph this snapshot was compiled from. Used for {@link #getAdjacentVertices(Index) adjacent} vertices, which
+     * are not necessarily vertices, and for printing.
+     */
+    private final IGraph<Index> source;
+
+    private final Index root;
+
+    /**
+     * Vertex of each id
+     */
+    private final Index[] vertices;
+
+    /**
+     * Value of each vertex, by id
+     */
+    private final int[] values;
+
+    /**
+     * Edges of vertex {@code id} are in range [offsets[id], offsets[id + 1]). Length is {@code vertexCount + 1}
+     */
+    private final int[] offsets;
+
+    /**
+     * Target vertex id of each edge
+     */
+    private final int[] targets;
+
+    /**
+     * Weight of each edge, which is the value of its target
+     */
+    private final int[] weights;
+
+    /**
+     * Id of each location in the bounding box of all vertices, in row-major order, or {@link #NO_VERTEX}.
+     */
+    private final int[] locationToId;
+    private final int minRow;
+    private final int minCol;
+    private final int boxRows;
+    private final int boxCols;
+
+    /**
+     * Whether every edge has a reverse edge, so searching backward from a vertex is the same as searching forward
+     */
+    private final boolean symmetric;
+
+    /**
+     * Minimum and maximum weights of all edges. Both are 0 when there are no edges.
+     */
+    private final int minWeight;
+    private final int maxWeight;
+
+    private CompiledGraph(IGraph<Index> source, Index root, Index[] vertices, int[] values, int[] offsets, int[] targets, int[] weights,
+                          int[] locationToId, int minRow, int minCol, int boxRows, int boxCols, boolean symmetric, int minWeight, int maxWeight) {
+        this.source = source;
+        this.root = root;
+        this.vertices = vertices;
+        this.values = values;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.locationToId = locationToId;
+        this.minRow = minRow;
+        this.minCol = minCol;
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        this.symmetric = symmetric;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Compile a graph into a CSR snapshot.<br/>
+     * The snapshot does not reflect modifications made to the graph after it was compiled.
+     * @param graph The graph to compile
+     * @return The compiled graph, rooted at the root of the specified graph. When the specified graph is already compiled, it is returned as is.
+     */
+    public static CompiledGraph compile(IGraph<Index> graph) {
+        if (graph instanceof CompiledGraph) {
+            return (CompiledGraph) graph;
+        }
+
+        Index[] vertices = graph.getVertices().toArray(new Index[0]);
+
+        // Map locations to ids using a flat table over the bounding box of all vertices, so a lookup is an array access.
+        int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE, maxRow = -1, maxCol = -1;
+        for (Index vertex : vertices) {
+            minRow = Math.min(minRow, vertex.getRow());
+            minCol = Math.min(minCol, vertex.getColumn());
+            maxRow = Math.max(maxRow, vertex.getRow());
+            maxCol = Math.max(maxCol, vertex.getColumn());
+        }
+
+        int boxRows = Math.max(0, maxRow - minRow + 1);
+        int boxCols = Math.max(0, maxCol - minCol + 1);
+        int[] locationToId = new int[Math.multiplyExact(boxRows, boxCols)];
+        Arrays.fill(locationToId, NO_VERTEX);
+
+        int[] values = new int[vertices.length];
+        for (int id = 0; id < vertices.length; id++) {
+            locationToId[(vertices[id].getRow() - minRow) * boxCols + (vertices[id].getColumn() - minCol)] = id;
+            values[id] = toInt(graph.getValue(vertices[id]));
+        }
+
+        // A matrix vertex has at most 8 reachable vertices, so start with room for 4 per vertex, and grow when needed.
+        int[] offsets = new int[vertices.length + 1];
+        int[] targets = new int[Math.max(16, vertices.length * 4)];
+        int edgeCount = 0;
+        for (int id = 0; id < vertices.length; id++) {
+            offsets[id] = edgeCount;
+            for (Index reachable : graph.getReachableVertices(vertices[id])) {
+                int targetId = lookup(locationToId, minRow, minCol, boxRows, boxCols, reachable);
+                if (targetId != NO_VERTEX) {
+                    if (edgeCount == targets.length) {
+                        targets = Arrays.copyOf(targets, targets.length + (targets.length >>> 1));
+                    }
+
+                    targets[edgeCount++] = targetId;
+                }
+            }
+        }
+        offsets[vertices.length] = edgeCount;
+
+        targets = Arrays.copyOf(targets, edgeCount);
+        int[] weights = new int[edgeCount];
+        int minWeight = (edgeCount == 0) ? 0 : Integer.MAX_VALUE, maxWeight = (edgeCount == 0) ? 0 : Integer.MIN_VALUE;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            weights[edge] = values[targets[edge]];
+            minWeight = Math.min(minWeight, weights[edge]);
+            maxWeight = Math.max(maxWeight, weights[edge]);
+        }
+
+        return new CompiledGraph(graph, graph.getRoot(), vertices, values, offsets, targets, weights, locationToId, minRow, minCol, boxRows, boxCols,
+                isSymmetric(offsets, targets), minWeight, maxWeight);
+    }
+
+    /**
+     * Check whether every edge has a reverse edge. A matrix vertex has at most 8 edges, so this is a linear pass.
+     */
+    private static boolean isSymmetric(int[] offsets, int[] targets) {
+        for (int id = 0; id < offsets.length - 1; id++) {
+            for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+                int target = targets[edge];
+                boolean hasReverseEdge = false;
+                for (int reverseEdge = offsets[target]; !hasReverseEdge && (reverseEdge < offsets[target + 1]); reverseEdge++) {
+                    hasReverseEdge = targets[reverseEdge] == id;
+                }
+
+                if (!hasReverseEdge) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Binary graphs may hold any value at vertices. Numbers are used as weights, and anything else weighs 1.
+     */
+    private static int toInt(Object value) {
+        return (value instanceof Number) ? ((Number) value).intValue() : 1;
+    }
+
+    private static int lookup(int[] locationToId, int minRow, int minCol, int boxRows, int boxCols, Index location) {
+        if (location == null) {
+            return NO_VERTEX;
+        }
+
+        int row = location.getRow() - minRow;
+        int col = location.getColumn() - minCol;
+        if ((row < 0) || (row >= boxRows) || (col < 0) || (col >= boxCols)) {
+            return NO_VERTEX;
+        }
+
+        return locationToId[row * boxCols + col];
+    }
+
+    /**
+     * Create a snapshot of the same graph, with another root. The compiled arrays are shared, not copied.
+     * @param newRoot The root to use
+     * @return A compiled graph rooted at the specified root
+     */
+    public CompiledGraph withRoot(Index newRoot) {
+        return new CompiledGraph(source, newRoot, vertices, values, offsets, targets, weights, locationToId, minRow, minCol, boxRows, boxCols, symmetric, minWeight, maxWeight);
+    }
+
+    /**
+     * @return Amount of vertices in this graph
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * @return Amount of (directed) edges in this graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return Whether every edge has a reverse edge, such that the graph is undirected. Matrix graphs are symmetric, as
+     * neighborhoods are symmetric and a location is reachable when it is a vertex.
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * @return Minimum weight of all edges. Negative when the graph has negative weights
+     */
+    public int minWeight() {
+        return minWeight;
+    }
+
+    /**
+     * @return Maximum weight of all edges
+     */
+    public int maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @param vertex A vertex to get its id
+     * @return Id of the specified vertex, or {@link #NO_VERTEX} in case it is not a vertex of this graph
+     */
+    public int idOf(Index vertex) {
+        return lookup(locationToId, minRow, minCol, boxRows, boxCols, vertex);
+    }
+
+    /**
+     * @param row Row of a location
+     * @param col Column of a location
+     * @return Id of the vertex at the specified location, or {@link #NO_VERTEX} in case there is no vertex there
+     */
+    public int idOf(int row, int col) {
+        row -= minRow;
+        col -= minCol;
+        if ((row < 0) || (row >= boxRows) || (col < 0) || (col >= boxCols)) {
+            return NO_VERTEX;
+        }
+
+        return locationToId[row * boxCols + col];
+    }
+
+    /**
+     * @return Id of the root, or {@link #NO_VERTEX} in case the root is not a vertex of this graph
+     */
+    public int rootId() {
+        return idOf(root);
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return The vertex with the specified id
+     */
+    public Index vertexOf(int id) {
+        return vertices[id];
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Value of the vertex with the specified id
+     */
+    public int valueOf(int id) {
+        return values[id];
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Index of the first edge of the specified vertex
+     */
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Index after the last edge of the specified vertex
+     */
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * @param edge Index of an edge
+     * @return Id of the target vertex of the specified edge
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge Index of an edge
+     * @return Weight of the specified edge
+     */
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @return Approximate amount of bytes the compiled arrays take, excluding the vertices themselves and the graph
+     * this snapshot was compiled from
+     */
+    @Override
+    public long sizeInBytes() {
+        return ((long) values.length + offsets.length + targets.length + weights.length + locationToId.length) * Integer.BYTES +
+                (long) vertices.length * 8;
+    }
+
+    /**
+     * @return The graph this snapshot was compiled from
+     */
+    public IGraph<Index> source() {
+        return source;
+    }
+
+    @Override
+    public Index getRoot() {
+        return root;
+    }
+
+    @Override
+    public List<Index> getAdjacentVertices(Index vertex) {
+        return source.getAdjacentVertices(vertex);
+    }
+
+    @Override
+    public List<Index> getReachableVertices(Index vertex) {
+        int id = idOf(vertex);
+        if (id == NO_VERTEX) {
+            // If there is no vertex at the specified index, return empty list
+            return new ArrayList<>();
+        }
+
+        return new ReachableVertices(offsets[id], offsets[id + 1]);
+    }
+
+    @Override
+    public void forEachReachable(Index vertex, Consumer<? super Index> action) {
+        int id = idOf(vertex);
+        if (id != NO_VERTEX) {
+            for (int edge = offsets[id], end = offsets[id + 1]; edge < end; edge++) {
+                action.accept(vertices[targets[edge]]);
+            }
+        }
+    }
+
+    /**
+     * Visit the ids of all reachable vertices of a specified vertex.
+     * @param id Id of the vertex to visit its reachable vertices
+     * @param action What to do with the id of each reachable vertex
+     */
+    public void forEachReachable(int id, IntConsumer action) {
+        for (int edge = offsets[id], end = offsets[id + 1]; edge < end; edge++) {
+            action.accept(targets[edge]);
+        }
+    }
+
+    @Override
+    public String printGraph() {
+        return source.printGraph();
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+
+    @Override
+    public int getGraphSize() {
+        return source.getGraphSize();
+    }
+
+    @Override
+    public List<Index> getVertices() {
+        return new ArrayList<>(Arrays.asList(vertices));
+    }
+
+    @Override
+    public List<Pair<Index, Index>> getEdges() {
+        List<Pair<Index, Index>> edges = new ArrayList<>(targets.length);
+        for (int id = 0; id < vertices.length; id++) {
+            for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+                edges.add(MutablePair.of(vertices[id], vertices[targets[edge]]));
+            }
+        }
+
+        return edges;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Integer getValue(Index vertex) {
+        int id = idOf(vertex);
+        return (id == NO_VERTEX) ? null : values[id];
+    }
+
+    @Override
+    public boolean contains(Index vertex) {
+        return idOf(vertex) != NO_VERTEX;
+    }
+
+    /**
+     * A read-only view over a range of edges, so listing reachable vertices does not copy them.
+     */
+    private final class ReachableVertices extends AbstractList<Index> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        ReachableVertices(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Index get(int i) {
+            if ((i < 0) || (i >= to - from)) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + (to - from));
+            }
+
+            return vertices[targets[from + i]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
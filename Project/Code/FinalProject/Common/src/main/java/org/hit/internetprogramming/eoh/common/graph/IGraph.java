@@ -6,6 +6,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.hit.internetprogramming.eoh.common.mat.IMatrix;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This interface is the primary data type for Graph hierarchy<br/>
@@ -43,6 +44,18 @@ public interface IGraph<T> {
     */
    List<T> getReachableVertices(T vertex);
 
+   /**
+    * Visit all reachable vertices of a specified vertex, without collecting them into a list.<br/>
+    * Traversal algorithms call this for every vertex they visit, so implementations should avoid allocating here.
+    * The default implementation visits the result of {@link #getReachableVertices(Object)}.
+    * @param vertex The vertex to visit its reachable vertices
+    * @param action What to do with each reachable vertex
+    * @see #getReachableVertices(Object)
+    */
+   default void forEachReachable(T vertex, Consumer<? super T> action) {
+      getReachableVertices(vertex).forEach(action);
+   }
+
    /**
     * Get a string representing this graph.<br/>
     * The string will be formatted as a matrix, where all 0's are replaced with space, and you see 1's only.<br/>
@@ -81,6 +94,15 @@ public interface IGraph<T> {
     */
    int getGraphSize();
 
+   /**
+    * Estimate how many bytes of heap this graph takes, so servers can limit how many graphs they keep in memory.<br/>
+    * The default estimate is 16 bytes for each of the {@link #getGraphSize()} references.
+    * @return Estimated size of this graph, in bytes
+    */
+   default long sizeInBytes() {
+      return (long) getGraphSize() * 16;
+   }
+
    /**
     * Get all vertices in this graph.<br/>
     * This method can take {@link #getGraphSize()} operations in order to collect all vertices in the graph.
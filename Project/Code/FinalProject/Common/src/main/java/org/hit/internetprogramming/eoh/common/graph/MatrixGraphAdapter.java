@@ -6,12 +6,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
 import org.hit.internetprogramming.eoh.common.mat.IMatrix;
 import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * This class represents a matrix that adapts the Graph API.<br/>
@@ -59,6 +61,13 @@ public class MatrixGraphAdapter<T> implements IGraph<Index> {
       this.root = newRoot;
    }
 
+   /**
+    * @return The underlying matrix. Note that this is the same matrix, and not a copy.
+    */
+   public IMatrix<T> getMatrix() {
+      return matrix;
+   }
+
    @Override
    public Index getRoot() {
       return root;
@@ -71,12 +80,50 @@ public class MatrixGraphAdapter<T> implements IGraph<Index> {
 
    @Override
    public List<Index> getReachableVertices(Index vertex) {
-      if (matrix.hasValue(vertex)) {
+      // If there is no vertex at the specified index, the list remains empty
+      List<Index> reachableVertices = new ArrayList<>();
+      forEachReachable(vertex, reachableVertices::add);
+      return reachableVertices;
+   }
+
+   @Override
+   public void forEachReachable(Index vertex, Consumer<? super Index> action) {
+      if (!matrix.hasValue(vertex)) {
+         // Nothing is reachable from nowhere
+         return;
+      }
+
+      Neighborhood neighborhood = matrix.neighborhood();
+      if (neighborhood == null) {
          // Collect neighbors that contain some value in them. For binary matrices, this will collect neighbors with value=1 only.
-         return matrix.neighbors(vertex).stream().filter(matrix::hasValue).collect(Collectors.toList());
-      } else {
-         // If there is no vertex at the specified index, return empty list
-         return new ArrayList<>();
+         for (Index neighbor : matrix.neighbors(vertex)) {
+            if (matrix.hasValue(neighbor)) {
+               action.accept(neighbor);
+            }
+         }
+         return;
+      }
+
+      // Scan the offsets of the neighborhood, so we create no list. A primitive matrix can also tell whether a
+      // neighbor has value without an index, so we look up indices of reachable neighbors only.
+      IIntMatrix intMatrix = (matrix instanceof IIntMatrix) ? (IIntMatrix) matrix : null;
+      int rows = matrix.rows();
+      int cols = matrix.cols();
+      for (int i = 0; i < neighborhood.size(); i++) {
+         int row = vertex.getRow() + neighborhood.rowOffset(i);
+         int col = vertex.getColumn() + neighborhood.columnOffset(i);
+         if ((row >= 0) && (row < rows) && (col >= 0) && (col < cols)) {
+            if (intMatrix != null) {
+               if (intMatrix.hasValue(row, col)) {
+                  action.accept(Index.from(row, col));
+               }
+            } else {
+               Index neighbor = Index.from(row, col);
+               if (matrix.hasValue(neighbor)) {
+                  action.accept(neighbor);
+               }
+            }
+         }
       }
    }
 
@@ -96,16 +143,33 @@ public class MatrixGraphAdapter<T> implements IGraph<Index> {
       return matrix.rows() * matrix.cols();
    }
 
+   @Override
+   public long sizeInBytes() {
+      return matrix.sizeInBytes();
+   }
+
    @Override
    @JsonIgnore
    public List<Index> getVertices() {
       List<Index> vertices = new ArrayList<>();
 
-      for (int i = 0; i < matrix.rows(); i++) {
-         for (int j = 0; j < matrix.cols(); j++) {
-            Index currVertex = Index.from(i, j);
-            if (matrix.hasValue(currVertex)) {
-               vertices.add(currVertex);
+      // A primitive matrix can tell whether a cell has value without an index, so we create indices for vertices only.
+      if (matrix instanceof IIntMatrix) {
+         IIntMatrix intMatrix = (IIntMatrix) matrix;
+         for (int i = 0; i < intMatrix.rows(); i++) {
+            for (int j = 0; j < intMatrix.cols(); j++) {
+               if (intMatrix.hasValue(i, j)) {
+                  vertices.add(Index.from(i, j));
+               }
+            }
+         }
+      } else {
+         for (int i = 0; i < matrix.rows(); i++) {
+            for (int j = 0; j < matrix.cols(); j++) {
+               Index currVertex = Index.from(i, j);
+               if (matrix.hasValue(currVertex)) {
+                  vertices.add(currVertex);
+               }
             }
          }
       }
@@ -2,7 +2,6 @@ package org.hit.internetprogramming.eoh.common.mat;
 
 import lombok.Getter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,21 +15,12 @@ import java.util.List;
 public interface ICrossMatrix<T> extends IMatrix<T>  {
     @Override
     default List<Index> neighbors(Index index) {
-        List<Index> neighbors = new ArrayList<>();
-
-        // Instead of falling into potential exceptions, which might affect the performance,
-        // just validate bounds.
-        if ((index != null) && (index.getRow() >= 0) && (index.getRow() < rows()) && (index.getColumn() >= 0) && (index.getColumn() < cols())) {
-            // Go over every direction to check if it is within bounds, and if so, add it as a neighbor.
-            for (Direction direction : Direction.values()) {
-                Index neighbor = Index.from(index.getRow() + direction.getRowDirection(), index.getColumn() + direction.getColumnDirection());
-                if ((neighbor.getRow() >= 0) && (neighbor.getRow() < rows()) && (neighbor.getColumn() >= 0) && (neighbor.getColumn() < cols())) {
-                    neighbors.add(neighbor);
-                }
-            }
-        }
+        return Neighborhood.CROSS.neighbors(this, index);
+    }
 
-        return neighbors;
+    @Override
+    default Neighborhood neighborhood() {
+        return Neighborhood.CROSS;
     }
 
     /**
@@ -0,0 +1,41 @@
+package org.hit.internetprogramming.eoh.common.mat;
+
+/**
+ * A matrix of integers that stores its elements as primitives, rather than boxed {@link Integer} references.<br/>
+ * On top of the {@link IMatrix} API, it exposes primitive accessors by row and column, so algorithms that scan
+ * big matrices can avoid of creating {@link Index} and {@link Integer} objects per cell.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see IMatrix
+ */
+public interface IIntMatrix extends IMatrix<Integer> {
+    /**
+     * A sentinel used for cells that have no value in them. (Same as {@code null} in an {@link IMatrix})<br/>
+     * This value is reserved. Setting it at some location clears the value of that location.
+     */
+    int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     * Checks if there is a value at the specified location.
+     * @param row Row of the location to check
+     * @param col Column of the location to check
+     * @return Whether there is a value or not. Out of bounds locations have no value.
+     */
+    boolean hasValue(int row, int col);
+
+    /**
+     * Returns the value at the specified location.
+     * @param row Row of the location to get its value
+     * @param col Column of the location to get its value
+     * @return The value at the specified location, or {@link #NO_VALUE} in case there is no value or location is illegal.
+     */
+    int getIntValue(int row, int col);
+
+    /**
+     * Set a value at the specified location. Out of bounds locations are ignored.
+     * @param row Row of the location to set value at
+     * @param col Column of the location to set value at
+     * @param value The value to set, or {@link #NO_VALUE} to clear the cell
+     */
+    void setIntValue(int row, int col, int value);
+}
@@ -2,7 +2,13 @@ package org.hit.internetprogramming.eoh.common.mat;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
 import org.hit.internetprogramming.eoh.common.mat.impl.CrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
 import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
 import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
 
@@ -17,13 +23,20 @@ import java.util.List;
  * @since 04-Mar-21
  * @see StandardMatrix
  * @see CrossMatrix
+ * @see IIntMatrix
  * @see org.hit.internetprogramming.eoh.common.graph.IGraph
  */
 // Store type info to json, so we can ease serialization / deserialization
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "_type")
 @JsonSubTypes({ @JsonSubTypes.Type(value = StandardMatrix.class, name = "standardMatrix"),
     @JsonSubTypes.Type(value = CrossMatrix.class, name = "crossMatrix"),
-    @JsonSubTypes.Type(value = Matrix.class, name = "matrix") })
+    @JsonSubTypes.Type(value = Matrix.class, name = "matrix"),
+    @JsonSubTypes.Type(value = IntStandardMatrix.class, name = "intStandardMatrix"),
+    @JsonSubTypes.Type(value = IntCrossMatrix.class, name = "intCrossMatrix"),
+    @JsonSubTypes.Type(value = IntMatrix.class, name = "intMatrix"),
+    @JsonSubTypes.Type(value = BitStandardMatrix.class, name = "bitStandardMatrix"),
+    @JsonSubTypes.Type(value = BitCrossMatrix.class, name = "bitCrossMatrix"),
+    @JsonSubTypes.Type(value = BitMatrix.class, name = "bitMatrix") })
 public interface IMatrix<T> {
     /**
      * Checks if there is a value at the specified index.
@@ -55,6 +68,16 @@ public interface IMatrix<T> {
      */
     List<Index> neighbors(Index index);
 
+    /**
+     * Get the neighborhood that {@link #neighbors(Index)} follows, so neighbors can be scanned using its offset
+     * tables, without collecting them into a list.
+     * @return The neighborhood of elements in this matrix, or {@code null} in case this matrix does not follow
+     * one of the {@link Neighborhood predefined} neighborhoods. In this case, use {@link #neighbors(Index)}.
+     */
+    default Neighborhood neighborhood() {
+        return null;
+    }
+
     /**
      * @return Amount of rows in this matrix
      */
@@ -65,6 +88,16 @@ public interface IMatrix<T> {
      */
     int cols();
 
+    /**
+     * Estimate how many bytes of heap the cells of this matrix take.<br/>
+     * The default estimate is 16 bytes per cell, which is a reference and a share of a boxed value. Matrices
+     * that keep primitive cells know their size better.
+     * @return Estimated size of this matrix, in bytes
+     */
+    default long sizeInBytes() {
+        return (long) rows() * cols() * 16;
+    }
+
     /**
      * Get a string representing this matrix.<br/>
      * The string will be formatted as a matrix, rather than a two dimensional array.<br/>
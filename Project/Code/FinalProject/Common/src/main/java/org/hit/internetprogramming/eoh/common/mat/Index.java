@@ -6,10 +6,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.WeakHashMap;
-
 /**
  * A class representing a location at some matrix.<br/>
  * A location is a tuple containing row and column numbers, to access elements at matrix.
@@ -23,10 +19,12 @@ public class Index {
      * Maintain a weak cache of indices.<br/>
      * This allows us to compare indices using ==. Not only that, we do not create billions of indices, we just
      * get the same indices out of the cache.<br/>
-     * We use a weak cache to let the gc free those indices in case their are no longer referenced.
+     * We use a weak cache to let the gc free those indices in case their are no longer referenced.<br/>
+     * Indices are requested by all algorithm threads at once, so the cache is thread safe, and looking up an
+     * existing index neither locks nor allocates. See {@link IndexCache}.
      */
     @JsonIgnore
-    static final Map<Index, WeakReference<Index>> indicesCache = new WeakHashMap<>();
+    static final IndexCache indicesCache = new IndexCache();
 
     @Getter
     private final int row;
@@ -34,7 +32,10 @@ public class Index {
     @Getter
     private final int column;
 
-    private Index(int row, int column) {
+    /**
+     * Indices are created by {@link IndexCache} only. Use {@link #from(int, int)} to get an index.
+     */
+    Index(int row, int column) {
         this.row = row;
         this.column = column;
     }
@@ -53,7 +54,7 @@ public class Index {
     @JsonCreator
     public static Index from(@JsonProperty("row") int row, @JsonProperty("column") int column) {
         // Get an index from cache.
-        return indicesCache.computeIfAbsent(new Index(row, column), WeakReference::new).get();
+        return indicesCache.get(row, column);
     }
 }
 
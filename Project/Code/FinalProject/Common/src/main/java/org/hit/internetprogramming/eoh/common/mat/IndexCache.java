@@ -0,0 +1,283 @@
+package org.hit.internetprogramming.eoh.common.mat;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread safe, weak cache of {@link Index} instances, used by {@link Index#from(int, int)} to canonicalize indices.<br/>
+ * Indices are keyed by their packed location ({@code row << 32 | column}), so a lookup does not have to create a key.
+ * The table is split into stripes, where each stripe is an open addressing (linear probing) hash table guarded by its
+ * own {@link StampedLock}:
+ * <ul>
+ *     <li>A lookup of an existing index is an optimistic read. It takes no lock and allocates nothing, so all threads
+ *     can look up indices concurrently.</li>
+ *     <li>Only a miss takes the write lock of the stripe, to insert a new index. Threads that miss on different stripes
+ *     do not block each other.</li>
+ * </ul>
+ * Values are weak references, same as the {@link java.util.WeakHashMap} we used to have, so indices that are no
+ * longer referenced are freed by the gc, and their entries are removed when the stripe is modified or {@link #size()} is called.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see Index
+ */
+final class IndexCache {
+    /**
+     * Amount of stripes. Must be a power of 2.
+     */
+    private static final int STRIPES = 64;
+    private static final int STRIPE_BITS = Integer.numberOfTrailingZeros(STRIPES);
+
+    /**
+     * Initial capacity of a stripe. Must be a power of 2.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+
+    IndexCache() {
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Get or create the {@link Index} for the specified row and column.
+     * @param row Row of an index
+     * @param column Column of an index
+     * @return The canonical index
+     */
+    Index get(int row, int column) {
+        long key = pack(row, column);
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        int slotHash = hash >>> STRIPE_BITS;
+
+        Index index = stripe.find(key, slotHash);
+        if (index == null) {
+            index = stripe.findOrInsert(row, column, key, slotHash);
+        }
+
+        return index;
+    }
+
+    /**
+     * @return How many indices are cached. Indices that were freed by the gc are not counted.
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+    }
+
+    private static long pack(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fibonacci hashing of a packed location, so neighboring locations spread over stripes and slots.
+     */
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    /**
+     * A weak reference to an index, that remembers the key of the index so its entry can be removed once the
+     * index was freed.
+     */
+    private static final class IndexReference extends WeakReference<Index> {
+        private final long key;
+        private final int slotHash;
+
+        IndexReference(Index index, ReferenceQueue<Index> queue, long key, int slotHash) {
+            super(index, queue);
+            this.key = key;
+            this.slotHash = slotHash;
+        }
+    }
+
+    /**
+     * The arrays of a stripe. They are replaced together when a stripe grows, so a reader never sees arrays of
+     * different lengths.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final IndexReference[] refs;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            refs = new IndexReference[capacity];
+        }
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private final ReferenceQueue<Index> queue = new ReferenceQueue<>();
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+
+        /**
+         * Amount of occupied slots. Guarded by the write lock.
+         */
+        private int count;
+
+        /**
+         * Lookup an index without locking.<br/>
+         * We read optimistically, and in case a writer modified the stripe in the meantime, we retry under a read lock.
+         * @return The index, or {@code null} in case it is not cached
+         */
+        Index find(long key, int slotHash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Index index = probe(table, key, slotHash);
+                if (lock.validate(stamp)) {
+                    return index;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return probe(table, key, slotHash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static Index probe(Table table, long key, int slotHash) {
+            IndexReference[] refs = table.refs;
+            long[] keys = table.keys;
+            int mask = refs.length - 1;
+
+            // Bounded by the capacity, as an optimistic read might observe a stripe in the middle of a modification
+            for (int i = slotHash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                IndexReference ref = refs[i];
+                if (ref == null) {
+                    return null;
+                }
+
+                if (keys[i] == key) {
+                    return ref.get();
+                }
+            }
+
+            return null;
+        }
+
+        Index findOrInsert(int row, int column, long key, int slotHash) {
+            long stamp = lock.writeLock();
+            try {
+                expungeStaleEntries();
+
+                Table table = this.table;
+                int mask = table.refs.length - 1;
+                int i = slotHash & mask;
+                while (table.refs[i] != null) {
+                    if (table.keys[i] == key) {
+                        Index index = table.refs[i].get();
+                        if (index == null) {
+                            // Freed but not enqueued yet. Reuse the slot. The stale reference is ignored once it is enqueued.
+                            index = new Index(row, column);
+                            table.refs[i] = new IndexReference(index, queue, key, slotHash);
+                        }
+
+                        return index;
+                    }
+
+                    i = (i + 1) & mask;
+                }
+
+                Index index = new Index(row, column);
+                table.keys[i] = key;
+                table.refs[i] = new IndexReference(index, queue, key, slotHash);
+
+                // Keep the load factor under 0.5, so probe sequences stay short
+                if (++count > (table.refs.length >>> 1)) {
+                    resize(table.refs.length << 1);
+                }
+
+                return index;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.writeLock();
+            try {
+                expungeStaleEntries();
+                return count;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Remove entries of indices that were freed by the gc. Must be called under the write lock.
+         */
+        private void expungeStaleEntries() {
+            Reference<? extends Index> polled;
+            while ((polled = queue.poll()) != null) {
+                IndexReference ref = (IndexReference) polled;
+                Table table = this.table;
+                int mask = table.refs.length - 1;
+
+                for (int i = ref.slotHash & mask; table.refs[i] != null; i = (i + 1) & mask) {
+                    if (table.refs[i] == ref) {
+                        removeAt(table, i);
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remove the entry at the specified slot, and shift following entries of the probe sequence backwards, so
+         * lookups will not stop at the hole.
+         */
+        private static void removeAt(Table table, int hole) {
+            IndexReference[] refs = table.refs;
+            long[] keys = table.keys;
+            int mask = refs.length - 1;
+            refs[hole] = null;
+
+            for (int i = (hole + 1) & mask; refs[i] != null; i = (i + 1) & mask) {
+                int home = refs[i].slotHash & mask;
+
+                // Move the entry in case its home slot is not cyclically in (hole, i]
+                boolean isHomeBetween = (hole <= i) ? ((hole < home) && (home <= i)) : ((hole < home) || (home <= i));
+                if (!isHomeBetween) {
+                    keys[hole] = keys[i];
+                    refs[hole] = refs[i];
+                    refs[i] = null;
+                    hole = i;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            Table oldTable = table;
+            Table newTable = new Table(capacity);
+            int mask = capacity - 1;
+
+            for (IndexReference ref : oldTable.refs) {
+                if (ref != null) {
+                    int i = ref.slotHash & mask;
+                    while (newTable.refs[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+
+                    newTable.keys[i] = ref.key;
+                    newTable.refs[i] = ref;
+                }
+            }
+
+            // Publish the whole table at once, so readers never see a partially copied table
+            table = newTable;
+        }
+    }
+}
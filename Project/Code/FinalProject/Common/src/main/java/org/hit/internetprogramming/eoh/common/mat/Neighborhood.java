@@ -0,0 +1,109 @@
+package org.hit.internetprogramming.eoh.common.mat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * The locations around an element of a matrix that are considered its neighbors.<br/>
+ * Each neighborhood holds precomputed offset tables, so neighbors can be scanned using primitive offsets, without
+ * iterating (and cloning) {@code Direction.values()} or creating a list for every element:
+ * <pre>{@code
+ * for (int i = 0; i < neighborhood.size(); i++) {
+ *     int neighborRow = row + neighborhood.rowOffset(i);
+ *     int neighborCol = col + neighborhood.columnOffset(i);
+ *     ...
+ * }
+ * }</pre>
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see IMatrix#neighborhood()
+ */
+public enum Neighborhood {
+    /**
+     * {@link IStandardMatrix.Direction TOP, BOTTOM, LEFT, RIGHT}
+     */
+    STANDARD(offsets(IStandardMatrix.Direction.values(), IStandardMatrix.Direction::getRowDirection),
+            offsets(IStandardMatrix.Direction.values(), IStandardMatrix.Direction::getColumnDirection)),
+
+    /**
+     * {@link ICrossMatrix.Direction TOP-LEFT, TOP-RIGHT, BOTTOM-LEFT, BOTTOM-RIGHT}
+     */
+    CROSS(offsets(ICrossMatrix.Direction.values(), ICrossMatrix.Direction::getRowDirection),
+            offsets(ICrossMatrix.Direction.values(), ICrossMatrix.Direction::getColumnDirection)),
+
+    /**
+     * All eight directions. {@link #STANDARD} directions first, and then {@link #CROSS} directions.
+     */
+    ALL(concat(STANDARD.rowOffsets, CROSS.rowOffsets), concat(STANDARD.columnOffsets, CROSS.columnOffsets));
+
+    private final int[] rowOffsets;
+    private final int[] columnOffsets;
+
+    Neighborhood(int[] rowOffsets, int[] columnOffsets) {
+        this.rowOffsets = rowOffsets;
+        this.columnOffsets = columnOffsets;
+    }
+
+    private static <D> int[] offsets(D[] directions, ToIntFunction<D> offset) {
+        return Arrays.stream(directions).mapToInt(offset).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * @return Amount of neighbors an element has, when it is not at the edge of a matrix
+     */
+    public int size() {
+        return rowOffsets.length;
+    }
+
+    /**
+     * @param i Index of a neighbor, in range [0, {@link #size()})
+     * @return Row offset of the specified neighbor, relative to an element
+     */
+    public int rowOffset(int i) {
+        return rowOffsets[i];
+    }
+
+    /**
+     * @param i Index of a neighbor, in range [0, {@link #size()})
+     * @return Column offset of the specified neighbor, relative to an element
+     */
+    public int columnOffset(int i) {
+        return columnOffsets[i];
+    }
+
+    /**
+     * Collect the neighbors of a location which are within the bounds of a matrix.<br/>
+     * In case location is null, or it is out of bounds, the result will be empty.
+     * @param matrix The matrix to get neighbors in
+     * @param index The location to get its neighbors
+     * @return Neighbors of the specified location
+     * @see IMatrix#neighbors(Index)
+     */
+    public List<Index> neighbors(IMatrix<?> matrix, Index index) {
+        List<Index> neighbors = new ArrayList<>(rowOffsets.length);
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+
+        // Instead of falling into potential exceptions, which might affect the performance,
+        // just validate bounds.
+        if ((index != null) && (index.getRow() >= 0) && (index.getRow() < rows) && (index.getColumn() >= 0) && (index.getColumn() < cols)) {
+            for (int i = 0; i < rowOffsets.length; i++) {
+                int row = index.getRow() + rowOffsets[i];
+                int col = index.getColumn() + columnOffsets[i];
+                if ((row >= 0) && (row < rows) && (col >= 0) && (col < cols)) {
+                    neighbors.add(Index.from(row, col));
+                }
+            }
+        }
+
+        return neighbors;
+    }
+}
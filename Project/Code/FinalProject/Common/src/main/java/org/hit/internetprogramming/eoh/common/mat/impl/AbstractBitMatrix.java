@@ -0,0 +1,409 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Abstract implementation of a binary {@link IIntMatrix}, where a cell either has the value 1, or it is empty.<br/>
+ * All cells are kept as bits in a {@code long[]}, where every row starts at a new word, so a row can be scanned
+ * a word (64 cells) at a time. See {@link #getWord(int, int)}, {@link #nextSetColumn(int, int)} and {@link #nextClearColumn(int, int)}.<br/>
+ * This takes 1 bit per cell, so a 10,000x10,000 binary matrix takes about 12 MB, instead of gigabytes in an {@link AbstractMatrix}.
+ * <p>
+ * Since the matrix is binary, setting any value at a cell (other than {@code null} or {@link IIntMatrix#NO_VALUE})
+ * stores 1 at that cell.
+ * </p>
+ * In json, the words are written as a base64 string of little-endian longs, so bit {@code c} of a row is bit
+ * {@code c % 8} of byte {@code c / 8} of that row.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractIntMatrix
+ */
+abstract class AbstractBitMatrix implements IIntMatrix {
+    /**
+     * The only value that a cell with value has
+     */
+    public static final int VALUE = 1;
+
+    private final int rows;
+    private final int cols;
+
+    /**
+     * How many words (longs) each row takes. Rows are aligned to words.
+     */
+    private final int wordsPerRow;
+
+    @JsonProperty("data")
+    @JsonSerialize(using = WordsSerializer.class)
+    private final long[] words;
+
+    /**
+     * Constructs a new and empty {@link AbstractBitMatrix}
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @throws IllegalArgumentException In case rows or cols are negative, or there are more words than an array can hold
+     */
+    public AbstractBitMatrix(int rows, int cols) {
+        this(rows, cols, null);
+    }
+
+    /**
+     * Constructs a new {@link AbstractBitMatrix} over existing words. We use this when reading a matrix from json, so the
+     * words that were read become the words of the matrix, rather than being copied into a new array.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param words Words of all rows, where every row starts at a new word. {@code null} for an empty matrix
+     * @throws IllegalArgumentException In case the length of words does not match rows and cols, or there are more words than an array can hold
+     */
+    protected AbstractBitMatrix(int rows, int cols, long[] words) {
+        if ((rows < 0) || (cols < 0)) {
+            throw new IllegalArgumentException("Matrix dimensions must not be negative. Was: " + rows + "x" + cols);
+        }
+
+        wordsPerRow = (int) (((long) cols + Long.SIZE - 1) >>> 6);
+        int wordCount;
+        try {
+            wordCount = Math.multiplyExact(rows, wordsPerRow);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Matrix of " + rows + "x" + cols + " cells is too large", e);
+        }
+
+        if (words == null) {
+            words = new long[wordCount];
+        } else if (words.length != wordCount) {
+            throw new IllegalArgumentException("Matrix data has " + words.length + " words, while a " + rows + "x" + cols + " matrix has " + wordCount);
+        } else if ((cols & (Long.SIZE - 1)) != 0) {
+            // Bits after the last column are never set by us, and scans count on that
+            long lastWordMask = -1L >>> (Long.SIZE - (cols & (Long.SIZE - 1)));
+            for (int i = wordsPerRow - 1; i < wordCount; i += wordsPerRow) {
+                words[i] &= lastWordMask;
+            }
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.words = words;
+    }
+
+    /**
+     * Constructs a new {@link AbstractBitMatrix}, with source values.
+     * @param copyFrom Source to get values from. {@code null} elements are considered empty, anything else is 1
+     */
+    public AbstractBitMatrix(Integer[][] copyFrom) {
+        this(copyFrom.length, copyFrom[0].length);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (copyFrom[row][col] != null) {
+                    words[row * wordsPerRow + (col >>> 6)] |= (1L << col);
+                }
+            }
+        }
+    }
+
+    @JsonGetter("rows")
+    @Override
+    public final int rows() {
+        return rows;
+    }
+
+    @JsonGetter("cols")
+    @Override
+    public final int cols() {
+        return cols;
+    }
+
+    /**
+     * @return How many words (longs) each row takes
+     */
+    public final int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    @Override
+    public void setValue(Index index, Integer value) {
+        if (isIndexValid(index)) {
+            setBit(index.getRow(), index.getColumn(), (value != null) && (value != NO_VALUE));
+        }
+    }
+
+    @Override
+    public Integer getValue(Index index) {
+        return hasValue(index) ? VALUE : null;
+    }
+
+    @Override
+    public boolean hasValue(Index index) {
+        return (index != null) && hasValue(index.getRow(), index.getColumn());
+    }
+
+    @Override
+    public boolean hasValue(int row, int col) {
+        return isIndexValid(row, col) && ((words[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0);
+    }
+
+    @Override
+    public int getIntValue(int row, int col) {
+        return hasValue(row, col) ? VALUE : NO_VALUE;
+    }
+
+    @Override
+    public void setIntValue(int row, int col, int value) {
+        if (isIndexValid(row, col)) {
+            setBit(row, col, value != NO_VALUE);
+        }
+    }
+
+    private void setBit(int row, int col, boolean isSet) {
+        int wordIndex = row * wordsPerRow + (col >>> 6);
+        if (isSet) {
+            words[wordIndex] |= (1L << col);
+        } else {
+            words[wordIndex] &= ~(1L << col);
+        }
+    }
+
+    /**
+     * Get a word of a row, where bit {@code i} of the word refers to column {@code wordIndex * 64 + i}.<br/>
+     * Bits beyond the last column are always 0.
+     * @param row The row to get a word of
+     * @param wordIndex Index of the word in the row, in range [0, {@link #wordsPerRow()})
+     * @return The word
+     */
+    public long getWord(int row, int wordIndex) {
+        return words[row * wordsPerRow + wordIndex];
+    }
+
+    /**
+     * Find the first column, starting from {@code fromCol} (inclusive), that has value in the specified row.
+     * @param row The row to search in
+     * @param fromCol Column to start searching from
+     * @return The column, or -1 in case there is no such column
+     */
+    public int nextSetColumn(int row, int fromCol) {
+        if ((fromCol >= cols) || (row < 0) || (row >= rows)) {
+            return -1;
+        }
+
+        int rowStart = row * wordsPerRow;
+        int wordIndex = fromCol >>> 6;
+        long word = words[rowStart + wordIndex] & (-1L << fromCol);
+
+        while (word == 0) {
+            if (++wordIndex == wordsPerRow) {
+                return -1;
+            }
+            word = words[rowStart + wordIndex];
+        }
+
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Find the first column, starting from {@code fromCol} (inclusive), that is empty in the specified row.
+     * @param row The row to search in
+     * @param fromCol Column to start searching from
+     * @return The column, or {@link #cols()} in case all of the columns up to the end of the row have value
+     */
+    public int nextClearColumn(int row, int fromCol) {
+        if ((fromCol >= cols) || (row < 0) || (row >= rows)) {
+            return cols;
+        }
+
+        int rowStart = row * wordsPerRow;
+        int wordIndex = fromCol >>> 6;
+        long word = ~words[rowStart + wordIndex] & (-1L << fromCol);
+
+        while (word == 0) {
+            if (++wordIndex == wordsPerRow) {
+                return cols;
+            }
+            word = ~words[rowStart + wordIndex];
+        }
+
+        return Math.min(cols, (wordIndex << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * @param row The row to count its values
+     * @return How many cells have value in the specified row
+     */
+    public int rowCardinality(int row) {
+        int count = 0;
+        for (int i = row * wordsPerRow, end = i + wordsPerRow; i < end; i++) {
+            count += Long.bitCount(words[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * @return How many cells have value in this matrix
+     */
+    public long cardinality() {
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Helper method used to make sure a specified index is valid. (Differs from null, and inside matrix bounds.)
+     * @param index The index to validate.
+     * @return True in case index differs from null, and inside matrix bounds. False otherwise.
+     */
+    protected final boolean isIndexValid(Index index) {
+        return (index != null && isIndexValid(index.getRow(), index.getColumn()));
+    }
+
+    /**
+     * Helper method used to make sure a specified index is valid. (Inside matrix bounds.)
+     * @param row The row index to validate.
+     * @param col The col index to validate.
+     * @return True in case index is inside matrix bounds. False otherwise.
+     */
+    protected final boolean isIndexValid(int row, int col) {
+        return (row >= 0) && (row < rows) && (col >= 0) && (col < cols);
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    @Override
+    public String printMatrix() {
+        // All values are 1, so each cell is 1 character + 1 space from right, to separate between values
+        StringBuilder sb = new StringBuilder(rows * (cols * 2 + System.lineSeparator().length()));
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sb.append(System.lineSeparator());
+            }
+
+            for (int col = 0; col < cols; col++) {
+                sb.append(hasValue(row, col) ? "1 " : "  ");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sb.append(',').append(System.lineSeparator());
+            }
+
+            // Keep the same format as Arrays.toString(Object[]), where empty cells are printed as null
+            sb.append('[');
+            for (int col = 0; col < cols; col++) {
+                if (col > 0) {
+                    sb.append(", ");
+                }
+
+                sb.append(hasValue(row, col) ? "1" : "null");
+            }
+            sb.append(']');
+        }
+
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Writes the words as base64 of little-endian longs.<br/>
+     * The words are streamed to the generator, so we do not copy the whole matrix into a byte array first.
+     */
+    static class WordsSerializer extends StdSerializer<long[]> {
+        public WordsSerializer() {
+            super(long[].class);
+        }
+
+        @Override
+        public void serialize(long[] words, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeBinary(new WordsInputStream(words), words.length * Long.BYTES);
+        }
+    }
+
+    /**
+     * Reads base64 of little-endian longs back into words.
+     */
+    static class WordsDeserializer extends StdDeserializer<long[]> {
+        public WordsDeserializer() {
+            super(long[].class);
+        }
+
+        @Override
+        public long[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if ((parser.currentToken() != JsonToken.VALUE_STRING) && (parser.currentToken() != JsonToken.VALUE_EMBEDDED_OBJECT)) {
+                return (long[]) context.handleUnexpectedToken(long[].class, parser);
+            }
+
+            byte[] bytes = parser.getBinaryValue();
+            if ((bytes.length % Long.BYTES) != 0) {
+                return (long[]) context.handleWeirdStringValue(long[].class, parser.getText(), "Length of binary matrix data must be a multiple of 8 bytes");
+            }
+
+            long[] words = new long[bytes.length / Long.BYTES];
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+            return words;
+        }
+    }
+
+    /**
+     * An input stream over words, that reads them as little-endian bytes.
+     */
+    private static class WordsInputStream extends InputStream {
+        private final long[] words;
+        private int position;
+
+        WordsInputStream(long[] words) {
+            this.words = words;
+        }
+
+        @Override
+        public int read() {
+            if (position >= words.length * Long.BYTES) {
+                return -1;
+            }
+
+            int b = (int) (words[position >>> 3] >>> ((position & 7) << 3)) & 0xFF;
+            position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int available = words.length * Long.BYTES - position;
+            if (available <= 0) {
+                return -1;
+            }
+
+            int count = Math.min(len, available);
+            for (int i = 0; i < count; i++, position++) {
+                b[off + i] = (byte) (words[position >>> 3] >>> ((position & 7) << 3));
+            }
+
+            return count;
+        }
+    }
+}
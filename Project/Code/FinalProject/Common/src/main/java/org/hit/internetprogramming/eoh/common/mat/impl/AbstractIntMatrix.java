@@ -0,0 +1,313 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.apache.commons.lang3.StringUtils;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Abstract implementation of {@link IIntMatrix}.<br/>
+ * Unlike {@link AbstractMatrix}, which keeps an {@code Object[][]} of boxed values, this class keeps all cells in one
+ * flat {@code int[]}, in row-major order. Empty cells hold the {@link IIntMatrix#NO_VALUE} sentinel.<br/>
+ * This takes 4 bytes per cell instead of a reference plus an {@link Integer} per cell, and scanning the matrix row
+ * by row walks over contiguous memory.<br/>
+ * In json, the data is written as a flat array in row-major order, where empty cells are {@code null}. When reading,
+ * nested arrays (the format of {@link AbstractMatrix}) are accepted as well.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractMatrix
+ */
+abstract class AbstractIntMatrix implements IIntMatrix {
+    private final int rows;
+    private final int cols;
+
+    @JsonProperty("data")
+    @JsonSerialize(using = DataSerializer.class)
+    private final int[] data;
+
+    /**
+     * Constructs a new and empty {@link AbstractIntMatrix}
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @throws IllegalArgumentException In case rows or cols are negative, or there are more cells than an array can hold
+     */
+    public AbstractIntMatrix(int rows, int cols) {
+        this(rows, cols, null);
+    }
+
+    /**
+     * Constructs a new {@link AbstractIntMatrix} over existing data. We use this when reading a matrix from json, so the
+     * data that was read becomes the data of the matrix, rather than being copied into a new array.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param data Flat data, in row-major order, that this matrix takes ownership of. {@code null} for an empty matrix
+     * @throws IllegalArgumentException In case the length of data is not rows*cols, or there are more cells than an array can hold
+     */
+    protected AbstractIntMatrix(int rows, int cols, int[] data) {
+        int cellCount = cellCount(rows, cols);
+        if (data == null) {
+            data = new int[cellCount];
+            Arrays.fill(data, NO_VALUE);
+        } else if (data.length != cellCount) {
+            throw new IllegalArgumentException("Matrix data has " + data.length + " cells, while a " + rows + "x" + cols + " matrix has " + cellCount);
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.data = data;
+    }
+
+    /**
+     * Constructs a new {@link AbstractIntMatrix}, with source values.
+     * @param copyFrom Source to get values from. {@code null} elements are considered empty
+     */
+    public AbstractIntMatrix(Integer[][] copyFrom) {
+        this(copyFrom.length, copyFrom[0].length);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Integer value = copyFrom[row][col];
+                data[row * cols + col] = (value == null) ? NO_VALUE : value;
+            }
+        }
+    }
+
+    private static int cellCount(int rows, int cols) {
+        if ((rows < 0) || (cols < 0)) {
+            throw new IllegalArgumentException("Matrix dimensions must not be negative. Was: " + rows + "x" + cols);
+        }
+
+        try {
+            return Math.multiplyExact(rows, cols);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Matrix of " + rows + "x" + cols + " cells is too large", e);
+        }
+    }
+
+    @JsonGetter("rows")
+    @Override
+    public final int rows() {
+        return rows;
+    }
+
+    @JsonGetter("cols")
+    @Override
+    public final int cols() {
+        return cols;
+    }
+
+    @Override
+    public void setValue(Index index, Integer value) {
+        if (isIndexValid(index)) {
+            data[index.getRow() * cols + index.getColumn()] = (value == null) ? NO_VALUE : value;
+        }
+    }
+
+    @Override
+    public Integer getValue(Index index) {
+        if (!isIndexValid(index)) {
+            return null;
+        }
+
+        int value = data[index.getRow() * cols + index.getColumn()];
+        return (value == NO_VALUE) ? null : value;
+    }
+
+    @Override
+    public boolean hasValue(Index index) {
+        return isIndexValid(index) && (data[index.getRow() * cols + index.getColumn()] != NO_VALUE);
+    }
+
+    @Override
+    public boolean hasValue(int row, int col) {
+        return isIndexValid(row, col) && (data[row * cols + col] != NO_VALUE);
+    }
+
+    @Override
+    public int getIntValue(int row, int col) {
+        return isIndexValid(row, col) ? data[row * cols + col] : NO_VALUE;
+    }
+
+    @Override
+    public void setIntValue(int row, int col, int value) {
+        if (isIndexValid(row, col)) {
+            data[row * cols + col] = value;
+        }
+    }
+
+    /**
+     * Helper method used to make sure a specified index is valid. (Differs from null, and inside matrix bounds.)
+     * @param index The index to validate.
+     * @return True in case index differs from null, and inside matrix bounds. False otherwise.
+     */
+    protected final boolean isIndexValid(Index index) {
+        return (index != null && isIndexValid(index.getRow(), index.getColumn()));
+    }
+
+    /**
+     * Helper method used to make sure a specified index is valid. (Inside matrix bounds.)<br/>
+     * Note that the upper bounds are exclusive. The data is flat, so a column equal to {@code cols} would
+     * silently refer to the first cell of the next row.
+     * @param row The row index to validate.
+     * @param col The col index to validate.
+     * @return True in case index is inside matrix bounds. False otherwise.
+     */
+    protected final boolean isIndexValid(int row, int col) {
+        return (row >= 0) && (row < rows) && (col >= 0) && (col < cols);
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) data.length * Integer.BYTES;
+    }
+
+    @Override
+    public String printMatrix() {
+        StringBuilder sb = new StringBuilder();
+
+        // 1 space from right, to separate between values
+        int longestValue = findLongestValue() + 1;
+        String emptyCell = StringUtils.repeat(' ', longestValue);
+
+        for (int row = 0; row < rows; row++) {
+            if (sb.length() > 0) {
+                sb.append(System.lineSeparator());
+            }
+
+            for (int col = 0; col < cols; col++) {
+                int currCell = data[row * cols + col];
+                if (currCell != NO_VALUE) {
+                    sb.append(StringUtils.center(String.valueOf(currCell), longestValue));
+                } else {
+                    sb.append(emptyCell);
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sb.append(',').append(System.lineSeparator());
+            }
+
+            // Keep the same format as Arrays.toString(Object[]), where empty cells are printed as null
+            sb.append('[');
+            for (int col = 0; col < cols; col++) {
+                if (col > 0) {
+                    sb.append(", ");
+                }
+
+                int currCell = data[row * cols + col];
+                sb.append(currCell == NO_VALUE ? "null" : String.valueOf(currCell));
+            }
+            sb.append(']');
+        }
+
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * In order to format a matrix that might have values longer than 1, we need to find the longest value so all
+     * values will have a fixed width.
+     * @return The length of the longest value in this matrix.
+     */
+    private int findLongestValue() {
+        int maxLength = 0;
+
+        for (int currCell : data) {
+            if (currCell != NO_VALUE) {
+                maxLength = Math.max(maxLength, String.valueOf(currCell).length());
+            }
+        }
+
+        return maxLength;
+    }
+
+    /**
+     * Writes the flat data as a json array of numbers, where {@link IIntMatrix#NO_VALUE} is written as {@code null}.
+     */
+    static class DataSerializer extends StdSerializer<int[]> {
+        public DataSerializer() {
+            super(int[].class);
+        }
+
+        @Override
+        public void serialize(int[] data, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(data, data.length);
+            for (int value : data) {
+                if (value == NO_VALUE) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(value);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads a json array of numbers and nulls into flat data, straight from the parser, without boxing the values.<br/>
+     * Nested arrays are flattened, so a two dimensional array written by {@link AbstractMatrix} is read in row-major order.
+     */
+    static class DataDeserializer extends StdDeserializer<int[]> {
+        public DataDeserializer() {
+            super(int[].class);
+        }
+
+        @Override
+        public int[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return (int[]) context.handleUnexpectedToken(int[].class, parser);
+            }
+
+            int[] data = new int[16];
+            int size = 0;
+            int depth = 1;
+
+            while (depth > 0) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    return (int[]) context.handleUnexpectedToken(int[].class, parser);
+                }
+
+                switch (token) {
+                    case START_ARRAY:
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                        depth--;
+                        break;
+                    case VALUE_NULL:
+                    case VALUE_NUMBER_INT:
+                        if (size == data.length) {
+                            data = Arrays.copyOf(data, size << 1);
+                        }
+                        data[size++] = (token == JsonToken.VALUE_NULL) ? NO_VALUE : parser.getIntValue();
+                        break;
+                    default:
+                        return (int[]) context.handleUnexpectedToken(int[].class, parser);
+                }
+            }
+
+            return (size == data.length) ? data : Arrays.copyOf(data, size);
+        }
+    }
+}
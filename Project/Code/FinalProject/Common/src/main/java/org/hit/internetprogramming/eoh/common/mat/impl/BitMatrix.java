@@ -0,0 +1,61 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hit.internetprogramming.eoh.common.mat.ICrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
+
+import java.util.List;
+
+/**
+ * An implementation of a matrix of bits.<br/>
+ * Same as {@link Matrix}, where the neighbors of each element are at all eight directions around it, but the
+ * cells are stored as bits, where a cell either has the value 1 or it is empty.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractBitMatrix
+ * @see Matrix
+ */
+public class BitMatrix extends AbstractBitMatrix implements ICrossMatrix<Integer>, IStandardMatrix<Integer> {
+    /**
+     * Constructs a new {@link BitMatrix}, with source values.
+     * @param from Source to get values from. {@code null} elements are considered empty, anything else is 1
+     */
+    public BitMatrix(Integer[][] from) {
+        super(from);
+    }
+
+    /**
+     * Constructs a new and empty {@link BitMatrix}.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     */
+    public BitMatrix(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    /**
+     * Constructs a new {@link BitMatrix} out of json, over the words that were read.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param words Words of all rows, where every row starts at a new word. {@code null} for an empty matrix
+     */
+    @JsonCreator
+    private BitMatrix(@JsonProperty("rows") int rows, @JsonProperty("cols") int cols,
+               @JsonProperty("data") @JsonDeserialize(using = WordsDeserializer.class) long[] words) {
+        super(rows, cols, words);
+    }
+
+    @Override
+    public List<Index> neighbors(Index index) {
+        return Neighborhood.ALL.neighbors(this, index);
+    }
+
+    @Override
+    public Neighborhood neighborhood() {
+        return Neighborhood.ALL;
+    }
+}
@@ -0,0 +1,48 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hit.internetprogramming.eoh.common.mat.IStandardMatrix;
+
+/**
+ * An implementation of standard matrix of bits.<br/>
+ * Same as {@link StandardMatrix}, where the neighbors of each element are at the following
+ * locations: {@link IStandardMatrix.Direction#LEFT LEFT}, {@link IStandardMatrix.Direction#TOP TOP},
+ * {@link IStandardMatrix.Direction#RIGHT RIGHT}, {@link IStandardMatrix.Direction#BOTTOM BOTTOM}, but the
+ * cells are stored as bits, where a cell either has the value 1 or it is empty.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractBitMatrix
+ * @see StandardMatrix
+ */
+public class BitStandardMatrix extends AbstractBitMatrix implements IStandardMatrix<Integer> {
+    /**
+     * Constructs a new {@link BitStandardMatrix}, with source values.
+     * @param from Source to get values from. {@code null} elements are considered empty, anything else is 1
+     */
+    public BitStandardMatrix(Integer[][] from) {
+        super(from);
+    }
+
+    /**
+     * Constructs a new and empty {@link BitStandardMatrix}.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     */
+    public BitStandardMatrix(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    /**
+     * Constructs a new {@link BitStandardMatrix} out of json, over the words that were read.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param words Words of all rows, where every row starts at a new word. {@code null} for an empty matrix
+     */
+    @JsonCreator
+    private BitStandardMatrix(@JsonProperty("rows") int rows, @JsonProperty("cols") int cols,
+               @JsonProperty("data") @JsonDeserialize(using = WordsDeserializer.class) long[] words) {
+        super(rows, cols, words);
+    }
+}
@@ -0,0 +1,48 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hit.internetprogramming.eoh.common.mat.ICrossMatrix;
+
+/**
+ * An implementation of cross matrix of primitive integers.<br/>
+ * Same as {@link CrossMatrix}, where the neighbors of each element are at the following
+ * locations: {@link ICrossMatrix.Direction#TOP_LEFT TOP-LEFT}, {@link ICrossMatrix.Direction#TOP_RIGHT TOP-RIGHT},
+ * {@link ICrossMatrix.Direction#BOTTOM_LEFT BOTTOM-LEFT}, {@link ICrossMatrix.Direction#BOTTOM_RIGHT BOTTOM-RIGHT}, but the
+ * cells are stored in a flat {@code int[]}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractIntMatrix
+ * @see CrossMatrix
+ */
+public class IntCrossMatrix extends AbstractIntMatrix implements ICrossMatrix<Integer> {
+    /**
+     * Constructs a new {@link IntCrossMatrix}, with source values.
+     * @param from Source to get values from
+     */
+    public IntCrossMatrix(Integer[][] from) {
+        super(from);
+    }
+
+    /**
+     * Constructs a new and empty (no values) {@link IntCrossMatrix}.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     */
+    public IntCrossMatrix(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    /**
+     * Constructs a new {@link IntCrossMatrix} out of json, over the flat data that was read.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param data Flat data, in row-major order. {@code null} for an empty matrix
+     */
+    @JsonCreator
+    private IntCrossMatrix(@JsonProperty("rows") int rows, @JsonProperty("cols") int cols,
+               @JsonProperty("data") @JsonDeserialize(using = DataDeserializer.class) int[] data) {
+        super(rows, cols, data);
+    }
+}
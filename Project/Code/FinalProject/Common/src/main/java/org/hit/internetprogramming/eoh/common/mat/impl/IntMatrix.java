@@ -0,0 +1,61 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hit.internetprogramming.eoh.common.mat.ICrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
+
+import java.util.List;
+
+/**
+ * An implementation of a matrix of primitive integers.<br/>
+ * Same as {@link Matrix}, where the neighbors of each element are at all eight directions around it, but the
+ * cells are stored in a flat {@code int[]}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractIntMatrix
+ * @see Matrix
+ */
+public class IntMatrix extends AbstractIntMatrix implements ICrossMatrix<Integer>, IStandardMatrix<Integer> {
+    /**
+     * Constructs a new {@link IntMatrix}, with source values.
+     * @param from Source to get values from
+     */
+    public IntMatrix(Integer[][] from) {
+        super(from);
+    }
+
+    /**
+     * Constructs a new and empty (no values) {@link IntMatrix}.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     */
+    public IntMatrix(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    /**
+     * Constructs a new {@link IntMatrix} out of json, over the flat data that was read.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param data Flat data, in row-major order. {@code null} for an empty matrix
+     */
+    @JsonCreator
+    private IntMatrix(@JsonProperty("rows") int rows, @JsonProperty("cols") int cols,
+               @JsonProperty("data") @JsonDeserialize(using = DataDeserializer.class) int[] data) {
+        super(rows, cols, data);
+    }
+
+    @Override
+    public List<Index> neighbors(Index index) {
+        return Neighborhood.ALL.neighbors(this, index);
+    }
+
+    @Override
+    public Neighborhood neighborhood() {
+        return Neighborhood.ALL;
+    }
+}
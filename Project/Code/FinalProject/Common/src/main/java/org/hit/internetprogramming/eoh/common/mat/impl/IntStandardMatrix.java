@@ -0,0 +1,48 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hit.internetprogramming.eoh.common.mat.IStandardMatrix;
+
+/**
+ * An implementation of standard matrix of primitive integers.<br/>
+ * Same as {@link StandardMatrix}, where the neighbors of each element are at the following
+ * locations: {@link IStandardMatrix.Direction#LEFT LEFT}, {@link IStandardMatrix.Direction#TOP TOP},
+ * {@link IStandardMatrix.Direction#RIGHT RIGHT}, {@link IStandardMatrix.Direction#BOTTOM BOTTOM}, but the
+ * cells are stored in a flat {@code int[]}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see AbstractIntMatrix
+ * @see StandardMatrix
+ */
+public class IntStandardMatrix extends AbstractIntMatrix implements IStandardMatrix<Integer> {
+    /**
+     * Constructs a new {@link IntStandardMatrix}, with source values.
+     * @param from Source to get values from
+     */
+    public IntStandardMatrix(Integer[][] from) {
+        super(from);
+    }
+
+    /**
+     * Constructs a new and empty (no values) {@link IntStandardMatrix}.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     */
+    public IntStandardMatrix(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    /**
+     * Constructs a new {@link IntStandardMatrix} out of json, over the flat data that was read.
+     * @param rows Amount of rows in matrix
+     * @param cols Amount of columns in matrix
+     * @param data Flat data, in row-major order. {@code null} for an empty matrix
+     */
+    @JsonCreator
+    private IntStandardMatrix(@JsonProperty("rows") int rows, @JsonProperty("cols") int cols,
+               @JsonProperty("data") @JsonDeserialize(using = DataDeserializer.class) int[] data) {
+        super(rows, cols, data);
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.hit.internetprogramming.eoh.common.mat.ICrossMatrix;
 import org.hit.internetprogramming.eoh.common.mat.IStandardMatrix;
 import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
 
 import java.util.List;
 
@@ -42,8 +43,11 @@ public class Matrix<T> extends AbstractMatrix<T> implements ICrossMatrix<T>, ISt
 
     @Override
     public List<Index> neighbors(Index index) {
-        List<Index> neighbors = IStandardMatrix.super.neighbors(index);
-        neighbors.addAll(ICrossMatrix.super.neighbors(index));
-        return neighbors;
+        return Neighborhood.ALL.neighbors(this, index);
+    }
+
+    @Override
+    public Neighborhood neighborhood() {
+        return Neighborhood.ALL;
     }
 }
@@ -6,6 +6,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
 
 /**
  * @author Haim Adrian
@@ -44,5 +47,47 @@ public class JsonUtils {
     public static <V> V convertValueFromJsonNode(JsonNode value, TypeReference<V> typeRef) {
         return objectMapper.convertValue(value, typeRef);
     }
+
+    public static <V> V convertValue(Object value, Class<V> cls) {
+        return objectMapper.convertValue(value, cls);
+    }
+
+    public static <V> V convertValue(Object value, TypeReference<V> typeRef) {
+        return objectMapper.convertValue(value, typeRef);
+    }
+
+    /**
+     * Decode json tokens, that were buffered while parsing, into the specified type.<br/>
+     * The buffer is not consumed, so it can be decoded again.
+     * @param tokens The buffered tokens to decode
+     * @param cls Type to decode the tokens to
+     * @param <V> Underlying type
+     * @return The decoded value
+     * @throws IllegalArgumentException In case the tokens cannot be decoded to the specified type, same as convertValue does
+     */
+    public static <V> V readValue(TokenBuffer tokens, Class<V> cls) {
+        try {
+            return objectMapper.readValue(tokens.asParser(objectMapper), cls);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decode json tokens, that were buffered while parsing, into the specified generic type.<br/>
+     * The buffer is not consumed, so it can be decoded again.
+     * @param tokens The buffered tokens to decode
+     * @param typeRef Type to decode the tokens to
+     * @param <V> Underlying type
+     * @return The decoded value
+     * @throws IllegalArgumentException In case the tokens cannot be decoded to the specified type, same as convertValue does
+     */
+    public static <V> V readValue(TokenBuffer tokens, TypeReference<V> typeRef) {
+        try {
+            return objectMapper.readValue(tokens.asParser(objectMapper), typeRef);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
 }
 
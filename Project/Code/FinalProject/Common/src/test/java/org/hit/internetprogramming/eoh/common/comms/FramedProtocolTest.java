@@ -0,0 +1,90 @@
+package org.hit.internetprogramming.eoh.common.comms;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Test {@link FramedProtocol} and {@link FrameOutputStream}, to make sure frames are read the same way they were written,
+ * no matter how the bytes arrive.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class FramedProtocolTest {
+    @Test
+    public void testReadFrame_oneByteAtATime_shouldReadWholeFrames() throws IOException {
+        byte[] first = "{\"actionType\":\"GET_GRAPH\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"body\":\"line\nanother line\"}".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        FramedProtocol.writeFrame(output, first);
+        FramedProtocol.writeFrame(output, second);
+
+        // Header and payload are both split across reads
+        InputStream input = new OneByteInputStream(output.toByteArray());
+
+        Assertions.assertArrayEquals(first, FramedProtocol.readFrame(input));
+        Assertions.assertArrayEquals(second, FramedProtocol.readFrame(input));
+        Assertions.assertNull(FramedProtocol.readFrame(input));
+    }
+
+    @Test
+    public void testReadFrame_inputEndsInTheMiddleOfAFrame_shouldThrow() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        FramedProtocol.writeFrame(output, new byte[10]);
+        byte[] frame = output.toByteArray();
+
+        Assertions.assertThrows(EOFException.class, () -> FramedProtocol.readFrame(new ByteArrayInputStream(Arrays.copyOf(frame, 2))));
+        Assertions.assertThrows(EOFException.class, () -> FramedProtocol.readFrame(new ByteArrayInputStream(Arrays.copyOf(frame, frame.length - 1))));
+    }
+
+    @Test
+    public void testReadFrame_overMaxFrameLength_shouldThrowWithoutAllocating() {
+        byte[] header = new byte[FramedProtocol.HEADER_LENGTH];
+        FramedProtocol.putLength(header, 0, FramedProtocol.MAX_FRAME_LENGTH + 1);
+
+        IOException thrown = Assertions.assertThrows(IOException.class, () -> FramedProtocol.readFrame(new ByteArrayInputStream(header)));
+        Assertions.assertFalse(thrown instanceof EOFException);
+
+        FramedProtocol.putLength(header, 0, -1);
+        Assertions.assertThrows(IOException.class, () -> FramedProtocol.readLength(header, 0));
+    }
+
+    @Test
+    public void testFrameOutputStream_afterReset_shouldWriteSameFramesAsWriteFrame() throws IOException {
+        byte[] payload = "{\"status\":200}".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        FramedProtocol.writeFrame(expected, payload);
+
+        FrameOutputStream frame = new FrameOutputStream(4);
+        frame.write("discarded".getBytes(StandardCharsets.UTF_8));
+        frame.reset();
+        frame.write(payload);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        frame.writeFrameTo(actual);
+
+        Assertions.assertEquals(payload.length, frame.getPayloadLength());
+        Assertions.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        Assertions.assertArrayEquals(expected.toByteArray(), Arrays.copyOf(frame.toFrameBuffer().array(), frame.toFrameBuffer().limit()));
+    }
+
+    /**
+     * An input stream that returns a single byte per read, as a socket might
+     */
+    private static class OneByteInputStream extends ByteArrayInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(1, len));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.hit.internetprogramming.eoh.common.graph;
+
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Test {@link CompiledGraph}, to make sure the compiled adjacency is the same as the graph it was compiled from.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class CompiledGraphTest {
+    @Test
+    public void testCompile_weightedMatrix_shouldKeepVerticesEdgesAndValues() {
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new IntMatrix(new Integer[][] {{1, null, 3}, {null, 5, -2}, {7, null, null}}), Index.from(0, 0));
+
+        CompiledGraph compiled = CompiledGraph.compile(graph);
+
+        Assertions.assertEquals(graph.getVertices(), compiled.getVertices());
+        Assertions.assertEquals(graph.getEdges(), compiled.getEdges());
+        Assertions.assertEquals(graph.getEdges().size(), compiled.edgeCount());
+        for (Index vertex : graph.getVertices()) {
+            Assertions.assertEquals(graph.getReachableVertices(vertex), compiled.getReachableVertices(vertex), "Reachable vertices of " + vertex);
+            Assertions.assertEquals((Integer) graph.getValue(vertex), compiled.getValue(vertex), "Value of " + vertex);
+        }
+
+        Assertions.assertEquals(-2, compiled.minWeight());
+        Assertions.assertEquals(7, compiled.maxWeight());
+
+        // Weight of an edge is the value of its target
+        int id = compiled.idOf(1, 1);
+        for (int edge = compiled.firstEdge(id); edge < compiled.endEdge(id); edge++) {
+            Assertions.assertEquals(compiled.valueOf(compiled.target(edge)), compiled.weight(edge));
+        }
+    }
+
+    @Test
+    public void testCompile_locationsWithoutVertex_shouldHaveNoId() {
+        BitStandardMatrix matrix = new BitStandardMatrix(4, 4);
+        matrix.setIntValue(1, 1, 1);
+        matrix.setIntValue(1, 2, 1);
+        CompiledGraph compiled = CompiledGraph.compile(new MatrixGraphAdapter<>(matrix, Index.from(1, 1)));
+
+        Assertions.assertEquals(2, compiled.vertexCount());
+        Assertions.assertEquals(CompiledGraph.NO_VERTEX, compiled.idOf(Index.from(0, 0)), "Outside of the vertices");
+        Assertions.assertEquals(CompiledGraph.NO_VERTEX, compiled.idOf(Index.from(-1, 7)), "Outside of the matrix");
+        Assertions.assertFalse(compiled.contains(Index.from(2, 2)));
+        Assertions.assertTrue(compiled.getReachableVertices(Index.from(3, 3)).isEmpty(), "Nothing is reachable from nowhere");
+        Assertions.assertEquals(List.of(Index.from(1, 2)), compiled.getReachableVertices(compiled.getRoot()));
+    }
+
+    @Test
+    public void testWithRoot_shouldShareSnapshot() {
+        CompiledGraph compiled = CompiledGraph.compile(new MatrixGraphAdapter<>(new IntMatrix(new Integer[][] {{1, 1}, {1, 1}}), Index.from(0, 0)));
+
+        CompiledGraph rerooted = compiled.withRoot(Index.from(1, 1));
+
+        Assertions.assertEquals(Index.from(0, 0), compiled.getRoot(), "Original root must not change");
+        Assertions.assertEquals(compiled.idOf(1, 1), rerooted.rootId());
+        Assertions.assertEquals(compiled.getEdges(), rerooted.getEdges());
+        Assertions.assertSame(compiled, CompiledGraph.compile(compiled), "Compiling a compiled graph should not copy it");
+        Assertions.assertTrue(rerooted.isSymmetric(), "Matrix graphs are symmetric");
+    }
+}
@@ -0,0 +1,106 @@
+package org.hit.internetprogramming.eoh.common.mat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark of {@link Index#from(int, int)} under 32 threads, comparing {@link IndexCache} against the
+ * {@link WeakHashMap} cache we used to have.<br/>
+ * The old cache is not thread safe, so it is measured behind a lock, which is the minimum it needs to be correct.<br/>
+ * Every thread looks up all locations of a 1000x1000 grid, in a different order, so most lookups are hits after the first pass,
+ * same as algorithms that visit the vertices of a cached graph.<br/>
+ * This test is tagged as "load" and it is excluded from the regular test task. Run it using: gradle :Common:loadTest
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+@Tag("load")
+public class IndexCacheBenchmarkTest {
+    private static final int THREADS = 32;
+    private static final int GRID_SIZE = 1000;
+    private static final int PASSES = 5;
+
+    @Test
+    public void testThroughput_32Threads() throws Exception {
+        Map<Index, WeakReference<Index>> weakHashMap = Collections.synchronizedMap(new WeakHashMap<>());
+        IndexLookup oldCache = (row, col) -> weakHashMap.computeIfAbsent(new Index(row, col), WeakReference::new).get();
+        IndexLookup newCache = Index::from;
+
+        // Warm up both, so the JIT compiles them before we measure
+        run(oldCache);
+        run(newCache);
+
+        double oldThroughput = run(oldCache);
+        double newThroughput = run(newCache);
+
+        System.out.println(String.format("Index lookups per second, %d threads:%n    Synchronized WeakHashMap: %,.0f%n    IndexCache:               %,.0f (x%.1f)",
+            THREADS, oldThroughput, newThroughput, newThroughput / oldThroughput));
+
+        Assertions.assertTrue(newThroughput > oldThroughput, "IndexCache supposed to scale better than a synchronized WeakHashMap");
+    }
+
+    /**
+     * @return Lookups per second
+     */
+    private double run(IndexLookup cache) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Keep the indices strongly reachable during the run, as a graph that is being traversed does
+        Index[] grid = new Index[GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = cache.get(i / GRID_SIZE, i % GRID_SIZE);
+        }
+
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread * (grid.length / THREADS);
+                futures.add(executor.submit(() -> {
+                    long checksum = 0;
+                    start.await();
+
+                    for (int pass = 0; pass < PASSES; pass++) {
+                        for (int i = 0; i < grid.length; i++) {
+                            int cell = (i + offset) % grid.length;
+                            checksum += cache.get(cell / GRID_SIZE, cell % GRID_SIZE).getRow();
+                        }
+                    }
+
+                    return checksum;
+                }));
+            }
+
+            start.await();
+            long startTime = System.nanoTime();
+            for (Future<Long> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - startTime;
+
+            return (double) THREADS * PASSES * grid.length / elapsed * TimeUnit.SECONDS.toNanos(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Primitive lookup signature, so the benchmark itself does not box rows and columns.
+     */
+    @FunctionalInterface
+    private interface IndexLookup {
+        Index get(int row, int column);
+    }
+}
@@ -3,6 +3,14 @@ package org.hit.internetprogramming.eoh.common.mat;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Test {@link Index} class, to make sure cache is working properly and indices are comparable.
  * @author Haim Adrian
@@ -11,6 +19,12 @@ import org.junit.jupiter.api.Test;
 public class IndexTest {
     @Test
     public void testIndexCache_clearStrongReference_referenceShouldBeRemovedFromCache() throws InterruptedException {
+        // Indices created by other tests might not have been freed yet, so wait for the cache to be empty first
+        for (int i = 0; (i < 40) && (Index.indicesCache.size() > 0); i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
         @SuppressWarnings("unused")
         Index index = Index.from(0, 0);
         Index.from(0, 1);
@@ -51,4 +65,41 @@ public class IndexTest {
         Assertions.assertSame(index, index2, "Supposed to receive the same reference");
         Assertions.assertNotSame(index, index3, "Supposed to receive another reference");
     }
+
+    @Test
+    public void testIndexCache_concurrentLookups_shouldReceiveTheSameReferences() throws Exception {
+        int threads = 16;
+        int size = 300;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<Index[]>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    Index[] indices = new Index[size * size];
+                    start.await();
+
+                    // Negative locations are cached as well, as neighbors are created before bounds are checked
+                    for (int i = 0; i < indices.length; i++) {
+                        indices[i] = Index.from((i / size) - 1, (i % size) - 1);
+                    }
+
+                    return indices;
+                }));
+            }
+
+            Index[] expected = futures.get(0).get(1, TimeUnit.MINUTES);
+            for (Future<Index[]> future : futures) {
+                Index[] actual = future.get(1, TimeUnit.MINUTES);
+                for (int i = 0; i < expected.length; i++) {
+                    Assertions.assertSame(expected[i], actual[i], "All threads supposed to receive the same reference for " + expected[i]);
+                }
+            }
+
+            Assertions.assertEquals(Index.from(-1, 5), expected[6]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package org.hit.internetprogramming.eoh.common.mat;
+
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test {@link Neighborhood} offset tables, and the visiting of reachable vertices that is based on them.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class NeighborhoodTest {
+    @Test
+    public void testNeighborhood_offsets_shouldFollowDirections() {
+        Assertions.assertEquals(IStandardMatrix.Direction.values().length, Neighborhood.STANDARD.size());
+        Assertions.assertEquals(8, Neighborhood.ALL.size());
+
+        // All neighbors are the standard directions, and then the cross directions
+        Assertions.assertEquals(IStandardMatrix.Direction.TOP.getRowDirection(), Neighborhood.ALL.rowOffset(0));
+        Assertions.assertEquals(ICrossMatrix.Direction.TOP_LEFT.getColumnDirection(), Neighborhood.ALL.columnOffset(4));
+        Assertions.assertEquals(ICrossMatrix.Direction.BOTTOM_RIGHT.getRowDirection(), Neighborhood.CROSS.rowOffset(3));
+    }
+
+    @Test
+    public void testNeighbors_corner_shouldStayInBounds() {
+        Matrix<Integer> matrix = new Matrix<>(3, 3);
+
+        Assertions.assertEquals(List.of(Index.from(1, 0), Index.from(0, 1), Index.from(1, 1)), matrix.neighbors(Index.from(0, 0)));
+        Assertions.assertTrue(matrix.neighbors(Index.from(3, 0)).isEmpty(), "Out of bounds has no neighbors");
+        Assertions.assertSame(Neighborhood.ALL, matrix.neighborhood());
+    }
+
+    @Test
+    public void testForEachReachable_allMatrixTypes_shouldVisitReachableVertices() {
+        Integer[][] arr = {{1, null, 1, 1}, {1, 1, null, 1}, {null, 1, 1, 1}};
+        List<IMatrix<Integer>> matrices = List.of(new StandardMatrix<>(arr), new IntMatrix(arr), new BitCrossMatrix(arr));
+
+        for (IMatrix<Integer> matrix : matrices) {
+            IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+            for (int row = 0; row < matrix.rows(); row++) {
+                for (int col = 0; col < matrix.cols(); col++) {
+                    Index vertex = Index.from(row, col);
+                    List<Index> expected = new ArrayList<>();
+                    if (matrix.hasValue(vertex)) {
+                        matrix.neighbors(vertex).stream().filter(matrix::hasValue).forEach(expected::add);
+                    }
+
+                    List<Index> visited = new ArrayList<>();
+                    graph.forEachReachable(vertex, visited::add);
+                    Assertions.assertEquals(expected, visited, matrix.getClass().getSimpleName() + " at " + vertex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.util.JsonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the binary {@link BitMatrix} family, to make sure bits are stored per row and survive json.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class BitMatrixTest {
+    @Test
+    public void testBitMatrix_setValues_shouldBeBinary() {
+        BitStandardMatrix matrix = new BitStandardMatrix(new Integer[][] {{1, null, 5}, {null, 1, null}});
+
+        Assertions.assertTrue(matrix.hasValue(Index.from(0, 0)));
+        Assertions.assertFalse(matrix.hasValue(Index.from(0, 1)));
+        Assertions.assertEquals(1, matrix.getValue(Index.from(0, 2)), "A binary matrix holds 1 for any value");
+        Assertions.assertNull(matrix.getValue(Index.from(1, 2)));
+
+        matrix.setValue(Index.from(1, 1), null);
+        Assertions.assertFalse(matrix.hasValue(1, 1), "Setting null should clear the cell");
+        Assertions.assertEquals(2, matrix.cardinality());
+    }
+
+    @Test
+    public void testBitMatrix_rowsSpanSeveralWords_shouldScanByWords() {
+        BitMatrix matrix = new BitMatrix(3, 150);
+        matrix.setIntValue(1, 3, 1);
+        matrix.setIntValue(1, 64, 1);
+        matrix.setIntValue(1, 149, 1);
+        for (int col = 0; col < 150; col++) {
+            matrix.setIntValue(2, col, 1);
+        }
+
+        Assertions.assertEquals(3, matrix.wordsPerRow());
+        Assertions.assertEquals(-1, matrix.nextSetColumn(0, 0), "First row is empty");
+        Assertions.assertEquals(3, matrix.nextSetColumn(1, 0));
+        Assertions.assertEquals(64, matrix.nextSetColumn(1, 4));
+        Assertions.assertEquals(149, matrix.nextSetColumn(1, 65));
+        Assertions.assertEquals(4, matrix.nextClearColumn(1, 3));
+        Assertions.assertEquals(150, matrix.nextClearColumn(2, 0), "Last row is full");
+        Assertions.assertEquals(3, matrix.rowCardinality(1));
+        Assertions.assertFalse(matrix.hasValue(1, 150), "Column out of bounds must not be read from padding");
+        Assertions.assertEquals(-1, matrix.nextSetColumn(3, 0), "Row out of bounds");
+        Assertions.assertEquals(150, matrix.nextClearColumn(3, 0), "Row out of bounds");
+        Assertions.assertEquals(150, matrix.nextClearColumn(-1, 0), "Row out of bounds");
+    }
+
+    @Test
+    public void testBitMatrix_jsonRoundTrip_shouldKeepTypeAndValues() throws JsonProcessingException {
+        BitCrossMatrix matrix = new BitCrossMatrix(70, 70);
+        for (int i = 0; i < 70; i++) {
+            matrix.setIntValue(i, i, 1);
+            matrix.setIntValue(i, 69 - i, 1);
+        }
+
+        String json = JsonUtils.writeValueAsString(matrix);
+        Assertions.assertTrue(json.contains("\"_type\":\"bitCrossMatrix\""), "Type info is missing: " + json);
+
+        IMatrix<?> result = JsonUtils.readValueFromString(json, IMatrix.class);
+        Assertions.assertEquals(BitCrossMatrix.class, result.getClass());
+        Assertions.assertEquals(matrix.toString(), result.toString());
+    }
+
+    @Test
+    public void testBitMatrix_readWordsOfWrongLength_shouldFail() throws JsonProcessingException {
+        // 70 columns take 2 words per row, so 2 rows need 4 words, and the json has words of 3 rows
+        String json = JsonUtils.writeValueAsString(new BitMatrix(3, 70)).replace("\"rows\":3", "\"rows\":2");
+
+        JsonProcessingException e = Assertions.assertThrows(JsonProcessingException.class, () -> JsonUtils.readValueFromString(json, IMatrix.class));
+        Assertions.assertEquals(IllegalArgumentException.class, e.getCause().getClass(), "Wrong length should be rejected: " + e);
+    }
+}
@@ -0,0 +1,89 @@
+package org.hit.internetprogramming.eoh.common.mat.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.util.JsonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Test the primitive {@link IntMatrix} family, to make sure it behaves like the boxed matrices.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class IntMatrixTest {
+    @Test
+    public void testIntMatrix_nullCells_shouldHaveNoValue() {
+        IIntMatrix matrix = new IntStandardMatrix(new Integer[][] {{1, null, 0}, {null, -5, 7}});
+
+        Assertions.assertTrue(matrix.hasValue(Index.from(0, 0)), "1 is a value");
+        Assertions.assertTrue(matrix.hasValue(0, 2), "0 is a value in a weighted matrix");
+        Assertions.assertFalse(matrix.hasValue(Index.from(0, 1)), "null is not a value");
+        Assertions.assertNull(matrix.getValue(Index.from(1, 0)), "null is not a value");
+        Assertions.assertEquals(-5, matrix.getIntValue(1, 1));
+        Assertions.assertEquals(IIntMatrix.NO_VALUE, matrix.getIntValue(0, 1));
+    }
+
+    @Test
+    public void testIntMatrix_outOfBounds_shouldNotWrapToNextRow() {
+        IIntMatrix matrix = new IntMatrix(new Integer[][] {{1, 1}, {1, 1}});
+
+        Assertions.assertFalse(matrix.hasValue(Index.from(0, 2)), "Column out of bounds must not refer to next row");
+        Assertions.assertFalse(matrix.hasValue(2, 0), "Row out of bounds");
+        Assertions.assertNull(matrix.getValue(Index.from(-1, 0)), "Row out of bounds");
+
+        matrix.setIntValue(0, 2, 9);
+        Assertions.assertEquals(1, matrix.getIntValue(1, 0), "Setting out of bounds must be ignored");
+    }
+
+    @Test
+    public void testIntMatrix_neighbors_shouldBeTheSameAsBoxedMatrix() {
+        Integer[][] arr = {{1, 1, 1}, {1, 1, 1}, {1, 1, 1}};
+        Index center = Index.from(1, 1);
+
+        Assertions.assertEquals(new StandardMatrix<>(arr).neighbors(center), new IntStandardMatrix(arr).neighbors(center));
+        Assertions.assertEquals(new CrossMatrix<>(arr).neighbors(center), new IntCrossMatrix(arr).neighbors(center));
+        Assertions.assertEquals(new Matrix<>(arr).neighbors(center), new IntMatrix(arr).neighbors(center));
+    }
+
+    @Test
+    public void testIntMatrix_jsonRoundTrip_shouldKeepTypeAndValues() throws JsonProcessingException {
+        IMatrix<Integer> matrix = new IntCrossMatrix(new Integer[][] {{1, null, 3}, {null, 500, -999}});
+
+        String json = JsonUtils.writeValueAsString(matrix);
+        Assertions.assertTrue(json.contains("\"_type\":\"intCrossMatrix\""), "Type info is missing: " + json);
+        Assertions.assertTrue(json.contains("[1,null,3,null,500,-999]"), "Data supposed to be flat: " + json);
+
+        IMatrix<?> result = JsonUtils.readValueFromString(json, IMatrix.class);
+        Assertions.assertEquals(IntCrossMatrix.class, result.getClass());
+        Assertions.assertEquals(matrix.toString(), result.toString());
+    }
+
+    @Test
+    public void testIntMatrix_readNestedData_shouldFlattenRowMajor() throws JsonProcessingException {
+        String json = "{\"_type\":\"intMatrix\",\"rows\":2,\"cols\":2,\"data\":[[1,null],[3,4]]}";
+
+        IIntMatrix result = (IIntMatrix) JsonUtils.readValueFromString(json, IMatrix.class);
+        Assertions.assertFalse(result.hasValue(0, 1));
+        Assertions.assertEquals(3, result.getIntValue(1, 0));
+        Assertions.assertEquals(4, result.getIntValue(1, 1));
+    }
+
+    @Test
+    public void testIntMatrix_readDataOfWrongLength_shouldFail() {
+        String json = "{\"_type\":\"intMatrix\",\"rows\":2,\"cols\":2,\"data\":[1,2,3]}";
+
+        JsonProcessingException e = Assertions.assertThrows(JsonProcessingException.class, () -> JsonUtils.readValueFromString(json, IMatrix.class));
+        Assertions.assertEquals(IllegalArgumentException.class, e.getCause().getClass(), "Wrong length should be rejected: " + e);
+    }
+
+    @Test
+    public void testIntMatrix_tooManyCells_shouldFail() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntMatrix(100_000, 100_000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntStandardMatrix(-1, 2));
+    }
+}
@@ -31,6 +31,22 @@ public class ServerMain {
     public static final String MATRIX_SERVER = "Graph Server";
     private static final int PORT = 8005;
 
+    /**
+     * Maximum amount of workers serving clients in parallel, when the server uses a thread pool
+     */
+    private static final int MAX_WORKERS = 10;
+
+    /**
+     * Maximum amount of connected clients when running in {@link TCPServer.Mode#VIRTUAL_THREADS} mode
+     */
+    private static final int MAX_VIRTUAL_THREADS_CLIENTS = 10_000;
+
+    /**
+     * A system property used to select the {@link TCPServer.Mode} of the server. e.g. -Deoh.server.mode=virtual_threads<br/>
+     * Defaults to {@link TCPServer.Mode#BLOCKING}
+     */
+    private static final String SERVER_MODE_PROPERTY = "eoh.server.mode";
+
     private Logger log;
     private TrayIcon trayIcon;
     private TCPServer server;
@@ -86,13 +102,25 @@ public class ServerMain {
     private void run() {
         log = LogManager.getLogger(ServerMain.class);
 
-        server = new TCPServer(PORT, 0, 10, new MatrixClientHandler());
+        TCPServer.Mode mode = getServerMode();
+        int maxPoolSize = (mode == TCPServer.Mode.VIRTUAL_THREADS) ? MAX_VIRTUAL_THREADS_CLIENTS : MAX_WORKERS;
+        server = new TCPServer(PORT, 0, maxPoolSize, new MatrixClientHandler(), mode);
         server.start();
         showTrayIcon();
 
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "ServerShutdownThread"));
     }
 
+    private TCPServer.Mode getServerMode() {
+        String mode = System.getProperty(SERVER_MODE_PROPERTY, TCPServer.Mode.BLOCKING.name());
+        try {
+            return TCPServer.Mode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown server mode: " + mode + ". Defaulting to " + TCPServer.Mode.BLOCKING);
+            return TCPServer.Mode.BLOCKING;
+        }
+    }
+
     /**
      * Ordinary shutdown TCPServer and Log4j.
      */
@@ -7,14 +7,16 @@ import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.server.action.Action;
 import org.hit.internetprogramming.eoh.server.action.ActionContext;
-import org.hit.internetprogramming.eoh.server.graph.algorithm.ConnectedComponents;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ConnectedComponentsAlgorithm;
 import org.hit.internetprogramming.eoh.server.graph.algorithm.DFSVisit;
 import org.hit.internetprogramming.eoh.server.impl.Graphs;
 
 /**
  * A class for receiving all the connected components in a graph.<br/>
  * This class uses with DFS algorithm in order to Apply the requirements of connected components in a graph.<br/>
- * This class works In parallel in order to improve the runtime.
+ * This class works In parallel in order to improve the runtime.<br/>
+ * A request can select the algorithm by sending a {@link ConnectedComponentsAlgorithm.Algorithm} as its body.
+ * When there is no body, we use {@link ConnectedComponentsAlgorithm.Algorithm#DFS}.
  * @author Orel Gershonovich
  * @see DFSVisit
  * @since 9-July-21
@@ -24,13 +26,32 @@ public class FindConnectedComponents implements Action {
 
     @Override
     public Response execute(ActionContext actionContext) {
-        IGraph<Index> graph = Graphs.getInstance().getGraph(actionContext.getClientInfo());
+        IGraph<Index> graph = Graphs.getInstance().getCompiledGraph(actionContext.getClientInfo());
         if (graph == null) {
             return Response.error(HttpStatus.NOT_FOUND.getCode(), "No graph was initialized. Please put graph or generate one", actionContext.getRequest().isHttp());
         }
 
-        ConnectedComponents connectedComponents = new ConnectedComponents();
+        ConnectedComponentsAlgorithm.Algorithm algorithm;
+        try {
+            algorithm = readAlgorithm(actionContext, ConnectedComponentsAlgorithm.Algorithm.DFS);
+        } catch (IllegalArgumentException e) {
+            return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Illegal connected components algorithm: " + e.getMessage(), actionContext.getRequest().isHttp());
+        }
+
+        ConnectedComponentsAlgorithm connectedComponents = ConnectedComponentsAlgorithm.of(algorithm);
 
         return Response.ok(HttpStatus.OK.getCode(), connectedComponents.collect(graph), actionContext.getRequest().isHttp());
     }
+
+    /**
+     * Read the algorithm to use out of the body of the request.
+     * @param actionContext Context of the request
+     * @param defaultAlgorithm The algorithm to use when there is no body
+     * @return The requested algorithm, or the default one when there is no body
+     * @throws IllegalArgumentException In case the body is not an algorithm
+     */
+    static ConnectedComponentsAlgorithm.Algorithm readAlgorithm(ActionContext actionContext, ConnectedComponentsAlgorithm.Algorithm defaultAlgorithm) {
+        ConnectedComponentsAlgorithm.Algorithm algorithm = actionContext.getRequest().getBodyAs(ConnectedComponentsAlgorithm.Algorithm.class);
+        return algorithm == null ? defaultAlgorithm : algorithm;
+    }
 }
@@ -3,9 +3,10 @@ package org.hit.internetprogramming.eoh.server.action.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
 import org.hit.internetprogramming.eoh.common.comms.Response;
-import org.hit.internetprogramming.eoh.common.comms.TwoVerticesBody;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsBody;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsPage;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
-import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
 import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.server.action.Action;
 import org.hit.internetprogramming.eoh.server.action.ActionContext;
@@ -19,26 +20,42 @@ import java.util.List;
 
 /**
  * A command that find all shortest paths between a source vertex to destination vertex.<br/>
- * This class uses {@link org.hit.internetprogramming.eoh.server.graph.algorithm.BFSVisit} algorithm.
+ * The graph is compiled by {@link Graphs#getCompiledGraph}, and its shortest paths are counted over the ids of the compiled
+ * graph: {@link org.hit.internetprogramming.eoh.server.graph.algorithm.BidirectionalIntBFSVisit} searches from both ends,
+ * and sources that are queried repeatedly are traversed by {@link org.hit.internetprogramming.eoh.server.graph.algorithm.IntBFSVisit},
+ * so their trees are cached.<br/>
+ * When the request specifies offset, limit or countOnly, the response is a {@link ShortestPathsPage} rather than all
+ * shortest paths, so graphs with a huge amount of shortest paths can be queried as well.<br/>
+ * When the request specifies singlePath, the response holds one shortest path only, which is found by
+ * {@link org.hit.internetprogramming.eoh.server.graph.algorithm.JumpPointSearch} on standard matrices and regular matrices.
  * @author Haim Adrian
  * @since 23-Apr-21
  */
 public class FindShortestPaths implements Action {
     @Override
     public Response execute(ActionContext actionContext) {
-        Response response = validateInput(actionContext);
+        // Get the graph once, as it might be evicted or replaced by another request in the meantime
+        CompiledGraph graph = Graphs.getInstance().getCompiledGraph(actionContext.getClientInfo());
+        Response response = validateInput(actionContext, graph);
 
         if (response == null) {
-            IGraph<Index> graph = Graphs.getInstance().getGraph(actionContext.getClientInfo());
-            TwoVerticesBody<Index> params = actionContext.getRequest().getBodyAs(new TypeReference<>() {
+            ShortestPathsBody<Index> params = actionContext.getRequest().getBodyAs(new TypeReference<>() {
             });
 
-            // Modify the root to the source vertex.
-            graph = new MatrixGraphAdapter<>(graph, params.getFirst());
-            FindPaths<Index> findPaths = new FindPaths<>(graph);
+            FindPaths<Index> findPaths = createPathsFinder(actionContext, graph, params);
 
             try {
-                List<Collection<Index>> shortestPaths = executeFindShortestPaths(findPaths, params.getSecond());
+                Object shortestPaths;
+                if (params.isSinglePath()) {
+                    shortestPaths = executeFindShortestPath(findPaths, params.getSecond(), params.isJumpPointsOnly());
+                } else if (params.isPaged()) {
+                    long offset = (params.getOffset() == null) ? 0 : params.getOffset();
+                    int limit = params.isCountOnly() ? 0 : ((params.getLimit() == null) ? FindPaths.MAXIMUM_AMOUNT_OF_PATHS : params.getLimit());
+                    shortestPaths = executeFindShortestPathsPage(findPaths, params.getSecond(), offset, limit);
+                } else {
+                    shortestPaths = executeFindShortestPaths(findPaths, params.getSecond());
+                }
+
                 response = Response.ok(HttpStatus.OK.getCode(), shortestPaths, actionContext.getRequest().isHttp());
             } catch (InputTooLargeException | NegativeWeightCycleException e) {
                 // We might fail with InputTooLargeException or NegativeWeightCycleException.
@@ -50,6 +67,19 @@ public class FindShortestPaths implements Action {
         return response;
     }
 
+    /**
+     * Create the {@link FindPaths} to search with. At this level, there is no preprocessing of the graph, and the cached
+     * shortest path trees of the graph are used.
+     * @param actionContext Context of the request
+     * @param graph The graph of the client, compiled
+     * @param params Parameters of the request
+     * @return A paths finder rooted at the source vertex
+     */
+    protected FindPaths<Index> createPathsFinder(ActionContext actionContext, CompiledGraph graph, ShortestPathsBody<Index> params) {
+        // Modify the root to the source vertex. The compiled arrays are shared, so this does not copy the graph.
+        return new FindPaths<>(graph.withRoot(params.getFirst()), null, null, Graphs.getInstance().getShortestPathTrees());
+    }
+
     /**
      * This method should execute the correct function in {@link FindPaths} class.<br/>
      * At this level, we execute {@link FindPaths#findShortestPaths(Object)}, but at the derived class we should
@@ -62,13 +92,38 @@ public class FindShortestPaths implements Action {
         return pathsFinder.findShortestPaths(destination);
     }
 
-    protected Response validateInput(ActionContext actionContext) {
-        IGraph<Index> graph = Graphs.getInstance().getGraph(actionContext.getClientInfo());
+    /**
+     * Same as {@link #executeFindShortestPaths(FindPaths, Index)}, to get a single shortest path.<br/>
+     * At this level, we execute {@link FindPaths#findShortestPath(Object, boolean)}.
+     * @param pathsFinder The paths finder to use for the search operation
+     * @param destination The destination vertex
+     * @param isJumpPointsOnly Whether to get the jump points of the path only, rather than all of its vertices
+     * @return A list with a single shortest path, or an empty list if we could not reach to destination
+     */
+    protected List<Collection<Index>> executeFindShortestPath(FindPaths<Index> pathsFinder, Index destination, boolean isJumpPointsOnly) {
+        return pathsFinder.findShortestPath(destination, isJumpPointsOnly);
+    }
+
+    /**
+     * Same as {@link #executeFindShortestPaths(FindPaths, Index)}, to get a page of the shortest paths.<br/>
+     * At this level, we execute {@link FindPaths#findShortestPaths(Object, long, int)}, which counts the paths rather than
+     * enumerating them.
+     * @param pathsFinder The paths finder to use for the search operation
+     * @param destination The destination vertex
+     * @param offset Rank of the first path to get
+     * @param limit Maximum amount of paths to get
+     * @return A page of shortest paths
+     */
+    protected ShortestPathsPage<Index> executeFindShortestPathsPage(FindPaths<Index> pathsFinder, Index destination, long offset, int limit) {
+        return pathsFinder.findShortestPaths(destination, offset, limit);
+    }
+
+    protected Response validateInput(ActionContext actionContext, IGraph<Index> graph) {
         if (graph == null) {
             return Response.error(HttpStatus.NOT_FOUND.getCode(), "No graph was initialized. Please put graph or generate one", actionContext.getRequest().isHttp());
         }
 
-        TwoVerticesBody<Index> params = actionContext.getRequest().getBodyAs(new TypeReference<>() {});
+        ShortestPathsBody<Index> params = actionContext.getRequest().getBodyAs(new TypeReference<>() {});
         if (params == null) {
             return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Input vertices is missing", actionContext.getRequest().isHttp());
         }
@@ -81,6 +136,10 @@ public class FindShortestPaths implements Action {
             return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Destination vertex is missing", actionContext.getRequest().isHttp());
         }
 
+        if (((params.getOffset() != null) && (params.getOffset() < 0)) || ((params.getLimit() != null) && (params.getLimit() < 0))) {
+            return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Offset and limit must not be negative", actionContext.getRequest().isHttp());
+        }
+
         return null;
     }
 }
@@ -1,21 +1,63 @@
 package org.hit.internetprogramming.eoh.server.action.impl;
 
+import org.hit.internetprogramming.eoh.common.comms.Preprocessing;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsBody;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsPage;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.server.action.ActionContext;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ContractionHierarchy;
 import org.hit.internetprogramming.eoh.server.graph.algorithm.FindPaths;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.Landmarks;
+import org.hit.internetprogramming.eoh.server.impl.Graphs;
 
 import java.util.Collection;
 import java.util.List;
 
 /**
  * A command that find all shortest paths in weighted graph between a source vertex to destination vertex.<br/>
- * This class uses {@link org.hit.internetprogramming.eoh.server.graph.algorithm.BellmanFord} algorithm.
+ * This class uses {@link org.hit.internetprogramming.eoh.server.graph.algorithm.DialDijkstra} algorithm when there are no
+ * negative weights (or {@link org.hit.internetprogramming.eoh.server.graph.algorithm.DeltaStepping} for large graphs, and
+ * {@link org.hit.internetprogramming.eoh.server.graph.algorithm.AStar} for grids of close weights), and {@link org.hit.internetprogramming.eoh.server.graph.algorithm.DijkstraWithNegCycleSupport} otherwise.<br/>
+ * When the request asks for {@link Preprocessing#LANDMARKS landmarks}, A* is directed by the {@link Landmarks} of the
+ * graph, which are built on the first such request and kept by {@link Graphs}. In the same way, when a single path request
+ * asks for a {@link Preprocessing#CONTRACTION_HIERARCHY contraction hierarchy}, the path is found by the
+ * {@link ContractionHierarchy} of the graph, once {@link Graphs} has built it in the background.
  * @author Haim Adrian
  * @since 18-Jul-21
  */
 public class FindShortestPathsInWeightedGraph extends FindShortestPaths {
+    @Override
+    protected FindPaths<Index> createPathsFinder(ActionContext actionContext, CompiledGraph graph, ShortestPathsBody<Index> params) {
+        // Null when the graph has negative weights, in which case there are no preprocessings to search with
+        if (params.getPreprocessing() == Preprocessing.LANDMARKS) {
+            Landmarks landmarks = Graphs.getInstance().getLandmarks(actionContext.getClientInfo());
+            return new FindPaths<>(graph.withRoot(params.getFirst()), landmarks, null, Graphs.getInstance().getShortestPathTrees());
+        }
+
+        // A hierarchy keeps a single shortest path between two vertices, so other requests are answered without it
+        if ((params.getPreprocessing() == Preprocessing.CONTRACTION_HIERARCHY) && params.isSinglePath()) {
+            ContractionHierarchy contractionHierarchy = Graphs.getInstance().getContractionHierarchy(actionContext.getClientInfo());
+            return new FindPaths<>(graph.withRoot(params.getFirst()), null, contractionHierarchy, Graphs.getInstance().getShortestPathTrees());
+        }
+
+        return super.createPathsFinder(actionContext, graph, params);
+    }
+
     @Override
     protected List<Collection<Index>> executeFindShortestPaths(FindPaths<Index> pathsFinder, Index destination) {
-        return pathsFinder.findShortestPathsInWeightedGraphDijkstra(destination);
+        return pathsFinder.findShortestPathsInWeightedGraph(destination);
+    }
+
+    @Override
+    protected List<Collection<Index>> executeFindShortestPath(FindPaths<Index> pathsFinder, Index destination, boolean isJumpPointsOnly) {
+        // Steps of a weighted graph do not cost the same, so there are no jump points. Get a single path instead.
+        return pathsFinder.findShortestPathInWeightedGraph(destination);
+    }
+
+    @Override
+    protected ShortestPathsPage<Index> executeFindShortestPathsPage(FindPaths<Index> pathsFinder, Index destination, long offset, int limit) {
+        return pathsFinder.findShortestPathsInWeightedGraph(destination, offset, limit);
     }
 }
 
@@ -8,7 +8,7 @@ import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
 import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.server.action.Action;
 import org.hit.internetprogramming.eoh.server.action.ActionContext;
-import org.hit.internetprogramming.eoh.server.graph.algorithm.ConnectedComponents;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ConnectedComponentsAlgorithm;
 import org.hit.internetprogramming.eoh.server.graph.algorithm.DFSVisit;
 import org.hit.internetprogramming.eoh.server.graph.algorithm.Submarines;
 import org.hit.internetprogramming.eoh.server.impl.Graphs;
@@ -29,6 +29,11 @@ import java.util.Set;
  * there are sections 1 and 2 for both.
  * 4. The minimum distance between two submarines
  * (regardless of orientation) is one square (0-node).
+ * </p>
+ * The algorithm used to find connected components can be selected the same way as in {@link FindConnectedComponents}.
+ * When there is no body, we use {@link ConnectedComponentsAlgorithm.Algorithm#DFS}. Selecting
+ * {@link ConnectedComponentsAlgorithm.Algorithm#PARALLEL} counts submarines in a single streaming scan, using
+ * {@link org.hit.internetprogramming.eoh.server.graph.algorithm.SubmarineCounter}.
  *
  * @author Eden Zadikove
  * @see FindConnectedComponents
@@ -38,11 +43,19 @@ import java.util.Set;
 public class FindSubmarines implements Action {
     @Override
     public Response execute(ActionContext actionContext) {
-        IGraph<Index> graph = Graphs.getInstance().getGraph(actionContext.getClientInfo());
+        IGraph<Index> graph = Graphs.getInstance().getCompiledGraph(actionContext.getClientInfo());
         if (graph == null) {
             return Response.error(HttpStatus.NOT_FOUND.getCode(), "No graph was initialized. Please put graph or generate one", actionContext.getRequest().isHttp());
         }
-        Submarines submarines = new Submarines();
+
+        ConnectedComponentsAlgorithm.Algorithm algorithm;
+        try {
+            algorithm = FindConnectedComponents.readAlgorithm(actionContext, Submarines.DEFAULT_ALGORITHM);
+        } catch (IllegalArgumentException e) {
+            return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Illegal connected components algorithm: " + e.getMessage(), actionContext.getRequest().isHttp());
+        }
+
+        Submarines submarines = new Submarines(algorithm);
         return Response.ok(HttpStatus.OK.getCode(), submarines.findSubmarines(graph), actionContext.getRequest().isHttp());
     }
 }
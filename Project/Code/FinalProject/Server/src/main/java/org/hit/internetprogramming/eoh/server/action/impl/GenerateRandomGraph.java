@@ -5,11 +5,14 @@ import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
 import org.hit.internetprogramming.eoh.common.comms.Request;
 import org.hit.internetprogramming.eoh.common.comms.Response;
 import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
-import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
 import org.hit.internetprogramming.eoh.common.mat.Index;
-import org.hit.internetprogramming.eoh.common.mat.impl.CrossMatrix;
-import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
-import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
 import org.hit.internetprogramming.eoh.server.action.Action;
 import org.hit.internetprogramming.eoh.server.action.ActionContext;
 import org.hit.internetprogramming.eoh.server.action.ActionExecutor;
@@ -42,27 +45,29 @@ public class GenerateRandomGraph implements Action {
             dimension = Index.from(5, 5);
         }
 
-        IMatrix<Integer> matrix;
+        IIntMatrix matrix;
 
+        // Use primitive matrices, so a big graph does not hold an Integer object per cell.
+        // Binary graphs only need a bit per cell.
         ActionType generateAction = actionContext.getRequest().getActionType();
         switch (generateAction) {
             case GENERATE_RANDOM_BINARY_GRAPH_REGULAR:
-                matrix = new Matrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), BINARY_MATRIX_VALUE_BOUND, true, false));
+                matrix = fillRandomMatrix(new BitMatrix(dimension.getRow(), dimension.getColumn()), BINARY_MATRIX_VALUE_BOUND, true, false);
                 break;
             case GENERATE_RANDOM_BINARY_GRAPH_STANDARD:
-                matrix = new StandardMatrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), BINARY_MATRIX_VALUE_BOUND, true, false));
+                matrix = fillRandomMatrix(new BitStandardMatrix(dimension.getRow(), dimension.getColumn()), BINARY_MATRIX_VALUE_BOUND, true, false);
                 break;
             case GENERATE_RANDOM_BINARY_GRAPH_CROSS:
-                matrix = new CrossMatrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), BINARY_MATRIX_VALUE_BOUND, true, false));
+                matrix = fillRandomMatrix(new BitCrossMatrix(dimension.getRow(), dimension.getColumn()), BINARY_MATRIX_VALUE_BOUND, true, false);
                 break;
             case GENERATE_RANDOM_GRAPH_REGULAR:
-                matrix = new Matrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), MATRIX_VALUE_BOUND, false, true));
+                matrix = fillRandomMatrix(new IntMatrix(dimension.getRow(), dimension.getColumn()), MATRIX_VALUE_BOUND, false, true);
                 break;
             case GENERATE_RANDOM_GRAPH_STANDARD:
-                matrix = new StandardMatrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), MATRIX_VALUE_BOUND, false, true));
+                matrix = fillRandomMatrix(new IntStandardMatrix(dimension.getRow(), dimension.getColumn()), MATRIX_VALUE_BOUND, false, true);
                 break;
             case GENERATE_RANDOM_GRAPH_CROSS:
-                matrix = new CrossMatrix<>(generateRandomMatrix(dimension.getRow(), dimension.getColumn(), MATRIX_VALUE_BOUND, false, true));
+                matrix = fillRandomMatrix(new IntCrossMatrix(dimension.getRow(), dimension.getColumn()), MATRIX_VALUE_BOUND, false, true);
                 break;
             default:
                 return Response.error(HttpStatus.BAD_REQUEST.getCode(), "Unknown generate action type: " + generateAction, actionContext.getRequest().isHttp());
@@ -78,24 +83,21 @@ public class GenerateRandomGraph implements Action {
     }
 
     /**
-     * Generate a random matrix.<br/>
+     * Fill a matrix with random values.<br/>
      * This method can generate a binary matrix or weighted matrix, depends on the arguments that we receive.<br/>
-     * A binary matrix will not have 0 values in it, instead, we would like to replace them with null, to indicate
+     * A binary matrix will not have 0 values in it, instead, we would like to leave them empty, to indicate
      * that there is no neighbor there.
-     * @param rows How many rows to use
-     * @param cols How many columns to use
+     * @param matrix The (empty) matrix to fill
      * @param bound The upper bound for random values, exclusive. (2 for binary)
-     * @param replaceZeroWithNull Whether to replace 0 with null, or accept 0 as a valid neighbor
+     * @param replaceZeroWithNull Whether to leave 0 cells empty, or accept 0 as a valid neighbor
      * @param shouldAllowNegative Use positive numbers only, or accept negative as well
-     * @return The random matrix
+     * @return The specified matrix, filled with random values
      */
-    private Integer[][] generateRandomMatrix(int rows, int cols, int bound, boolean replaceZeroWithNull, boolean shouldAllowNegative) {
-        Integer[][] matrix = new Integer[rows][cols];
-
+    private IIntMatrix fillRandomMatrix(IIntMatrix matrix, int bound, boolean replaceZeroWithNull, boolean shouldAllowNegative) {
         SecureRandom rand = new SecureRandom();
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                Integer randomValue = rand.nextInt(bound);
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                int randomValue = rand.nextInt(bound);
 
                 if (randomValue != 0) {
                     // Randomly use negative values if necessary
@@ -105,10 +107,10 @@ public class GenerateRandomGraph implements Action {
                 }
                 // When value is 0 and we need to replace it with null:
                 else if (replaceZeroWithNull) {
-                    randomValue = null;
+                    randomValue = IIntMatrix.NO_VALUE;
                 }
 
-                matrix[row][col] = randomValue;
+                matrix.setIntValue(row, col, randomValue);
             }
         }
 
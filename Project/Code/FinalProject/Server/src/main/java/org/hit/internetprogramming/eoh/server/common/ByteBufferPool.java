@@ -0,0 +1,113 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A singleton pool of heap {@link ByteBuffer}s, used for reading framed requests without allocating a new buffer for every request.<br/>
+ * Buffers are kept in size classes of powers of two, so a buffer of some class can hold any payload up to its capacity.
+ * Huge buffers are not pooled at all, and every class keeps a limited amount of buffers, to bound the memory held by the pool.<br/>
+ * We use heap buffers (and not direct) so payloads can be parsed right out of their backing array.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class ByteBufferPool {
+    /**
+     * Smallest size class. (1KB) Smaller requests get a buffer of this size.
+     */
+    private static final int MIN_SIZE_CLASS = 10;
+
+    /**
+     * Largest size class that we pool. (16MB) Larger buffers are allocated and left for the GC.
+     */
+    private static final int MAX_SIZE_CLASS = 24;
+
+    /**
+     * Maximum amount of idle buffers kept for every size class
+     */
+    private static final int MAX_BUFFERS_PER_CLASS = 32;
+
+    private final List<Queue<ByteBuffer>> pools;
+    private final AtomicInteger[] poolSizes;
+
+    private ByteBufferPool() {
+        int sizeClasses = MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1;
+        pools = new ArrayList<>(sizeClasses);
+        poolSizes = new AtomicInteger[sizeClasses];
+        for (int i = 0; i < sizeClasses; i++) {
+            pools.add(new ConcurrentLinkedQueue<>());
+            poolSizes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @return The unique instance of this class
+     */
+    public static ByteBufferPool getInstance() {
+        return ByteBufferPoolHolder.instance;
+    }
+
+    /**
+     * Get a buffer that can hold at least the specified amount of bytes.<br/>
+     * The buffer is cleared, so its limit is its capacity. Return it using {@link #release(ByteBuffer)} when done.
+     * @param minCapacity Minimum capacity of the buffer
+     * @return A buffer, from the pool if there is a suitable one, or a new one
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = sizeClassOf(minCapacity);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+
+        int poolIndex = sizeClass - MIN_SIZE_CLASS;
+        ByteBuffer buffer = pools.get(poolIndex).poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(1 << sizeClass);
+        }
+
+        poolSizes[poolIndex].decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool, so it can be reused. Do not touch the buffer after releasing it.
+     * @param buffer The buffer to release. Can be null.
+     */
+    public void release(ByteBuffer buffer) {
+        if ((buffer == null) || !buffer.hasArray()) {
+            return;
+        }
+
+        int capacity = buffer.capacity();
+        int sizeClass = sizeClassOf(capacity);
+
+        // Only buffers we have allocated, of an exact size class, go back to the pool
+        if ((capacity == (1 << sizeClass)) && (sizeClass <= MAX_SIZE_CLASS)) {
+            int poolIndex = sizeClass - MIN_SIZE_CLASS;
+            if (poolSizes[poolIndex].incrementAndGet() <= MAX_BUFFERS_PER_CLASS) {
+                pools.get(poolIndex).add(buffer);
+            } else {
+                poolSizes[poolIndex].decrementAndGet();
+            }
+        }
+    }
+
+    private static int sizeClassOf(int capacity) {
+        if (capacity <= (1 << MIN_SIZE_CLASS)) {
+            return MIN_SIZE_CLASS;
+        }
+
+        // Round up to the next power of two
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    // A lazy, thread-safe initializer for the unique instance of our singleton.
+    private static final class ByteBufferPoolHolder {
+        private static final ByteBufferPool instance = new ByteBufferPool();
+    }
+}
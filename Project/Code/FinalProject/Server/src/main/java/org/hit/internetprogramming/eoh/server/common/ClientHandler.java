@@ -1,21 +1,26 @@
 package org.hit.internetprogramming.eoh.server.common;
 
 import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.comms.FrameOutputStream;
+import org.hit.internetprogramming.eoh.common.comms.FramedProtocol;
 import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
 import org.hit.internetprogramming.eoh.server.common.exception.FavIconException;
 
 import java.io.*;
 import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A general handler used by {@link TCPServer} when a new socket is accepted.<br/>
  * The general handler supports reading requests from input stream, as buffered strings, and can distinguish between
- * primitive socket request / HTTP request, in order to support sending requests from both MatrixClient and browser.
+ * primitive socket request / HTTP request, in order to support sending requests from both MatrixClient and browser.<br/>
+ * When the first byte of a connection is {@link FramedProtocol#MAGIC}, the connection uses length-prefixed frames instead of lines.
  * @author Haim Adrian
  * @since 17-Apr-21
  */
@@ -69,44 +74,174 @@ public class ClientHandler {
         try {
             isRunning = new AtomicBoolean(true);
 
-            BufferedReader clientReader = new BufferedReader(new InputStreamReader(clientInput));
-            BufferedWriter clientWriter = new BufferedWriter(new OutputStreamWriter(clientOutput));
-
-            // Handle requests as long as we are active
-            while (isRunning.get()) {
-                String request;
-                try {
-                    if (requestHandler.onBeforeRequest(client)) {
-                        do {
-                            // In order to support reading a full HTTP request, we read all lines
-                            // from input stream, and might need to try reading again in case of time-out.
-                            request = readRequest(clientReader);
-                        } while (isRunning.get() && TRY_AGAIN.equals(request));
-
-                        if (request.isEmpty()) {
-                            log.info("Request was empty. Ending communication");
-                            isRunning.set(false);
-                        } else if (!TRY_AGAIN.equals(request)) {
-                            String response = requestHandler.onRequest(client, request, shouldStop -> isRunning.set(!shouldStop));
-                            writeResponse(clientWriter, response);
-                        }
-                    } else {
-                        log.info("Request was denied by handler. Ending communication");
+            BufferedInputStream input = new BufferedInputStream(clientInput);
+            Boolean isFramed = isFramedProtocol(input);
+            if (Boolean.TRUE.equals(isFramed)) {
+                handleFrames(client, input, clientOutput);
+            } else if (Boolean.FALSE.equals(isFramed)) {
+                handleLines(client, input, clientOutput);
+            }
+        } catch (IOException e) {
+            log.error("Error has occurred while setting up connection with client: " + client + ". Error: " + e, e);
+        }
+    }
+
+    /**
+     * Handle a connection that uses the line based protocol, where every request ends with an empty line.
+     */
+    private void handleLines(ClientInfo client, InputStream clientInput, OutputStream clientOutput) throws IOException {
+        BufferedReader clientReader = new BufferedReader(new InputStreamReader(clientInput));
+        BufferedWriter clientWriter = new BufferedWriter(new OutputStreamWriter(clientOutput));
+
+        // Handle requests as long as we are active
+        while (isRunning.get()) {
+            String request;
+            try {
+                if (requestHandler.onBeforeRequest(client)) {
+                    do {
+                        // In order to support reading a full HTTP request, we read all lines
+                        // from input stream, and might need to try reading again in case of time-out.
+                        request = readRequest(clientReader);
+                    } while (isRunning.get() && TRY_AGAIN.equals(request));
+
+                    if (request.isEmpty()) {
+                        log.info("Request was empty. Ending communication");
                         isRunning.set(false);
+                    } else if (!TRY_AGAIN.equals(request)) {
+                        String response = requestHandler.onRequest(client, request, shouldStop -> isRunning.set(!shouldStop));
+                        writeResponse(clientWriter, response);
                     }
-                } catch (FavIconException e) {
-                    writeFavIcon(clientOutput);
-                } catch (IOException | IllegalArgumentException e) {
-                    log.error("Error has occurred while communicating with client: " + client + ". Error: " + e, e);
-                    String errorResponse = requestHandler.onError(client, e);
-                    writeResponse(clientWriter, errorResponse);
+                } else {
+                    log.info("Request was denied by handler. Ending communication");
+                    isRunning.set(false);
                 }
+            } catch (FavIconException e) {
+                writeFavIcon(clientOutput);
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Error has occurred while communicating with client: " + client + ". Error: " + e, e);
+                String errorResponse = requestHandler.onError(client, e);
+                writeResponse(clientWriter, errorResponse);
+            }
+        }
+    }
+
+    /**
+     * Handle a connection that uses the {@link FramedProtocol framed} protocol.<br/>
+     * Payloads are read into pooled buffers and passed to the {@link RequestHandler} as is, without decoding them into strings.
+     */
+    private void handleFrames(ClientInfo client, InputStream clientInput, OutputStream clientOutput) throws IOException {
+        log.info("Client is using framed protocol. Client=" + client);
+        OutputStream output = new BufferedOutputStream(clientOutput);
+        FrameOutputStream response = new FrameOutputStream();
+        byte[] header = new byte[FramedProtocol.HEADER_LENGTH];
+
+        while (isRunning.get()) {
+            if (!requestHandler.onBeforeRequest(client)) {
+                log.info("Request was denied by handler. Ending communication");
+                isRunning.set(false);
+            } else if (readFully(clientInput, header, 0, header.length)) {
+                // An illegal length means we cannot find the next frame anymore, so we let it end the communication
+                int length = FramedProtocol.readLength(header, 0);
+                if (length == 0) {
+                    log.info("Request was empty. Ending communication");
+                    isRunning.set(false);
+                } else {
+                    ByteBuffer request = ByteBufferPool.getInstance().acquire(length);
+                    try {
+                        if (readFully(clientInput, request.array(), request.arrayOffset(), length)) {
+                            request.limit(length);
+                            log.info("Received: frame of " + length + " bytes");
+                            handleFrame(client, request, response, output);
+                        }
+                    } finally {
+                        ByteBufferPool.getInstance().release(request);
+                    }
+                }
+            } else {
+                // End of stream
+                isRunning.set(false);
+            }
+        }
+    }
+
+    private void handleFrame(ClientInfo client, ByteBuffer request, FrameOutputStream response, OutputStream output) throws IOException {
+        response.reset();
+        boolean hasResponse;
+        try {
+            hasResponse = requestHandler.onRequest(client, request, response, shouldStop -> isRunning.set(!shouldStop));
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Error has occurred while communicating with client: " + client + ". Error: " + e, e);
+            String errorResponse = requestHandler.onError(client, e);
+            response.reset();
+            hasResponse = errorResponse != null;
+            if (hasResponse) {
+                response.write(errorResponse.getBytes(StandardCharsets.UTF_8));
             }
-        } catch (IOException e) {
-            log.error("Error has occurred while setting up connection with client: " + client + ". Error: " + e, e);
+        }
+
+        // We let the RequestHandler to return false from onRequest, to avoid of returning anything back to client.
+        if (hasResponse) {
+            response.writeFrameTo(output);
+            output.flush();
+            log.info("Sent: frame of " + response.getPayloadLength() + " bytes");
         }
     }
 
+    /**
+     * Find out which protocol a client is using, by peeking at the first byte of the connection.
+     * @param input Client input. The first byte is consumed only when it is {@link FramedProtocol#MAGIC}
+     * @return Whether client is using framed protocol or not, or {@code null} in case we were stopped before client has sent anything
+     */
+    private Boolean isFramedProtocol(BufferedInputStream input) throws IOException {
+        while (isRunning.get()) {
+            input.mark(1);
+            try {
+                if (input.read() == (FramedProtocol.MAGIC & 0xFF)) {
+                    return Boolean.TRUE;
+                }
+
+                // Let the line based protocol read the first byte. (Or the end of stream)
+                input.reset();
+                return Boolean.FALSE;
+            } catch (SocketTimeoutException ignore) {
+                // Nothing was sent yet. Try again, as long as we are running.
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read exactly {@code length} bytes, trying again in case of socket timeout, as long as we are running.
+     * @return {@code true} when all bytes were read, or {@code false} in case input has ended before the first byte, or we were stopped
+     * @throws EOFException In case input has ended in the middle
+     */
+    private boolean readFully(InputStream input, byte[] dest, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            if (!isRunning.get()) {
+                return false;
+            }
+
+            try {
+                int bytesRead = input.read(dest, offset + total, length - total);
+                if (bytesRead < 0) {
+                    if (total == 0) {
+                        return false;
+                    }
+
+                    throw new EOFException("Client input has ended in the middle of a frame");
+                }
+
+                total += bytesRead;
+            } catch (SocketTimeoutException ignore) {
+                // Try again
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Stop this handler so we will accept nothing more from client
      */
@@ -153,39 +288,53 @@ public class ClientHandler {
         if (response != null) {
             clientOutput.write(response.endsWith("\n") ? response : response + '\n');
             clientOutput.flush();
-
-            String responseToLog = response.replaceAll("\\\\r\\\\n", System.lineSeparator());
-            if (!response.contains("HTTP")) {
-                log.info("Sent: " + responseToLog);
-            } else {
-                log.info("Sent: HTTP Response details below" + System.lineSeparator() +
-                    "######################### Begin #########################" + System.lineSeparator() +
-                    responseToLog + System.lineSeparator() +
-                    "########################## End ##########################");
-            }
+            logResponse(response);
         }
     }
 
     private void writeFavIcon(OutputStream clientOutput) {
         try {
-            URL favIcon = getClass().getClassLoader().getResource("favicon.ico");
-            if (favIcon == null) {
-                log.warn("No favicon.ico could be found. Returning error to client.");
-                clientOutput.write((String.format(HTTP_HEADERS, HttpStatus.NOT_FOUND.getCode(), HttpStatus.NOT_FOUND.name(), "image/ico", 0) + END_OF_HEADERS).getBytes(StandardCharsets.UTF_8));
-                clientOutput.flush();
-            } else {
-                byte[] content = Files.readAllBytes(Paths.get(favIcon.toURI()));
-                clientOutput.write((String.format(HTTP_HEADERS, HttpStatus.OK.getCode(), HttpStatus.OK.name(), "image/ico", content.length) + END_OF_HEADERS).getBytes(StandardCharsets.UTF_8));
-                clientOutput.write(content);
-                clientOutput.flush();
-                log.info("Sent: favicon.ico");
-            }
+            clientOutput.write(favIconResponse());
+            clientOutput.flush();
         } catch (Exception e) {
             log.error("Error has occurred: " + e, e);
         }
     }
 
-    private void logRequest(String requestAsString) {
+    /**
+     * Build the HTTP response of a favicon.ico request, including its headers, so it can be written as is to the client.<br/>
+     * In case there is no favicon.ico available, the response is a {@link HttpStatus#NOT_FOUND} response.
+     * @return The favicon.ico response, as bytes
+     * @throws Exception In case we have failed reading favicon.ico
+     */
+    static byte[] favIconResponse() throws Exception {
+        URL favIcon = ClientHandler.class.getClassLoader().getResource("favicon.ico");
+        if (favIcon == null) {
+            log.warn("No favicon.ico could be found. Returning error to client.");
+            return (String.format(HTTP_HEADERS, HttpStatus.NOT_FOUND.getCode(), HttpStatus.NOT_FOUND.name(), "image/ico", 0) + END_OF_HEADERS).getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] content = Files.readAllBytes(Paths.get(favIcon.toURI()));
+        byte[] headers = (String.format(HTTP_HEADERS, HttpStatus.OK.getCode(), HttpStatus.OK.name(), "image/ico", content.length) + END_OF_HEADERS).getBytes(StandardCharsets.UTF_8);
+        byte[] response = Arrays.copyOf(headers, headers.length + content.length);
+        System.arraycopy(content, 0, response, headers.length, content.length);
+        log.info("Sent: favicon.ico");
+        return response;
+    }
+
+    static void logResponse(String response) {
+        String responseToLog = response.replaceAll("\\\\r\\\\n", System.lineSeparator());
+        if (!response.contains("HTTP")) {
+            log.info("Sent: " + responseToLog);
+        } else {
+            log.info("Sent: HTTP Response details below" + System.lineSeparator() +
+                "######################### Begin #########################" + System.lineSeparator() +
+                responseToLog + System.lineSeparator() +
+                "########################## End ##########################");
+        }
+    }
+
+    static void logRequest(String requestAsString) {
         if (!requestAsString.contains("HTTP")) {
             log.info("Received: " + requestAsString);
         } else {
@@ -1,6 +1,9 @@
 package org.hit.internetprogramming.eoh.server.common;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 
 /**
@@ -32,6 +35,30 @@ public interface RequestHandler {
      */
     String onRequest(ClientInfo client, String request, Consumer<Boolean> stopCommunication) throws IOException;
 
+    /**
+     * Occurs when a {@link org.hit.internetprogramming.eoh.common.comms.FramedProtocol framed} request was accepted, and its payload
+     * was read by server.<br/>
+     * The payload is handed over as is, without decoding it into a string, and the response is written directly to the frame
+     * that the server sends back to the client.<br/>
+     * The default implementation decodes the payload as UTF-8 and delegates to {@link #onRequest(ClientInfo, String, Consumer)}.
+     * Override it to parse payloads without the intermediate string.
+     *
+     * @param client The accepted client
+     * @param request The payload of a request. Can never be null. Valid between its position and limit, and only until this method returns.
+     * @param response Where to write the response payload to
+     * @param stopCommunication A consumer to let implementor to stop the communication based on the request
+     * @return Whether there is a response to send back to the client or not
+     */
+    default boolean onRequest(ClientInfo client, ByteBuffer request, OutputStream response, Consumer<Boolean> stopCommunication) throws IOException {
+        String responseString = onRequest(client, StandardCharsets.UTF_8.decode(request).toString(), stopCommunication);
+        if (responseString == null) {
+            return false;
+        }
+
+        response.write(responseString.getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
     /**
      * Occurs when there was any unexpected error while accepting a client request.<br/>
      * client is nullable in case there was an error when accepting a request. Otherwise, it will refer to the failed client.<br/>
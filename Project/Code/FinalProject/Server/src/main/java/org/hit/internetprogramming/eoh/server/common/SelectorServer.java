@@ -0,0 +1,726 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.comms.FrameOutputStream;
+import org.hit.internetprogramming.eoh.common.comms.FramedProtocol;
+import org.hit.internetprogramming.eoh.server.common.exception.FavIconException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The non-blocking front end of {@link TCPServer}, used when the server runs in {@link TCPServer.Mode#SELECTOR SELECTOR} mode.<br/>
+ * Instead of pinning a thread per connected client (where the thread is polling its socket every 100ms), we
+ * register all client channels at a few {@link Selector}s (I/O threads), decode requests out of the bytes we read,
+ * and only then hand a complete request to a worker thread, which passes it to the {@link RequestHandler}.<br/>
+ * This way thousands of mostly idle connections cost a selection key each, rather than a thread each.<br/>
+ * Requests are decoded exactly like {@link ClientHandler#readRequest(java.io.BufferedReader)} does: all lines up to
+ * an empty line, so both MatrixClient and browsers (HTTP) are supported, and {@link RequestHandler}s work unchanged.<br/>
+ * When the first byte of a connection is {@link FramedProtocol#MAGIC}, the connection uses length-prefixed frames instead, and
+ * we read payloads straight into pooled buffers. (See {@link ByteBufferPool})
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+@Log4j2
+class SelectorServer {
+    /**
+     * The size of the buffer every I/O thread reads into. Requests larger than that are simply read in several chunks.
+     */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Amount of pending connections the operating system keeps for us. As accepting a connection is cheap in this
+     * mode, we let the OS queue more connections than the blocking mode does.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * Selector timeout, so the I/O threads will never block forever, even if a wakeup was missed.
+     */
+    private static final long SELECT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    /**
+     * Maximum amount of reads we do for a single channel before serving other channels, so a client
+     * that is sending a huge request will not starve the other clients of its I/O thread.
+     */
+    private static final int MAX_READS_PER_SELECTION = 16;
+
+    /**
+     * The port we are listening on
+     */
+    private final int port;
+
+    /**
+     * A {@link RequestHandler} which we will send requests to, and return its response
+     */
+    private final RequestHandler requestHandler;
+
+    /**
+     * Where we execute the {@link RequestHandler}, so a long running request will never block an I/O thread
+     */
+    private final ExecutorService workersExecutor;
+
+    /**
+     * The I/O threads. Every accepted channel is assigned to one of them, in a round robin manner.
+     */
+    private final Reactor[] reactors;
+
+    /**
+     * A helper boolean that determines whether this server is running or not, to support ordinary shutdown
+     */
+    private final AtomicBoolean isRunning;
+
+    /**
+     * The selector of the accepting thread. We keep a reference so we can wake it up when we are stopped
+     */
+    private volatile Selector acceptSelector;
+
+    /**
+     * Index of the next reactor to assign an accepted channel to
+     */
+    private int nextReactor;
+
+    /**
+     * Constructs a new {@link SelectorServer}
+     * @param port The port we are listening on
+     * @param ioThreads Amount of I/O threads (selectors) to multiplex the client channels on
+     * @param requestHandler A request handler to use for handling client requests
+     * @param workersExecutor Where to execute the request handler at
+     * @param ioThreadFactory A factory used for creating the I/O threads
+     */
+    SelectorServer(int port, int ioThreads, RequestHandler requestHandler, ExecutorService workersExecutor, ThreadFactory ioThreadFactory) {
+        this.port = port;
+        this.requestHandler = requestHandler;
+        this.workersExecutor = workersExecutor;
+        isRunning = new AtomicBoolean();
+
+        reactors = new Reactor[Math.max(1, ioThreads)];
+        for (int i = 0; i < reactors.length; i++) {
+            reactors[i] = new Reactor(ioThreadFactory);
+        }
+    }
+
+    /**
+     * Listen on the configured port and accept connections, until {@link #stop()} is called.<br/>
+     * This method blocks the calling thread, which is used as the accepting thread.
+     * @throws IOException In case we have failed to open the server channel
+     */
+    void run() throws IOException {
+        isRunning.set(true);
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open();
+             Selector selector = Selector.open()) {
+            acceptSelector = selector;
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+            for (Reactor reactor : reactors) {
+                reactor.start();
+            }
+
+            log.info("Server is listening on port: " + port + " (" + reactors.length + " I/O threads)");
+            while (isRunning.get()) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                selector.selectedKeys().clear();
+
+                // Accept everything that is pending, as a single selection might stand for several connections
+                SocketChannel channel = null;
+                try {
+                    while (isRunning.get() && ((channel = serverChannel.accept()) != null)) {
+                        channel.configureBlocking(false);
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+                        reactors[nextReactor].register(channel);
+                        nextReactor = (nextReactor + 1) % reactors.length;
+                        channel = null;
+                    }
+                } catch (IOException e) {
+                    log.error("Error has occurred while accepting client socket: " + e, e);
+                    safeClose(channel);
+                }
+            }
+        } finally {
+            isRunning.set(false);
+            for (Reactor reactor : reactors) {
+                reactor.stop();
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections, and close all of the connected channels.
+     */
+    void stop() {
+        if (isRunning.getAndSet(false)) {
+            Selector selector = acceptSelector;
+            if (selector != null) {
+                selector.wakeup();
+            }
+        }
+    }
+
+    private static void safeClose(Channel channel) {
+        if (channel != null) {
+            try { channel.close(); } catch (IOException ignore) { }
+        }
+    }
+
+    /**
+     * An I/O thread, which owns a selector and all of the channels registered at it.<br/>
+     * All of the state of a {@link Connection} is touched by its reactor thread only. Worker threads
+     * communicate with the reactor by submitting tasks using {@link #execute(Runnable)}.
+     */
+    private final class Reactor implements Runnable {
+        private final Thread thread;
+        private final Queue<Runnable> tasks;
+        private final ByteBuffer readBuffer;
+        private volatile boolean isActive;
+        private Selector selector;
+
+        Reactor(ThreadFactory threadFactory) {
+            thread = threadFactory.newThread(this);
+            tasks = new ConcurrentLinkedQueue<>();
+
+            // A single buffer per reactor is enough, as we copy the bytes out of it right after reading
+            readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        }
+
+        void start() throws IOException {
+            selector = Selector.open();
+            isActive = true;
+            thread.start();
+        }
+
+        void stop() {
+            isActive = false;
+            if (selector != null) {
+                selector.wakeup();
+            }
+        }
+
+        void register(SocketChannel channel) {
+            execute(() -> {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    Connection connection = new Connection(this, channel, key);
+                    key.attach(connection);
+                    log.info("Communication with client started. Client=" + connection.client);
+                } catch (IOException e) {
+                    log.error("Error has occurred while setting up connection with client. Error: " + e, e);
+                    safeClose(channel);
+                }
+            });
+        }
+
+        /**
+         * Execute some task on this reactor's thread, in order to touch the state of its connections.
+         * @param task The task to execute
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (isActive) {
+                    selector.select(SELECT_TIMEOUT_MILLIS);
+
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext()) {
+                        SelectionKey key = selectedKeys.next();
+                        selectedKeys.remove();
+
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        } catch (Throwable t) {
+                            // Most likely the remote side has reset the connection
+                            log.debug("Error has occurred while communicating with client: " + connection.client + ". Error: " + t);
+                            connection.close();
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                log.error("Error has occurred in I/O thread: " + t, t);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        ((Connection) key.attachment()).close();
+                    }
+                }
+
+                try { selector.close(); } catch (IOException ignore) { }
+            }
+        }
+    }
+
+    /**
+     * The state of a single client channel.<br/>
+     * A connection serves one request at a time: Once a request was decoded, we stop reading from the channel
+     * until the response of that request was fully written. This keeps responses in order, and protects us from
+     * a client that floods us with requests.
+     */
+    private final class Connection {
+        private final Reactor reactor;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ClientInfo client;
+        private final Deque<ByteBuffer> pendingWrites;
+
+        /**
+         * Decoder of the line based protocol. Null until we know what protocol the client is using, or when it is using frames.
+         */
+        private RequestDecoder decoder;
+
+        /**
+         * Decoder of the framed protocol. Null until we know what protocol the client is using, or when it is using lines.
+         */
+        private FrameDecoder frameDecoder;
+
+        /**
+         * Whether there is a request of this connection being handled by a worker thread right now
+         */
+        private boolean isBusy;
+
+        /**
+         * Set when client has asked to end communication, so we close the channel once all responses are written
+         */
+        private boolean closeWhenFlushed;
+
+        /**
+         * Set when client has closed its output. (We will not receive anything more)
+         */
+        private boolean isEndOfStream;
+
+        Connection(Reactor reactor, SocketChannel channel, SelectionKey key) {
+            this.reactor = reactor;
+            this.channel = channel;
+            this.key = key;
+            client = ClientInfo.from(channel.socket());
+            pendingWrites = new ArrayDeque<>();
+        }
+
+        void onReadable() throws IOException {
+            ByteBuffer buffer = reactor.readBuffer;
+            int bytesRead;
+            int reads = 0;
+            do {
+                ByteBuffer payload = (frameDecoder == null) ? null : frameDecoder.getPendingPayload();
+                if (payload != null) {
+                    // We are in the middle of a frame, so read straight into its (pooled) buffer
+                    bytesRead = channel.read(payload);
+                    frameDecoder.onPayloadRead();
+                } else {
+                    buffer.clear();
+                    bytesRead = channel.read(buffer);
+                    if (bytesRead > 0) {
+                        buffer.flip();
+                        decode(buffer);
+                    }
+                }
+            } while ((bytesRead > 0) && (++reads < MAX_READS_PER_SELECTION));
+
+            if (bytesRead < 0) {
+                isEndOfStream = true;
+                if (decoder != null) {
+                    decoder.endOfStream();
+                }
+
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+
+            dispatchNextRequest();
+        }
+
+        private void decode(ByteBuffer buffer) throws IOException {
+            if ((decoder == null) && (frameDecoder == null)) {
+                // First byte of the connection tells us what protocol the client is using
+                if (buffer.get(buffer.position()) == FramedProtocol.MAGIC) {
+                    buffer.get();
+                    frameDecoder = new FrameDecoder();
+                    log.info("Client is using framed protocol. Client=" + client);
+                } else {
+                    decoder = new RequestDecoder();
+                }
+            }
+
+            if (frameDecoder != null) {
+                frameDecoder.decode(buffer);
+            } else {
+                decoder.decode(buffer);
+            }
+        }
+
+        void dispatchNextRequest() {
+            if (isBusy || closeWhenFlushed || !key.isValid()) {
+                return;
+            }
+
+            String request = null;
+            ByteBuffer frame = null;
+            if (frameDecoder != null) {
+                frame = frameDecoder.poll();
+            } else if (decoder != null) {
+                request = decoder.poll();
+            }
+
+            if ((request == null) && (frame == null)) {
+                if (isEndOfStream) {
+                    closeWhenFlushed = true;
+                    closeIfFlushed();
+                }
+            } else if ((frame != null) ? !frame.hasRemaining() : request.isEmpty()) {
+                log.info("Request was empty. Ending communication");
+                ByteBufferPool.getInstance().release(frame);
+                closeWhenFlushed = true;
+                closeIfFlushed();
+            } else {
+                isBusy = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+
+                String finalRequest = request;
+                ByteBuffer finalFrame = frame;
+                try {
+                    workersExecutor.execute(() -> {
+                        if (finalFrame != null) {
+                            handleFrame(finalFrame);
+                        } else {
+                            handleRequest(finalRequest);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Server is shutting down
+                    ByteBufferPool.getInstance().release(frame);
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Executed by a worker thread, to pass the request to the {@link RequestHandler}
+         */
+        private void handleRequest(String request) {
+            ClientHandler.logRequest(request);
+
+            AtomicBoolean shouldStop = new AtomicBoolean();
+            ByteBuffer response = null;
+            try {
+                if (requestHandler.onBeforeRequest(client)) {
+                    response = encode(requestHandler.onRequest(client, request, shouldStop::set));
+                } else {
+                    log.info("Request was denied by handler. Ending communication");
+                    shouldStop.set(true);
+                }
+            } catch (FavIconException e) {
+                try {
+                    response = ByteBuffer.wrap(ClientHandler.favIconResponse());
+                } catch (Exception ex) {
+                    log.error("Error has occurred: " + ex, ex);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Error has occurred while communicating with client: " + client + ". Error: " + e, e);
+                try {
+                    response = encode(requestHandler.onError(client, e));
+                } catch (Throwable t) {
+                    log.error("Error has occurred while handling error of client: " + client + ". Error: " + t, t);
+                    shouldStop.set(true);
+                }
+            } catch (Throwable t) {
+                log.error("Error has occurred while communicating with client: " + client + ". Error: " + t, t);
+                shouldStop.set(true);
+            }
+
+            ByteBuffer finalResponse = response;
+            reactor.execute(() -> onResponse(finalResponse, shouldStop.get()));
+        }
+
+        /**
+         * Executed by a worker thread, to pass a framed request to the {@link RequestHandler}
+         */
+        private void handleFrame(ByteBuffer request) {
+            log.info("Received: frame of " + request.remaining() + " bytes");
+
+            AtomicBoolean shouldStop = new AtomicBoolean();
+            FrameOutputStream response = new FrameOutputStream();
+            boolean hasResponse = false;
+            try {
+                if (requestHandler.onBeforeRequest(client)) {
+                    hasResponse = requestHandler.onRequest(client, request, response, shouldStop::set);
+                } else {
+                    log.info("Request was denied by handler. Ending communication");
+                    shouldStop.set(true);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Error has occurred while communicating with client: " + client + ". Error: " + e, e);
+                try {
+                    String errorResponse = requestHandler.onError(client, e);
+                    response.reset();
+                    hasResponse = errorResponse != null;
+                    if (hasResponse) {
+                        response.write(errorResponse.getBytes(StandardCharsets.UTF_8));
+                    }
+                } catch (Throwable t) {
+                    log.error("Error has occurred while handling error of client: " + client + ". Error: " + t, t);
+                    shouldStop.set(true);
+                }
+            } catch (Throwable t) {
+                log.error("Error has occurred while communicating with client: " + client + ". Error: " + t, t);
+                shouldStop.set(true);
+            } finally {
+                ByteBufferPool.getInstance().release(request);
+            }
+
+            ByteBuffer frame = null;
+            if (hasResponse) {
+                log.info("Sent: frame of " + response.getPayloadLength() + " bytes");
+                frame = response.toFrameBuffer();
+            }
+
+            ByteBuffer finalFrame = frame;
+            reactor.execute(() -> onResponse(finalFrame, shouldStop.get()));
+        }
+
+        /**
+         * Executed by the reactor thread, once a worker thread has finished handling a request
+         */
+        private void onResponse(ByteBuffer response, boolean shouldStop) {
+            isBusy = false;
+            closeWhenFlushed |= shouldStop;
+            if (!key.isValid()) {
+                return;
+            }
+
+            if (response != null) {
+                pendingWrites.add(response);
+            }
+
+            try {
+                flush();
+                if (key.isValid()) {
+                    if (!closeWhenFlushed && !isEndOfStream) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    }
+
+                    // There might be another request waiting at the decoder already
+                    dispatchNextRequest();
+                }
+            } catch (IOException e) {
+                log.debug("Error has occurred while writing response to client: " + client + ". Error: " + e);
+                close();
+            }
+        }
+
+        void flush() throws IOException {
+            while (!pendingWrites.isEmpty()) {
+                ByteBuffer buffer = pendingWrites.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    // Socket buffer is full. Continue when the channel is writable again
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+
+                pendingWrites.poll();
+            }
+
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            closeIfFlushed();
+        }
+
+        private void closeIfFlushed() {
+            if (closeWhenFlushed && !isBusy && pendingWrites.isEmpty()) {
+                close();
+            }
+        }
+
+        void close() {
+            if (key.isValid() || channel.isOpen()) {
+                key.cancel();
+                safeClose(channel);
+                if (frameDecoder != null) {
+                    frameDecoder.release();
+                }
+
+                log.info("Communication with client ended. Client=" + client);
+            }
+        }
+
+        private ByteBuffer encode(String response) {
+            // We let the RequestHandler to return null from onRequest, to avoid of returning anything back to client.
+            if (response == null) {
+                return null;
+            }
+
+            ClientHandler.logResponse(response);
+            return ByteBuffer.wrap((response.endsWith("\n") ? response : response + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Decodes requests out of the bytes read from a channel.<br/>
+     * A request is all of the lines up to an empty line, same as {@link ClientHandler#readRequest(java.io.BufferedReader)}.
+     * Bytes are kept until a line is complete, so a multi-byte character that was split between two reads is decoded correctly.
+     */
+    static final class RequestDecoder {
+        private final StringBuilder request = new StringBuilder();
+        private final Queue<String> requests = new ArrayDeque<>();
+        private byte[] line = new byte[256];
+        private int lineLength;
+
+        void decode(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    onEndOfLine();
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+
+                    line[lineLength++] = b;
+                }
+            }
+        }
+
+        /**
+         * When client has closed its output, a partial request is considered as complete, same as reading null from a reader.
+         */
+        void endOfStream() {
+            if (lineLength > 0) {
+                onEndOfLine();
+            }
+
+            if (request.length() > 0) {
+                completeRequest();
+            }
+        }
+
+        /**
+         * @return The next complete request, or null in case there is no complete request yet
+         */
+        String poll() {
+            return requests.poll();
+        }
+
+        private void onEndOfLine() {
+            int length = lineLength;
+            if ((length > 0) && (line[length - 1] == '\r')) {
+                length--;
+            }
+
+            String inputLine = new String(line, 0, length, StandardCharsets.UTF_8);
+            lineLength = 0;
+
+            if (inputLine.isBlank()) {
+                completeRequest();
+            } else {
+                request.append(inputLine).append(System.lineSeparator());
+            }
+        }
+
+        private void completeRequest() {
+            requests.add(request.toString().trim());
+            request.setLength(0);
+        }
+    }
+
+    /**
+     * Decodes {@link FramedProtocol frames} out of the bytes read from a channel.<br/>
+     * Once a header was decoded, we acquire a pooled buffer for the whole payload. The rest of the payload can be read
+     * straight into that buffer (see {@link #getPendingPayload()}), so it is never copied nor decoded into a string.
+     */
+    static final class FrameDecoder {
+        private final byte[] header = new byte[FramedProtocol.HEADER_LENGTH];
+        private final Queue<ByteBuffer> frames = new ArrayDeque<>();
+        private int headerLength;
+        private ByteBuffer payload;
+
+        void decode(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (payload == null) {
+                    int length = Math.min(header.length - headerLength, buffer.remaining());
+                    buffer.get(header, headerLength, length);
+                    headerLength += length;
+                    if (headerLength < header.length) {
+                        return;
+                    }
+
+                    headerLength = 0;
+                    int payloadLength = FramedProtocol.readLength(header, 0);
+                    payload = ByteBufferPool.getInstance().acquire(payloadLength);
+                    payload.limit(payloadLength);
+                } else {
+                    int length = Math.min(payload.remaining(), buffer.remaining());
+                    int limit = buffer.limit();
+                    buffer.limit(buffer.position() + length);
+                    payload.put(buffer);
+                    buffer.limit(limit);
+                }
+
+                onPayloadRead();
+            }
+        }
+
+        /**
+         * @return The buffer of the frame we are in the middle of, or null in case we are not in the middle of a payload
+         */
+        ByteBuffer getPendingPayload() {
+            return payload;
+        }
+
+        /**
+         * Must be called after reading bytes into {@link #getPendingPayload()}
+         */
+        void onPayloadRead() {
+            if ((payload != null) && !payload.hasRemaining()) {
+                payload.flip();
+                frames.add(payload);
+                payload = null;
+            }
+        }
+
+        /**
+         * @return The payload of the next complete frame, or null in case there is no complete frame yet.
+         * Release it to the {@link ByteBufferPool} when done.
+         */
+        ByteBuffer poll() {
+            return frames.poll();
+        }
+
+        /**
+         * Return all buffers to the pool. Called when the connection is closed.
+         */
+        void release() {
+            ByteBufferPool.getInstance().release(payload);
+            payload = null;
+
+            ByteBuffer frame;
+            while ((frame = frames.poll()) != null) {
+                ByteBufferPool.getInstance().release(frame);
+            }
+        }
+    }
+}
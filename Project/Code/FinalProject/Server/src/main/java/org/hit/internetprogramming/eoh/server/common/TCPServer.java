@@ -5,11 +5,11 @@ import lombok.extern.log4j.Log4j2;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -24,6 +24,42 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 @Log4j2
 public class TCPServer {
+    /**
+     * The way a {@link TCPServer} serves its clients.
+     */
+    public enum Mode {
+        /**
+         * Every accepted socket is served by its own thread, taken from a bounded thread pool.<br/>
+         * Simple, but a connection pins a thread for its whole life, so there can be no more than maxPoolSize
+         * connected clients at the same time.
+         */
+        BLOCKING,
+
+        /**
+         * All sockets are non-blocking channels, multiplexed on a few I/O threads using {@link java.nio.channels.Selector}s.<br/>
+         * Only decoded requests are passed to the workers thread pool, so there can be thousands of (mostly idle)
+         * connected clients, and maxPoolSize bounds the amount of requests handled in parallel.
+         */
+        SELECTOR,
+
+        /**
+         * Same programming model as {@link #BLOCKING}, but every accepted socket (and the {@link RequestHandler} calls
+         * made for it) runs on its own virtual thread, so a connection no longer pins a platform thread.<br/>
+         * There is no thread pool to reject connections. Instead, maxPoolSize is the amount of permits of an admission
+         * semaphore, which bounds the amount of connected clients. Clients above that limit are rejected at once. When the
+         * JVM does not support virtual threads (older than Java 21), we fall back to a cached thread pool, keeping the same
+         * admission limit. See {@link #isUsingVirtualThreads()}
+         */
+        VIRTUAL_THREADS
+    }
+
+    /**
+     * Client socket timeout in {@link Mode#VIRTUAL_THREADS} mode. {@link ClientHandler} polls its socket in order to notice that
+     * it was stopped, and every timeout costs an exception. With thousands of connected clients, polling every 100ms would keep
+     * the CPU busy with exceptions, so we poll less frequently, at the cost of a slower shutdown.
+     */
+    private static final long VIRTUAL_THREADS_SOCKET_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
     /**
      * Use an atomic counter so we can count instances of {@link TCPServer} and give them meaningful name.
      */
@@ -39,6 +75,16 @@ public class TCPServer {
      */
     private final int serverId;
 
+    /**
+     * Use an atomic counter so we can count I/O threads of {@link Mode#SELECTOR} mode and give them meaningful name.
+     */
+    private final AtomicInteger ioThreadIdCounter;
+
+    /**
+     * The way this server serves its clients
+     */
+    private final Mode mode;
+
     /**
      * The port we are listening on
      */
@@ -78,7 +124,22 @@ public class TCPServer {
     /**
      * Hold references to request handlers so we can inform them to stop when server is required to stop
      */
-    private List<ClientHandler> handlers;
+    private Set<ClientHandler> handlers;
+
+    /**
+     * Bounds the amount of connected clients when we are running in {@link Mode#VIRTUAL_THREADS} mode
+     */
+    private Semaphore admission;
+
+    /**
+     * The non-blocking front end, used when we are running in {@link Mode#SELECTOR} mode
+     */
+    private SelectorServer selectorServer;
+
+    /**
+     * Whether the workers executor runs on virtual threads, or it is the fallback of {@link Mode#VIRTUAL_THREADS} mode
+     */
+    private volatile boolean isUsingVirtualThreads;
 
     /**
      * Constructs a new {@link TCPServer}
@@ -90,11 +151,28 @@ public class TCPServer {
      * @param requestHandler A request handler to use for handling client requests
      */
     public TCPServer(int port, int corePoolSize, int maxPoolSize, RequestHandler requestHandler) {
+        this(port, corePoolSize, maxPoolSize, requestHandler, Mode.BLOCKING);
+    }
+
+    /**
+     * Constructs a new {@link TCPServer}
+     *
+     * @param port The port we are listening on
+     * @param corePoolSize Minimum amount of threads that will serve client requests in parallel
+     * @param maxPoolSize Maximum amount of threads that will serve client requests in parallel. In {@link Mode#BLOCKING} mode,
+     * if there are more requests than maximum workers, the requests will be rejected. In {@link Mode#SELECTOR} mode, requests
+     * are queued until there is a free worker. In {@link Mode#VIRTUAL_THREADS} mode, this is the maximum amount of connected clients.
+     * @param requestHandler A request handler to use for handling client requests
+     * @param mode The way this server serves its clients. See {@link Mode}
+     */
+    public TCPServer(int port, int corePoolSize, int maxPoolSize, RequestHandler requestHandler, Mode mode) {
         this.port = port;
+        this.mode = mode;
         this.requestHandler = requestHandler;
         this.corePoolSize = corePoolSize;
         this.maxPoolSize = maxPoolSize;
         workerThreadIdCounter = new AtomicInteger();
+        ioThreadIdCounter = new AtomicInteger();
 
         serverId = serverIdCounter.incrementAndGet();
         isRunning = new AtomicBoolean();
@@ -112,6 +190,36 @@ public class TCPServer {
         return executor;
     }
 
+    private ThreadPoolExecutor initializeSelectorWorkersThreadPool() {
+        // In selector mode, workers are occupied by requests and not by connections, so we queue
+        // requests when all workers are busy, instead of rejecting them.
+        int poolSize = Math.max(1, maxPoolSize);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            this::workerThreadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ExecutorService initializeVirtualThreadsExecutor() {
+        try {
+            // Resolve virtual threads API reflectively, as we are compiled against Java 11
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "Server-" + serverId + "-Virtual-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            ExecutorService executor = (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+            isUsingVirtualThreads = true;
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by current JVM (" + System.getProperty("java.version") + "). Using a cached thread pool instead.");
+            return Executors.newCachedThreadPool(this::workerThreadFactory);
+        }
+    }
+
     /**
      * Start the server so it will listen on the configured port and accept connections
      */
@@ -119,45 +227,77 @@ public class TCPServer {
         // Atomic check and update, so only single thread can start a server
         if (!isRunning.getAndSet(true)) {
             serverExecutor = Executors.newSingleThreadExecutor(this::serverThreadFactory);
-            workersExecutor = initializeWorkersThreadPool();
-            handlers = new ArrayList<>();
-
-            serverExecutor.submit(() -> {
-                log.info("Server is listening on port: " + port);
-                try (ServerSocket serverSocket = new ServerSocket(port, maxPoolSize)) {
-                    // Set socket timeout so we will be able to stop server instead of getting blocked at serverSocket.accept()
-                    serverSocket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(2));
-
-                    while (isRunning.get()) {
-                        Socket socket = null;
-                        try {
-                            socket = serverSocket.accept();
-
-                            // As the "accept" call above can wait up to 2 seconds, where the server
-                            // might have been stopped during those two seconds, we would like to ignore this request.
-                            if (!isRunning.get()) {
-                                safeCloseSocket(socket);
-                            } else {
-                                // Set socket timeout so we will be able to stop server instead of getting blocked at clientInput.read()
-                                socket.setSoTimeout((int) TimeUnit.MILLISECONDS.toMillis(100));
-                                onSocketAccepted(socket);
-                            }
-                        } catch (Throwable t) {
-                            onSocketHandlerError(socket, t);
-                        }
-                    }
+            handlers = ConcurrentHashMap.newKeySet();
+
+            if (mode == Mode.SELECTOR) {
+                workersExecutor = initializeSelectorWorkersThreadPool();
+                selectorServer = new SelectorServer(port, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), requestHandler, workersExecutor, this::ioThreadFactory);
+                serverExecutor.submit(this::runSelectorServer);
+            } else if (mode == Mode.VIRTUAL_THREADS) {
+                workersExecutor = initializeVirtualThreadsExecutor();
+                admission = new Semaphore(Math.max(1, maxPoolSize));
+                serverExecutor.submit(this::runBlockingServer);
+            } else {
+                workersExecutor = initializeWorkersThreadPool();
+                serverExecutor.submit(this::runBlockingServer);
+            }
+        }
+    }
 
-                    log.info("Server exited its message loop");
-                } catch (Exception e) {
-                    log.error("Error has occurred while launching server: " + e, e);
-                } finally {
-                    isRunning.set(false);
-                    log.info("Server was terminated");
+    private void runBlockingServer() {
+        log.info("Server is listening on port: " + port);
+        try (ServerSocket serverSocket = new ServerSocket(port, maxPoolSize)) {
+            // Set socket timeout so we will be able to stop server instead of getting blocked at serverSocket.accept()
+            serverSocket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(2));
+
+            while (isRunning.get()) {
+                Socket socket = null;
+                try {
+                    socket = serverSocket.accept();
+
+                    // As the "accept" call above can wait up to 2 seconds, where the server
+                    // might have been stopped during those two seconds, we would like to ignore this request.
+                    if (!isRunning.get()) {
+                        safeCloseSocket(socket);
+                    } else {
+                        // Set socket timeout so we will be able to stop server instead of getting blocked at clientInput.read()
+                        socket.setSoTimeout((int) (mode == Mode.VIRTUAL_THREADS ? VIRTUAL_THREADS_SOCKET_TIMEOUT_MILLIS : TimeUnit.MILLISECONDS.toMillis(100)));
+                        onSocketAccepted(socket);
+                    }
+                } catch (Throwable t) {
+                    onSocketHandlerError(socket, t);
                 }
-            });
+            }
+
+            log.info("Server exited its message loop");
+        } catch (Exception e) {
+            log.error("Error has occurred while launching server: " + e, e);
+        } finally {
+            isRunning.set(false);
+            log.info("Server was terminated");
         }
     }
 
+    private void runSelectorServer() {
+        try {
+            selectorServer.run();
+            log.info("Server exited its message loop");
+        } catch (Exception e) {
+            log.error("Error has occurred while launching server: " + e, e);
+        } finally {
+            isRunning.set(false);
+            log.info("Server was terminated");
+        }
+    }
+
+    /**
+     * @return Whether this server serves its clients on virtual threads. This is {@code false} in case we were not started
+     * in {@link Mode#VIRTUAL_THREADS} mode, or when the JVM does not support virtual threads and we fell back to a cached thread pool
+     */
+    public boolean isUsingVirtualThreads() {
+        return isUsingVirtualThreads;
+    }
+
     /**
      * Stop the server from whatever it is doing right now.<br/>
      * Please note that this call might be blocked for 10 seconds maximum in case server is waiting for a new connection to arrive.
@@ -166,6 +306,9 @@ public class TCPServer {
         if (isRunning.getAndSet(false)) {
             log.info("Stopping workers");
             handlers.forEach(ClientHandler::stop);
+            if (selectorServer != null) {
+                selectorServer.stop();
+            }
 
             log.info("Shutting down thread pools...");
             workersExecutor.shutdown();
@@ -200,23 +343,43 @@ public class TCPServer {
      * @param socket The socket to handle
      */
     private void onSocketAccepted(Socket socket) {
-        workersExecutor.submit(() -> {
-            ClientInfo client = ClientInfo.from(socket);
-            log.info("Communication with client started. Client=" + client);
+        // In virtual threads mode, there is no pool to reject us, so we limit the amount of connected clients by ourselves.
+        // Do not wait for a permit, as this is the accept thread, and waiting would delay all clients behind this one.
+        if ((admission != null) && !admission.tryAcquire()) {
+            throw new RejectedExecutionException("Server is too busy. Maximum amount of connected clients is: " + maxPoolSize);
+        }
 
-            ClientHandler clientHandler = null;
-            try {
-                clientHandler = new ClientHandler(requestHandler);
-                handlers.add(clientHandler);
-                clientHandler.handle(client, socket.getInputStream(), socket.getOutputStream());
-            } catch (Throwable t) {
-                log.error("Error has occurred while setting up connection with client. Error: " + t, t);
-            } finally {
-                log.info("Communication with client ended. Client=" + client);
-                safeCloseSocket(socket);
-                handlers.remove(clientHandler);
+        try {
+            workersExecutor.submit(() -> {
+                ClientInfo client = ClientInfo.from(socket);
+                log.info("Communication with client started. Client=" + client);
+
+                ClientHandler clientHandler = null;
+                try {
+                    clientHandler = new ClientHandler(requestHandler);
+                    handlers.add(clientHandler);
+                    clientHandler.handle(client, socket.getInputStream(), socket.getOutputStream());
+                } catch (Throwable t) {
+                    log.error("Error has occurred while setting up connection with client. Error: " + t, t);
+                } finally {
+                    log.info("Communication with client ended. Client=" + client);
+                    safeCloseSocket(socket);
+                    if (clientHandler != null) {
+                        handlers.remove(clientHandler);
+                    }
+
+                    if (admission != null) {
+                        admission.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (admission != null) {
+                admission.release();
             }
-        });
+
+            throw e;
+        }
     }
 
     /**
@@ -258,6 +421,12 @@ public class TCPServer {
         return t;
     }
 
+    private Thread ioThreadFactory(Runnable r) {
+        Thread t = Executors.defaultThreadFactory().newThread(r);
+        t.setName("Server-" + serverId + "-IO-" + ioThreadIdCounter.incrementAndGet());
+        return t;
+    }
+
     private Thread serverThreadFactory(Runnable r) {
         Thread t = Executors.defaultThreadFactory().newThread(r);
         t.setName("ServerThread-" + serverId);
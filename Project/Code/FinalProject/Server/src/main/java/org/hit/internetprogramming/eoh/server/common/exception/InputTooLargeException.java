@@ -2,7 +2,7 @@ package org.hit.internetprogramming.eoh.server.common.exception;
 
 /**
  * This exception is thrown when the input to {@link org.hit.internetprogramming.eoh.server.graph.algorithm.FindPaths#findShortestPaths(Object)}
- * is over than 50x50.
+ * is over than 50x50, or when there are too many shortest paths to return at once.
  * @author Haim Adrian
  * @since 19-Jul-21
  */
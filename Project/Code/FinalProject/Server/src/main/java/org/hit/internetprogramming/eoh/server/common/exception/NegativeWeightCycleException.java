@@ -1,28 +1,55 @@
 package org.hit.internetprogramming.eoh.server.common.exception;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This exception is thrown when a negative weight cycle is detected while traversing a graph
- * using {@link org.hit.internetprogramming.eoh.server.graph.algorithm.BellmanFord} algorithm.
+ * using {@link org.hit.internetprogramming.eoh.server.graph.algorithm.BellmanFord} algorithm.<br/>
+ * When the algorithm can tell which vertices form the cycle, they are available through {@link #getCycle()}.
  * @author Haim Adrian
  * @since 19-Jul-21
  */
 public class NegativeWeightCycleException extends RuntimeException {
+    /**
+     * Vertices of the detected cycle, in the order of its edges, or empty when unknown
+     */
+    private final List<?> cycle;
+
     public NegativeWeightCycleException() {
+        cycle = Collections.emptyList();
+    }
+
+    public NegativeWeightCycleException(String message, List<?> cycle) {
+        super(message);
+        this.cycle = Collections.unmodifiableList(cycle);
     }
 
     public NegativeWeightCycleException(String message) {
         super(message);
+        cycle = Collections.emptyList();
     }
 
     public NegativeWeightCycleException(String message, Throwable cause) {
         super(message, cause);
+        cycle = Collections.emptyList();
     }
 
     public NegativeWeightCycleException(Throwable cause) {
         super(cause);
+        cycle = Collections.emptyList();
     }
 
     public NegativeWeightCycleException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
         super(message, cause, enableSuppression, writableStackTrace);
+        cycle = Collections.emptyList();
+    }
+
+    /**
+     * @return Vertices of the detected cycle, in the order of its edges, where the last vertex leads back to the first one.
+     * Empty when the algorithm that detected the cycle cannot tell its vertices.
+     */
+    public List<?> getCycle() {
+        return cycle;
     }
 }
@@ -0,0 +1,346 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import lombok.NonNull;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A* over the dense ids of a {@link CompiledGraph}, which finds all shortest paths between a source vertex and a
+ * destination vertex.<br/>
+ * Dijkstra settles vertices by their distance from source, so it goes in all directions until it gets to destination.
+ * A* settles vertices by their distance from source plus an estimate of their distance to destination, so it goes
+ * towards destination. The estimate is the {@link GridHeuristic} of the matrix the graph was compiled from (Manhattan
+ * for a standard matrix, Chebyshev for a matrix, and a parity-aware diagonal distance for a cross matrix), multiplied by
+ * the minimum weight, as each step weighs at least that much. When {@link Landmarks} are specified, the estimate is the
+ * larger of that and the lower bound of the landmarks, which directs the search on graphs whose weights vary as well.
+ * <p>
+ * The heuristics are consistent, so once a vertex is settled its distance is final, same as Dijkstra. To find all
+ * shortest paths rather than one of them, we do not stop once destination is settled, but once the estimates of all
+ * vertices left in the queue are longer than its distance: every vertex of a shortest path is estimated at that distance
+ * or less, so by then all of them are settled.<br/>
+ * Parents are collected once the search is over, out of the final distances: {@code u} is a parent of {@code v} when
+ * {@code distance[u] + weight(u, v) == distance[v]}. Over zero weight edges, {@code u} must be at a lower
+ * {@link ZeroWeightLayers layer} than {@code v} as well, which keeps the parents acyclic, same as {@link DialDijkstra}.
+ * Vertices at the distance of destination are estimated at that distance at most, so all of them are settled, and
+ * layered, before we stop.
+ * </p>
+ * Graphs with negative weights are not supported. Unweighted graphs are traversed using unit weights, where distance
+ * is the length of a path, same as {@link IntBFSVisit}.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see GridHeuristic
+ * @see DialDijkstra
+ */
+public class AStar implements ShortestPathAlgorithm<Index> {
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * Whether to use the weights of the graph, or a weight of 1 per edge
+     */
+    private final boolean isWeighted;
+
+    /**
+     * Landmarks of the graph, to estimate distances with. Optional
+     */
+    private final Landmarks landmarks;
+
+    /**
+     * Constructs a new {@link AStar}, using the weights of the graph
+     */
+    public AStar() {
+        this(true);
+    }
+
+    /**
+     * Constructs a new {@link AStar}
+     * @param isWeighted Whether to use the weights of the graph, or a weight of 1 per edge, such that distance is the
+     * length of a path
+     */
+    public AStar(boolean isWeighted) {
+        this.isWeighted = isWeighted;
+        this.landmarks = null;
+    }
+
+    /**
+     * Constructs a new {@link AStar}, using the weights of the graph, which estimates distances using landmarks as well
+     * @param landmarks Landmarks of the graph to traverse. See {@link Landmarks#build(CompiledGraph, int)}
+     */
+    public AStar(@NonNull Landmarks landmarks) {
+        this.isWeighted = true;
+        this.landmarks = landmarks;
+    }
+
+    /**
+     * @param graph A graph to check
+     * @return Whether the specified graph has no negative weights
+     */
+    public static boolean supports(CompiledGraph graph) {
+        return graph.minWeight() >= 0;
+    }
+
+    /**
+     * Traverse the whole graph, starting from its root. With no destination there is nothing to estimate, so this is
+     * Dijkstra.
+     * @param graph The graph to traverse, starting from its root.
+     * @return All settled vertices
+     */
+    @Override
+    public Map<Index, VertexDistanceInfo<Index>> traverse(@NonNull IGraph<Index> graph) {
+        return traverse(graph, null);
+    }
+
+    /**
+     * Traverse a graph from its root until all shortest paths to destination are found. See
+     * {@link #traverse(CompiledGraph, int, int)}
+     * @param graph The graph to traverse, starting from its root.
+     * @param destination Where to stop. When {@code null}, the whole graph is traversed
+     * @return All settled vertices
+     */
+    @Override
+    public Map<Index, VertexDistanceInfo<Index>> traverse(@NonNull IGraph<Index> graph, Index destination) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        int destinationId = (destination == null) ? CompiledGraph.NO_VERTEX : compiledGraph.idOf(destination);
+        ShortestPathTree shortestPathTree = traverse(compiledGraph, compiledGraph.rootId(), destinationId);
+
+        Map<Index, VertexDistanceInfo<Index>> visitedVertices = new HashMap<>();
+        for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+            if (shortestPathTree.isReached(id)) {
+                VertexDistanceInfo<Index> info = visitedVertices.computeIfAbsent(compiledGraph.vertexOf(id), VertexDistanceInfo::new);
+                info.setDistance(shortestPathTree.distance(id));
+                shortestPathTree.forEachParent(id, parent -> info.getParents().add(compiledGraph.vertexOf(parent)));
+            }
+        }
+
+        return visitedVertices;
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until all shortest paths to destination are found.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, and add source to queue with estimate h(source)
+     * While queue is not empty:
+     *     u = remove the vertex with the shortest estimate from queue (the longest distance first, among equal estimates)
+     *     If u is settled: continue
+     *     If destination is settled and estimate[u] > distance[destination]: stop
+     *     Settle u
+     *     For each edge (u, v) do:
+     *         If v is not settled and distance[u] + w(u, v) < distance[v]:
+     *             distance[v] = distance[u] + w(u, v)
+     *             Add v to queue with estimate distance[v] + h(v)
+     * Collect parents out of the distances of the settled vertices
+     * }</pre>
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @param destination Id of the vertex to find paths to, or {@link CompiledGraph#NO_VERTEX} to traverse all reachable vertices
+     * @return Distances and parents of the settled vertices. Parents are complete for vertices of shortest paths to
+     * destination, as the parents of other vertices might not be settled
+     * @throws IllegalArgumentException In case the graph has negative weights, or the landmarks were built for another graph
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source, int destination) {
+        if (isWeighted && !supports(graph)) {
+            throw new IllegalArgumentException("A* does not support negative weights. Minimum weight was: " + graph.minWeight());
+        }
+
+        if ((landmarks != null) && (landmarks.vertexCount() != graph.vertexCount())) {
+            throw new IllegalArgumentException("Landmarks were built for another graph. Vertices: " + landmarks.vertexCount() +
+                    ", while graph has: " + graph.vertexCount());
+        }
+
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount());
+            return traverse(graph, source, destination, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    private ShortestPathTree traverse(CompiledGraph graph, int source, int destination, Scratch scratch) {
+        int[] reached = scratch.reached;
+        int[] settled = scratch.settled;
+        long[] distance = scratch.distance;
+        int epoch = scratch.epoch();
+
+        Estimator estimator = new Estimator(graph, destination, isWeighted ? graph.minWeight() : 1, landmarks);
+        int settledCount = 0;
+        if ((source != CompiledGraph.NO_VERTEX) && (estimator.estimate(source) != GridHeuristic.UNREACHABLE)) {
+            reached[source] = epoch;
+            distance[source] = 0;
+            scratch.heap.push(source, estimator.estimate(source), 0);
+        }
+
+        long destinationDistance = ShortestPathTree.UNREACHED;
+        IntMinHeap heap = scratch.heap;
+        while (!heap.isEmpty()) {
+            long estimate = heap.peekEstimate();
+            int vertex = heap.pop();
+
+            // Skip entries of vertices that were settled through a shorter distance
+            if (settled[vertex] == epoch) {
+                continue;
+            }
+
+            if (estimate > destinationDistance) {
+                break;
+            }
+
+            settled[vertex] = epoch;
+            scratch.settleIndex[vertex] = settledCount;
+            scratch.settleOrder[settledCount++] = vertex;
+            if (vertex == destination) {
+                destinationDistance = distance[vertex];
+            }
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                long newDistance = distance[vertex] + (isWeighted ? graph.weight(edge) : 1);
+                if ((settled[target] != epoch) && ((reached[target] != epoch) || (newDistance < distance[target]))) {
+                    reached[target] = epoch;
+                    distance[target] = newDistance;
+                    heap.push(target, newDistance + estimator.estimate(target), newDistance);
+                }
+            }
+        }
+
+        // Stopped at destination, so drop whatever is left for the next traversal
+        heap.clear();
+
+        return buildTree(graph, source, scratch, settledCount, isWeighted);
+    }
+
+    /**
+     * Copy the distances of the settled vertices, and collect their parents into a new {@link ShortestPathTree}. The index
+     * of a vertex in the tree is its settle index, so the tree takes the size of the settled vertices only.
+     */
+    private static ShortestPathTree buildTree(CompiledGraph graph, int source, Scratch scratch, int settledCount, boolean isWeighted) {
+        int[] vertices = Arrays.copyOf(scratch.settleOrder, settledCount);
+        long[] distance = new long[settledCount];
+        for (int i = 0; i < settledCount; i++) {
+            distance[i] = scratch.distance[vertices[i]];
+        }
+
+        int[] zeroWeightLayer = (isWeighted && (graph.minWeight() == 0)) ?
+                ZeroWeightLayers.of(graph, source, vertices, distance, scratch::settleIndexOf) : null;
+
+        return new ShortestPathTree.Builder(graph, source, vertices, distance)
+                .build(builder -> collectParents(graph, scratch, settledCount, isWeighted, zeroWeightLayer, builder));
+    }
+
+    /**
+     * Go over all (child, parent) pairs, and add them to the builder, by the settle index of child
+     */
+    private static void collectParents(CompiledGraph graph, Scratch scratch, int settledCount, boolean isWeighted, int[] zeroWeightLayer,
+                                       ShortestPathTree.Builder builder) {
+        int[] settled = scratch.settled;
+        int[] settleIndex = scratch.settleIndex;
+        long[] distance = scratch.distance;
+        int epoch = scratch.epoch();
+
+        for (int i = 0; i < settledCount; i++) {
+            int vertex = scratch.settleOrder[i];
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                int weight = isWeighted ? graph.weight(edge) : 1;
+
+                if ((settled[target] == epoch) && (distance[vertex] + weight == distance[target]) &&
+                        ((weight > 0) || (zeroWeightLayer[i] < zeroWeightLayer[settleIndex[target]]))) {
+                    builder.addParent(settleIndex[target], vertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the distance of vertices from destination
+     */
+    private static class Estimator {
+        private final CompiledGraph graph;
+        private final GridHeuristic heuristic;
+        private final int destination;
+        private final int destinationRow;
+        private final int destinationCol;
+        private final long stepWeight;
+        private final Landmarks landmarks;
+
+        private Estimator(CompiledGraph graph, int destination, long stepWeight, Landmarks landmarks) {
+            this.graph = graph;
+            this.heuristic = (destination == CompiledGraph.NO_VERTEX) ? GridHeuristic.NONE : GridHeuristic.of(graph);
+            this.destination = destination;
+            this.destinationRow = (destination == CompiledGraph.NO_VERTEX) ? 0 : graph.vertexOf(destination).getRow();
+            this.destinationCol = (destination == CompiledGraph.NO_VERTEX) ? 0 : graph.vertexOf(destination).getColumn();
+            this.stepWeight = stepWeight;
+            this.landmarks = (destination == CompiledGraph.NO_VERTEX) ? null : landmarks;
+        }
+
+        /**
+         * @return Minimum distance from the specified vertex to destination, or {@link GridHeuristic#UNREACHABLE}
+         */
+        private long estimate(int id) {
+            Index vertex = graph.vertexOf(id);
+            long steps = heuristic.steps(destinationRow - vertex.getRow(), destinationCol - vertex.getColumn());
+            if (steps == GridHeuristic.UNREACHABLE) {
+                return steps;
+            }
+
+            return (landmarks == null) ? steps * stepWeight : Math.max(steps * stepWeight, landmarks.lowerBound(graph, id, destination));
+        }
+    }
+
+    /**
+     * Working arrays of a single traversal
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        /**
+         * Stamp of vertices that have a tentative distance
+         */
+        private int[] reached = new int[0];
+
+        /**
+         * Stamp of vertices whose distance is final
+         */
+        private int[] settled = new int[0];
+        private int[] settleIndex = new int[0];
+        private int[] settleOrder = new int[0];
+        private long[] distance = new long[0];
+
+        /**
+         * Vertices to settle, ordered by their estimate
+         */
+        private final IntMinHeap heap = new IntMinHeap();
+
+        /**
+         * @return Settle index of a vertex, or -1 when it is not settled
+         */
+        private int settleIndexOf(int vertex) {
+            return (settled[vertex] == epoch()) ? settleIndex[vertex] : -1;
+        }
+
+        @Override
+        protected void allocate(int vertexCount) {
+            reached = new int[vertexCount];
+            settled = new int[vertexCount];
+            settleIndex = new int[vertexCount];
+            settleOrder = new int[vertexCount];
+            distance = new long[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { reached, settled };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return heap.sizeInBytes() + 4L * capacity() * Integer.BYTES + (long) capacity() * Long.BYTES;
+        }
+    }
+}
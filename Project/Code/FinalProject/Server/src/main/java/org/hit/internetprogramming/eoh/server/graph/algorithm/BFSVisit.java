@@ -4,6 +4,7 @@ import lombok.NonNull;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * A class that implements BFS algorithm in order to find shortest paths in a graph.
@@ -77,6 +78,9 @@ public class BFSVisit<V> implements ShortestPathAlgorithm<V> {
         workingQueue.clear();
         visitedVertices.clear();
 
+        // A single visitor for the whole traversal, so visiting reachable vertices allocates nothing
+        ReachableVertexVisitor visitor = new ReachableVertexVisitor(destination, workingQueue, visitedVertices);
+
         V currVertex = graph.getRoot();
         workingQueue.add(currVertex);
         visitedVertices.computeIfAbsent(currVertex, VertexDistanceInfo::new).setDistance(0);
@@ -90,16 +94,14 @@ public class BFSVisit<V> implements ShortestPathAlgorithm<V> {
                 // This will break the outer loop in an ordinary way
                 workingQueue.clear();
             } else {
-                Collection<V> reachableVertices = graph.getReachableVertices(currVertex);
                 VertexDistanceInfo<V> parentVertexInfo = visitedVertices.get(currVertex);
+                visitor.setParent(currVertex, parentVertexInfo);
 
                 // Check if we have reached to destination, to avoid of adding other neighbors.
-                if ((destination != null) && reachableVertices.contains(destination)) {
+                if ((destination != null) && visitor.isDestinationReachable(graph)) {
                     updateVisitedVertexIfNecessary(destination, currVertex, parentVertexInfo, workingQueue, visitedVertices);
                 } else {
-                    for (V currReachableVertex : reachableVertices) {
-                        updateVisitedVertexIfNecessary(currReachableVertex, currVertex, parentVertexInfo, workingQueue, visitedVertices);
-                    }
+                    graph.forEachReachable(currVertex, visitor);
                 }
             }
         }
@@ -136,4 +138,54 @@ public class BFSVisit<V> implements ShortestPathAlgorithm<V> {
             vertexInfo.getParents().add(parentVertex);
         }
     }
+
+    /**
+     * Visits the reachable vertices of the vertex we currently handle.<br/>
+     * It either updates each reachable vertex, or it only looks for the destination, when we first check whether
+     * destination is reachable. See {@link #isDestinationReachable(IGraph)}
+     */
+    private final class ReachableVertexVisitor implements Consumer<V> {
+        private final V destination;
+        private final Deque<V> workingQueue;
+        private final Map<V, VertexDistanceInfo<V>> visitedVertices;
+        private V parentVertex;
+        private VertexDistanceInfo<V> parentVertexInfo;
+        private boolean isLookingForDestination;
+        private boolean isDestinationFound;
+
+        ReachableVertexVisitor(V destination, Deque<V> workingQueue, Map<V, VertexDistanceInfo<V>> visitedVertices) {
+            this.destination = destination;
+            this.workingQueue = workingQueue;
+            this.visitedVertices = visitedVertices;
+        }
+
+        void setParent(V parentVertex, VertexDistanceInfo<V> parentVertexInfo) {
+            this.parentVertex = parentVertex;
+            this.parentVertexInfo = parentVertexInfo;
+        }
+
+        /**
+         * @return Whether destination is reachable from the current parent vertex
+         */
+        boolean isDestinationReachable(IGraph<V> graph) {
+            isLookingForDestination = true;
+            isDestinationFound = false;
+            try {
+                graph.forEachReachable(parentVertex, this);
+            } finally {
+                isLookingForDestination = false;
+            }
+
+            return isDestinationFound;
+        }
+
+        @Override
+        public void accept(V vertex) {
+            if (isLookingForDestination) {
+                isDestinationFound |= vertex.equals(destination);
+            } else {
+                updateVisitedVertexIfNecessary(vertex, parentVertex, parentVertexInfo, workingQueue, visitedVertices);
+            }
+        }
+    }
 }
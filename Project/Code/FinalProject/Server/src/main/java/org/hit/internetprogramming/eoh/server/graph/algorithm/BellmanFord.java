@@ -13,7 +13,10 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A class that implements Bellman-Ford algorithm in order to find shortest paths in a weighted graph.
+ * A class that implements Bellman-Ford algorithm in order to find shortest paths in a weighted graph.<br/>
+ * This implementation works with any {@link IGraph}. Graphs of {@link org.hit.internetprogramming.eoh.common.mat.Index}
+ * are traversed faster by {@link SPFA}, which also reports the vertices of a negative cycle, or in parallel by
+ * {@link ParallelBellmanFord}.
  *
  * @param <V> Type of elements in an {@link IGraph} (We use the {@link org.hit.internetprogramming.eoh.common.mat.Index} class)
  * @author Haim Adrian
@@ -27,7 +30,7 @@ public class BellmanFord<V> implements ShortestPathAlgorithm<V> {
      * for each v ∈ G.V do:
      *     v.distance = ∞
      * s.distance = 0
-     * repeat |G.V|-1 times:
+     * repeat |G.V|-1 times, or until no distance was updated:
      *     for each edge (u, v) ∈ G.E do:
      *         RELAX(u, v, w) // Update weight if smaller
      * for each edge (u, v) ∈ G.E do:
@@ -50,27 +53,24 @@ public class BellmanFord<V> implements ShortestPathAlgorithm<V> {
 
         // Step 1: Source vertex to source vertex weight 0, which means no move.
         visitedVertices.computeIfAbsent(graph.getRoot(), VertexDistanceInfo::new).setDistance(0);
-        //List<Callable<Void>> tasks = new ArrayList<>();
 
         // Step 2: Relax edges repeatedly
         // Repeat |V|-1 times: (Longest simple path can be up to |V|-1 edges)
-        for (int i = 1; i < vertices.size(); i++) {
-            new RelaxTask<>(graph, edges, visitedVertices).call();
+        // Once a round updates nothing, distances have converged, and more rounds would update nothing as well.
+        boolean isUpdated = true;
+        for (int i = 1; (i < vertices.size()) && isUpdated; i++) {
+            isUpdated = new RelaxTask<>(graph, edges, visitedVertices).call();
         }
 
-        // It does not work, running it in parallel... Use Dijkstra instead.
-        /*try {
-            ActionThreadService.getInstance().invokeAll(tasks);
-        } catch (InterruptedException e) {
-            log.error("Bellman-Ford parallel search was interrupted.", e);
-        }*/
-
         // Step 3: Check for negative weight cycles
         // For each edge (u, v) in edges do:
         for (Pair<V, V> edge : edges) {
             // Weight of the edge between u to v
             int weight = graph.getValue(edge.getRight());
-            if (visitedVertices.get(edge.getLeft()).getDistance() + weight < visitedVertices.get(edge.getRight()).getDistance()) {
+            long uVertexWeight = visitedVertices.get(edge.getLeft()).getDistance();
+
+            // Unreachable vertices are not part of any cycle we can get to. (And adding to their distance would overflow)
+            if ((uVertexWeight != Long.MAX_VALUE) && (uVertexWeight + weight < visitedVertices.get(edge.getRight()).getDistance())) {
                 throw new NegativeWeightCycleException("Graph contains negative cycle. No shortest path can be found. [Edge=" + edgeToString(visitedVertices, edge) + ", weight=" + weight + "]");
             }
         }
@@ -96,7 +96,10 @@ public class BellmanFord<V> implements ShortestPathAlgorithm<V> {
         return String.format("(%s, w=%s) -> (%s, w=%s)", u, visitedVertices.get(u).getDistance(), v, visitedVertices.get(v).getDistance());
     }
 
-    private static class RelaxTask<V> implements Callable<Void> {
+    /**
+     * A single round of relaxing all edges. Returns whether some distance was updated.
+     */
+    private static class RelaxTask<V> implements Callable<Boolean> {
         private final IGraph<V> graph;
         private final List<Pair<V, V>> edges;
         private final Map<V, VertexDistanceInfo<V>> visitedVertices;
@@ -108,7 +111,9 @@ public class BellmanFord<V> implements ShortestPathAlgorithm<V> {
         }
 
         @Override
-        public Void call() {
+        public Boolean call() {
+            boolean isUpdated = false;
+
             // For each edge (u, v) in edges do:
             for (Pair<V, V> edge : edges) {
                 // If thread service instructed to shutdown now, we cannot continue executing.
@@ -132,13 +137,14 @@ public class BellmanFord<V> implements ShortestPathAlgorithm<V> {
 
                         // Update distance
                         visitedVertices.get(edge.getRight()).setDistance(newWeight);
+                        isUpdated = true;
                     } else if (newWeight == vVertexWeight) {
                         visitedVertices.get(edge.getRight()).getParents().add(edge.getLeft());
                     }
                 }
             }
 
-            return null;
+            return isUpdated;
         }
     }
 }
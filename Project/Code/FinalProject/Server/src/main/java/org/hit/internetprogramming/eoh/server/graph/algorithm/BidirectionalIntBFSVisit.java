@@ -0,0 +1,289 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+
+/**
+ * A bidirectional BFS over the dense ids of a {@link CompiledGraph}, to find all shortest paths between two vertices.<br/>
+ * Instead of expanding from source until the layer of destination, like {@link IntBFSVisit} does, we expand one layer at
+ * a time from both ends, each time from the end with the smaller frontier, until the two searches meet. When the
+ * frontiers grow fast, each search reaches half of the distance only, so we visit far less vertices. (On open grids,
+ * where a frontier grows linearly, this is about half of the vertices)
+ * <p>
+ * Once a layer expansion discovers a vertex that the other search has already visited, we complete that layer and stop.
+ * At that point the forward search has reached distance {@code a}, the backward search has reached distance {@code b},
+ * and the vertices that both searches reached are exactly the vertices at the middle of all shortest paths, whose length
+ * is {@code a + b}. This is the meeting layer. The result is a {@link ShortestPathTree} rooted at source:
+ * <ul>
+ *     <li>Forward vertices get their parents same as in {@link IntBFSVisit}</li>
+ *     <li>Backward vertices that lead to the meeting layer get distance {@code a + b - (distance from destination)}, and
+ *     their parents are the backward vertices one step closer to the meeting layer. Backward vertices that do not lead to
+ *     the meeting layer are not on a shortest path, so they are left unreached.</li>
+ * </ul>
+ * The backward search walks edges as is, so it is used for {@link CompiledGraph#isSymmetric() symmetric} graphs only.
+ * Otherwise we fall back to {@link IntBFSVisit}.
+ * </p>
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see IntBFSVisit
+ * @see ShortestPathCounts
+ */
+public class BidirectionalIntBFSVisit {
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * Traverse a graph from both source and destination, until all shortest paths between them are known.
+     * @param graph The graph to traverse
+     * @param source Id of the vertex to start from
+     * @param destination Id of the vertex to get to
+     * @return Distances and parents of the vertices on shortest paths to destination, where destination is unreached when
+     * there is no path to it. Other vertices might be reached as well.
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source, int destination) {
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX) || (source == destination) || !graph.isSymmetric()) {
+            return new IntBFSVisit().traverse(graph, source, destination);
+        }
+
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount());
+            return traverse(graph, source, destination, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    private static ShortestPathTree traverse(CompiledGraph graph, int source, int destination, Scratch scratch) {
+        Search forward = scratch.forward, backward = scratch.backward;
+        int epoch = scratch.epoch();
+
+        forward.start(source, epoch);
+        backward.start(destination, epoch);
+
+        boolean met = false;
+        while (!met && forward.hasFrontier() && backward.hasFrontier()) {
+            if (forward.frontierSize() <= backward.frontierSize()) {
+                met = forward.expandLayer(graph, backward, epoch);
+            } else {
+                met = backward.expandLayer(graph, forward, epoch);
+            }
+        }
+
+        if (!met) {
+            return unreached(graph, source);
+        }
+
+        markVerticesLeadingToMeetingLayer(graph, scratch);
+        return buildTree(graph, source, scratch);
+    }
+
+    /**
+     * Go over the backward vertices from the meeting layer to destination, and mark the ones that have a neighbor one step
+     * closer to the meeting layer, which is marked already. The meeting layer is the last backward layer, and its vertices
+     * were reached by the forward search as well.
+     */
+    private static void markVerticesLeadingToMeetingLayer(CompiledGraph graph, Scratch scratch) {
+        Search forward = scratch.forward, backward = scratch.backward;
+        int[] leadsToMeeting = scratch.leadsToMeeting;
+        int epoch = scratch.epoch();
+
+        for (int i = backward.head; i < backward.tail; i++) {
+            int vertex = backward.queue[i];
+            if (forward.stamp[vertex] == epoch) {
+                leadsToMeeting[vertex] = epoch;
+            }
+        }
+
+        // Backward queue is ordered by distance, so going over it in reverse handles farther layers first
+        for (int i = backward.head - 1; i >= 0; i--) {
+            int vertex = backward.queue[i];
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                if ((leadsToMeeting[target] == epoch) && (backward.distance[target] == backward.distance[vertex] + 1)) {
+                    leadsToMeeting[vertex] = epoch;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the distances, and collect the parents of forward vertices, and of backward vertices that lead to the meeting
+     * layer, into a new {@link ShortestPathTree}. Forward vertices are indexed by their position in the forward queue,
+     * followed by the backward vertices, so the tree takes the size of the reached vertices only.
+     */
+    private static ShortestPathTree buildTree(CompiledGraph graph, int source, Scratch scratch) {
+        Search forward = scratch.forward, backward = scratch.backward;
+        int[] leadsToMeeting = scratch.leadsToMeeting;
+        int[] treeIndex = scratch.treeIndex;
+        int epoch = scratch.epoch();
+        int length = forward.depth + backward.depth;
+
+        int size = forward.tail;
+        for (int i = 0; i < backward.head; i++) {
+            int vertex = backward.queue[i];
+            if ((leadsToMeeting[vertex] == epoch) && (forward.stamp[vertex] != epoch)) {
+                size++;
+            }
+        }
+
+        int[] vertices = new int[size];
+        long[] distance = new long[size];
+        int index = 0;
+        for (; index < forward.tail; index++) {
+            int vertex = forward.queue[index];
+            vertices[index] = vertex;
+            distance[index] = forward.distance[vertex];
+            treeIndex[vertex] = index;
+        }
+        for (int i = 0; i < backward.head; i++) {
+            int vertex = backward.queue[i];
+            if ((leadsToMeeting[vertex] == epoch) && (forward.stamp[vertex] != epoch)) {
+                vertices[index] = vertex;
+                distance[index] = length - backward.distance[vertex];
+                treeIndex[vertex] = index++;
+            }
+        }
+
+        return new ShortestPathTree.Builder(graph, source, vertices, distance).build(builder -> collectParents(graph, scratch, builder));
+    }
+
+    /**
+     * Go over all (child, parent) pairs, and add them to the builder, by the tree index of child
+     */
+    private static void collectParents(CompiledGraph graph, Scratch scratch, ShortestPathTree.Builder builder) {
+        Search forward = scratch.forward, backward = scratch.backward;
+        int[] leadsToMeeting = scratch.leadsToMeeting;
+        int epoch = scratch.epoch();
+
+        // Forward vertices are the parents of the vertices they have discovered
+        for (int i = 0; i < forward.head; i++) {
+            int vertex = forward.queue[i];
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                if ((forward.stamp[target] == epoch) && (forward.distance[target] == forward.distance[vertex] + 1)) {
+                    builder.addParent(scratch.treeIndex[target], vertex);
+                }
+            }
+        }
+
+        // Backward vertices (excluding the meeting layer) get their parents from the layer closer to the meeting layer.
+        // The graph is symmetric, so the edges of a vertex lead to its neighbors in both directions.
+        for (int i = 0; i < backward.head; i++) {
+            int vertex = backward.queue[i];
+            if (leadsToMeeting[vertex] == epoch) {
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int target = graph.target(edge);
+                    if ((leadsToMeeting[target] == epoch) && (backward.distance[target] == backward.distance[vertex] + 1)) {
+                        builder.addParent(scratch.treeIndex[vertex], target);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A tree where only source is reached, for when there is no path to destination
+     */
+    private static ShortestPathTree unreached(CompiledGraph graph, int source) {
+        return new ShortestPathTree(graph, source, new int[] { source }, new long[] { 0 }, new int[2], new int[0]);
+    }
+
+    /**
+     * Working arrays of one direction. Queue [0, head) holds the expanded vertices and [head, tail) holds the frontier,
+     * which is the last layer, at distance {@link #depth}
+     */
+    private static class Search {
+        private int[] stamp = new int[0];
+        private int[] distance = new int[0];
+        private int[] queue = new int[0];
+        private int head, tail, depth;
+
+        private void allocate(int vertexCount) {
+            stamp = new int[vertexCount];
+            distance = new int[vertexCount];
+            queue = new int[vertexCount];
+        }
+
+        private void start(int vertex, int epoch) {
+            stamp[vertex] = epoch;
+            distance[vertex] = 0;
+            queue[0] = vertex;
+            head = 0;
+            tail = 1;
+            depth = 0;
+        }
+
+        private boolean hasFrontier() {
+            return head < tail;
+        }
+
+        private int frontierSize() {
+            return tail - head;
+        }
+
+        /**
+         * Expand the whole frontier
+         * @return Whether a discovered vertex was already visited by the other search
+         */
+        private boolean expandLayer(CompiledGraph graph, Search other, int epoch) {
+            boolean met = false;
+            int nextDistance = ++depth;
+            for (int layerEnd = tail; head < layerEnd; ) {
+                int vertex = queue[head++];
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int target = graph.target(edge);
+                    if (stamp[target] != epoch) {
+                        stamp[target] = epoch;
+                        distance[target] = nextDistance;
+                        queue[tail++] = target;
+                        met |= other.stamp[target] == epoch;
+                    }
+                }
+            }
+
+            return met;
+        }
+    }
+
+    /**
+     * Working arrays of a single traversal
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        private final Search forward = new Search();
+        private final Search backward = new Search();
+
+        /**
+         * Stamps of backward vertices that lead to the meeting layer
+         */
+        private int[] leadsToMeeting = new int[0];
+
+        /**
+         * Index of each vertex of the result tree. Valid for the vertices of the tree only
+         */
+        private int[] treeIndex = new int[0];
+
+        @Override
+        protected void allocate(int vertexCount) {
+            forward.allocate(vertexCount);
+            backward.allocate(vertexCount);
+            leadsToMeeting = new int[vertexCount];
+            treeIndex = new int[vertexCount];
+        }
+
+        /**
+         * All stamp arrays share the epoch of the traversal
+         */
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { forward.stamp, backward.stamp, leadsToMeeting };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return 8L * capacity() * Integer.BYTES;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.hit.internetprogramming.eoh.server.graph.algorithm;
 
 import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
 import org.hit.internetprogramming.eoh.common.mat.Index;
@@ -17,10 +18,12 @@ import java.util.concurrent.locks.ReentrantLock;
  * This class works In parallel in order to improve the runtime.
  * @author Orel Gershonovich
  * @see DFSVisit
+ * @see UnionFindConnectedComponents
  * @since 9-July-21
  */
 @Log4j2
-public class ConnectedComponents {
+public class ConnectedComponents implements ConnectedComponentsAlgorithm {
+    @Override
     public List<Set<Index>> collect(IGraph<Index> graph) {
         if (graph == null) {
             return null;
@@ -35,7 +38,7 @@ public class ConnectedComponents {
         for (Index currentSource : unVisitedVertices) {
             tasks.add(() -> {
                 if (!ActionThreadService.getInstance().isShutdownNow()) {
-                    Set<Index> connectedComponent = new HashSet<>(dfsVisit.traverse(new MatrixGraphAdapter<>(graph, currentSource)));
+                    Set<Index> connectedComponent = new HashSet<>(dfsVisit.traverse(withRoot(graph, currentSource)));
 
                     lock.lock();
                     try {
@@ -61,4 +64,15 @@ public class ConnectedComponents {
 
         return finalListWithAllCCAsSet;
     }
+
+    /**
+     * Root the specified graph at another vertex, without copying it. A {@link CompiledGraph} shares its compiled arrays.
+     */
+    private static IGraph<Index> withRoot(IGraph<Index> graph, Index root) {
+        if (graph instanceof CompiledGraph) {
+            return ((CompiledGraph) graph).withRoot(root);
+        }
+
+        return new MatrixGraphAdapter<>(graph, root);
+    }
 }
@@ -0,0 +1,56 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This interface created in order to share the signature of the algorithms that collect connected components.<br/>
+ * This way a client can select the algorithm to use for CONNECTED_COMPONENTS and SUBMARINES requests.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public interface ConnectedComponentsAlgorithm {
+    /**
+     * Collect all connected components of a graph.
+     * @param graph The graph to collect its connected components
+     * @return All connected components, sorted by their size (small to large), or {@code null} when graph is {@code null}
+     */
+    List<Set<Index>> collect(IGraph<Index> graph);
+
+    /**
+     * Create an instance of the specified algorithm
+     * @param algorithm The algorithm to create
+     * @return A new instance of the specified algorithm
+     */
+    static ConnectedComponentsAlgorithm of(Algorithm algorithm) {
+        switch (algorithm) {
+            case DFS:
+                return new ConnectedComponents();
+            case PARALLEL:
+                return new ParallelConnectedComponents();
+            case UNION_FIND:
+            default:
+                return new UnionFindConnectedComponents();
+        }
+    }
+
+    enum Algorithm {
+        /**
+         * {@link ConnectedComponents}
+         */
+        DFS,
+
+        /**
+         * {@link UnionFindConnectedComponents}
+         */
+        UNION_FIND,
+
+        /**
+         * {@link ParallelConnectedComponents}. Submarines are counted by {@link SubmarineCounter}, with no components at all.
+         */
+        PARALLEL
+    }
+}
@@ -0,0 +1,664 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A contraction hierarchy of a {@link CompiledGraph}, which finds a shortest path between two vertices by searching a
+ * small part of the graph, after a one time preprocessing.
+ * <p>
+ * Preprocessing contracts the vertices one by one, least important first. Contracting a vertex {@code v} removes it from
+ * the graph, and for each two of its neighbors {@code u} and {@code w}, when the path {@code u-v-w} is the only shortest
+ * path between them, adds a shortcut edge {@code u-w} of the same weight, so distances between the remaining vertices
+ * do not change. A path is not the only one when a local search from {@code u} that avoids {@code v} finds a path to
+ * {@code w} which is not longer (a witness). Importance is the edge difference, which is the amount of shortcuts
+ * contracting a vertex adds, minus the amount of edges it removes, plus the amount of neighbors that were contracted
+ * already, so contraction spreads over the graph rather than eating it from one side. Importance changes as neighbors
+ * are contracted, so it is updated lazily: a vertex whose importance grew since it was queued is queued again.
+ * </p>
+ * The rank of a vertex is its contraction order. A query searches from both ends, each going over edges to vertices of a
+ * higher rank only, and the shortest path goes up from source and down to destination, through the vertex where the
+ * searches meet. Shortcuts remember the vertex they skip, so they are unpacked back into the edges of the graph.
+ * <p>
+ * The weight of an edge is the value of its target, so the graph is directed even when it is symmetric. On a symmetric
+ * graph, we contract an undirected graph instead, where the weight of edge {@code u-v} is {@code value(u) + value(v)}.
+ * Along any path from {@code s} to {@code t}, that weight is twice the directed weight, plus {@code value(s)}, minus
+ * {@code value(t)}, which does not depend on the path. So both graphs have the same shortest paths, and a single upward
+ * graph serves the searches of both directions.
+ * </p>
+ * A hierarchy keeps a single shortest path between two vertices, as equally short paths are witnesses of each other. So
+ * it is used to find a single path, and not to count all shortest paths.<br/>
+ * A hierarchy does not depend on the root of the graph, so it serves any {@link CompiledGraph#withRoot(Index) root} of
+ * the graph it was built for, which shares its ids.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see Landmarks
+ */
+public class ContractionHierarchy {
+    /**
+     * A witness search gives up after settling this amount of vertices, and then we add a shortcut. An unnecessary
+     * shortcut does not change distances, it only costs memory, while a long search costs preprocessing time.
+     */
+    private static final int WITNESS_SEARCH_LIMIT = 64;
+
+    /**
+     * Importance is only used to order the contraction, so it is estimated with shorter witness searches
+     */
+    private static final int ESTIMATE_WITNESS_SEARCH_LIMIT = 16;
+
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * The graph this hierarchy was built for
+     */
+    private final CompiledGraph graph;
+
+    /**
+     * Edges of vertex {@code v} to vertices of a higher rank are in range [upOffsets[v], upOffsets[v + 1])
+     */
+    private final int[] upOffsets;
+    private final int[] upTargets;
+
+    /**
+     * Undirected weight of each upward edge. See {@link ContractionHierarchy}
+     */
+    private final long[] upWeights;
+
+    /**
+     * The vertex each shortcut skips, or {@link CompiledGraph#NO_VERTEX} for edges of the graph
+     */
+    private final int[] upMiddles;
+
+    private final int shortcutCount;
+
+    private ContractionHierarchy(CompiledGraph graph, int[] upOffsets, int[] upTargets, long[] upWeights, int[] upMiddles, int shortcutCount) {
+        this.graph = graph;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.shortcutCount = shortcutCount;
+    }
+
+    /**
+     * @param graph A graph to check
+     * @return Whether a hierarchy can be built for the specified graph, which is when it is symmetric and it has no negative weights
+     */
+    public static boolean supports(CompiledGraph graph) {
+        return graph.isSymmetric() && (graph.minWeight() >= 0);
+    }
+
+    /**
+     * Contract all vertices of a graph
+     * @param graph The graph to build a hierarchy for. Must be {@link #supports(CompiledGraph) supported}
+     * @return The hierarchy
+     * @throws IllegalArgumentException In case the graph is not symmetric, or it has negative weights
+     */
+    public static ContractionHierarchy build(CompiledGraph graph) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Contraction hierarchy supports symmetric graphs with no negative weights. Was symmetric: " +
+                    graph.isSymmetric() + ", minimum weight: " + graph.minWeight());
+        }
+
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Find a shortest path between two vertices.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[forward][source] = 0, distance[backward][destination] = 0, best = infinity
+     * While the queue of some direction has a vertex closer than best:
+     *     u = remove the closest vertex from the queue of that direction
+     *     If u was reached by the other direction: best = min(best, distance[forward][u] + distance[backward][u])
+     *     For each upward edge (u, v) do:
+     *         Relax v, in this direction
+     * Path = the forward path to the vertex of best, and then the backward path from it, with shortcuts unpacked
+     * }</pre>
+     * @param source Id of the vertex to start from
+     * @param destination Id of the vertex to get to
+     * @return Vertices of the path, from source to destination, or an empty list when destination is not reachable
+     */
+    public List<Index> findPath(int source, int destination) {
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX)) {
+            return Collections.emptyList();
+        }
+
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount());
+            return findPath(source, destination, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    private List<Index> findPath(int source, int destination, Scratch scratch) {
+        Search forward = scratch.forward, backward = scratch.backward;
+        forward.start(source, scratch.epoch());
+        backward.start(destination, scratch.epoch());
+
+        long best = ShortestPathTree.UNREACHED;
+        int meeting = CompiledGraph.NO_VERTEX;
+        while (true) {
+            boolean isForwardActive = !forward.heap.isEmpty() && (forward.heap.peekEstimate() < best);
+            boolean isBackwardActive = !backward.heap.isEmpty() && (backward.heap.peekEstimate() < best);
+            if (!isForwardActive && !isBackwardActive) {
+                break;
+            }
+
+            // Advance the direction whose closest vertex is closer
+            Search search = isForwardActive && (!isBackwardActive || (forward.heap.peekEstimate() <= backward.heap.peekEstimate())) ? forward : backward;
+            Search other = (search == forward) ? backward : forward;
+            long distance = search.heap.peekEstimate();
+            int vertex = search.heap.pop();
+
+            // Skip entries of vertices that were reached through a shorter distance
+            if (distance > search.distance[vertex]) {
+                continue;
+            }
+
+            if (other.isReached(vertex) && (distance + other.distance[vertex] < best)) {
+                best = distance + other.distance[vertex];
+                meeting = vertex;
+            }
+
+            for (int edge = upOffsets[vertex], end = upOffsets[vertex + 1]; edge < end; edge++) {
+                search.relax(upTargets[edge], distance + upWeights[edge], vertex, edge);
+            }
+        }
+
+        forward.heap.clear();
+        backward.heap.clear();
+        if (meeting == CompiledGraph.NO_VERTEX) {
+            return Collections.emptyList();
+        }
+
+        // Up from source to the meeting vertex, and then down to destination
+        List<Index> path = new ArrayList<>();
+        path.add(graph.vertexOf(source));
+        int[] upPath = forward.pathTo(meeting);
+        for (int i = upPath.length - 1; i >= 0; i--) {
+            int vertex = upPath[i];
+            unpack(forward.parentVertex[vertex], vertex, upMiddles[forward.parentEdge[vertex]], path);
+        }
+        for (int vertex : backward.pathTo(meeting)) {
+            unpack(vertex, backward.parentVertex[vertex], upMiddles[backward.parentEdge[vertex]], path);
+        }
+
+        return path;
+    }
+
+    /**
+     * Add the vertices of the path an edge stands for, excluding {@code from}, and including {@code to}
+     */
+    private void unpack(int from, int to, int middle, List<Index> path) {
+        // Unpack iteratively, as hierarchies of large graphs are deep
+        long[] stack = new long[16];
+        int[] middles = new int[16];
+        int size = 0;
+        stack[size] = pair(from, to);
+        middles[size++] = middle;
+        while (size > 0) {
+            long segment = stack[--size];
+            int first = (int) (segment >>> 32), second = (int) segment, skipped = middles[size];
+            if (skipped == CompiledGraph.NO_VERTEX) {
+                path.add(graph.vertexOf(second));
+                continue;
+            }
+
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                middles = Arrays.copyOf(middles, middles.length * 2);
+            }
+
+            // The skipped vertex was contracted before both ends, so both of its edges are upward edges of it.
+            // Push the second half first, so the first half is unpacked first.
+            stack[size] = pair(skipped, second);
+            middles[size++] = upMiddles[upEdge(skipped, second)];
+            stack[size] = pair(first, skipped);
+            middles[size++] = upMiddles[upEdge(skipped, first)];
+        }
+    }
+
+    private static long pair(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return Index of the upward edge from {@code vertex} to {@code target}
+     */
+    private int upEdge(int vertex, int target) {
+        for (int edge = upOffsets[vertex], end = upOffsets[vertex + 1]; edge < end; edge++) {
+            if (upTargets[edge] == target) {
+                return edge;
+            }
+        }
+
+        throw new IllegalStateException("Missing upward edge from " + graph.vertexOf(vertex) + " to " + graph.vertexOf(target));
+    }
+
+    /**
+     * @param path A path returned by {@link #findPath(int, int)}
+     * @return Weight of the path, which is the sum of the values of its vertices, excluding the first one
+     */
+    public long weightOf(List<Index> path) {
+        long weight = 0;
+        for (int i = 1; i < path.size(); i++) {
+            weight += graph.valueOf(graph.idOf(path.get(i)));
+        }
+
+        return weight;
+    }
+
+    /**
+     * @return Amount of vertices in the graph this hierarchy was built for
+     */
+    public int vertexCount() {
+        return graph.vertexCount();
+    }
+
+    /**
+     * @return Amount of shortcuts added by contraction
+     */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * @return Approximate amount of bytes the upward graph takes
+     */
+    public long sizeInBytes() {
+        return ((long) upOffsets.length + upTargets.length + upMiddles.length) * Integer.BYTES + (long) upWeights.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "ContractionHierarchy{vertexCount=" + graph.vertexCount() + ", upwardEdges=" + upTargets.length + ", shortcuts=" + shortcutCount +
+                ", sizeInBytes=" + sizeInBytes() + "}";
+    }
+
+    /**
+     * Contracts the vertices of a graph. Keeps the remaining graph as a list of neighbors per vertex. Once a vertex is
+     * contracted, its list is not modified anymore, as all of its neighbors are of a higher rank. So at the end, the
+     * lists are the upward graph.
+     */
+    private static class Builder {
+        private final CompiledGraph graph;
+        private final int vertexCount;
+        private final int[][] neighbors;
+        private final long[][] weights;
+        private final int[][] middles;
+        private final int[] degree;
+        private final boolean[] isContracted;
+        private final int[] contractedNeighbors;
+        private int shortcutCount;
+
+        /**
+         * Working arrays of witness searches. Each witness search starts a new epoch
+         */
+        private final Witnesses witnesses = new Witnesses();
+        private final IntMinHeap witnessHeap = new IntMinHeap();
+
+        private Builder(CompiledGraph graph) {
+            this.graph = graph;
+            vertexCount = graph.vertexCount();
+            neighbors = new int[vertexCount][];
+            weights = new long[vertexCount][];
+            middles = new int[vertexCount][];
+            degree = new int[vertexCount];
+            isContracted = new boolean[vertexCount];
+            contractedNeighbors = new int[vertexCount];
+
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                int edgeCount = graph.endEdge(vertex) - graph.firstEdge(vertex);
+                neighbors[vertex] = new int[edgeCount];
+                weights[vertex] = new long[edgeCount];
+                middles[vertex] = new int[edgeCount];
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int target = graph.target(edge);
+                    if (target != vertex) {
+                        neighbors[vertex][degree[vertex]] = target;
+                        weights[vertex][degree[vertex]] = (long) graph.valueOf(vertex) + graph.valueOf(target);
+                        middles[vertex][degree[vertex]++] = CompiledGraph.NO_VERTEX;
+                    }
+                }
+            }
+        }
+
+        private ContractionHierarchy build() {
+            IntMinHeap queue = new IntMinHeap();
+            long[] importance = new long[vertexCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                importance[vertex] = importanceOf(vertex);
+                queue.push(vertex, importance[vertex], 0);
+            }
+
+            while (!queue.isEmpty()) {
+                long vertexImportance = queue.peekEstimate();
+                int vertex = queue.pop();
+                if (isContracted[vertex] || (vertexImportance != importance[vertex])) {
+                    continue;
+                }
+
+                // Lazy update. When the vertex is not the least important anymore, queue it again
+                long updatedImportance = importanceOf(vertex);
+                if ((updatedImportance > vertexImportance) && !queue.isEmpty() && (updatedImportance > queue.peekEstimate())) {
+                    importance[vertex] = updatedImportance;
+                    queue.push(vertex, updatedImportance, 0);
+                    continue;
+                }
+
+                contract(vertex);
+            }
+
+            return toHierarchy();
+        }
+
+        /**
+         * @return Edge difference of a vertex, plus the amount of its contracted neighbors
+         */
+        private long importanceOf(int vertex) {
+            return shortcuts(vertex, false) - degree[vertex] + contractedNeighbors[vertex];
+        }
+
+        private void contract(int vertex) {
+            shortcutCount += shortcuts(vertex, true);
+            isContracted[vertex] = true;
+
+            // Remove the vertex from the lists of its neighbors. Its own list is the upward edges, so keep it as is
+            for (int i = 0; i < degree[vertex]; i++) {
+                int neighbor = neighbors[vertex][i];
+                removeEdge(neighbor, vertex);
+                contractedNeighbors[neighbor]++;
+            }
+        }
+
+        /**
+         * Find the shortcuts contracting a vertex needs
+         * @param isAdding Whether to add the shortcuts, or only count them
+         * @return Amount of shortcuts
+         */
+        private int shortcuts(int vertex, boolean isAdding) {
+            int[] vertexNeighbors = neighbors[vertex];
+            long[] vertexWeights = weights[vertex];
+            int vertexDegree = degree[vertex];
+            int count = 0;
+
+            // Paths are undirected, so each pair of neighbors is checked once, from the first of them
+            for (int i = 0; i < vertexDegree - 1; i++) {
+                int from = vertexNeighbors[i];
+                long maxWeight = 0;
+                witnesses.startTraversal(vertexCount);
+                int epoch = witnesses.epoch();
+                for (int j = i + 1; j < vertexDegree; j++) {
+                    maxWeight = Math.max(maxWeight, vertexWeights[i] + vertexWeights[j]);
+                    witnesses.target[vertexNeighbors[j]] = epoch;
+                }
+
+                witnessSearch(from, vertex, maxWeight, vertexDegree - 1 - i, isAdding ? WITNESS_SEARCH_LIMIT : ESTIMATE_WITNESS_SEARCH_LIMIT);
+                for (int j = i + 1; j < vertexDegree; j++) {
+                    int to = vertexNeighbors[j];
+                    long weight = vertexWeights[i] + vertexWeights[j];
+                    if ((witnesses.reached[to] != epoch) || (witnesses.distance[to] > weight)) {
+                        count++;
+                        if (isAdding) {
+                            addShortcut(from, to, weight, vertex);
+                        }
+                    }
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * A Dijkstra from {@code source} over the remaining graph, which avoids {@code excluded}, and stops once it is
+         * farther than {@code maxDistance}, once it settled all of the {@code targetCount} vertices marked as targets, or
+         * once it settled {@code limit} vertices. Tentative distances are lengths of actual paths, so they are witnesses
+         * as well.
+         */
+        private void witnessSearch(int source, int excluded, long maxDistance, int targetCount, int limit) {
+            int[] witnessReached = witnesses.reached;
+            long[] witnessDistance = witnesses.distance;
+            int epoch = witnesses.epoch();
+
+            witnessReached[source] = epoch;
+            witnessDistance[source] = 0;
+            witnessHeap.push(source, 0, 0);
+            int settledCount = 0;
+            while (!witnessHeap.isEmpty()) {
+                long distance = witnessHeap.peekEstimate();
+                int vertex = witnessHeap.pop();
+                if (distance > witnessDistance[vertex]) {
+                    continue;
+                }
+
+                if ((distance > maxDistance) || (++settledCount > limit)) {
+                    break;
+                }
+
+                if ((witnesses.target[vertex] == epoch) && (--targetCount == 0)) {
+                    break;
+                }
+
+                for (int i = 0; i < degree[vertex]; i++) {
+                    int target = neighbors[vertex][i];
+                    long newDistance = distance + weights[vertex][i];
+                    if ((target != excluded) && ((witnessReached[target] != epoch) || (newDistance < witnessDistance[target]))) {
+                        witnessReached[target] = epoch;
+                        witnessDistance[target] = newDistance;
+                        witnessHeap.push(target, newDistance, newDistance);
+                    }
+                }
+            }
+
+            witnessHeap.clear();
+        }
+
+        private void addShortcut(int from, int to, long weight, int middle) {
+            // There might be an edge already. It is longer than the shortcut, otherwise it would have been a witness.
+            int edge = indexOf(from, to);
+            if (edge >= 0) {
+                weights[from][edge] = weight;
+                middles[from][edge] = middle;
+                edge = indexOf(to, from);
+                weights[to][edge] = weight;
+                middles[to][edge] = middle;
+            } else {
+                addEdge(from, to, weight, middle);
+                addEdge(to, from, weight, middle);
+            }
+        }
+
+        private int indexOf(int vertex, int target) {
+            for (int i = 0; i < degree[vertex]; i++) {
+                if (neighbors[vertex][i] == target) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private void addEdge(int vertex, int target, long weight, int middle) {
+            int i = degree[vertex]++;
+            if (i == neighbors[vertex].length) {
+                int capacity = Math.max(4, i * 2);
+                neighbors[vertex] = Arrays.copyOf(neighbors[vertex], capacity);
+                weights[vertex] = Arrays.copyOf(weights[vertex], capacity);
+                middles[vertex] = Arrays.copyOf(middles[vertex], capacity);
+            }
+
+            neighbors[vertex][i] = target;
+            weights[vertex][i] = weight;
+            middles[vertex][i] = middle;
+        }
+
+        /**
+         * Remove an edge by moving the last edge of the vertex into its place
+         */
+        private void removeEdge(int vertex, int target) {
+            int i = indexOf(vertex, target);
+            int last = --degree[vertex];
+            neighbors[vertex][i] = neighbors[vertex][last];
+            weights[vertex][i] = weights[vertex][last];
+            middles[vertex][i] = middles[vertex][last];
+        }
+
+        /**
+         * Move the lists of all vertices into the arrays of the upward graph
+         */
+        private ContractionHierarchy toHierarchy() {
+            int[] upOffsets = new int[vertexCount + 1];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                upOffsets[vertex + 1] = upOffsets[vertex] + degree[vertex];
+            }
+
+            int edgeCount = upOffsets[vertexCount];
+            int[] upTargets = new int[edgeCount];
+            long[] upWeights = new long[edgeCount];
+            int[] upMiddles = new int[edgeCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                System.arraycopy(neighbors[vertex], 0, upTargets, upOffsets[vertex], degree[vertex]);
+                System.arraycopy(weights[vertex], 0, upWeights, upOffsets[vertex], degree[vertex]);
+                System.arraycopy(middles[vertex], 0, upMiddles, upOffsets[vertex], degree[vertex]);
+
+                // Release the lists as we go, so we do not keep both copies of a large graph
+                neighbors[vertex] = null;
+                weights[vertex] = null;
+                middles[vertex] = null;
+            }
+
+            return new ContractionHierarchy(graph, upOffsets, upTargets, upWeights, upMiddles, shortcutCount);
+        }
+    }
+
+    /**
+     * A search of a single direction
+     */
+    private static class Search {
+        private int[] reached = new int[0];
+        private long[] distance = new long[0];
+
+        /**
+         * The vertex each vertex was reached from, and the upward edge of that parent it was reached through
+         */
+        private int[] parentVertex = new int[0];
+        private int[] parentEdge = new int[0];
+        private final IntMinHeap heap = new IntMinHeap();
+
+        /**
+         * Epoch of the current search, shared by both directions. See {@link Scratch}
+         */
+        private int epoch;
+
+        private void allocate(int vertexCount) {
+            reached = new int[vertexCount];
+            distance = new long[vertexCount];
+            parentVertex = new int[vertexCount];
+            parentEdge = new int[vertexCount];
+        }
+
+        private long sizeInBytes() {
+            return heap.sizeInBytes() + (long) reached.length * (3 * Integer.BYTES + Long.BYTES);
+        }
+
+        private void start(int source, int epoch) {
+            this.epoch = epoch;
+            reached[source] = epoch;
+            distance[source] = 0;
+            parentEdge[source] = -1;
+            heap.push(source, 0, 0);
+        }
+
+        private boolean isReached(int vertex) {
+            return reached[vertex] == epoch;
+        }
+
+        private void relax(int vertex, long newDistance, int parent, int edge) {
+            if (!isReached(vertex) || (newDistance < distance[vertex])) {
+                reached[vertex] = epoch;
+                distance[vertex] = newDistance;
+                parentVertex[vertex] = parent;
+                parentEdge[vertex] = edge;
+                heap.push(vertex, newDistance, newDistance);
+            }
+        }
+
+        /**
+         * @return The vertices from the specified vertex back to the vertex this search started at, excluding the latter
+         */
+        private int[] pathTo(int vertex) {
+            int length = 0;
+            for (int current = vertex; parentEdge[current] >= 0; current = parentVertex[current]) {
+                length++;
+            }
+
+            int[] vertices = new int[length];
+            int i = 0;
+            for (int current = vertex; parentEdge[current] >= 0; current = parentVertex[current]) {
+                vertices[i++] = current;
+            }
+
+            return vertices;
+        }
+    }
+
+    /**
+     * Working arrays of a single search
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        private final Search forward = new Search();
+        private final Search backward = new Search();
+
+        @Override
+        protected void allocate(int vertexCount) {
+            forward.allocate(vertexCount);
+            backward.allocate(vertexCount);
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { forward.reached, backward.reached };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return forward.sizeInBytes() + backward.sizeInBytes();
+        }
+    }
+
+    /**
+     * Working arrays of the witness searches of a {@link Builder}. They are used by a single builder, so they are not pooled
+     */
+    private static class Witnesses extends ScratchPool.Scratch {
+        private int[] reached = new int[0];
+        private long[] distance = new long[0];
+
+        /**
+         * Neighbors a witness search looks for, stamped with its epoch
+         */
+        private int[] target = new int[0];
+
+        @Override
+        protected void allocate(int vertexCount) {
+            reached = new int[vertexCount];
+            distance = new long[vertexCount];
+            target = new int[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { reached, target };
+        }
+    }
+}
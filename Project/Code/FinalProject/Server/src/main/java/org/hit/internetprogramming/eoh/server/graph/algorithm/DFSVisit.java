@@ -5,6 +5,7 @@ import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * A class that implements DFS algorithm in order to find an CC (Connected Component) in a graph.<br/>
@@ -58,6 +59,15 @@ public class DFSVisit<T> {
         workingStack.clear();
         visitedVertices.clear();
 
+        // Created once per traversal, so visiting reachable vertices allocates nothing
+        Consumer<T> pushIfNotVisited = vertex -> {
+            // Ensure we push each vertex once, to avoid a situation where we push
+            // a vertex, and then push its neighbors, although they are already in the stack.
+            if (visitedVertices.add(vertex)) {
+                workingStack.push(vertex);
+            }
+        };
+
         T currVertex = graph.getRoot();
 
         workingStack.push(currVertex);
@@ -74,16 +84,7 @@ public class DFSVisit<T> {
                 return null;
             }
 
-            Collection<T> reachableVertices = graph.getReachableVertices(currVertex);
-
-            reachableVertices.forEach(vertex -> {
-                // Ensure we push each vertex once, to avoid a situation where we push
-                // a vertex, and then push its neighbors, although they are already in the stack.
-                if (!visitedVertices.contains(vertex)) {
-                    visitedVertices.add(vertex);
-                    workingStack.push(vertex);
-                }
-            });
+            graph.forEachReachable(currVertex, pushIfNotVisited);
         }
 
         allVisitedVertices.addAll(visitedVertices);
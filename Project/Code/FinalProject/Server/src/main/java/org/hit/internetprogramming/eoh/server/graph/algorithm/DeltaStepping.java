@@ -0,0 +1,406 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A parallel single source shortest paths algorithm (Meyer and Sanders' delta-stepping) over the dense ids of a
+ * {@link CompiledGraph}, for graphs with non-negative integer weights.<br/>
+ * Vertices are kept in buckets of width delta: bucket {@code i} holds the vertices whose tentative distance is in range
+ * {@code [i * delta, (i + 1) * delta)}. Edges are split into light edges, with weight up to delta, and heavy edges, with
+ * weight larger than delta. Buckets are processed in order, and a bucket is processed in phases:
+ * <ul>
+ *     <li>All vertices of the bucket are removed from it, and their light edges are relaxed in parallel. Light edges
+ *     might get back into the same bucket, so we repeat until the bucket is empty.</li>
+ *     <li>Once the bucket is empty, the distances of all vertices removed from it are final, so their heavy edges are
+ *     relaxed in parallel, once. Heavy edges never get back into the same bucket.</li>
+ * </ul>
+ * Hence Dijkstra is delta-stepping with delta 1 (a phase per distance, and a little work per phase), and Bellman-Ford is
+ * delta-stepping with an infinite delta (a single bucket, relaxed again and again). Anything between trades extra
+ * relaxations for larger phases, which can be relaxed in parallel.
+ * <p>
+ * Relaxations run as {@link RecursiveTask}s over ranges of the phase, on the ForkJoin pool of {@link ActionThreadService},
+ * rather than a task per vertex. Distances are kept in an {@link AtomicLongArray}, and a relaxation is a compare and set
+ * loop that keeps the minimum, so no locks are involved. Improved vertices are collected by each task, and added to their
+ * buckets between phases, by the calling thread. Same as in {@link DialDijkstra}, buckets are used cyclically, and a vertex
+ * whose distance got shorter is added again rather than moved, where the old entry is skipped.
+ * </p>
+ * Parents are collected once the search is over, out of the final distances: {@code u} is a parent of {@code v} when
+ * {@code distance[u] + weight(u, v) == distance[v]}. Zero weight edges are kept acyclic by {@link ZeroWeightLayers},
+ * same as in {@link DialDijkstra}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see DialDijkstra
+ * @see ShortestPathCounts
+ */
+public class DeltaStepping {
+    /**
+     * Use this delta to let the algorithm choose delta by the graph. See {@link #deltaOf(CompiledGraph)}
+     */
+    public static final int AUTO_DELTA = 0;
+
+    /**
+     * Maximum amount of buckets. When a graph has weights that are too large for its delta, we use a larger delta instead.
+     */
+    private static final int MAXIMUM_BUCKET_COUNT = 1 << 16;
+
+    /**
+     * Smaller ranges of vertices are relaxed by a single task. Forking costs more than relaxing a few vertices.
+     */
+    private static final int RELAX_THRESHOLD = 1024;
+
+    private final int delta;
+
+    /**
+     * Constructs a new {@link DeltaStepping}, which chooses delta by the graph
+     */
+    public DeltaStepping() {
+        this(AUTO_DELTA);
+    }
+
+    /**
+     * Constructs a new {@link DeltaStepping}
+     * @param delta Width of a bucket, or {@link #AUTO_DELTA}
+     * @throws IllegalArgumentException In case delta is negative
+     */
+    public DeltaStepping(int delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative. Was: " + delta);
+        }
+
+        this.delta = delta;
+    }
+
+    /**
+     * @param graph A graph to check
+     * @return Whether the specified graph has no negative weights
+     */
+    public static boolean supports(CompiledGraph graph) {
+        return graph.minWeight() >= 0;
+    }
+
+    /**
+     * Get the delta to use for a graph. When delta is {@link #AUTO_DELTA}, we use the maximum weight divided by the average
+     * degree, which is the common choice for graphs with random weights: a vertex has about a single light edge per bucket.
+     * @param graph The graph to traverse
+     * @return The delta to use, at least 1
+     */
+    public int deltaOf(CompiledGraph graph) {
+        long delta = this.delta;
+        if (delta == AUTO_DELTA) {
+            delta = (graph.edgeCount() == 0) ? 1 : (long) graph.maxWeight() * graph.vertexCount() / graph.edgeCount();
+        }
+
+        long minimumDelta = ((long) graph.maxWeight() + MAXIMUM_BUCKET_COUNT - 1) / MAXIMUM_BUCKET_COUNT;
+        return (int) Math.max(1, Math.max(delta, minimumDelta));
+    }
+
+    /**
+     * Traverse the whole graph, starting from its root.
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @return Distances and parents of all vertices reachable from root
+     */
+    public ShortestPathTree traverse(CompiledGraph graph) {
+        return traverse(graph, graph.rootId(), CompiledGraph.NO_VERTEX);
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until the distance of destination is final.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, and add source to bucket 0
+     * i = 0
+     * While there are vertices in the buckets, and distance[destination] >= i * delta:
+     *     While bucket[i] is empty: i = i + 1
+     *     removed = {}
+     *     While bucket[i] is not empty:
+     *         frontier = remove all vertices from bucket[i]
+     *         removed = removed + frontier
+     *         In parallel, for each light edge (u, v) of a vertex u in frontier do:
+     *             If CAS-min(distance[v], distance[u] + w(u, v)): add v to bucket[distance[v] / delta]
+     *     In parallel, for each heavy edge (u, v) of a vertex u in removed do:
+     *         If CAS-min(distance[v], distance[u] + w(u, v)): add v to bucket[distance[v] / delta]
+     *     i = i + 1
+     * }</pre>
+     * When the action service is shut down, we stop, and return the vertices whose distance is final by then.
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @param destination Id of the vertex to stop at, or {@link CompiledGraph#NO_VERTEX} to traverse all reachable vertices
+     * @return Distances and parents of the vertices whose distance is final
+     * @throws IllegalArgumentException In case the graph has negative weights
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source, int destination) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Delta-stepping supports non-negative weights only. Minimum weight was: " + graph.minWeight());
+        }
+
+        int vertexCount = graph.vertexCount();
+        int delta = deltaOf(graph);
+        AtomicLongArray distance = new AtomicLongArray(vertexCount);
+        for (int id = 0; id < vertexCount; id++) {
+            distance.set(id, ShortestPathTree.UNREACHED);
+        }
+
+        // Heavy edges of bucket i get to bucket i + maxWeight / delta + 1 at most, so this is enough for all live entries
+        Buckets buckets = new Buckets(graph.maxWeight() / delta + 2);
+        if (source != CompiledGraph.NO_VERTEX) {
+            distance.set(source, 0);
+            buckets.add(0, source);
+        }
+
+        // Stamps to take a vertex once per phase, and to remember it once per bucket, though it might be added several times
+        int[] phaseStamp = new int[vertexCount];
+        int[] bucketStamp = new int[vertexCount];
+        int phase = 0, bucketCount = 0;
+
+        long bucket = 0;
+        long finalBound = ShortestPathTree.UNREACHED;
+        while (!buckets.isEmpty()) {
+            bucket = buckets.nextNonEmpty(bucket);
+
+            // Distances smaller than the current bucket are final, so there is nothing to improve for destination
+            if (((destination != CompiledGraph.NO_VERTEX) && (distance.get(destination) < bucket * delta)) || ActionThreadService.getInstance().isShutdownNow()) {
+                finalBound = bucket * delta;
+                break;
+            }
+
+            int currentBucketStamp = ++bucketCount;
+            IntList removed = new IntList();
+            while (buckets.hasEntries(bucket)) {
+                int currentPhaseStamp = ++phase;
+                IntList entries = buckets.take(bucket);
+                IntList frontier = new IntList();
+                for (int i = 0; i < entries.size; i++) {
+                    int vertex = entries.values[i];
+
+                    // Skip entries of vertices that got to a previous bucket, or that are in this phase already
+                    if ((distance.get(vertex) / delta == bucket) && (phaseStamp[vertex] != currentPhaseStamp)) {
+                        phaseStamp[vertex] = currentPhaseStamp;
+                        frontier.add(vertex);
+                        if (bucketStamp[vertex] != currentBucketStamp) {
+                            bucketStamp[vertex] = currentBucketStamp;
+                            removed.add(vertex);
+                        }
+                    }
+                }
+
+                addToBuckets(buckets, distance, delta, relax(new Relaxation(graph, distance, frontier.values, 0, frontier.size, delta, true)));
+            }
+
+            addToBuckets(buckets, distance, delta, relax(new Relaxation(graph, distance, removed.values, 0, removed.size, delta, false)));
+            bucket++;
+        }
+
+        return buildTree(graph, source, distance, finalBound);
+    }
+
+    /**
+     * Relax a phase. Small phases are relaxed by the calling thread, as submitting them to the pool costs more.
+     * @return Vertices whose distance got shorter
+     */
+    private static IntList relax(Relaxation relaxation) {
+        if (relaxation.to - relaxation.from <= RELAX_THRESHOLD) {
+            return relaxation.compute();
+        }
+
+        return ActionThreadService.getInstance().invoke(relaxation);
+    }
+
+    private static void addToBuckets(Buckets buckets, AtomicLongArray distance, int delta, IntList improved) {
+        for (int i = 0; i < improved.size; i++) {
+            int vertex = improved.values[i];
+            buckets.add(distance.get(vertex) / delta, vertex);
+        }
+    }
+
+    /**
+     * Set distance of a vertex to the specified distance, in case it is shorter. This is a lock-free minimum: when another
+     * thread has changed the distance in between, we compare with its distance and try again.
+     * @return Whether distance got shorter
+     */
+    private static boolean relax(AtomicLongArray distance, int vertex, long newDistance) {
+        long currentDistance = distance.get(vertex);
+        while (newDistance < currentDistance) {
+            if (distance.compareAndSet(vertex, currentDistance, newDistance)) {
+                return true;
+            }
+
+            currentDistance = distance.get(vertex);
+        }
+
+        return false;
+    }
+
+    /**
+     * Copy the final distances, and collect the parents of vertices with final distance into a new {@link ShortestPathTree}.
+     * @param finalBound Distances smaller than this bound are final
+     */
+    private static ShortestPathTree buildTree(CompiledGraph graph, int source, AtomicLongArray workingDistance, long finalBound) {
+        int vertexCount = graph.vertexCount();
+        long[] distance = new long[vertexCount];
+        for (int id = 0; id < vertexCount; id++) {
+            long vertexDistance = workingDistance.get(id);
+            distance[id] = (vertexDistance < finalBound) ? vertexDistance : ShortestPathTree.UNREACHED;
+        }
+
+        int[] zeroWeightLayer = (graph.minWeight() == 0) ?
+                ZeroWeightLayers.of(graph, source, null, distance, id -> (distance[id] != ShortestPathTree.UNREACHED) ? id : -1) : null;
+
+        return new ShortestPathTree.Builder(graph, source, distance).build(builder -> collectParents(graph, distance, zeroWeightLayer, builder));
+    }
+
+    /**
+     * Go over all (child, parent) pairs, and add them to the builder, by the id of child
+     */
+    private static void collectParents(CompiledGraph graph, long[] distance, int[] zeroWeightLayer, ShortestPathTree.Builder builder) {
+        for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+            if (distance[vertex] == ShortestPathTree.UNREACHED) {
+                continue;
+            }
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                int weight = graph.weight(edge);
+                if ((distance[vertex] + weight == distance[target]) && ((weight > 0) || (zeroWeightLayer[vertex] < zeroWeightLayer[target]))) {
+                    builder.addParent(target, vertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Relax the light or the heavy edges of a range of vertices. Large ranges are split in two, and relaxed in parallel.
+     */
+    private static class Relaxation extends RecursiveTask<IntList> {
+        private final CompiledGraph graph;
+        private final AtomicLongArray distance;
+        private final int[] vertices;
+        private final int from, to;
+        private final int delta;
+        private final boolean light;
+
+        private Relaxation(CompiledGraph graph, AtomicLongArray distance, int[] vertices, int from, int to, int delta, boolean light) {
+            this.graph = graph;
+            this.distance = distance;
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > RELAX_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                Relaxation left = new Relaxation(graph, distance, vertices, from, middle, delta, light);
+                left.fork();
+                IntList improved = new Relaxation(graph, distance, vertices, middle, to, delta, light).compute();
+                return improved.addAll(left.join());
+            }
+
+            IntList improved = new IntList();
+            for (int i = from; i < to; i++) {
+                int vertex = vertices[i];
+                long vertexDistance = distance.get(vertex);
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int weight = graph.weight(edge);
+                    if (((weight <= delta) == light) && relax(distance, graph.target(edge), vertexDistance + weight)) {
+                        improved.add(graph.target(edge));
+                    }
+                }
+            }
+
+            return improved;
+        }
+    }
+
+    /**
+     * Buckets of vertex ids, used cyclically by {@code bucket % buckets.length}
+     */
+    private static class Buckets {
+        private final IntList[] buckets;
+
+        /**
+         * Amount of entries in all buckets, including entries of vertices that got to a previous bucket
+         */
+        private long size;
+
+        private Buckets(int bucketCount) {
+            buckets = new IntList[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new IntList();
+            }
+        }
+
+        private IntList bucket(long bucket) {
+            return buckets[(int) (bucket % buckets.length)];
+        }
+
+        private void add(long bucket, int vertex) {
+            bucket(bucket).add(vertex);
+            size++;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private boolean hasEntries(long bucket) {
+            return bucket(bucket).size > 0;
+        }
+
+        /**
+         * @return The first bucket, starting at the specified bucket, which has entries. Must not be {@link #isEmpty() empty}
+         */
+        private long nextNonEmpty(long bucket) {
+            while (!hasEntries(bucket)) {
+                bucket++;
+            }
+
+            return bucket;
+        }
+
+        /**
+         * Remove all entries of a bucket
+         * @return The entries
+         */
+        private IntList take(long bucket) {
+            int index = (int) (bucket % buckets.length);
+            IntList entries = buckets[index];
+            buckets[index] = new IntList();
+            size -= entries.size;
+            return entries;
+        }
+    }
+
+    /**
+     * A growable array of ints
+     */
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        private IntList addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+
+import java.util.Arrays;
+
+/**
+ * A sequential Dijkstra over the dense ids of a {@link CompiledGraph}, for graphs with non-negative integer weights,
+ * which finds all shortest paths from a source vertex.<br/>
+ * Instead of a heap, we use Dial's bucket queue: when all weights are in range [0, C], the tentative distances of all
+ * vertices in the queue are in range [d, d + C], where d is the distance we are currently settling. Hence C + 1 buckets,
+ * used cyclically by {@code distance % (C + 1)}, hold the queue, and both push and pop are O(1). Weights of random graphs
+ * are in range [0, 1000), so this is a thousand buckets.
+ * <p>
+ * A vertex whose distance got shorter is pushed again rather than moved, and the old entry is skipped once popped, as
+ * the vertex is already settled by then. A vertex is settled once, so each edge is relaxed once.<br/>
+ * Parents are collected once the search is over, out of the final distances: {@code u} is a parent of {@code v} when
+ * {@code distance[u] + weight(u, v) == distance[v]}. Over zero weight edges, {@code u} must be at a lower
+ * {@link ZeroWeightLayers layer} than {@code v} as well, which keeps the parents acyclic, so we never go in circles
+ * through zero weights. Layers depend on the distances only, so {@link AStar} and {@link DeltaStepping} collect the
+ * same parents, and trees of all of them can be cached as one.
+ * </p>
+ * Use {@link #supports(CompiledGraph)} to check whether a graph can be traversed by this algorithm.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see DijkstraWithNegCycleSupport
+ * @see ShortestPathCounts
+ */
+public class DialDijkstra {
+    /**
+     * Maximum edge weight we support. There is a bucket per weight, so larger weights cost too much memory.
+     */
+    public static final int MAXIMUM_WEIGHT = 1 << 16;
+
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * @param graph A graph to check
+     * @return Whether all weights of the specified graph are in range [0, {@link #MAXIMUM_WEIGHT}]
+     */
+    public static boolean supports(CompiledGraph graph) {
+        return (graph.minWeight() >= 0) && (graph.maxWeight() <= MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * Traverse the whole graph, starting from its root.
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @return Distances and parents of all vertices reachable from root
+     */
+    public ShortestPathTree traverse(CompiledGraph graph) {
+        return traverse(graph, graph.rootId(), CompiledGraph.NO_VERTEX);
+    }
+
+    /**
+     * Find the distances of all vertices from some source vertex, with no parents.<br/>
+     * This is for callers that need the distances only, such as {@link Landmarks}, so we skip building a tree.
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @param source Id of the vertex to start from
+     * @return Distance of each vertex from source, by id, or {@link ShortestPathTree#UNREACHED}
+     * @throws IllegalArgumentException In case the graph has weights we do not support
+     */
+    public long[] distances(CompiledGraph graph, int source) {
+        validate(graph);
+
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount(), graph.maxWeight() + 1);
+            int settledCount = search(graph, source, CompiledGraph.NO_VERTEX, scratch);
+
+            long[] distance = new long[graph.vertexCount()];
+            Arrays.fill(distance, ShortestPathTree.UNREACHED);
+            for (int i = 0; i < settledCount; i++) {
+                int vertex = scratch.settleOrder[i];
+                distance[vertex] = scratch.distance[vertex];
+            }
+
+            return distance;
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until destination is settled.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, and add source to bucket 0
+     * d = 0
+     * While there are vertices in the buckets:
+     *     While bucket[d % (C + 1)] is empty: d = d + 1
+     *     u = remove from bucket[d % (C + 1)]
+     *     If u is settled: continue
+     *     If d is larger than distance[destination]: stop
+     *     Settle u. If u is destination and all weights are positive: stop
+     *     For each edge (u, v) do:
+     *         If v is not settled and distance[u] + w(u, v) < distance[v]:
+     *             distance[v] = distance[u] + w(u, v)
+     *             Add v to bucket[distance[v] % (C + 1)]
+     * For each settled u, and each edge (u, v) where distance[u] + w(u, v) == distance[v], and w(u, v) > 0 or u is at a
+     * lower zero weight layer than v:
+     *     Add u as a parent of v
+     * }</pre>
+     * @param graph The graph to traverse. Must be {@link #supports(CompiledGraph) supported}
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @param destination Id of the vertex to stop at, or {@link CompiledGraph#NO_VERTEX} to traverse all reachable vertices
+     * @return Distances and parents of the settled vertices
+     * @throws IllegalArgumentException In case the graph has weights we do not support
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source, int destination) {
+        validate(graph);
+
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount(), graph.maxWeight() + 1);
+            int settledCount = search(graph, source, destination, scratch);
+            return buildTree(graph, source, scratch, settledCount);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    private static void validate(CompiledGraph graph) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Dial's Dijkstra supports weights in range [0, " + MAXIMUM_WEIGHT + "]. Was: [" +
+                    graph.minWeight() + ", " + graph.maxWeight() + "]");
+        }
+    }
+
+    /**
+     * Settle vertices in order of their distance from source, until destination is settled
+     * @return Amount of settled vertices. Their order, and their distances, are in the scratch
+     */
+    private static int search(CompiledGraph graph, int source, int destination, Scratch scratch) {
+        int[] reached = scratch.reached;
+        int[] settled = scratch.settled;
+        long[] distance = scratch.distance;
+        int[] settleOrder = scratch.settleOrder;
+        int epoch = scratch.epoch();
+        int bucketCount = graph.maxWeight() + 1;
+
+        int settledCount = 0;
+        if (source != CompiledGraph.NO_VERTEX) {
+            reached[source] = epoch;
+            distance[source] = 0;
+            scratch.push(0, source);
+        }
+
+        // With zero weights, the other vertices at the distance of destination might be its parents, so settle them too
+        long destinationDistance = ShortestPathTree.UNREACHED;
+        long currentDistance = 0;
+        while ((scratch.queued > 0) && (currentDistance <= destinationDistance)) {
+            int bucket = (int) (currentDistance % bucketCount);
+            if (scratch.bucketSize[bucket] == 0) {
+                currentDistance++;
+                continue;
+            }
+
+            // Skip entries of vertices that were settled through a shorter distance
+            int vertex = scratch.pop(bucket);
+            if ((settled[vertex] == epoch) || (distance[vertex] != currentDistance)) {
+                continue;
+            }
+
+            settled[vertex] = epoch;
+            scratch.settleIndex[vertex] = settledCount;
+            settleOrder[settledCount++] = vertex;
+            if (vertex == destination) {
+                if (graph.minWeight() > 0) {
+                    break;
+                }
+
+                destinationDistance = currentDistance;
+            }
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                long newDistance = currentDistance + graph.weight(edge);
+                if ((settled[target] != epoch) && ((reached[target] != epoch) || (newDistance < distance[target]))) {
+                    reached[target] = epoch;
+                    distance[target] = newDistance;
+                    scratch.push((int) (newDistance % bucketCount), target);
+                }
+            }
+        }
+
+        // Stopped at destination, so drop whatever is left for the next traversal
+        scratch.clearBuckets();
+
+        return settledCount;
+    }
+
+    /**
+     * Copy the distances of the settled vertices, and collect their parents into a new {@link ShortestPathTree}. The index
+     * of a vertex in the tree is its settle index, so the tree takes the size of the settled vertices only.
+     */
+    private static ShortestPathTree buildTree(CompiledGraph graph, int source, Scratch scratch, int settledCount) {
+        int[] vertices = Arrays.copyOf(scratch.settleOrder, settledCount);
+        long[] distance = new long[settledCount];
+        for (int i = 0; i < settledCount; i++) {
+            distance[i] = scratch.distance[vertices[i]];
+        }
+
+        int[] zeroWeightLayer = (graph.minWeight() == 0) ? ZeroWeightLayers.of(graph, source, vertices, distance, scratch::settleIndexOf) : null;
+
+        return new ShortestPathTree.Builder(graph, source, vertices, distance)
+                .build(builder -> collectParents(graph, scratch, settledCount, zeroWeightLayer, builder));
+    }
+
+    /**
+     * Go over all (child, parent) pairs, and add them to the builder, by the settle index of child
+     */
+    private static void collectParents(CompiledGraph graph, Scratch scratch, int settledCount, int[] zeroWeightLayer, ShortestPathTree.Builder builder) {
+        int[] settled = scratch.settled;
+        int[] settleIndex = scratch.settleIndex;
+        long[] distance = scratch.distance;
+        int epoch = scratch.epoch();
+
+        for (int i = 0; i < settledCount; i++) {
+            int vertex = scratch.settleOrder[i];
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                int weight = graph.weight(edge);
+                if ((settled[target] == epoch) && (distance[vertex] + weight == distance[target]) &&
+                        ((weight > 0) || (zeroWeightLayer[i] < zeroWeightLayer[settleIndex[target]]))) {
+                    builder.addParent(settleIndex[target], vertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Working arrays of a single traversal
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        /**
+         * Stamp of vertices that have a tentative distance
+         */
+        private int[] reached = new int[0];
+
+        /**
+         * Stamp of vertices whose distance is final
+         */
+        private int[] settled = new int[0];
+        private int[] settleIndex = new int[0];
+        private int[] settleOrder = new int[0];
+        private long[] distance = new long[0];
+
+        /**
+         * Bucket queue. Each bucket is a stack of vertex ids, which grows when needed.
+         */
+        private int[][] buckets = new int[0][];
+        private int[] bucketSize = new int[0];
+
+        /**
+         * Amount of entries in all buckets, including entries of vertices that were settled already
+         */
+        private int queued;
+
+        /**
+         * Start a new traversal, and make sure there are enough buckets for the weights of the graph
+         */
+        private void startTraversal(int vertexCount, int bucketCount) {
+            startTraversal(vertexCount);
+
+            if (buckets.length < bucketCount) {
+                buckets = Arrays.copyOf(buckets, bucketCount);
+                bucketSize = Arrays.copyOf(bucketSize, bucketCount);
+                for (int i = 0; i < bucketCount; i++) {
+                    if (buckets[i] == null) {
+                        buckets[i] = new int[4];
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected void allocate(int vertexCount) {
+            reached = new int[vertexCount];
+            settled = new int[vertexCount];
+            settleIndex = new int[vertexCount];
+            settleOrder = new int[vertexCount];
+            distance = new long[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { reached, settled };
+        }
+
+        /**
+         * Buckets grow with the queue, so their size is counted when they are released
+         */
+        @Override
+        protected long sizeInBytes() {
+            long bucketSize = 0;
+            for (int[] bucket : buckets) {
+                bucketSize += bucket.length;
+            }
+
+            return (4L * capacity() + bucketSize + buckets.length) * Integer.BYTES + (long) capacity() * Long.BYTES;
+        }
+
+        /**
+         * @return Settle index of a vertex, or -1 when it is not settled
+         */
+        private int settleIndexOf(int vertex) {
+            return (settled[vertex] == epoch()) ? settleIndex[vertex] : -1;
+        }
+
+        private void push(int bucket, int vertex) {
+            if (bucketSize[bucket] == buckets[bucket].length) {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+            }
+
+            buckets[bucket][bucketSize[bucket]++] = vertex;
+            queued++;
+        }
+
+        private int pop(int bucket) {
+            queued--;
+            return buckets[bucket][--bucketSize[bucket]];
+        }
+
+        private void clearBuckets() {
+            if (queued > 0) {
+                Arrays.fill(bucketSize, 0);
+                queued = 0;
+            }
+        }
+    }
+}
@@ -8,7 +8,7 @@ import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RecursiveAction;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * A class that implements Dijkstra algorithm in order to find shortest paths in a weighted graph.<br/>
@@ -81,13 +81,25 @@ public class DijkstraWithNegCycleSupport<V> implements ShortestPathAlgorithm<V>
      * This class is a recursive action for a fork-join pool which splits itself to
      * multiple sub-tasks, recursively, such that each task can run on a different thread
      * from our fork-join pool.<br/>
-     * This mechanism lets us implement Dijkstra algorithm using parallel search.
+     * This mechanism lets us implement Dijkstra algorithm using parallel search.<br/>
+     * The action visits the reachable vertices of its vertex by itself (see {@link #accept(Object)}), so we do not
+     * collect all of them into a list, only those we are going to continue to.
      */
-    private class ShortestPathRecursiveAction extends RecursiveAction {
+    private class ShortestPathRecursiveAction extends RecursiveAction implements Consumer<V> {
         private static final int THRESHOLD = 1;
         private final IGraph<V> graph;
         private final V vertex;
 
+        /**
+         * Distance of {@link #vertex}, used while visiting its reachable vertices
+         */
+        private long currVertexDistance;
+
+        /**
+         * Reachable vertices we are going to continue to. Created once there is such a vertex.
+         */
+        private List<V> reachableVertices;
+
         /**
          * Constructs a new {@link ShortestPathRecursiveAction}
          * @param graph The graph we are searching in
@@ -105,36 +117,11 @@ public class DijkstraWithNegCycleSupport<V> implements ShortestPathAlgorithm<V>
                 return;
             }
 
-            List<V> reachableVertices;
-            long currVertexDistance = visitedVertices.computeIfAbsent(vertex, VertexDistanceInfo::new).getDistance();
-
-            // Filter only those we have not reached to yet, or those that we've found a shortest path to.
-            reachableVertices = graph.getReachableVertices(vertex).stream().filter(neighbor -> {
-                long neighborDistance = visitedVertices.computeIfAbsent(neighbor, VertexDistanceInfo::new).getDistance();
+            currVertexDistance = visitedVertices.computeIfAbsent(vertex, VertexDistanceInfo::new).getDistance();
 
-                // For a vertex we are visiting for the first time, go ahead - there is nothing to limit here.
-                if (neighborDistance == Long.MAX_VALUE) {
-                    return true;
-                }
-
-                if (currVertexDistance + (int)graph.getValue(neighbor) <= neighborDistance) {
-                    // Test for negative cycle
-                    if ((currVertexDistance < 0) && ((int) graph.getValue(neighbor) < 0) && (isPredecessor(neighbor, vertex) || isPredecessor(vertex, neighbor))) {
-                        // Collect necessary data and warn about the detected negative cycle.
-                        Set<V> parents = new HashSet<>();
-                        collectParentsRecursively(vertex, parents);
-                        collectParentsRecursively(neighbor, parents);
-                        log.warn("Negative cycle detected. Vertices: " + vertex + ", " + neighbor + ". Cycle with: " + parents);
-                        return false;
-                    }
-
-                    // Continue to this neighbor as we've found a shorter distance
-                    return true;
-                }
-
-                // Do not continue to this neighbor, cause its distance is not shorter than the existing one.
-                return false;
-            }).collect(Collectors.toList());
+            // Keep only those we have not reached to yet, or those that we've found a shortest path to. See accept(V)
+            graph.forEachReachable(vertex, this);
+            List<V> reachableVertices = (this.reachableVertices == null) ? Collections.emptyList() : this.reachableVertices;
 
             if ((reachableVertices.size() >= THRESHOLD) && ((destination == null) || (!reachableVertices.contains(destination)))) {
                 List<ShortestPathRecursiveAction> subTasks = createSubtasks(reachableVertices);
@@ -150,6 +137,49 @@ public class DijkstraWithNegCycleSupport<V> implements ShortestPathAlgorithm<V>
             }
         }
 
+        /**
+         * Visit a reachable vertex of {@link #vertex}, and keep it in case we should continue to it.
+         * @param neighbor A reachable vertex
+         */
+        @Override
+        public void accept(V neighbor) {
+            if (shouldContinueTo(neighbor)) {
+                if (reachableVertices == null) {
+                    reachableVertices = new ArrayList<>();
+                }
+
+                reachableVertices.add(neighbor);
+            }
+        }
+
+        private boolean shouldContinueTo(V neighbor) {
+            long neighborDistance = visitedVertices.computeIfAbsent(neighbor, VertexDistanceInfo::new).getDistance();
+
+            // For a vertex we are visiting for the first time, go ahead - there is nothing to limit here.
+            if (neighborDistance == Long.MAX_VALUE) {
+                return true;
+            }
+
+            int weight = graph.getValue(neighbor);
+            if (currVertexDistance + weight <= neighborDistance) {
+                // Test for negative cycle
+                if ((currVertexDistance < 0) && (weight < 0) && (isPredecessor(neighbor, vertex) || isPredecessor(vertex, neighbor))) {
+                    // Collect necessary data and warn about the detected negative cycle.
+                    Set<V> parents = new HashSet<>();
+                    collectParentsRecursively(vertex, parents);
+                    collectParentsRecursively(neighbor, parents);
+                    log.warn("Negative cycle detected. Vertices: " + vertex + ", " + neighbor + ". Cycle with: " + parents);
+                    return false;
+                }
+
+                // Continue to this neighbor as we've found a shorter distance
+                return true;
+            }
+
+            // Do not continue to this neighbor, cause its distance is not shorter than the existing one.
+            return false;
+        }
+
         /**
          * Tests if a vertex is a predecessor of a specified vertex.<br/>
          * We use this method as a test to verify we do not enter into negative cycle.
@@ -0,0 +1,106 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+/**
+ * A disjoint-set (union-find) structure over dense int elements, in range [0, size).<br/>
+ * Sets are trees where each element points to its parent, and the root of a tree is the representative of its set.
+ * We use union by rank, so trees stay shallow, and path compression (halving) on {@link #find(int)}, so a sequence
+ * of operations takes near-linear time. (Inverse Ackermann per operation, which is less than 5 for any practical size)
+ * <p>
+ * This class is not thread safe. Each thread should label using its own instance.
+ * </p>
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see UnionFindConnectedComponents
+ */
+public class DisjointSet {
+    private final int[] parent;
+
+    /**
+     * Upper bound of the height of each tree, by its root. Heights are logarithmic, so a byte is more than enough
+     */
+    private final byte[] rank;
+
+    /**
+     * Amount of disjoint sets
+     */
+    private int count;
+
+    /**
+     * Constructs a new {@link DisjointSet}, where every element is in a set of its own
+     * @param size Amount of elements
+     */
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        count = size;
+
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+    }
+
+    /**
+     * Find the representative of the set an element belongs to.<br/>
+     * Every element on the way to the root is redirected to its grandparent, so later finds are shorter.
+     * @param element The element to find its set
+     * @return The root of the set of the specified element
+     */
+    public int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+
+        return element;
+    }
+
+    /**
+     * Merge the sets of two elements into one set.
+     * @param first An element
+     * @param second Another element
+     * @return Whether the elements were in different sets, and they have been merged, or not
+     */
+    public boolean union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+
+        // Attach the shallower tree under the root of the deeper one, so the height grows only when both are equal
+        if (rank[firstRoot] < rank[secondRoot]) {
+            parent[firstRoot] = secondRoot;
+        } else if (rank[firstRoot] > rank[secondRoot]) {
+            parent[secondRoot] = firstRoot;
+        } else {
+            parent[secondRoot] = firstRoot;
+            rank[firstRoot]++;
+        }
+
+        count--;
+        return true;
+    }
+
+    /**
+     * @param first An element
+     * @param second Another element
+     * @return Whether the specified elements are in the same set
+     */
+    public boolean isConnected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    /**
+     * @return Amount of disjoint sets
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return Amount of elements
+     */
+    public int size() {
+        return parent.length;
+    }
+}
@@ -1,10 +1,16 @@
 package org.hit.internetprogramming.eoh.server.graph.algorithm;
 
 import lombok.RequiredArgsConstructor;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsPage;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.server.common.exception.InputTooLargeException;
+import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCycleException;
 
+import java.math.BigInteger;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -25,28 +31,395 @@ public class FindPaths<T> {
     /**
      * Exercise two is limited to accept matrices of size 50x50 maximum, hence we hold this constant
      * so we can compare it against {@link IGraph#getGraphSize()}, and throw exception when size of the graph
-     * exceeds 50x50.
+     * exceeds 50x50.<br/>
+     * This applies to graphs whose vertices are not {@link Index indices} only, as those cannot be compiled. Paths of
+     * compiled graphs are counted rather than enumerated, so the size of the graph does not matter.
      */
     private static final int MAXIMUM_SIZE_OF_GRAPH_FOR_BFS = 50*50;
 
+    /**
+     * Maximum amount of paths in a page of {@link #findShortestPaths(Object, long, int)}. Amount of shortest paths is
+     * exponential on open grids, so a caller pages through them rather than getting all of them at once
+     */
+    public static final int MAXIMUM_AMOUNT_OF_PATHS = 10_000;
+
+    /**
+     * Weighted graphs with at least this amount of vertices are traversed in parallel, using {@link DeltaStepping}, or
+     * {@link ParallelBellmanFord} when there are negative weights. Smaller graphs are traversed faster by the sequential
+     * {@link DialDijkstra} and {@link SPFA}, as the work of a round (or phase) is too small to split.
+     */
+    private static final int MINIMUM_VERTICES_FOR_PARALLEL_SEARCH = 500*500;
+
+    /**
+     * Weighted graphs whose minimum weight is at least this fraction of their maximum weight are traversed by {@link AStar}.
+     * Its heuristic is scaled by the minimum weight, so with lower minimum weights it barely directs the search, and
+     * {@link DialDijkstra} is faster, as its bucket queue is cheaper than a heap.
+     */
+    private static final double MINIMUM_WEIGHT_RATIO_FOR_A_STAR = 0.5;
+
     /**
      * A graph to find paths in
      */
     private final IGraph<T> graph;
 
     /**
-     * Algorithms are lazily initialized. Those can be {@link BFSVisit} or {@link BellmanFord}
-     * {@link BFSVisit} is lazily initialized at {@link #findShortestPaths(Object)}.
+     * Algorithms that run over the vertices of the graph, rather than over the ids of a compiled graph. Those can be
+     * {@link BFSVisit} or {@link BellmanFord}, for graphs that cannot be compiled, or {@link DijkstraWithNegCycleSupport},
+     * for weighted graphs with negative weights. They are lazily initialized.<br/>
+     * Compiled graphs are searched by {@link IntBFSVisit}, {@link BidirectionalIntBFSVisit} or {@link JumpPointSearch}, and
+     * by the weighted engines, which are created per search. See {@link #countShortestPaths(CompiledGraph, Index)}
      */
     private final Map<ShortestPathAlgorithm.Algorithm, ShortestPathAlgorithm<T>> algorithms = new HashMap<>();
 
+    /**
+     * The graph, compiled. Lazily initialized by {@link #compiledGraph()}, when vertices are {@link Index indices}.
+     */
+    private CompiledGraph compiledGraph;
+
+    /**
+     * Landmarks of the graph, which direct the search of {@link AStar} in weighted graphs. Optional
+     */
+    private Landmarks landmarks;
+
+    /**
+     * Contraction hierarchy of the graph, which finds a single shortest path in weighted graphs. Optional
+     */
+    private ContractionHierarchy contractionHierarchy;
+
+    /**
+     * Trees of sources that were traversed already, so counting paths walks their parents. Optional
+     */
+    private ShortestPathTreeCache shortestPathTrees;
+
+    /**
+     * Constructs a new {@link FindPaths}, which searches using the preprocessings of the graph, and the cached trees of its sources
+     * @param graph A graph to find paths in
+     * @param landmarks Landmarks of the graph, or of the same graph with another root. When {@code null}, there are no landmarks
+     * @param contractionHierarchy Contraction hierarchy of the graph, or of the same graph with another root. When {@code null}, there is no hierarchy
+     * @param shortestPathTrees A cache of shortest path trees. When {@code null}, every search starts from scratch
+     */
+    public FindPaths(IGraph<T> graph, Landmarks landmarks, ContractionHierarchy contractionHierarchy, ShortestPathTreeCache shortestPathTrees) {
+        this(graph);
+        this.landmarks = landmarks;
+        this.contractionHierarchy = contractionHierarchy;
+        this.shortestPathTrees = shortestPathTrees;
+    }
+
     /**
      * Find all shortest paths in the specified graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.
      * @param to The vertex to get to.
      * @return Collection of all paths to destination vertex, or empty if we could not reach to destination.
-     * @throws InputTooLargeException When input graph (matrix) is larger than 50x50
+     * @throws InputTooLargeException When there are more shortest paths than a list can hold, or when the graph cannot be
+     * compiled and it is larger than 50x50
      */
     public List<Collection<T>> findShortestPaths(T to) throws InputTooLargeException {
+        CompiledGraph compiledGraph = compiledGraph();
+        if (compiledGraph == null) {
+            return findShortestPathsUsingBFSVisit(to);
+        }
+
+        return allPaths(countShortestPaths(compiledGraph, (Index) to));
+    }
+
+    /**
+     * Find a single shortest path in the specified graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.<br/>
+     * Standard matrices and regular matrices are searched by {@link JumpPointSearch}, which skips the cells of equivalent
+     * paths. Other graphs get the first of their shortest paths.
+     * @param to The vertex to get to.
+     * @param isJumpPointsOnly Whether to get the jump points of the path only, rather than all of its vertices. Ignored
+     * when the graph is not searched by {@link JumpPointSearch}
+     * @return A list with a single shortest path, or an empty list if we could not reach to destination.
+     * @throws InputTooLargeException When the graph cannot be compiled and it is larger than 50x50
+     */
+    @SuppressWarnings("unchecked")
+    public List<Collection<T>> findShortestPath(T to, boolean isJumpPointsOnly) throws InputTooLargeException {
+        CompiledGraph compiledGraph = compiledGraph();
+        if (compiledGraph == null) {
+            List<Collection<T>> paths = findShortestPathsUsingBFSVisit(to);
+            return paths.isEmpty() ? paths : new ArrayList<>(paths.subList(0, 1));
+        }
+
+        if (!JumpPointSearch.supports(compiledGraph)) {
+            return page(countShortestPaths(compiledGraph, (Index) to), 0, 1).getPaths();
+        }
+
+        List<Collection<T>> paths = new ArrayList<>(1);
+        List<Index> path = new JumpPointSearch().findPath(compiledGraph, compiledGraph.rootId(), compiledGraph.idOf((Index) to), isJumpPointsOnly);
+        if (!path.isEmpty()) {
+            paths.add((Collection<T>) (Collection<?>) path);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Find a page of the shortest paths in the specified graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.<br/>
+     * The amount of shortest paths and their distance are counted without enumerating the paths, and then only the
+     * requested paths are found, by their rank. Hence this can be used for graphs of any size.
+     * @param to The vertex to get to.
+     * @param offset Rank of the first path to get
+     * @param limit Maximum amount of paths to get. Use 0 to get the amount of paths and their distance only
+     * @return A page of the shortest paths to destination vertex. Its count is 0 if we could not reach to destination.
+     * @throws InputTooLargeException When limit is larger than {@link #MAXIMUM_AMOUNT_OF_PATHS}, or when the graph
+     * cannot be compiled and it is larger than 50x50
+     */
+    public ShortestPathsPage<T> findShortestPaths(T to, long offset, int limit) throws InputTooLargeException {
+        validateLimit(limit);
+
+        CompiledGraph compiledGraph = compiledGraph();
+        if (compiledGraph == null) {
+            List<Collection<T>> paths = findShortestPathsUsingBFSVisit(to);
+            return ShortestPathsPage.of(paths, paths.isEmpty() ? null : (long) (paths.get(0).size() - 1), offset, limit);
+        }
+
+        return page(countShortestPaths(compiledGraph, (Index) to), offset, limit);
+    }
+
+    /**
+     * Find all shortest paths in the specified weighted graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.<br/>
+     * When there are no negative weights, we use {@link DialDijkstra}, or {@link DeltaStepping} for large graphs when there
+     * are several processors, or {@link AStar} for grids whose weights are close to each other, or when there are
+     * {@link Landmarks}, and count the paths rather than enumerating them.
+     * Otherwise, we use {@link #findShortestPathsInWeightedGraphDijkstra(Object)}, which supports negative weights. Note
+     * that randomly generated weighted graphs have negative weights as well, so they are always searched by the latter.
+     * @param to The vertex to get to.
+     * @return Collection of all paths to destination vertex, or empty if we could not reach to destination.
+     * @throws InputTooLargeException When there are more shortest paths than a list can hold
+     */
+    public List<Collection<T>> findShortestPathsInWeightedGraph(T to) throws InputTooLargeException {
+        CompiledGraph compiledGraph = compiledGraph();
+        if ((compiledGraph == null) || !DialDijkstra.supports(compiledGraph)) {
+            return findShortestPathsInWeightedGraphDijkstra(to);
+        }
+
+        return allPaths(countShortestPathsInWeightedGraph(compiledGraph, (Index) to, landmarks));
+    }
+
+    /**
+     * Find a single shortest path in the specified weighted graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.<br/>
+     * When there is a {@link ContractionHierarchy}, it finds the path. Otherwise, we get the first of the shortest paths.
+     * @param to The vertex to get to.
+     * @return A list with a single shortest path, or an empty list if we could not reach to destination.
+     * @throws InputTooLargeException Never, as a single path is requested
+     */
+    @SuppressWarnings("unchecked")
+    public List<Collection<T>> findShortestPathInWeightedGraph(T to) throws InputTooLargeException {
+        CompiledGraph compiledGraph = compiledGraph();
+        if ((compiledGraph == null) || (contractionHierarchy == null)) {
+            return findShortestPathsInWeightedGraph(to, 0, 1).getPaths();
+        }
+
+        List<Collection<T>> paths = new ArrayList<>(1);
+        List<Index> path = contractionHierarchy.findPath(compiledGraph.rootId(), compiledGraph.idOf((Index) to));
+        if (!path.isEmpty()) {
+            paths.add((Collection<T>) (Collection<?>) path);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Same as {@link #findShortestPathsInWeightedGraph(Object)}, to get a page of the shortest paths.<br/>
+     * When the graph has negative weights, all shortest paths are found, and only the requested page is kept.
+     * @param to The vertex to get to.
+     * @param offset Rank of the first path to get
+     * @param limit Maximum amount of paths to get. Use 0 to get the amount of paths and their distance only
+     * @return A page of the shortest paths to destination vertex. Its count is 0 if we could not reach to destination.
+     * @throws InputTooLargeException When limit is larger than {@link #MAXIMUM_AMOUNT_OF_PATHS}
+     */
+    public ShortestPathsPage<T> findShortestPathsInWeightedGraph(T to, long offset, int limit) throws InputTooLargeException {
+        validateLimit(limit);
+
+        CompiledGraph compiledGraph = compiledGraph();
+        if ((compiledGraph == null) || !DialDijkstra.supports(compiledGraph)) {
+            List<Collection<T>> paths = findShortestPathsInWeightedGraphDijkstra(to);
+            return ShortestPathsPage.of(paths, paths.isEmpty() ? null : weightOf(paths.get(0)), offset, limit);
+        }
+
+        return page(countShortestPathsInWeightedGraph(compiledGraph, (Index) to, landmarks), offset, limit);
+    }
+
+    private static void validateLimit(int limit) throws InputTooLargeException {
+        if (limit > MAXIMUM_AMOUNT_OF_PATHS) {
+            throw new InputTooLargeException("Limit is too large! Maximum amount of paths in a page is: " + MAXIMUM_AMOUNT_OF_PATHS);
+        }
+    }
+
+    /**
+     * @return All counted paths, or empty when destination is not reachable
+     * @throws InputTooLargeException When there are more shortest paths than a list can hold
+     */
+    @SuppressWarnings("unchecked")
+    private List<Collection<T>> allPaths(ShortestPathCounts shortestPathCounts) throws InputTooLargeException {
+        if (shortestPathCounts == null) {
+            return new ArrayList<>();
+        }
+
+        BigInteger total = shortestPathCounts.getTotal();
+        if (total.bitLength() >= Integer.SIZE) {
+            throw new InputTooLargeException("There are " + total + " shortest paths, which is more than a single response " +
+                    "can hold. Use offset and limit to get them page by page, or countOnly to get their amount");
+        }
+
+        return (List<Collection<T>>) (List<?>) shortestPathCounts.paths(0, total.intValue());
+    }
+
+    /**
+     * @return A page of the counted paths, which is empty when destination is not reachable
+     */
+    @SuppressWarnings("unchecked")
+    private ShortestPathsPage<T> page(ShortestPathCounts shortestPathCounts, long offset, int limit) {
+        if (shortestPathCounts == null) {
+            return new ShortestPathsPage<>(null, BigInteger.ZERO, offset, new ArrayList<>());
+        }
+
+        List<Collection<T>> paths = (List<Collection<T>>) (List<?>) shortestPathCounts.paths(offset, limit);
+        return new ShortestPathsPage<>(shortestPathCounts.getDistance(), shortestPathCounts.getTotal(), offset, paths);
+    }
+
+    /**
+     * @return Weight of a path, which is the sum of the values of its vertices, excluding the first one
+     */
+    private long weightOf(Collection<T> path) {
+        long weight = 0;
+        Iterator<T> iterator = path.iterator();
+        iterator.next();
+        while (iterator.hasNext()) {
+            weight += ((Number) graph.getValue(iterator.next())).longValue();
+        }
+
+        return weight;
+    }
+
+    /**
+     * @return The graph, compiled, or {@code null} when its vertices are not {@link Index indices}
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledGraph compiledGraph() {
+        if ((compiledGraph == null) && (graph.getRoot() instanceof Index)) {
+            compiledGraph = CompiledGraph.compile((IGraph<Index>) graph);
+        }
+
+        return compiledGraph;
+    }
+
+    /**
+     * Traverse a compiled graph over its dense ids, with no maps and no sets, and count the shortest paths to destination.<br/>
+     * Both ends are known, so we search from both of them using {@link BidirectionalIntBFSVisit}. Sources that are queried
+     * repeatedly are traversed by {@link IntBFSVisit} to all vertices, and their trees are cached.
+     * @return The counts, or {@code null} when destination is not reachable
+     */
+    private ShortestPathCounts countShortestPaths(CompiledGraph compiledGraph, Index to) {
+        int source = compiledGraph.rootId(), destination = compiledGraph.idOf(to);
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX)) {
+            return null;
+        }
+
+        ShortestPathTree shortestPathTree = shortestPathTree(compiledGraph, ShortestPathAlgorithm.Algorithm.BFS,
+                () -> new BidirectionalIntBFSVisit().traverse(compiledGraph, source, destination),
+                () -> new IntBFSVisit().traverse(compiledGraph, source, CompiledGraph.NO_VERTEX));
+        return shortestPathTree.isReached(destination) ? ShortestPathCounts.of(shortestPathTree, destination) : null;
+    }
+
+    /**
+     * Get the tree of the root from the cache. When it is not cached, search for destination, or traverse the whole graph
+     * and cache the tree, when the cache admits it.
+     * @param algorithm The algorithm trees are cached by
+     * @param search Searches for destination, and might stop early
+     * @param traversal Traverses all vertices reachable from root
+     * @return The tree, or {@code null} in case the traversal was stopped due to a shutdown
+     */
+    private ShortestPathTree shortestPathTree(CompiledGraph compiledGraph, ShortestPathAlgorithm.Algorithm algorithm, Supplier<ShortestPathTree> search,
+                                              Supplier<ShortestPathTree> traversal) {
+        if (shortestPathTrees == null) {
+            return search.get();
+        }
+
+        ShortestPathTree shortestPathTree = shortestPathTrees.get(compiledGraph, compiledGraph.rootId(), algorithm);
+        if (shortestPathTree != null) {
+            return shortestPathTree;
+        }
+
+        if (!shortestPathTrees.isAdmitted(compiledGraph, compiledGraph.rootId(), algorithm)) {
+            return search.get();
+        }
+
+        shortestPathTree = traversal.get();
+        if (shortestPathTree != null) {
+            shortestPathTrees.put(shortestPathTree, algorithm);
+        }
+
+        return shortestPathTree;
+    }
+
+    /**
+     * Same as {@link #countShortestPaths(CompiledGraph, Index)}, using {@link DialDijkstra}, or {@link DeltaStepping} when
+     * the graph is large enough to traverse in parallel, or {@link AStar} when there are landmarks or its heuristic is tight
+     * enough to direct the search. Sources that are queried repeatedly are traversed to all vertices, and their trees are cached.
+     * @param landmarks Landmarks of the graph. Optional
+     * @return The counts, or {@code null} when destination is not reachable
+     */
+    private ShortestPathCounts countShortestPathsInWeightedGraph(CompiledGraph compiledGraph, Index to, Landmarks landmarks) {
+        int source = compiledGraph.rootId(), destination = compiledGraph.idOf(to);
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX)) {
+            return null;
+        }
+
+        // All engines choose parents over zero weight edges by ZeroWeightLayers, so their trees are cached as one
+        ShortestPathTree shortestPathTree = shortestPathTree(compiledGraph, ShortestPathAlgorithm.Algorithm.DIJKSTRA,
+                () -> searchWeightedGraph(compiledGraph, source, destination, landmarks),
+                () -> searchWeightedGraph(compiledGraph, source, CompiledGraph.NO_VERTEX, null));
+        return shortestPathTree.isReached(destination) ? ShortestPathCounts.of(shortestPathTree, destination) : null;
+    }
+
+    /**
+     * @param destination Where to stop, or {@link CompiledGraph#NO_VERTEX} to traverse all vertices
+     * @param landmarks Landmarks of the graph. Optional
+     */
+    private static ShortestPathTree searchWeightedGraph(CompiledGraph compiledGraph, int source, int destination, Landmarks landmarks) {
+        if ((landmarks != null) && (destination != CompiledGraph.NO_VERTEX)) {
+            return new AStar(landmarks).traverse(compiledGraph, source, destination);
+        } else if (isParallelSearchWorthIt(compiledGraph)) {
+            return new DeltaStepping().traverse(compiledGraph, source, destination);
+        } else if ((destination != CompiledGraph.NO_VERTEX) && (GridHeuristic.of(compiledGraph) != GridHeuristic.NONE) &&
+                (compiledGraph.minWeight() >= MINIMUM_WEIGHT_RATIO_FOR_A_STAR * compiledGraph.maxWeight())) {
+            return new AStar().traverse(compiledGraph, source, destination);
+        }
+
+        return new DialDijkstra().traverse(compiledGraph, source, destination);
+    }
+
+    /**
+     * Same as {@link #countShortestPaths(CompiledGraph, Index)}, using {@link SPFA}, or {@link ParallelBellmanFord} when
+     * the graph is large enough to traverse in parallel. Both traverse all vertices, so trees of sources that are queried
+     * repeatedly are cached.
+     * @return The counts, or {@code null} when destination is not reachable
+     * @throws NegativeWeightCycleException When there is a negative cycle reachable from root
+     */
+    private ShortestPathCounts countShortestPathsUsingBellmanFord(CompiledGraph compiledGraph, Index to) {
+        int source = compiledGraph.rootId(), destination = compiledGraph.idOf(to);
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX)) {
+            return null;
+        }
+
+        Supplier<ShortestPathTree> traversal = isParallelSearchWorthIt(compiledGraph) ?
+                () -> new ParallelBellmanFord().traverse(compiledGraph, source) : () -> new SPFA().traverse(compiledGraph, source);
+        ShortestPathTree shortestPathTree = shortestPathTree(compiledGraph, ShortestPathAlgorithm.Algorithm.BELLMAN_FORD, traversal, traversal);
+        return ((shortestPathTree != null) && shortestPathTree.isReached(destination)) ? ShortestPathCounts.of(shortestPathTree, destination) : null;
+    }
+
+    /**
+     * @return Whether the graph is large enough to traverse in parallel, and there is more than one processor to do so
+     */
+    private static boolean isParallelSearchWorthIt(CompiledGraph compiledGraph) {
+        return (compiledGraph.vertexCount() >= MINIMUM_VERTICES_FOR_PARALLEL_SEARCH) && (Runtime.getRuntime().availableProcessors() > 1);
+    }
+
+    /**
+     * Find all shortest paths using {@link BFSVisit}, for graphs that cannot be compiled.
+     * @throws InputTooLargeException When input graph (matrix) is larger than 50x50
+     */
+    private List<Collection<T>> findShortestPathsUsingBFSVisit(T to) throws InputTooLargeException {
         // Make sure input does not exceed 50x50, according to the assignment demand.
         if (graph.getGraphSize() > MAXIMUM_SIZE_OF_GRAPH_FOR_BFS) {
             throw new InputTooLargeException("Input graph is too large! Maximum size is: 50x50");
@@ -68,11 +441,20 @@ public class FindPaths<T> {
     /**
      * Find all shortest paths in the specified weighted graph (passed to this {@link FindPaths}) between {@code root} and {@code to}.<br/>
      * We use the {@link BellmanFord} algorithm which would throw an exception when a negative cycle is detected, and it does
-     * not run in parallel.
+     * not run in parallel. Graphs of {@link Index indices} are compiled and traversed by {@link SPFA}, which stops once
+     * distances converge, and reports the vertices of a negative cycle. Large graphs are traversed by
+     * {@link ParallelBellmanFord}, which relaxes ranges of edges in parallel.
      * @param to The vertex to get to.
      * @return Collection of all paths to destination vertex, or empty if we could not reach to destination.
+     * @throws NegativeWeightCycleException When there is a negative cycle reachable from root
+     * @throws InputTooLargeException When there are more shortest paths than a list can hold
      */
-    public List<Collection<T>> findShortestPathsInWeightedGraphBellmanFord(T to) {
+    public List<Collection<T>> findShortestPathsInWeightedGraphBellmanFord(T to) throws InputTooLargeException {
+        CompiledGraph compiledGraph = compiledGraph();
+        if (compiledGraph != null) {
+            return allPaths(countShortestPathsUsingBellmanFord(compiledGraph, (Index) to));
+        }
+
         List<Collection<T>> paths = new ArrayList<>();
 
         ShortestPathAlgorithm<T> bellmanFordAlgorithm = algorithms.computeIfAbsent(ShortestPathAlgorithm.Algorithm.BELLMAN_FORD, algo -> new BellmanFord<>());
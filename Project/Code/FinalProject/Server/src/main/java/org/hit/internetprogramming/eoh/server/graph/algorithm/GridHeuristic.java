@@ -0,0 +1,107 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
+
+/**
+ * A lower bound of the amount of steps between two locations of a matrix, according to the neighborhood of the matrix.
+ * Used by {@link AStar} to direct its search to destination.<br/>
+ * A step changes the distance to destination by 1 at most, so each heuristic is consistent (monotone): the estimate of a
+ * vertex is never larger than the estimate of its neighbor plus one step.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see AStar
+ */
+public enum GridHeuristic {
+    /**
+     * Unknown neighborhood. Estimates 0 steps, which turns A* into Dijkstra
+     */
+    NONE {
+        @Override
+        public long steps(int rowDistance, int colDistance) {
+            return 0;
+        }
+    },
+
+    /**
+     * {@link Neighborhood#STANDARD}, where a step changes either the row or the column
+     */
+    MANHATTAN {
+        @Override
+        public long steps(int rowDistance, int colDistance) {
+            return (long) Math.abs(rowDistance) + Math.abs(colDistance);
+        }
+    },
+
+    /**
+     * {@link Neighborhood#ALL}, where a step can change both the row and the column
+     */
+    CHEBYSHEV {
+        @Override
+        public long steps(int rowDistance, int colDistance) {
+            return Math.max(Math.abs(rowDistance), Math.abs(colDistance));
+        }
+    },
+
+    /**
+     * {@link Neighborhood#CROSS}, where a step changes both the row and the column. Hence the parity of row + column
+     * never changes, and locations of another parity are {@link #UNREACHABLE}.
+     */
+    DIAGONAL {
+        @Override
+        public long steps(int rowDistance, int colDistance) {
+            if (((rowDistance + colDistance) & 1) != 0) {
+                return UNREACHABLE;
+            }
+
+            return Math.max(Math.abs(rowDistance), Math.abs(colDistance));
+        }
+    };
+
+    /**
+     * Returned by {@link #steps(int, int)} when there is no path between two locations
+     */
+    public static final long UNREACHABLE = -1;
+
+    /**
+     * @param rowDistance Row of destination minus row of source
+     * @param colDistance Column of destination minus column of source
+     * @return Minimum amount of steps from source to destination, or {@link #UNREACHABLE}
+     */
+    public abstract long steps(int rowDistance, int colDistance);
+
+    /**
+     * @param neighborhood Neighborhood of a matrix, or {@code null} when it is unknown
+     * @return The heuristic of the specified neighborhood
+     */
+    public static GridHeuristic of(Neighborhood neighborhood) {
+        if (neighborhood == null) {
+            return NONE;
+        }
+
+        switch (neighborhood) {
+            case STANDARD:
+                return MANHATTAN;
+            case ALL:
+                return CHEBYSHEV;
+            case CROSS:
+                return DIAGONAL;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * @param graph A compiled graph
+     * @return The heuristic of the matrix the specified graph was compiled from, or {@link #NONE} when it was not
+     * compiled from a matrix
+     */
+    public static GridHeuristic of(CompiledGraph graph) {
+        if (!(graph.source() instanceof MatrixGraphAdapter)) {
+            return NONE;
+        }
+
+        return of(((MatrixGraphAdapter<?>) graph.source()).getMatrix().neighborhood());
+    }
+}
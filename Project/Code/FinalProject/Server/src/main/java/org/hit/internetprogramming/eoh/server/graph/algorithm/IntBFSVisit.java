@@ -0,0 +1,172 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+
+import java.util.Arrays;
+
+/**
+ * A BFS implementation over the dense ids of a {@link CompiledGraph}, to find all shortest paths from a source vertex.<br/>
+ * This is the primitive form of {@link BFSVisit}. Instead of a map of {@link VertexDistanceInfo}, with a set of parents
+ * per vertex, we use an {@code int[]} of distances and an {@code int[]} queue, and we collect the parents of all vertices
+ * into a single {@link ShortestPathTree} once the traversal is over.
+ * <p>
+ * The working arrays are taken from a {@link ScratchPool}, and reused by the next traversal. Rather than clearing them,
+ * each traversal has its own {@link ScratchPool.Scratch#epoch() epoch}, so the cost of a traversal depends on the
+ * vertices it reaches, rather than on the size of the graph.
+ * </p>
+ * The result is a new {@link ShortestPathTree} of the reached vertices, owned by the caller, so it remains valid after
+ * the next traversal.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see BFSVisit
+ */
+public class IntBFSVisit {
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * Traverse the whole graph, starting from its root.
+     * @param graph The graph to traverse
+     * @return Distances and parents of all vertices reachable from root
+     */
+    public ShortestPathTree traverse(CompiledGraph graph) {
+        return traverse(graph, graph.rootId(), CompiledGraph.NO_VERTEX);
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until all shortest paths to destination are known.<br/>
+     * Shortest paths to a vertex at distance d pass through vertices at distance d-1 only, so we stop once all vertices at
+     * distance d-1 were expanded, and we do not expand the layer of destination at all.
+     * Algorithm:<br/>
+     * <pre>{@code
+     * Stamp source with current epoch, set distance[source] = 0, and add it to queue
+     * While queue is not empty, and the distance of the next vertex is shorter than distance[destination]:
+     *     currVertex = remove from queue.
+     *     For each target of the edges of currVertex do:
+     *         If stamp[target] != epoch:
+     *             stamp[target] = epoch
+     *             distance[target] = distance[currVertex] + 1
+     *             Add target to queue
+     * For each removed vertex, and each target of its edges, if distance[target] equals distance[vertex] + 1:
+     *     Add vertex as a parent of target
+     * }</pre>
+     * @param graph The graph to traverse
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @param destination Id of the vertex to stop at, or {@link CompiledGraph#NO_VERTEX} to traverse all reachable vertices
+     * @return Distances and parents of the reached vertices
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source, int destination) {
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount());
+            return traverse(graph, source, destination, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    private static ShortestPathTree traverse(CompiledGraph graph, int source, int destination, Scratch scratch) {
+        int[] stamp = scratch.stamp;
+        int[] distance = scratch.distance;
+        int[] queue = scratch.queue;
+        int[] queueIndex = scratch.queueIndex;
+        int epoch = scratch.epoch();
+
+        // Every vertex enters the queue once at most, so the queue never wraps around, and queue[0, head) are the
+        // expanded vertices, in the order we have expanded them.
+        int head = 0, tail = 0;
+        if (source != CompiledGraph.NO_VERTEX) {
+            stamp[source] = epoch;
+            distance[source] = 0;
+            queueIndex[source] = tail;
+            queue[tail++] = source;
+        }
+
+        int destinationDistance = (source == destination) ? 0 : Integer.MAX_VALUE;
+        while ((head < tail) && (distance[queue[head]] < destinationDistance)) {
+            int vertex = queue[head++];
+            int nextDistance = distance[vertex] + 1;
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                if (stamp[target] != epoch) {
+                    stamp[target] = epoch;
+                    distance[target] = nextDistance;
+                    queueIndex[target] = tail;
+                    queue[tail++] = target;
+
+                    if (target == destination) {
+                        destinationDistance = nextDistance;
+                    }
+                }
+            }
+        }
+
+        return buildTree(graph, source, scratch, head, tail);
+    }
+
+    /**
+     * Copy the distances of the reached vertices, and collect the parents of each reached vertex, out of the edges of
+     * expanded vertices, into a new {@link ShortestPathTree}. The index of a vertex in the tree is its position in the queue,
+     * so the tree takes the size of the reached vertices only.
+     */
+    private static ShortestPathTree buildTree(CompiledGraph graph, int source, Scratch scratch, int expandedCount, int reachedCount) {
+        int[] stamp = scratch.stamp;
+        int[] workingDistance = scratch.distance;
+        int[] queue = scratch.queue;
+        int[] queueIndex = scratch.queueIndex;
+        int epoch = scratch.epoch();
+
+        int[] vertices = Arrays.copyOf(queue, reachedCount);
+        long[] distance = new long[reachedCount];
+        for (int i = 0; i < reachedCount; i++) {
+            distance[i] = workingDistance[queue[i]];
+        }
+
+        return new ShortestPathTree.Builder(graph, source, vertices, distance).build(builder -> {
+            for (int i = 0; i < expandedCount; i++) {
+                int vertex = queue[i];
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int target = graph.target(edge);
+                    if ((stamp[target] == epoch) && (workingDistance[target] == workingDistance[vertex] + 1)) {
+                        builder.addParent(queueIndex[target], vertex);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Working arrays of a single traversal
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        private int[] stamp = new int[0];
+        private int[] distance = new int[0];
+        private int[] queue = new int[0];
+
+        /**
+         * Position of each reached vertex in the queue
+         */
+        private int[] queueIndex = new int[0];
+
+        @Override
+        protected void allocate(int vertexCount) {
+            stamp = new int[vertexCount];
+            distance = new int[vertexCount];
+            queue = new int[vertexCount];
+            queueIndex = new int[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { stamp };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return 4L * capacity() * Integer.BYTES;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of vertex ids, ordered by their estimated distance to destination, and then by the longer distance
+ * from source, so among equal estimates we go deeper first. Used by the goal directed searches, {@link AStar} and
+ * {@link JumpPointSearch}.<br/>
+ * There is no decrease-key. A vertex whose distance got shorter is pushed again, and the old entry is skipped by the
+ * caller once popped.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+class IntMinHeap {
+    private int[] vertices = new int[16];
+    private long[] estimates = new long[16];
+    private long[] distances = new long[16];
+    private int size;
+
+    /**
+     * @return Whether there are no entries in the heap
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Estimate of the first entry. The heap must not be empty
+     */
+    long peekEstimate() {
+        return estimates[0];
+    }
+
+    /**
+     * Drop all entries
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return Estimated size of the heap in memory, in bytes. Its arrays keep the largest size the heap has grown to
+     */
+    long sizeInBytes() {
+        return (long) vertices.length * (Integer.BYTES + 2 * Long.BYTES);
+    }
+
+    /**
+     * @param vertex Id of a vertex
+     * @param estimate Estimated distance from source to destination, through the vertex
+     * @param distance Distance of the vertex from source
+     */
+    void push(int vertex, long estimate, long distance) {
+        if (size == vertices.length) {
+            vertices = Arrays.copyOf(vertices, size * 2);
+            estimates = Arrays.copyOf(estimates, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+
+        int i = size++;
+        vertices[i] = vertex;
+        estimates[i] = estimate;
+        distances[i] = distance;
+        while ((i > 0) && isBefore(i, (i - 1) >>> 1)) {
+            swap(i, (i - 1) >>> 1);
+            i = (i - 1) >>> 1;
+        }
+    }
+
+    /**
+     * Remove the first entry. The heap must not be empty
+     * @return Id of the vertex of the removed entry
+     */
+    int pop() {
+        int vertex = vertices[0];
+        swap(0, --size);
+
+        int i = 0;
+        while (true) {
+            int smallest = i, left = 2 * i + 1, right = left + 1;
+            if ((left < size) && isBefore(left, smallest)) {
+                smallest = left;
+            }
+            if ((right < size) && isBefore(right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return vertex;
+            }
+
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private boolean isBefore(int i, int j) {
+        return (estimates[i] < estimates[j]) || ((estimates[i] == estimates[j]) && (distances[i] > distances[j]));
+    }
+
+    private void swap(int i, int j) {
+        int vertex = vertices[i];
+        vertices[i] = vertices[j];
+        vertices[j] = vertex;
+
+        long estimate = estimates[i];
+        estimates[i] = estimates[j];
+        estimates[j] = estimate;
+
+        long distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+}
@@ -0,0 +1,406 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jump Point Search (JPS) over a {@link CompiledGraph} of a matrix where all steps cost the same, which finds one shortest
+ * path between a source vertex and a destination vertex.<br/>
+ * On an open grid there are many shortest paths that differ only by the order of their steps, and both BFS and A* expand
+ * all of them. JPS expands a single order of each: it keeps going in the same direction (straight, or diagonally and then
+ * straight), without adding the cells it passes to the queue, and stops at jump points only. A jump point is destination,
+ * or a cell next to an obstacle, where a shortest path might have to turn (a forced neighbor). So the queue of the
+ * underlying A* holds jump points only, which are a small fraction of the cells.
+ * <p>
+ * Supported neighborhoods are {@link org.hit.internetprogramming.eoh.common.mat.Neighborhood#STANDARD} (4-connected)
+ * and {@link org.hit.internetprogramming.eoh.common.mat.Neighborhood#ALL} (8-connected). Diagonal steps of a matrix do
+ * not depend on the cells around them, so in the 8-connected neighborhood a path may cut corners.<br/>
+ * Each step costs 1, whatever the values of the cells are, same as {@link IntBFSVisit}.
+ * </p>
+ * The path is found as a list of jump points, where each two consecutive jump points are on a straight or a diagonal line.
+ * It can be returned as is, or expanded into all of its cells.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see AStar
+ */
+public class JumpPointSearch {
+    /**
+     * Working arrays, which grow with the largest graph they were used for. See {@link ScratchPool} for when they are dropped
+     */
+    private static final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+    /**
+     * @param graph A graph to check
+     * @return Whether the specified graph was compiled from a matrix of a supported neighborhood
+     */
+    public static boolean supports(CompiledGraph graph) {
+        GridHeuristic heuristic = GridHeuristic.of(graph);
+        return (heuristic == GridHeuristic.MANHATTAN) || (heuristic == GridHeuristic.CHEBYSHEV);
+    }
+
+    /**
+     * Find a shortest path between two vertices.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, and add source to queue with estimate h(source)
+     * While queue is not empty:
+     *     u = remove the jump point with the shortest estimate from queue
+     *     If u is closed: continue
+     *     Close u. If u is destination: stop
+     *     For each direction d, out of the directions left after pruning the ones we got to u from:
+     *         v = jump from u in direction d, until a jump point, an obstacle, or the end of the matrix
+     *         If v is a jump point that is not closed, and distance[u] + steps(u, v) < distance[v]:
+     *             distance[v] = distance[u] + steps(u, v), parent[v] = u
+     *             Add v to queue with estimate distance[v] + h(v)
+     * Go backwards from destination over the parents
+     * }</pre>
+     * @param graph The graph to search. Must be {@link #supports(CompiledGraph) supported}
+     * @param source Id of the vertex to start from
+     * @param destination Id of the vertex to find a path to
+     * @param isJumpPointsOnly Whether to return the jump points of the path only, rather than all of its cells
+     * @return The vertices of a shortest path, from source to destination, or an empty list when destination is not
+     * reachable from source
+     * @throws IllegalArgumentException In case the graph is not supported
+     */
+    public List<Index> findPath(CompiledGraph graph, int source, int destination, boolean isJumpPointsOnly) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Jump Point Search supports standard matrices and regular matrices only");
+        }
+
+        if ((source == CompiledGraph.NO_VERTEX) || (destination == CompiledGraph.NO_VERTEX)) {
+            return new ArrayList<>();
+        }
+
+        List<Index> jumpPoints;
+        Scratch scratch = scratchPool.acquire();
+        try {
+            scratch.startTraversal(graph.vertexCount());
+            jumpPoints = findJumpPoints(graph, source, destination, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+
+        return (jumpPoints.isEmpty() || isJumpPointsOnly) ? jumpPoints : expand(jumpPoints);
+    }
+
+    /**
+     * @return The jump points of a shortest path, from source to destination, or an empty list when destination is not
+     * reachable from source
+     */
+    private static List<Index> findJumpPoints(CompiledGraph graph, int source, int destination, Scratch scratch) {
+        Search search = new Search(graph, destination, scratch);
+        boolean isFound = search.run(source);
+        scratch.heap.clear();
+
+        List<Index> jumpPoints = new ArrayList<>();
+        if (isFound) {
+            for (int vertex = destination; vertex != CompiledGraph.NO_VERTEX; vertex = scratch.parent[vertex]) {
+                jumpPoints.add(graph.vertexOf(vertex));
+            }
+            Collections.reverse(jumpPoints);
+        }
+
+        return jumpPoints;
+    }
+
+    /**
+     * Fill the cells between each two consecutive jump points, which are on a straight or a diagonal line
+     */
+    private static List<Index> expand(List<Index> jumpPoints) {
+        List<Index> path = new ArrayList<>();
+        path.add(jumpPoints.get(0));
+        for (int i = 1; i < jumpPoints.size(); i++) {
+            Index from = jumpPoints.get(i - 1), to = jumpPoints.get(i);
+            int rowStep = Integer.signum(to.getRow() - from.getRow()), colStep = Integer.signum(to.getColumn() - from.getColumn());
+            int row = from.getRow(), col = from.getColumn();
+            while ((row != to.getRow()) || (col != to.getColumn())) {
+                row += rowStep;
+                col += colStep;
+                path.add(Index.from(row, col));
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * The state of a single search
+     */
+    private static class Search {
+        private final CompiledGraph graph;
+        private final int destination;
+        private final int destinationRow;
+        private final int destinationCol;
+        private final boolean isDiagonal;
+        private final GridHeuristic heuristic;
+        private final Scratch scratch;
+
+        private Search(CompiledGraph graph, int destination, Scratch scratch) {
+            this.graph = graph;
+            this.destination = destination;
+            this.destinationRow = graph.vertexOf(destination).getRow();
+            this.destinationCol = graph.vertexOf(destination).getColumn();
+            this.heuristic = GridHeuristic.of(graph);
+            this.isDiagonal = heuristic == GridHeuristic.CHEBYSHEV;
+            this.scratch = scratch;
+        }
+
+        /**
+         * @return Whether destination was found
+         */
+        private boolean run(int source) {
+            int[] reached = scratch.reached;
+            int[] closed = scratch.closed;
+            int[] parent = scratch.parent;
+            long[] distance = scratch.distance;
+            int epoch = scratch.epoch();
+            IntMinHeap heap = scratch.heap;
+
+            reached[source] = epoch;
+            distance[source] = 0;
+            parent[source] = CompiledGraph.NO_VERTEX;
+            heap.push(source, estimate(source), 0);
+
+            int[] directions = new int[16];
+            while (!heap.isEmpty()) {
+                int vertex = heap.pop();
+                if (closed[vertex] == epoch) {
+                    continue;
+                }
+
+                closed[vertex] = epoch;
+                if (vertex == destination) {
+                    return true;
+                }
+
+                Index location = graph.vertexOf(vertex);
+                int row = location.getRow(), col = location.getColumn();
+                int directionCount = directions(vertex, row, col, directions);
+                for (int i = 0; i < directionCount; i += 2) {
+                    int jumpPoint = jump(row, col, directions[i], directions[i + 1]);
+                    if ((jumpPoint == CompiledGraph.NO_VERTEX) || (closed[jumpPoint] == epoch)) {
+                        continue;
+                    }
+
+                    Index jumpLocation = graph.vertexOf(jumpPoint);
+                    long newDistance = distance[vertex] + Math.max(Math.abs(jumpLocation.getRow() - row), Math.abs(jumpLocation.getColumn() - col));
+                    if ((reached[jumpPoint] != epoch) || (newDistance < distance[jumpPoint])) {
+                        reached[jumpPoint] = epoch;
+                        distance[jumpPoint] = newDistance;
+                        parent[jumpPoint] = vertex;
+                        heap.push(jumpPoint, newDistance + estimate(jumpPoint), newDistance);
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private long estimate(int id) {
+            Index vertex = graph.vertexOf(id);
+            return heuristic.steps(destinationRow - vertex.getRow(), destinationCol - vertex.getColumn());
+        }
+
+        private boolean isWalkable(int row, int col) {
+            return graph.idOf(row, col) != CompiledGraph.NO_VERTEX;
+        }
+
+        /**
+         * Collect the directions to jump to from a vertex, as (row step, column step) pairs. Source goes in all directions.
+         * Otherwise, we keep going in the direction we got to the vertex from, plus the directions of its forced neighbors.
+         * @return Amount of ints written to {@code directions}
+         */
+        private int directions(int vertex, int row, int col, int[] directions) {
+            int count = 0;
+            int parentVertex = scratch.parent[vertex];
+            if (parentVertex == CompiledGraph.NO_VERTEX) {
+                for (int rowStep = -1; rowStep <= 1; rowStep++) {
+                    for (int colStep = -1; colStep <= 1; colStep++) {
+                        if (((rowStep != 0) || (colStep != 0)) && (isDiagonal || (rowStep == 0) || (colStep == 0))) {
+                            directions[count++] = rowStep;
+                            directions[count++] = colStep;
+                        }
+                    }
+                }
+
+                return count;
+            }
+
+            Index parentLocation = graph.vertexOf(parentVertex);
+            int rowStep = Integer.signum(row - parentLocation.getRow()), colStep = Integer.signum(col - parentLocation.getColumn());
+            if (!isDiagonal) {
+                // Keep going, or turn to either side
+                directions[count++] = rowStep;
+                directions[count++] = colStep;
+                directions[count++] = colStep;
+                directions[count++] = rowStep;
+                directions[count++] = -colStep;
+                directions[count++] = -rowStep;
+            } else if ((rowStep != 0) && (colStep != 0)) {
+                directions[count++] = rowStep;
+                directions[count++] = colStep;
+                directions[count++] = rowStep;
+                directions[count++] = 0;
+                directions[count++] = 0;
+                directions[count++] = colStep;
+                if (!isWalkable(row, col - colStep)) {
+                    directions[count++] = rowStep;
+                    directions[count++] = -colStep;
+                }
+                if (!isWalkable(row - rowStep, col)) {
+                    directions[count++] = -rowStep;
+                    directions[count++] = colStep;
+                }
+            } else {
+                // Straight. The sides are (colStep, rowStep) and (-colStep, -rowStep)
+                directions[count++] = rowStep;
+                directions[count++] = colStep;
+                if (!isWalkable(row + colStep, col + rowStep)) {
+                    directions[count++] = rowStep + colStep;
+                    directions[count++] = colStep + rowStep;
+                }
+                if (!isWalkable(row - colStep, col - rowStep)) {
+                    directions[count++] = rowStep - colStep;
+                    directions[count++] = colStep - rowStep;
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Step from a location in some direction, until we get to a jump point
+         * @return Id of the jump point, or {@link CompiledGraph#NO_VERTEX} when we got to an obstacle or to the end of the matrix
+         */
+        private int jump(int row, int col, int rowStep, int colStep) {
+            if (!isDiagonal && (rowStep != 0)) {
+                return jumpVertically(row, col, rowStep);
+            }
+
+            if ((rowStep != 0) && (colStep != 0)) {
+                return jumpDiagonally(row, col, rowStep, colStep);
+            }
+
+            return jumpStraight(row, col, rowStep, colStep);
+        }
+
+        /**
+         * Jump straight. A cell is a jump point when one of its sides is blocked, and the cell after that side is not
+         * (8-connected), or when a side is open while the same side of the previous cell is blocked (4-connected).
+         */
+        private int jumpStraight(int row, int col, int rowStep, int colStep) {
+            while (true) {
+                row += rowStep;
+                col += colStep;
+                int id = graph.idOf(row, col);
+                if ((id == CompiledGraph.NO_VERTEX) || (id == destination)) {
+                    return id;
+                }
+
+                // Sides of the direction we are going in
+                int sideRow = colStep, sideCol = rowStep;
+                if (isDiagonal) {
+                    if ((isWalkable(row + sideRow + rowStep, col + sideCol + colStep) && !isWalkable(row + sideRow, col + sideCol)) ||
+                            (isWalkable(row - sideRow + rowStep, col - sideCol + colStep) && !isWalkable(row - sideRow, col - sideCol))) {
+                        return id;
+                    }
+                } else {
+                    if ((isWalkable(row + sideRow, col + sideCol) && !isWalkable(row + sideRow - rowStep, col + sideCol - colStep)) ||
+                            (isWalkable(row - sideRow, col - sideCol) && !isWalkable(row - sideRow - rowStep, col - sideCol - colStep))) {
+                        return id;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Jump diagonally (8-connected). A cell is a jump point when it has a forced neighbor, or when a straight jump
+         * from it, along one of the components of the direction, gets to a jump point.
+         */
+        private int jumpDiagonally(int row, int col, int rowStep, int colStep) {
+            while (true) {
+                row += rowStep;
+                col += colStep;
+                int id = graph.idOf(row, col);
+                if ((id == CompiledGraph.NO_VERTEX) || (id == destination)) {
+                    return id;
+                }
+
+                if ((isWalkable(row + rowStep, col - colStep) && !isWalkable(row, col - colStep)) ||
+                        (isWalkable(row - rowStep, col + colStep) && !isWalkable(row - rowStep, col))) {
+                    return id;
+                }
+
+                if ((jumpStraight(row, col, rowStep, 0) != CompiledGraph.NO_VERTEX) || (jumpStraight(row, col, 0, colStep) != CompiledGraph.NO_VERTEX)) {
+                    return id;
+                }
+            }
+        }
+
+        /**
+         * Jump vertically (4-connected). Paths turn from vertical to horizontal, so a cell is a jump point also when a
+         * horizontal jump from it gets to a jump point.
+         */
+        private int jumpVertically(int row, int col, int rowStep) {
+            while (true) {
+                row += rowStep;
+                int id = graph.idOf(row, col);
+                if ((id == CompiledGraph.NO_VERTEX) || (id == destination)) {
+                    return id;
+                }
+
+                if ((isWalkable(row, col - 1) && !isWalkable(row - rowStep, col - 1)) || (isWalkable(row, col + 1) && !isWalkable(row - rowStep, col + 1))) {
+                    return id;
+                }
+
+                if ((jumpStraight(row, col, 0, 1) != CompiledGraph.NO_VERTEX) || (jumpStraight(row, col, 0, -1) != CompiledGraph.NO_VERTEX)) {
+                    return id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Working arrays of a single search
+     */
+    private static class Scratch extends ScratchPool.Scratch {
+        /**
+         * Stamp of jump points that have a tentative distance
+         */
+        private int[] reached = new int[0];
+
+        /**
+         * Stamp of jump points whose distance is final
+         */
+        private int[] closed = new int[0];
+        private int[] parent = new int[0];
+        private long[] distance = new long[0];
+
+        /**
+         * Jump points to close, ordered by their estimate
+         */
+        private final IntMinHeap heap = new IntMinHeap();
+
+        @Override
+        protected void allocate(int vertexCount) {
+            reached = new int[vertexCount];
+            closed = new int[vertexCount];
+            parent = new int[vertexCount];
+            distance = new long[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { reached, closed };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return heap.sizeInBytes() + 3L * capacity() * Integer.BYTES + (long) capacity() * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Landmarks of a {@link CompiledGraph}, with the distances from each landmark to all vertices, which let {@link AStar}
+ * estimate the distance between two vertices using the triangle inequality (ALT).<br/>
+ * For a landmark {@code L}, a shortest path from {@code L} to {@code t} is not longer than a path through {@code v}, so
+ * {@code d(v, t) >= d(L, t) - d(L, v)}. When the graph is symmetric we know the distances to {@code L} as well: a path
+ * from {@code v} to {@code L} is a path from {@code L} to {@code v} reversed, which does not pay for the value of
+ * {@code v}, but does pay for the value of {@code L}, as the weight of an edge is the value of its target. So
+ * {@code d(v, t) >= d(v, L) - d(t, L) = d(L, v) - d(L, t) + value(t) - value(v)}. The lower bound of a vertex is the
+ * largest of these, over all landmarks. Each of them is consistent, so their maximum is consistent as well.
+ * <p>
+ * Landmarks are selected by farthest-point selection: the first landmark is the vertex farthest from root, and each next
+ * landmark is the vertex farthest from all landmarks selected so far, so the landmarks surround the graph. Selection
+ * measures distance in steps, by a BFS from each new landmark which expands only the vertices that got closer to a
+ * landmark, so it is cheap. Then the weighted distances are found by a {@link DialDijkstra} per landmark, all of them in
+ * parallel, on the ForkJoin pool of {@link ActionThreadService}.
+ * </p>
+ * Distances are kept in a single int array, where the distances of a vertex from all landmarks are next to each other,
+ * so the bound of a vertex is read from a single cache line. A landmark with a distance that does not fit into an int is
+ * dropped.<br/>
+ * Landmarks do not depend on the root of the graph, so they serve any {@link CompiledGraph#withRoot(org.hit.internetprogramming.eoh.common.mat.Index) root}
+ * of the graph they were built for, which shares its ids.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see AStar#AStar(Landmarks)
+ */
+public class Landmarks {
+    /**
+     * Amount of landmarks to select when not specified otherwise. On grids, more landmarks than this barely tighten the
+     * bounds, as there are not many directions to surround a grid from.
+     */
+    public static final int DEFAULT_COUNT = 8;
+
+    /**
+     * Distance of vertices that are not reachable from a landmark
+     */
+    private static final int UNKNOWN = Integer.MAX_VALUE;
+
+    /**
+     * Ids of the landmarks
+     */
+    private final int[] landmarks;
+
+    /**
+     * Distance of vertex {@code v} from landmark {@code i} is at {@code distances[v * landmarks.length + i]}
+     */
+    private final int[] distances;
+
+    private final int vertexCount;
+    private final boolean isSymmetric;
+
+    private Landmarks(int[] landmarks, int[] distances, int vertexCount, boolean isSymmetric) {
+        this.landmarks = landmarks;
+        this.distances = distances;
+        this.vertexCount = vertexCount;
+        this.isSymmetric = isSymmetric;
+    }
+
+    /**
+     * @param graph A graph to check
+     * @return Whether landmarks can be built for the specified graph, which is when it has no negative weights
+     */
+    public static boolean supports(CompiledGraph graph) {
+        return DialDijkstra.supports(graph);
+    }
+
+    /**
+     * Select landmarks and find their distances to all vertices.<br/>
+     * Landmarks are selected among the vertices reachable from the root of the graph. Other vertices have no bounds.
+     * @param graph The graph to build landmarks for. Must be {@link #supports(CompiledGraph) supported}
+     * @param count Amount of landmarks to select. There might be less of them in small graphs
+     * @return The landmarks, or {@code null} in case we were stopped due to a shutdown
+     * @throws IllegalArgumentException In case the graph has weights we do not support
+     */
+    public static Landmarks build(CompiledGraph graph, int count) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Landmarks do not support negative weights. Minimum weight was: " + graph.minWeight());
+        }
+
+        // Make sure all distances fit into a single array
+        int vertexCount = graph.vertexCount();
+        int[] landmarks = select(graph, Math.min(count, Integer.MAX_VALUE / Math.max(vertexCount, 1)));
+
+        int[][] columns = new int[landmarks.length][];
+        ActionThreadService.getInstance().invoke(new Tables(graph, landmarks, columns));
+        if (ActionThreadService.getInstance().isShutdownNow()) {
+            return null;
+        }
+
+        // Drop landmarks whose distances do not fit into an int
+        int kept = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            if (columns[i] != null) {
+                landmarks[kept] = landmarks[i];
+                columns[kept++] = columns[i];
+            }
+        }
+
+        int[] distances = new int[vertexCount * kept];
+        for (int i = 0; i < kept; i++) {
+            int[] column = columns[i];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                distances[vertex * kept + i] = column[vertex];
+            }
+        }
+
+        return new Landmarks(Arrays.copyOf(landmarks, kept), distances, vertexCount, graph.isSymmetric());
+    }
+
+    /**
+     * Farthest-point selection, measured in steps
+     * @return Ids of the selected landmarks
+     */
+    private static int[] select(CompiledGraph graph, int count) {
+        int vertexCount = graph.vertexCount();
+        int root = graph.rootId();
+        if ((count <= 0) || (root == CompiledGraph.NO_VERTEX)) {
+            return new int[0];
+        }
+
+        int[] steps = new int[vertexCount];
+        int[] queue = new int[vertexCount];
+        Arrays.fill(steps, UNKNOWN);
+
+        // Root is not a landmark. We start from it only to find the first landmark, which is the farthest from it.
+        approach(graph, root, steps, queue);
+        int farthest = farthest(steps);
+        if (farthest == CompiledGraph.NO_VERTEX) {
+            farthest = root;
+        }
+
+        Arrays.fill(steps, UNKNOWN);
+        int[] landmarks = new int[count];
+        int selected = 0;
+        while ((selected < count) && (farthest != CompiledGraph.NO_VERTEX)) {
+            landmarks[selected++] = farthest;
+            approach(graph, farthest, steps, queue);
+            farthest = farthest(steps);
+        }
+
+        return Arrays.copyOf(landmarks, selected);
+    }
+
+    /**
+     * BFS from a new landmark, which updates the steps of vertices from their nearest landmark. A vertex that is not closer
+     * to the new landmark than it is to another landmark is not expanded, as none of the vertices behind it can be closer either.
+     */
+    private static void approach(CompiledGraph graph, int landmark, int[] steps, int[] queue) {
+        int head = 0, tail = 0;
+        steps[landmark] = 0;
+        queue[tail++] = landmark;
+        while (head < tail) {
+            int vertex = queue[head++];
+            int nextSteps = steps[vertex] + 1;
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                if (nextSteps < steps[target]) {
+                    steps[target] = nextSteps;
+                    queue[tail++] = target;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The vertex farthest from all landmarks, or {@link CompiledGraph#NO_VERTEX} when all reachable vertices are landmarks
+     */
+    private static int farthest(int[] steps) {
+        int farthest = CompiledGraph.NO_VERTEX, farthestSteps = 0;
+        for (int vertex = 0; vertex < steps.length; vertex++) {
+            if ((steps[vertex] != UNKNOWN) && (steps[vertex] > farthestSteps)) {
+                farthest = vertex;
+                farthestSteps = steps[vertex];
+            }
+        }
+
+        return farthest;
+    }
+
+    /**
+     * A lower bound of the distance between two vertices. See {@link Landmarks}
+     * @param graph The graph the landmarks were built for, or the same graph with another root
+     * @param vertex Id of the vertex to start from
+     * @param destination Id of the vertex to get to
+     * @return A lower bound of the distance from vertex to destination, which is 0 when nothing is known
+     */
+    long lowerBound(CompiledGraph graph, int vertex, int destination) {
+        int count = landmarks.length;
+        int vertexBase = vertex * count, destinationBase = destination * count;
+        long valueDifference = isSymmetric ? (long) graph.valueOf(destination) - graph.valueOf(vertex) : 0;
+
+        long bound = 0;
+        for (int i = 0; i < count; i++) {
+            int vertexDistance = distances[vertexBase + i], destinationDistance = distances[destinationBase + i];
+            if ((vertexDistance != UNKNOWN) && (destinationDistance != UNKNOWN)) {
+                long difference = (long) destinationDistance - vertexDistance;
+                bound = Math.max(bound, isSymmetric ? Math.max(difference, valueDifference - difference) : difference);
+            }
+        }
+
+        return bound;
+    }
+
+    /**
+     * @return Amount of landmarks
+     */
+    public int count() {
+        return landmarks.length;
+    }
+
+    /**
+     * @param i Index of a landmark, in range [0, {@link #count()})
+     * @return Id of the specified landmark
+     */
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * @return Amount of vertices in the graph these landmarks were built for
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return Approximate amount of bytes the distance tables take
+     */
+    public long sizeInBytes() {
+        return ((long) distances.length + landmarks.length) * Integer.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "Landmarks{count=" + landmarks.length + ", vertexCount=" + vertexCount + ", sizeInBytes=" + sizeInBytes() + "}";
+    }
+
+    /**
+     * Find the distances from all landmarks in parallel
+     */
+    private static class Tables extends RecursiveAction {
+        private final CompiledGraph graph;
+        private final int[] landmarks;
+        private final int[][] columns;
+
+        private Tables(CompiledGraph graph, int[] landmarks, int[][] columns) {
+            this.graph = graph;
+            this.landmarks = landmarks;
+            this.columns = columns;
+        }
+
+        @Override
+        protected void compute() {
+            List<Table> tables = new ArrayList<>(landmarks.length);
+            for (int i = 0; i < landmarks.length; i++) {
+                tables.add(new Table(this, i));
+            }
+
+            invokeAll(tables);
+        }
+    }
+
+    /**
+     * Find the distances from a single landmark. Each table writes its own column, so workers do not write into the
+     * same cache lines. Columns are interleaved once all of them are ready.
+     */
+    private static class Table extends RecursiveAction {
+        private final Tables tables;
+        private final int i;
+
+        private Table(Tables tables, int i) {
+            this.tables = tables;
+            this.i = i;
+        }
+
+        @Override
+        protected void compute() {
+            if (ActionThreadService.getInstance().isShutdownNow()) {
+                return;
+            }
+
+            CompiledGraph graph = tables.graph;
+            long[] distances = new DialDijkstra().distances(graph, tables.landmarks[i]);
+
+            int[] column = new int[graph.vertexCount()];
+            for (int vertex = 0; vertex < column.length; vertex++) {
+                long distance = distances[vertex];
+                if (distance == ShortestPathTree.UNREACHED) {
+                    column[vertex] = UNKNOWN;
+                } else if (distance < UNKNOWN) {
+                    column[vertex] = (int) distance;
+                } else {
+                    // Too far to keep in an int, so the landmark is dropped
+                    return;
+                }
+            }
+
+            tables.columns[i] = column;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCycleException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A parallel Bellman-Ford over the dense ids of a {@link CompiledGraph}, which supports negative weights, and finds all
+ * shortest paths from a source vertex.<br/>
+ * The edges are partitioned into ranges of vertices with about the same amount of edges, a range per worker. Each round,
+ * all workers relax the edges of their range in parallel, on the ForkJoin pool of {@link ActionThreadService}, and the
+ * next round starts once all of them are done (a barrier). Relaxations are lock-free: distances are kept in an
+ * {@link AtomicLongArray}, and a relaxation is a compare and set loop that keeps the minimum.
+ * <p>
+ * The legacy {@link BellmanFord} failed in parallel, as its workers updated the distance and the parents of a vertex
+ * without any synchronization, so a worker could overwrite a shorter distance with a longer one. Here only the distance is
+ * updated concurrently, using atomic minimum, and parents are not maintained during the rounds at all.
+ * </p>
+ * A round relaxes only the edges of vertices whose distance changed since the previous round, and when a round changes
+ * nothing (a global changed flag), distances have converged and we stop. Workers read distances updated by others in the
+ * same round, which only makes convergence faster, so |V|-1 rounds are still enough when there is no negative cycle. A
+ * change in round |V| means a negative cycle, whose vertices we find using {@link SPFA}.<br/>
+ * Parents are collected once the distances have converged, out of the final distances only, the same as {@link SPFA} does.
+ * Hence parent sets are deterministic, regardless of the amount of workers and the order they ran in.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ * @see SPFA
+ * @see BellmanFord
+ */
+public class ParallelBellmanFord {
+    /**
+     * Round of vertices that were never changed
+     */
+    private static final int NEVER = -1;
+
+    /**
+     * Amount of ranges to relax in parallel, at most
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a new {@link ParallelBellmanFord}, using a range per available processor
+     */
+    public ParallelBellmanFord() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new {@link ParallelBellmanFord}
+     * @param parallelism Amount of ranges to relax in parallel, at most
+     */
+    public ParallelBellmanFord(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Traverse the whole graph, starting from its root.
+     * @param graph The graph to traverse
+     * @return Distances and parents of all vertices reachable from root, or {@code null} in case traversal was stopped due
+     * to a shutdown
+     * @throws NegativeWeightCycleException In case there is a negative cycle reachable from root
+     */
+    public ShortestPathTree traverse(CompiledGraph graph) {
+        return traverse(graph, graph.rootId());
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until distances converge.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, changedAt[source] = 0
+     * For round = 1 to |V|:
+     *     changed = false
+     *     In parallel, for each range of vertices:
+     *         For each vertex u in range, where changedAt[u] >= round - 1:
+     *             For each edge (u, v) do:
+     *                 If CAS-min(distance[v], distance[u] + w(u, v)): changedAt[v] = round, changed = true
+     *     Wait for all ranges
+     *     If not changed: collect parents out of the distances, and return
+     * Throw negative cycle
+     * }</pre>
+     * @param graph The graph to traverse
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @return Distances and parents of the reached vertices, or {@code null} in case traversal was stopped due to a shutdown
+     * @throws NegativeWeightCycleException In case there is a negative cycle reachable from source
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source) {
+        if (source == CompiledGraph.NO_VERTEX) {
+            return new SPFA().traverse(graph, source);
+        }
+
+        Rounds rounds = new Rounds(graph, source, partition(graph));
+        Boolean isConverged = ActionThreadService.getInstance().invoke(rounds);
+        if (isConverged == null) {
+            return null;
+        }
+
+        if (!isConverged) {
+            // SPFA finds the vertices of the cycle. It throws, unless the cycle is gone, which cannot happen.
+            new SPFA().traverse(graph, source);
+            throw new NegativeWeightCycleException("Graph contains negative cycle. No shortest path can be found.");
+        }
+
+        long[] distance = new long[graph.vertexCount()];
+        for (int id = 0; id < distance.length; id++) {
+            distance[id] = rounds.distance.get(id);
+        }
+
+        return SPFA.buildTree(graph, source, distance);
+    }
+
+    /**
+     * Split the vertices into ranges with about the same amount of edges. The edges of a vertex are contiguous, so a
+     * range of vertices is a range of edges as well.
+     * @return First vertex of each range, followed by the amount of vertices
+     */
+    private int[] partition(CompiledGraph graph) {
+        int vertexCount = graph.vertexCount();
+        int rangeCount = Math.max(1, Math.min(parallelism, vertexCount));
+        int[] ranges = new int[rangeCount + 1];
+        for (int range = 1; range < rangeCount; range++) {
+            long firstEdge = (long) graph.edgeCount() * range / rangeCount;
+
+            // Binary search for the first vertex whose edges begin at firstEdge or after it
+            int low = ranges[range - 1], high = vertexCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (graph.firstEdge(middle) < firstEdge) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            ranges[range] = low;
+        }
+        ranges[rangeCount] = vertexCount;
+
+        return ranges;
+    }
+
+    /**
+     * Runs the rounds, each round as a barrier over the relaxations of all ranges
+     */
+    private static class Rounds extends RecursiveTask<Boolean> {
+        private final CompiledGraph graph;
+        private final int[] ranges;
+        private final AtomicLongArray distance;
+
+        /**
+         * Last round in which the distance of each vertex changed. Written by several workers in the same round, but
+         * always with the same value, and a stale read only delays a relaxation to the next round.
+         */
+        private final int[] changedAt;
+
+        /**
+         * Whether some distance changed in the current round
+         */
+        private final AtomicBoolean isChanged = new AtomicBoolean();
+
+        private Rounds(CompiledGraph graph, int source, int[] ranges) {
+            this.graph = graph;
+            this.ranges = ranges;
+
+            distance = new AtomicLongArray(graph.vertexCount());
+            for (int id = 0; id < graph.vertexCount(); id++) {
+                distance.set(id, ShortestPathTree.UNREACHED);
+            }
+            distance.set(source, 0);
+
+            changedAt = new int[graph.vertexCount()];
+            Arrays.fill(changedAt, NEVER);
+            changedAt[source] = 0;
+        }
+
+        /**
+         * @return Whether distances have converged, or {@code null} in case we were stopped due to a shutdown
+         */
+        @Override
+        protected Boolean compute() {
+            List<Relaxation> relaxations = new ArrayList<>(ranges.length - 1);
+            for (int round = 1; round <= graph.vertexCount(); round++) {
+                if (ActionThreadService.getInstance().isShutdownNow()) {
+                    return null;
+                }
+
+                isChanged.set(false);
+                relaxations.clear();
+                for (int range = 0; range < ranges.length - 1; range++) {
+                    relaxations.add(new Relaxation(this, ranges[range], ranges[range + 1], round));
+                }
+
+                // Returns once all ranges are relaxed, so this is the barrier between rounds
+                invokeAll(relaxations);
+                if (!isChanged.get()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Relax the edges of a range of vertices, in a single round
+     */
+    private static class Relaxation extends RecursiveAction {
+        private final Rounds rounds;
+        private final int from, to;
+        private final int round;
+
+        private Relaxation(Rounds rounds, int from, int to, int round) {
+            this.rounds = rounds;
+            this.from = from;
+            this.to = to;
+            this.round = round;
+        }
+
+        @Override
+        protected void compute() {
+            CompiledGraph graph = rounds.graph;
+            AtomicLongArray distance = rounds.distance;
+            int[] changedAt = rounds.changedAt;
+            boolean isChanged = false;
+
+            for (int vertex = from; vertex < to; vertex++) {
+                // Edges of vertices that did not change since the previous round were relaxed already
+                if (changedAt[vertex] < round - 1) {
+                    continue;
+                }
+
+                long vertexDistance = distance.get(vertex);
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int target = graph.target(edge);
+                    if (relax(distance, target, vertexDistance + graph.weight(edge))) {
+                        changedAt[target] = round;
+                        isChanged = true;
+                    }
+                }
+            }
+
+            if (isChanged) {
+                rounds.isChanged.set(true);
+            }
+        }
+
+        /**
+         * Set distance of a vertex to the specified distance, in case it is shorter, using a lock-free minimum
+         * @return Whether distance got shorter
+         */
+        private static boolean relax(AtomicLongArray distance, int vertex, long newDistance) {
+            long currentDistance = distance.get(vertex);
+            while (newDistance < currentDistance) {
+                if (distance.compareAndSet(vertex, currentDistance, newDistance)) {
+                    return true;
+                }
+
+                currentDistance = distance.get(vertex);
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A class for receiving all the connected components of a graph that adapts a matrix, by labeling its grid in parallel.<br/>
+ * The grid is split into horizontal stripes, and we label it in two passes:
+ * <ol>
+ *     <li>Each stripe is labeled by its own worker, using union-find over the cells of the stripe only. As a worker
+ *     writes its own cells only, this pass needs no synchronization at all.</li>
+ *     <li>The first row of each stripe is merged with the last row of the stripe above it. Components might cross
+ *     several stripes, so boundaries are merged concurrently, using a lock-free union-find.</li>
+ * </ol>
+ * Every cell points to a smaller cell, so the root of each component is its first cell in row-major order. This keeps the
+ * concurrent union-find free of cycles, and lets us number the components in a single scan, with no maps.<br/>
+ * Only the {@link Neighborhood} of the matrix is used, so this works for {@code StandardMatrix}, {@code CrossMatrix}
+ * and {@code Matrix}, and their primitive forms. Graphs we cannot label as a grid fall back to {@link UnionFindConnectedComponents}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see UnionFindConnectedComponents
+ */
+@Log4j2
+public class ParallelConnectedComponents implements ConnectedComponentsAlgorithm {
+    /**
+     * Label of cells that have no value
+     */
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     * Thinner stripes cost more in boundary merges and tasks than they gain in parallelism
+     */
+    private static final int MIN_ROWS_PER_STRIPE = 64;
+
+    /**
+     * Amount of stripes to label in parallel, at most
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a new {@link ParallelConnectedComponents}, using a stripe per available processor
+     */
+    public ParallelConnectedComponents() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new {@link ParallelConnectedComponents}
+     * @param parallelism Amount of stripes to label in parallel, at most
+     */
+    public ParallelConnectedComponents(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public List<Set<Index>> collect(IGraph<Index> graph) {
+        if (graph == null) {
+            return null;
+        }
+
+        IMatrix<?> matrix = matrixOf(graph);
+        if ((matrix == null) || (matrix.neighborhood() == null) || ((long) matrix.rows() * matrix.cols() >= Integer.MAX_VALUE)) {
+            return new UnionFindConnectedComponents().collect(graph);
+        }
+
+        Labeling labeling = label(matrix);
+        if (labeling == null) {
+            return new ArrayList<>();
+        }
+
+        List<Set<Index>> connectedComponents = labeling.toComponents();
+        connectedComponents.sort(Comparator.comparingInt(Set::size));
+
+        log.debug(() -> "Collected " + connectedComponents.size() + " connected components using " + labeling.stripes.length + " stripes");
+        return connectedComponents;
+    }
+
+    /**
+     * Label the cells of a matrix, such that all cells of a connected component have the same root.
+     * @param matrix The matrix to label. Must have a {@link IMatrix#neighborhood() neighborhood}
+     * @return The labeling, or {@code null} in case labeling was stopped, due to a shutdown or an interrupt
+     */
+    public Labeling label(IMatrix<?> matrix) {
+        Labeling labeling = new Labeling(matrix, parallelism);
+
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>(labeling.stripes.length);
+            for (int stripe = 0; stripe < labeling.stripes.length - 1; stripe++) {
+                int from = labeling.stripes[stripe], to = labeling.stripes[stripe + 1];
+                tasks.add(() -> {
+                    labeling.labelStripe(from, to);
+                    return null;
+                });
+            }
+            ActionThreadService.getInstance().invokeAll(tasks);
+            if (ActionThreadService.getInstance().isShutdownNow()) {
+                return null;
+            }
+
+            tasks.clear();
+            for (int stripe = 1; stripe < labeling.stripes.length - 1; stripe++) {
+                int boundaryRow = labeling.stripes[stripe];
+                tasks.add(() -> {
+                    labeling.mergeBoundary(boundaryRow);
+                    return null;
+                });
+            }
+            ActionThreadService.getInstance().invokeAll(tasks);
+
+            // Point every cell directly to its root, so reading a label is a single access
+            tasks.clear();
+            for (int stripe = 0; stripe < labeling.stripes.length - 1; stripe++) {
+                int from = labeling.stripes[stripe], to = labeling.stripes[stripe + 1];
+                tasks.add(() -> {
+                    labeling.flatten(from, to);
+                    return null;
+                });
+            }
+            ActionThreadService.getInstance().invokeAll(tasks);
+        } catch (InterruptedException e) {
+            log.error("Failed to label connected components", e);
+            return null;
+        }
+
+        return labeling;
+    }
+
+    /**
+     * @return The matrix a graph adapts, or {@code null} in case it does not adapt a matrix
+     */
+    private static IMatrix<?> matrixOf(IGraph<Index> graph) {
+        if (graph instanceof CompiledGraph) {
+            graph = ((CompiledGraph) graph).source();
+        }
+
+        return (graph instanceof MatrixGraphAdapter) ? ((MatrixGraphAdapter<?>) graph).getMatrix() : null;
+    }
+
+    /**
+     * The labels of all cells of a matrix, as a forest of cells, where every cell points to a smaller cell in the same component.
+     */
+    public static class Labeling {
+        private final IMatrix<?> matrix;
+        private final IIntMatrix intMatrix;
+        private final int rows;
+        private final int cols;
+
+        /**
+         * Parent of each cell, in row-major order, or {@link #NO_VALUE}
+         */
+        private final AtomicIntegerArray parent;
+
+        /**
+         * First row of each stripe, followed by the amount of rows
+         */
+        private final int[] stripes;
+
+        /**
+         * Row and column offsets of the neighbors that come before a cell in row-major order. Labeling a cell against
+         * these neighbors only is enough, since the neighborhood is symmetric.
+         */
+        private final int[] rowOffsets;
+        private final int[] columnOffsets;
+
+        private Labeling(IMatrix<?> matrix, int parallelism) {
+            this.matrix = matrix;
+            intMatrix = (matrix instanceof IIntMatrix) ? (IIntMatrix) matrix : null;
+            rows = matrix.rows();
+            cols = matrix.cols();
+            parent = new AtomicIntegerArray(rows * cols);
+
+            int stripeCount = Math.max(1, Math.min(parallelism, rows / MIN_ROWS_PER_STRIPE));
+            stripes = new int[stripeCount + 1];
+            for (int stripe = 0; stripe <= stripeCount; stripe++) {
+                stripes[stripe] = (int) ((long) rows * stripe / stripeCount);
+            }
+
+            Neighborhood neighborhood = matrix.neighborhood();
+            int[] rowOffsets = new int[neighborhood.size()], columnOffsets = new int[neighborhood.size()];
+            int count = 0;
+            for (int i = 0; i < neighborhood.size(); i++) {
+                int rowOffset = neighborhood.rowOffset(i), columnOffset = neighborhood.columnOffset(i);
+                if ((rowOffset < 0) || ((rowOffset == 0) && (columnOffset < 0))) {
+                    rowOffsets[count] = rowOffset;
+                    columnOffsets[count++] = columnOffset;
+                }
+            }
+            this.rowOffsets = Arrays.copyOf(rowOffsets, count);
+            this.columnOffsets = Arrays.copyOf(columnOffsets, count);
+        }
+
+        /**
+         * First pass. Label the cells in rows [from, to) against their neighbors in the same rows.<br/>
+         * No other worker reads or writes these cells during this pass, so we use plain accesses.
+         */
+        private void labelStripe(int from, int to) {
+            for (int row = from; row < to; row++) {
+                // In case server was instructed to shutdown now, we should stop current execution.
+                if (ActionThreadService.getInstance().isShutdownNow()) {
+                    return;
+                }
+
+                for (int col = 0; col < cols; col++) {
+                    int cell = row * cols + col;
+                    if (!hasValue(row, col)) {
+                        parent.setPlain(cell, NO_VALUE);
+                        continue;
+                    }
+
+                    parent.setPlain(cell, cell);
+                    for (int i = 0; i < rowOffsets.length; i++) {
+                        int neighborRow = row + rowOffsets[i], neighborCol = col + columnOffsets[i];
+                        if ((neighborRow >= from) && (neighborCol >= 0) && (neighborCol < cols)) {
+                            int neighbor = neighborRow * cols + neighborCol;
+                            if (parent.getPlain(neighbor) != NO_VALUE) {
+                                unionPlain(cell, neighbor);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Second pass. Merge the cells of a row, which is the first row of a stripe, with their neighbors in the row above.
+         */
+        private void mergeBoundary(int row) {
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                if (parent.get(cell) == NO_VALUE) {
+                    continue;
+                }
+
+                for (int i = 0; i < rowOffsets.length; i++) {
+                    int neighborCol = col + columnOffsets[i];
+                    if ((rowOffsets[i] < 0) && (neighborCol >= 0) && (neighborCol < cols)) {
+                        int neighbor = (row + rowOffsets[i]) * cols + neighborCol;
+                        if (parent.get(neighbor) != NO_VALUE) {
+                            union(cell, neighbor);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Third pass. Point each cell in rows [from, to) directly to its root.<br/>
+         * Trees do not change anymore, so every parent we might read, even a stale one, is an ancestor in the same tree.
+         */
+        private void flatten(int from, int to) {
+            for (int cell = from * cols, end = to * cols; cell < end; cell++) {
+                int root = parent.getPlain(cell);
+                if (root != NO_VALUE) {
+                    while (parent.getPlain(root) != root) {
+                        root = parent.getPlain(root);
+                    }
+                    parent.setPlain(cell, root);
+                }
+            }
+        }
+
+        private boolean hasValue(int row, int col) {
+            return (intMatrix != null) ? intMatrix.hasValue(row, col) : matrix.hasValue(Index.from(row, col));
+        }
+
+        private int findPlain(int cell) {
+            int parentCell;
+            while ((parentCell = parent.getPlain(cell)) != cell) {
+                int grandParent = parent.getPlain(parentCell);
+                parent.setPlain(cell, grandParent);
+                cell = grandParent;
+            }
+
+            return cell;
+        }
+
+        private void unionPlain(int first, int second) {
+            int firstRoot = findPlain(first), secondRoot = findPlain(second);
+            if (firstRoot != secondRoot) {
+                parent.setPlain(Math.max(firstRoot, secondRoot), Math.min(firstRoot, secondRoot));
+            }
+        }
+
+        /**
+         * Lock-free find, with path halving. Halving uses compare and set, so we never overwrite a link made by another worker.
+         */
+        private int find(int cell) {
+            while (true) {
+                int parentCell = parent.get(cell);
+                if (parentCell == cell) {
+                    return cell;
+                }
+
+                int grandParent = parent.get(parentCell);
+                if (grandParent != parentCell) {
+                    parent.compareAndSet(cell, parentCell, grandParent);
+                }
+                cell = grandParent;
+            }
+        }
+
+        /**
+         * Lock-free union. Link the larger root under the smaller one, only if it is still a root, or retry.
+         */
+        private void union(int first, int second) {
+            while (true) {
+                int firstRoot = find(first), secondRoot = find(second);
+                if (firstRoot == secondRoot) {
+                    return;
+                }
+
+                int larger = Math.max(firstRoot, secondRoot);
+                if (parent.compareAndSet(larger, larger, Math.min(firstRoot, secondRoot))) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @param row Row of a cell
+         * @param col Column of a cell
+         * @return Whether a cell belongs to some component, or not
+         */
+        public boolean hasLabel(int row, int col) {
+            return parent.get(row * cols + col) != NO_VALUE;
+        }
+
+        /**
+         * @param row Row of a cell
+         * @param col Column of a cell
+         * @return The first cell, in row-major order, of the component the specified cell belongs to
+         * @throws IllegalArgumentException In case the specified cell has no value
+         */
+        public int rootOf(int row, int col) {
+            int root = parent.get(row * cols + col);
+            if (root == NO_VALUE) {
+                throw new IllegalArgumentException("No vertex at: " + Index.from(row, col));
+            }
+
+            return root;
+        }
+
+        /**
+         * @return Amount of connected components
+         */
+        public int componentCount() {
+            int count = 0;
+            for (int cell = 0; cell < parent.length(); cell++) {
+                if (parent.get(cell) == cell) {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Collect the cells of each component into a set, ordered by the first cell of each component.<br/>
+         * A root is the first cell of its component, so we meet it before the rest of its cells, and we can replace its
+         * label with the (negative) position of its component in the result. Hence this labeling cannot be used afterwards.
+         */
+        private List<Set<Index>> toComponents() {
+            List<Set<Index>> connectedComponents = new ArrayList<>();
+            for (int row = 0, cell = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++, cell++) {
+                    int root = parent.getPlain(cell);
+                    if (root == NO_VALUE) {
+                        continue;
+                    }
+
+                    Set<Index> connectedComponent;
+                    if (root == cell) {
+                        connectedComponent = new HashSet<>();
+                        connectedComponents.add(connectedComponent);
+                        parent.setPlain(cell, -connectedComponents.size());
+                    } else {
+                        connectedComponent = connectedComponents.get(-parent.getPlain(root) - 1);
+                    }
+
+                    connectedComponent.add(Index.from(row, col));
+                }
+            }
+
+            return connectedComponents;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCycleException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A queue based Bellman-Ford (Shortest Path Faster Algorithm) over the dense ids of a {@link CompiledGraph}, which supports
+ * negative weights, and finds all shortest paths from a source vertex.<br/>
+ * Instead of relaxing all edges |V|-1 times, like {@link BellmanFord} does, we only relax the edges of vertices whose
+ * distance got shorter since they were last relaxed, which are kept in a FIFO queue. Once the queue is empty, distances
+ * have converged and we are done. On graphs with no negative weights this is close to a BFS, and |V|-1 rounds are the
+ * worst case only.
+ * <p>
+ * Negative cycles are detected by counting the edges of the path to each vertex, through the vertices that improved it:
+ * a simple path has |V|-1 edges at most, so once a path has |V| edges, it goes in circles through a negative cycle. The
+ * cycle is found by going backwards from that vertex over the vertices that improved each vertex, until one repeats, and
+ * it is reported by {@link NegativeWeightCycleException#getCycle()}.
+ * </p>
+ * Parents are collected once the distances have converged: {@code u} is a parent of {@code v} when
+ * {@code distance[u] + weight(u, v) == distance[v]}. Negative weights might form cycles of zero weight, where all edges
+ * are like that, so we drop the edges that close a cycle (the back edges of a DFS from source), and keep the parents acyclic.
+ * Graphs with no zero weight cycles keep all of their parents.<br/>
+ * A destination does not let us stop earlier, as a negative edge might shorten its distance until the very end.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see BellmanFord
+ * @see ShortestPathCounts
+ */
+public class SPFA {
+    /**
+     * Amount of vertices to relax between checks of whether the action service was shut down
+     */
+    private static final int SHUTDOWN_CHECK_INTERVAL = 1 << 12;
+
+    /**
+     * Traverse the whole graph, starting from its root.
+     * @param graph The graph to traverse
+     * @return Distances and parents of all vertices reachable from root, or {@code null} in case traversal was stopped due
+     * to a shutdown
+     * @throws NegativeWeightCycleException In case there is a negative cycle reachable from root
+     */
+    public ShortestPathTree traverse(CompiledGraph graph) {
+        return traverse(graph, graph.rootId());
+    }
+
+    /**
+     * Traverse a graph from some source vertex, until distances converge.<br/>
+     * Algorithm:<br/>
+     * <pre>{@code
+     * distance[source] = 0, edges[source] = 0, and add source to queue
+     * While queue is not empty:
+     *     u = remove from queue
+     *     For each edge (u, v) do:
+     *         If distance[u] + w(u, v) < distance[v]:
+     *             distance[v] = distance[u] + w(u, v)
+     *             predecessor[v] = u
+     *             edges[v] = edges[u] + 1
+     *             If edges[v] == |V|: throw negative cycle, found through predecessor
+     *             If v is not in queue: add v to queue
+     * }</pre>
+     * @param graph The graph to traverse
+     * @param source Id of the vertex to start from. When it is {@link CompiledGraph#NO_VERTEX}, nothing is reached
+     * @return Distances and parents of the reached vertices, or {@code null} in case traversal was stopped due to a shutdown
+     * @throws NegativeWeightCycleException In case there is a negative cycle reachable from source
+     */
+    public ShortestPathTree traverse(CompiledGraph graph, int source) {
+        int vertexCount = graph.vertexCount();
+        long[] distance = new long[vertexCount];
+        Arrays.fill(distance, ShortestPathTree.UNREACHED);
+        int[] predecessor = new int[vertexCount];
+        int[] edgeCount = new int[vertexCount];
+        boolean[] isQueued = new boolean[vertexCount];
+
+        // Each vertex is in the queue once at most, so a cyclic queue of |V| never overflows
+        int[] queue = new int[Math.max(1, vertexCount)];
+        int head = 0, queueSize = 0;
+        if (source != CompiledGraph.NO_VERTEX) {
+            distance[source] = 0;
+            predecessor[source] = CompiledGraph.NO_VERTEX;
+            isQueued[source] = true;
+            queue[queueSize++] = source;
+        }
+
+        long relaxedCount = 0;
+        while (queueSize > 0) {
+            int vertex = queue[head];
+            head = (head + 1 == queue.length) ? 0 : head + 1;
+            queueSize--;
+            isQueued[vertex] = false;
+
+            if ((++relaxedCount % SHUTDOWN_CHECK_INTERVAL == 0) && ActionThreadService.getInstance().isShutdownNow()) {
+                return null;
+            }
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                long newDistance = distance[vertex] + graph.weight(edge);
+                if (newDistance < distance[target]) {
+                    distance[target] = newDistance;
+                    predecessor[target] = vertex;
+                    edgeCount[target] = edgeCount[vertex] + 1;
+                    if (edgeCount[target] >= vertexCount) {
+                        throw negativeCycle(graph, predecessor, distance, target);
+                    }
+
+                    if (!isQueued[target]) {
+                        isQueued[target] = true;
+                        queue[(head + queueSize++) % queue.length] = target;
+                    }
+                }
+            }
+        }
+
+        return buildTree(graph, source, distance);
+    }
+
+    /**
+     * Find the vertices of a negative cycle, by going backwards from the specified vertex, over the predecessors.
+     * @param vertex A vertex whose path has at least |V| edges
+     * @return The exception to throw
+     */
+    private static NegativeWeightCycleException negativeCycle(CompiledGraph graph, int[] predecessor, long[] distance, int vertex) {
+        int[] cycle = findPredecessorCycle(predecessor, vertex, new int[graph.vertexCount()], 1);
+        if (cycle.length == 0) {
+            // Predecessors of the vertex were improved since, and lead to source now. There is a cycle somewhere else.
+            int[] stamp = new int[graph.vertexCount()];
+            for (int id = 0; (id < graph.vertexCount()) && (cycle.length == 0); id++) {
+                if ((stamp[id] == 0) && (distance[id] != ShortestPathTree.UNREACHED)) {
+                    cycle = findPredecessorCycle(predecessor, id, stamp, id + 1);
+                }
+            }
+        }
+
+        List<Index> cycleVertices = new ArrayList<>(cycle.length);
+        long weight = 0;
+        for (int id : cycle) {
+            cycleVertices.add(graph.vertexOf(id));
+            weight += graph.valueOf(id);
+        }
+
+        String cycleText = cycleVertices.isEmpty() ? "unknown" :
+                cycleVertices.stream().map(String::valueOf).collect(Collectors.joining(" -> ")) + " -> " + cycleVertices.get(0);
+        return new NegativeWeightCycleException("Graph contains negative cycle. No shortest path can be found. [Cycle=" + cycleText +
+                ", weight=" + weight + "]", cycleVertices);
+    }
+
+    /**
+     * Go backwards over the predecessors, stamping each vertex, until we get to source or to a stamped vertex
+     * @param stamp Stamps of vertices we have gone over. Vertices stamped by a previous walk did not lead to a cycle
+     * @param walk Stamp of this walk
+     * @return Vertices of the cycle in the order of its edges, or an empty array when there is no cycle
+     */
+    private static int[] findPredecessorCycle(int[] predecessor, int vertex, int[] stamp, int walk) {
+        while ((vertex != CompiledGraph.NO_VERTEX) && (stamp[vertex] == 0)) {
+            stamp[vertex] = walk;
+            vertex = predecessor[vertex];
+        }
+
+        if ((vertex == CompiledGraph.NO_VERTEX) || (stamp[vertex] != walk)) {
+            return new int[0];
+        }
+
+        List<Integer> cycle = new ArrayList<>();
+        int cycleVertex = vertex;
+        do {
+            cycle.add(cycleVertex);
+            cycleVertex = predecessor[cycleVertex];
+        } while (cycleVertex != vertex);
+
+        // Predecessors go backwards, so reverse them to get the order of the edges
+        Collections.reverse(cycle);
+        return cycle.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Collect the parents of all reached vertices into a new {@link ShortestPathTree}, dropping edges that close a cycle.<br/>
+     * Parents depend on the final distances and on the order of edges only, so {@link ParallelBellmanFord} uses it as well.
+     */
+    static ShortestPathTree buildTree(CompiledGraph graph, int source, long[] distance) {
+        BitSet backEdges = (source == CompiledGraph.NO_VERTEX) ? new BitSet() : findBackEdges(graph, source, distance);
+        return new ShortestPathTree.Builder(graph, source, distance)
+                .build(builder -> collectParents(graph, distance, backEdges, builder));
+    }
+
+    /**
+     * An iterative DFS from source over the edges of shortest paths. An edge that leads to a vertex that is still on the
+     * stack closes a cycle (of zero weight), so it is a back edge.
+     * @return The back edges
+     */
+    private static BitSet findBackEdges(CompiledGraph graph, int source, long[] distance) {
+        int vertexCount = graph.vertexCount();
+        boolean[] isDiscovered = new boolean[vertexCount];
+        boolean[] isOnStack = new boolean[vertexCount];
+        int[] stack = new int[vertexCount];
+        int[] nextEdge = new int[vertexCount];
+        BitSet backEdges = new BitSet();
+
+        int stackSize = 0;
+        isDiscovered[source] = isOnStack[source] = true;
+        nextEdge[source] = graph.firstEdge(source);
+        stack[stackSize++] = source;
+        while (stackSize > 0) {
+            int vertex = stack[stackSize - 1];
+            if (nextEdge[vertex] < graph.endEdge(vertex)) {
+                int edge = nextEdge[vertex]++;
+                int target = graph.target(edge);
+                if (distance[vertex] + graph.weight(edge) == distance[target]) {
+                    if (isOnStack[target]) {
+                        backEdges.set(edge);
+                    } else if (!isDiscovered[target]) {
+                        isDiscovered[target] = isOnStack[target] = true;
+                        nextEdge[target] = graph.firstEdge(target);
+                        stack[stackSize++] = target;
+                    }
+                }
+            } else {
+                isOnStack[vertex] = false;
+                stackSize--;
+            }
+        }
+
+        return backEdges;
+    }
+
+    /**
+     * Go over all (child, parent) pairs, and add them to the builder, by the id of child
+     */
+    private static void collectParents(CompiledGraph graph, long[] distance, BitSet backEdges, ShortestPathTree.Builder builder) {
+        for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+            if (distance[vertex] == ShortestPathTree.UNREACHED) {
+                continue;
+            }
+
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int target = graph.target(edge);
+                if ((distance[vertex] + graph.weight(edge) == distance[target]) && !backEdges.get(edge)) {
+                    builder.addParent(target, vertex);
+                }
+            }
+        }
+    }
+}
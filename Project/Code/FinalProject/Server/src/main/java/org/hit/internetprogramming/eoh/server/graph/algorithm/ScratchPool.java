@@ -0,0 +1,232 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A pool of the working arrays of an algorithm, so a traversal reuses the arrays of a previous one rather than allocating
+ * arrays of the size of the graph.<br/>
+ * Working arrays grow with the largest graph they were used for, so all pools share two limits, which the owner of the
+ * graphs {@link #limit(int, long) sets} whenever its graphs change:
+ * <ul>
+ *     <li>Vertex count: arrays sized for more vertices than the largest graph still cached are dropped, when they are
+ *     idle, or once they are {@link #release(Scratch) released}. Arrays of smaller graphs are kept.</li>
+ *     <li>Bytes: idle arrays of all pools take up to that many bytes, so they can be counted in the memory budget of the
+ *     graphs. Arrays that do not fit are dropped once released.</li>
+ * </ul>
+ * In addition, at most {@link #MAXIMUM_IDLE} idle arrays are kept per algorithm.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * Scratch scratch = pool.acquire();
+ * try {
+ *     scratch.startTraversal(graph.vertexCount());
+ *     ...
+ * } finally {
+ *     pool.release(scratch);
+ * }
+ * }</pre>
+ * </p>
+ * @param <T> Type of the working arrays
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class ScratchPool<T extends ScratchPool.Scratch> {
+    /**
+     * Amount of idle working arrays to keep per algorithm. More threads than that cannot traverse at the same time anyway.
+     */
+    private static final int MAXIMUM_IDLE = Runtime.getRuntime().availableProcessors();
+
+    private static final List<ScratchPool<?>> pools = new CopyOnWriteArrayList<>();
+
+    /**
+     * Working arrays sized for more vertices than this are not pooled. See {@link #limit(int, long)}
+     */
+    private static volatile int maximumVertexCount = Integer.MAX_VALUE;
+
+    /**
+     * Amount of bytes idle working arrays of all pools may take. See {@link #limit(int, long)}
+     */
+    private static volatile long maximumIdleSizeInBytes = Runtime.getRuntime().maxMemory() / 8;
+
+    /**
+     * Estimated size of the idle working arrays of all pools
+     */
+    private static final AtomicLong idleSizeInBytes = new AtomicLong();
+
+    private final Supplier<T> factory;
+
+    /**
+     * Idle working arrays. Guarded by this instance.
+     */
+    private final Deque<T> idle = new ArrayDeque<>();
+
+    /**
+     * Constructs a new {@link ScratchPool}
+     * @param factory Creates empty working arrays, which grow on first use
+     */
+    public ScratchPool(Supplier<T> factory) {
+        this.factory = factory;
+        pools.add(this);
+    }
+
+    /**
+     * @return Idle working arrays, or new ones in case there are no idle ones. Must be {@link #release(Scratch) released} once done
+     */
+    public T acquire() {
+        T scratch;
+        synchronized (this) {
+            scratch = idle.pollFirst();
+            if (scratch != null) {
+                idleSizeInBytes.addAndGet(-scratch.sizeInBytes());
+            }
+        }
+
+        return (scratch == null) ? factory.get() : scratch;
+    }
+
+    /**
+     * Return working arrays to the pool, so the next traversal reuses them. They are dropped in case they are larger than
+     * the {@link #limit(int, long) limits}.
+     * @param scratch Working arrays that were {@link #acquire() acquired} from this pool
+     */
+    public void release(T scratch) {
+        long scratchSizeInBytes = scratch.sizeInBytes();
+
+        synchronized (this) {
+            if ((scratch.capacity() > maximumVertexCount) || (idle.size() >= MAXIMUM_IDLE)) {
+                return;
+            }
+
+            if (idleSizeInBytes.addAndGet(scratchSizeInBytes) > maximumIdleSizeInBytes) {
+                idleSizeInBytes.addAndGet(-scratchSizeInBytes);
+                return;
+            }
+
+            idle.addFirst(scratch);
+        }
+    }
+
+    /**
+     * Set the limits of all pools, and drop the idle working arrays that exceed them. We call this whenever cached graphs
+     * change, so arrays that were sized for a released graph are not kept in memory.
+     * @param vertexCount Vertex count of the largest graph that is still cached. Arrays sized for more vertices are dropped
+     * @param sizeInBytes Amount of bytes idle working arrays of all pools may take
+     */
+    public static void limit(int vertexCount, long sizeInBytes) {
+        maximumVertexCount = vertexCount;
+        maximumIdleSizeInBytes = sizeInBytes;
+
+        for (ScratchPool<?> pool : pools) {
+            synchronized (pool) {
+                Iterator<? extends Scratch> iterator = pool.idle.iterator();
+                while (iterator.hasNext()) {
+                    Scratch scratch = iterator.next();
+                    if ((scratch.capacity() > vertexCount) || (idleSizeInBytes.get() > sizeInBytes)) {
+                        iterator.remove();
+                        idleSizeInBytes.addAndGet(-scratch.sizeInBytes());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Estimated amount of bytes the idle working arrays of all pools take
+     */
+    public static long idleSizeInBytes() {
+        return idleSizeInBytes.get();
+    }
+
+    /**
+     * @return Amount of idle working arrays in this pool
+     */
+    public synchronized int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Base class of working arrays. It grows the arrays with the graphs they are used for, and stamps each traversal with
+     * an epoch of its own.
+     * <p>
+     * Rather than clearing the arrays before each traversal, a vertex is visited by the current traversal only when its
+     * stamp equals to the current {@link #epoch()}. This way, the cost of a traversal depends on the vertices it reaches,
+     * rather than on the size of the graph.
+     * </p>
+     */
+    public abstract static class Scratch {
+        /**
+         * Amount of vertices the arrays were allocated for
+         */
+        private int capacity;
+
+        /**
+         * Epoch of the current traversal. Stamps of vertices the current traversal has not visited differ from it.
+         */
+        private int epoch;
+
+        /**
+         * Start a new traversal over a graph of the specified size. Arrays are allocated when the graph is larger than the
+         * ones they were used for before, and the epoch is advanced.
+         * @param vertexCount Amount of vertices of the graph to traverse
+         */
+        public final void startTraversal(int vertexCount) {
+            if (capacity < vertexCount) {
+                allocate(vertexCount);
+                capacity = vertexCount;
+                epoch = 0;
+            }
+
+            // Once in 2^32 traversals the epoch wraps around, so clear the stamps, or an old stamp might equal the new epoch
+            if (++epoch == 0) {
+                for (int[] stamp : stamps()) {
+                    Arrays.fill(stamp, 0);
+                }
+
+                epoch = 1;
+            }
+        }
+
+        /**
+         * @return Epoch of the current traversal. See {@link #startTraversal(int)}
+         */
+        public final int epoch() {
+            return epoch;
+        }
+
+        /**
+         * @return Amount of vertices the arrays were allocated for
+         */
+        public final int capacity() {
+            return capacity;
+        }
+
+        /**
+         * Allocate the arrays for a graph of the specified size. Their content is not kept.<br/>
+         * Scratches with no arrays per vertex have nothing to allocate.
+         * @param vertexCount Amount of vertices of the graph to traverse
+         */
+        protected void allocate(int vertexCount) {
+        }
+
+        /**
+         * @return The arrays that are stamped with epochs, which are cleared once the epoch wraps around
+         */
+        protected int[][] stamps() {
+            return new int[0][];
+        }
+
+        /**
+         * @return Estimated size of the arrays in memory, in bytes
+         */
+        protected long sizeInBytes() {
+            return 0;
+        }
+    }
+}
@@ -20,7 +20,8 @@ public interface ShortestPathAlgorithm<V> {
     Map<V, VertexDistanceInfo<V>> traverse(@NonNull IGraph<V> graph);
 
     /**
-     * See {@link BFSVisit#traverse(IGraph, Object)}, {@link BellmanFord#traverse(IGraph, Object)} and {@link DijkstraWithNegCycleSupport#traverse(IGraph, Object)}
+     * See {@link BFSVisit#traverse(IGraph, Object)}, {@link BellmanFord#traverse(IGraph, Object)}, {@link DijkstraWithNegCycleSupport#traverse(IGraph, Object)}
+     * and {@link AStar#traverse(IGraph, Object)}
      * @param graph The graph to traverse, starting from its root.
      * @param destination Where to stop. This is a vertex we are looking for.
      * @return All visited vertices
@@ -41,6 +42,11 @@ public interface ShortestPathAlgorithm<V> {
         /**
          * {@link DijkstraWithNegCycleSupport}
          */
-        DIJKSTRA
+        DIJKSTRA,
+
+        /**
+         * {@link AStar}
+         */
+        A_STAR
     }
 }
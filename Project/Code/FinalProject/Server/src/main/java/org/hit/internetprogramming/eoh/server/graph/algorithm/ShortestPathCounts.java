@@ -0,0 +1,259 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * The amount of shortest paths from the source of a {@link ShortestPathTree} to some destination, with the ability to get
+ * any of these paths by its rank, without enumerating the paths before it.<br/>
+ * The amount of paths to a vertex is the sum of the amounts of paths to its parents, so we count them in a single pass
+ * over the ancestors of destination, in topological order, where parents come before their children (dynamic
+ * programming over the DAG). This works for trees of BFS and of weighted algorithms alike.
+ * Amounts are counted using {@code long}, and we switch to {@link BigInteger} only when they overflow, as they do on
+ * large open grids.
+ * <p>
+ * Paths are ordered the same as a recursive enumeration that goes from destination over the parents, in ascending order
+ * of their ids. So the order does not depend on the algorithm that built the tree, and pages of the same query are
+ * consistent, whether the tree was searched for destination, or traversed to all vertices and cached.
+ * Hence, the path at some rank is found by going from destination, and choosing the parent that rank falls into, where
+ * each parent covers as many ranks as the amount of paths to it. This takes O(length of path * parents per vertex).
+ * Note that in weighted graphs, shortest paths might differ in their amount of vertices.
+ * </p>
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see ShortestPathTree
+ */
+public class ShortestPathCounts {
+    private final ShortestPathTree shortestPathTree;
+    private final int destination;
+
+    /**
+     * Amount of paths to each ancestor of destination, by its {@link ShortestPathTree#indexOf(int) index}, or {@code null}
+     * when amounts do not fit into a long
+     */
+    private final long[] counts;
+
+    /**
+     * Amount of paths to each ancestor of destination, by its index, when amounts do not fit into a long
+     */
+    private final BigInteger[] bigCounts;
+
+    private ShortestPathCounts(ShortestPathTree shortestPathTree, int destination, long[] counts, BigInteger[] bigCounts) {
+        this.shortestPathTree = shortestPathTree;
+        this.destination = destination;
+        this.counts = counts;
+        this.bigCounts = bigCounts;
+    }
+
+    /**
+     * Count the shortest paths to some destination
+     * @param shortestPathTree The tree to count paths in
+     * @param destination Id of the destination vertex. Must be {@link ShortestPathTree#isReached(int) reached}
+     * @return Amounts of shortest paths to destination and its ancestors
+     */
+    public static ShortestPathCounts of(ShortestPathTree shortestPathTree, int destination) {
+        int[] ancestors = ancestorsInTopologicalOrder(shortestPathTree, destination);
+        long[] counts = new long[shortestPathTree.size()];
+
+        try {
+            for (int ancestor : ancestors) {
+                int parentCount = shortestPathTree.parentCount(ancestor);
+                if (parentCount == 0) {
+                    counts[shortestPathTree.indexOf(ancestor)] = 1;
+                } else {
+                    long count = 0;
+                    for (int i = 0; i < parentCount; i++) {
+                        count = Math.addExact(count, counts[shortestPathTree.indexOf(shortestPathTree.parent(ancestor, i))]);
+                    }
+                    counts[shortestPathTree.indexOf(ancestor)] = count;
+                }
+            }
+
+            return new ShortestPathCounts(shortestPathTree, destination, counts, null);
+        } catch (ArithmeticException e) {
+            // Too many paths for a long. Count again, this time using BigInteger.
+            BigInteger[] bigCounts = new BigInteger[counts.length];
+            for (int ancestor : ancestors) {
+                int parentCount = shortestPathTree.parentCount(ancestor);
+                if (parentCount == 0) {
+                    bigCounts[shortestPathTree.indexOf(ancestor)] = BigInteger.ONE;
+                } else {
+                    BigInteger count = BigInteger.ZERO;
+                    for (int i = 0; i < parentCount; i++) {
+                        count = count.add(bigCounts[shortestPathTree.indexOf(shortestPathTree.parent(ancestor, i))]);
+                    }
+                    bigCounts[shortestPathTree.indexOf(ancestor)] = count;
+                }
+            }
+
+            return new ShortestPathCounts(shortestPathTree, destination, null, bigCounts);
+        }
+    }
+
+    /**
+     * Collect destination and all of its ancestors in topological order, so the parents of a vertex always come before it.<br/>
+     * This is the post-order of an iterative DFS from destination over the parents: a vertex is added once all of its
+     * parents were added. We cannot order by distance, as zero weight edges connect parents and children of the same distance.
+     */
+    private static int[] ancestorsInTopologicalOrder(ShortestPathTree shortestPathTree, int destination) {
+        // Working arrays are by index, so they take the size of the tree rather than the size of the graph
+        int size = shortestPathTree.size();
+        boolean[] isDiscovered = new boolean[size];
+        int[] stack = new int[size];
+        int[] nextParent = new int[size];
+        int[] ancestors = new int[size];
+        int ancestorCount = 0, stackSize = 0;
+
+        isDiscovered[shortestPathTree.indexOf(destination)] = true;
+        stack[stackSize++] = destination;
+        while (stackSize > 0) {
+            int vertex = stack[stackSize - 1];
+            int index = shortestPathTree.indexOf(vertex);
+            if (nextParent[index] < shortestPathTree.parentCount(vertex)) {
+                int parent = shortestPathTree.parent(vertex, nextParent[index]++);
+                int parentIndex = shortestPathTree.indexOf(parent);
+                if (!isDiscovered[parentIndex]) {
+                    isDiscovered[parentIndex] = true;
+                    stack[stackSize++] = parent;
+                }
+            } else {
+                stackSize--;
+                ancestors[ancestorCount++] = vertex;
+            }
+        }
+
+        return Arrays.copyOf(ancestors, ancestorCount);
+    }
+
+    /**
+     * @return Amount of shortest paths to destination
+     */
+    public BigInteger getTotal() {
+        int index = shortestPathTree.indexOf(destination);
+        return (counts != null) ? BigInteger.valueOf(counts[index]) : bigCounts[index];
+    }
+
+    /**
+     * @return Distance of destination, which is the length of the shortest paths in edges for BFS, or their weight for
+     * weighted algorithms
+     */
+    public long getDistance() {
+        return shortestPathTree.distance(destination);
+    }
+
+    /**
+     * Get a page of shortest paths
+     * @param offset Rank of the first path to get
+     * @param limit Maximum amount of paths to get
+     * @return Paths at ranks [offset, offset + limit), or less when there are not enough paths
+     */
+    public List<Collection<Index>> paths(long offset, int limit) {
+        List<Collection<Index>> paths = new ArrayList<>();
+        Iterator<Collection<Index>> iterator = iterator(offset);
+        while ((paths.size() < limit) && iterator.hasNext()) {
+            paths.add(iterator.next());
+        }
+
+        return paths;
+    }
+
+    /**
+     * @param offset Rank of the first path to iterate
+     * @return A lazy iterator over the shortest paths, starting at the specified rank. Each path is found only when iterated.
+     */
+    public Iterator<Collection<Index>> iterator(long offset) {
+        BigInteger total = getTotal();
+        return new Iterator<>() {
+            private BigInteger rank = BigInteger.valueOf(Math.max(0, offset));
+
+            @Override
+            public boolean hasNext() {
+                return rank.compareTo(total) < 0;
+            }
+
+            @Override
+            public Collection<Index> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Collection<Index> path = (counts != null) ? pathAt(rank.longValueExact()) : pathAt(rank);
+                rank = rank.add(BigInteger.ONE);
+                return path;
+            }
+        };
+    }
+
+    private Collection<Index> pathAt(long rank) {
+        List<Index> path = new ArrayList<>();
+        int[] parents = new int[8];
+        int vertex = destination;
+        while (shortestPathTree.parentCount(vertex) > 0) {
+            path.add(shortestPathTree.vertexOf(vertex));
+            parents = sortedParents(vertex, parents);
+            for (int parentIndex = 0; parentIndex < shortestPathTree.parentCount(vertex); parentIndex++) {
+                int parent = parents[parentIndex];
+                long parentCount = counts[shortestPathTree.indexOf(parent)];
+                if (rank < parentCount) {
+                    vertex = parent;
+                    break;
+                }
+                rank -= parentCount;
+            }
+        }
+
+        return toPath(path, vertex);
+    }
+
+    private Collection<Index> pathAt(BigInteger rank) {
+        List<Index> path = new ArrayList<>();
+        int[] parents = new int[8];
+        int vertex = destination;
+        while (shortestPathTree.parentCount(vertex) > 0) {
+            path.add(shortestPathTree.vertexOf(vertex));
+            parents = sortedParents(vertex, parents);
+            for (int parentIndex = 0; parentIndex < shortestPathTree.parentCount(vertex); parentIndex++) {
+                int parent = parents[parentIndex];
+                BigInteger parentCount = bigCounts[shortestPathTree.indexOf(parent)];
+                if (rank.compareTo(parentCount) < 0) {
+                    vertex = parent;
+                    break;
+                }
+                rank = rank.subtract(parentCount);
+            }
+        }
+
+        return toPath(path, vertex);
+    }
+
+    /**
+     * @param buffer An array to copy the parents into, which is reallocated when it is too short
+     * @return Parents of the specified vertex, in ascending order of their ids
+     */
+    private int[] sortedParents(int vertex, int[] buffer) {
+        int parentCount = shortestPathTree.parentCount(vertex);
+        if (buffer.length < parentCount) {
+            buffer = new int[parentCount];
+        }
+
+        for (int i = 0; i < parentCount; i++) {
+            buffer[i] = shortestPathTree.parent(vertex, i);
+        }
+
+        Arrays.sort(buffer, 0, parentCount);
+        return buffer;
+    }
+
+    /**
+     * @param reversedPath Vertices from destination up to source, excluding source
+     * @param source Id of source
+     * @return The path from source to destination
+     */
+    private Collection<Index> toPath(List<Index> reversedPath, int source) {
+        reversedPath.add(shortestPathTree.vertexOf(source));
+        Collections.reverse(reversedPath);
+        return reversedPath;
+    }
+}
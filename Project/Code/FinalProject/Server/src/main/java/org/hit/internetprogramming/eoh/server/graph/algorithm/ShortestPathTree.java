@@ -0,0 +1,325 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The result of a shortest paths algorithm that runs over the dense ids of a {@link CompiledGraph}.<br/>
+ * It holds the distance of each reached vertex from the source, and all of its parents, such that each parent is the
+ * previous vertex of some shortest path. As there might be several parents per vertex, this is actually a DAG.<br/>
+ * Distance is the length of a path for BFS, or the sum of its weights for weighted algorithms.
+ * <p>
+ * A tree holds the reached vertices only, each at an index in range [0, {@link #size()}), so a search that stops early
+ * builds a tree in the time it takes to reach its vertices, regardless of the size of the graph. The index of a vertex
+ * is looked up by its id, using an open addressing table of the reached vertices, or an array over all ids when most of
+ * the vertices were reached, whichever is smaller. Trees of algorithms that go over all vertices anyway are built over
+ * all ids, where the index of a vertex is its id.
+ * </p>
+ * <p>
+ * Parents are kept in compressed sparse rows (CSR): the parents of the vertex at index {@code i} are
+ * {@code parents[parentOffsets[i]]} to {@code parents[parentOffsets[i + 1] - 1]}. This costs two ints per vertex and one
+ * int per parent, rather than a set of parents per vertex.
+ * </p>
+ * Instances are owned by the caller. They are never reused by the algorithm that created them.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see IntBFSVisit
+ */
+public class ShortestPathTree {
+    /**
+     * Distance of vertices that were not reached. Same as the default distance of {@link VertexDistanceInfo}
+     */
+    public static final long UNREACHED = Long.MAX_VALUE;
+
+    /**
+     * An empty slot of {@link #indexTable}
+     */
+    private static final int EMPTY = -1;
+
+    private final CompiledGraph graph;
+    private final int source;
+
+    /**
+     * Id of the vertex at each index, or {@code null} when the index of a vertex is its id
+     */
+    private final int[] vertices;
+
+    /**
+     * When {@link #isHashed}, an open addressing table of the indices of the reached vertices, by the hash of their ids.
+     * Otherwise, the index of each vertex by its id, or {@link #EMPTY}. {@code null} when the index of a vertex is its id.
+     */
+    private final int[] indexTable;
+    private final boolean isHashed;
+
+    private final long[] distance;
+    private final int[] parentOffsets;
+    private final int[] parents;
+
+    /**
+     * Constructs a new {@link ShortestPathTree} over all ids of a graph, for algorithms that go over all of the vertices anyway
+     * @param graph The graph this tree was built over
+     * @param source Id of the source vertex
+     * @param distance Distance of each vertex, by id, or {@link #UNREACHED}
+     * @param parentOffsets Where the parents of each vertex begin, by id. Length is {@code vertexCount + 1}
+     * @param parents Parent ids of all vertices
+     */
+    public ShortestPathTree(CompiledGraph graph, int source, long[] distance, int[] parentOffsets, int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.vertices = null;
+        this.indexTable = null;
+        this.isHashed = false;
+        this.distance = distance;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+    }
+
+    /**
+     * Constructs a new {@link ShortestPathTree} over the reached vertices only
+     * @param graph The graph this tree was built over
+     * @param source Id of the source vertex
+     * @param vertices Id of each reached vertex, by index. Each vertex appears once
+     * @param distance Distance of each reached vertex, by index
+     * @param parentOffsets Where the parents of each vertex begin, by index. Length is {@code vertices.length + 1}
+     * @param parents Parent ids of all vertices
+     */
+    public ShortestPathTree(CompiledGraph graph, int source, int[] vertices, long[] distance, int[] parentOffsets, int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.vertices = vertices;
+        this.distance = distance;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+
+        // An array over all ids takes 4 bytes per vertex of the graph, while the table takes 8 to 16 bytes per reached vertex
+        isHashed = (long) vertices.length * 4 < graph.vertexCount();
+        if (isHashed) {
+            indexTable = new int[Integer.highestOneBit(Math.max(1, vertices.length)) << 2];
+            Arrays.fill(indexTable, EMPTY);
+            int mask = indexTable.length - 1;
+            for (int index = 0; index < vertices.length; index++) {
+                int slot = hash(vertices[index]) & mask;
+                while (indexTable[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                indexTable[slot] = index;
+            }
+        } else {
+            indexTable = new int[graph.vertexCount()];
+            Arrays.fill(indexTable, EMPTY);
+            for (int index = 0; index < vertices.length; index++) {
+                indexTable[vertices[index]] = index;
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of an id, as the ids of reached vertices are mostly consecutive runs
+     */
+    private static int hash(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return The graph this tree was built over
+     */
+    public CompiledGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Id of the source vertex
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return Amount of indices of this tree. Each reached vertex has an index in range [0, size)
+     */
+    public int size() {
+        return distance.length;
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Index of the specified vertex, in range [0, {@link #size()}), or -1 in case it was not reached
+     */
+    public int indexOf(int id) {
+        if ((id < 0) || (id >= graph.vertexCount())) {
+            return -1;
+        }
+
+        if (indexTable == null) {
+            return (distance[id] != UNREACHED) ? id : -1;
+        }
+
+        if (!isHashed) {
+            return indexTable[id];
+        }
+
+        int mask = indexTable.length - 1;
+        for (int slot = hash(id) & mask; indexTable[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (vertices[indexTable[slot]] == id) {
+                return indexTable[slot];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Whether the specified vertex was reached from source
+     */
+    public boolean isReached(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Distance of the specified vertex from source, or {@link #UNREACHED}
+     */
+    public long distance(int id) {
+        int index = indexOf(id);
+        return (index < 0) ? UNREACHED : distance[index];
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return Amount of parents of the specified vertex. Source and unreached vertices have no parents
+     */
+    public int parentCount(int id) {
+        int index = indexOf(id);
+        return (index < 0) ? 0 : parentOffsets[index + 1] - parentOffsets[index];
+    }
+
+    /**
+     * @param id Id of a reached vertex
+     * @param i Index of a parent, in range [0, {@link #parentCount(int)})
+     * @return Id of the parent
+     */
+    public int parent(int id, int i) {
+        return parents[parentOffsets[indexOf(id)] + i];
+    }
+
+    /**
+     * Apply an action on each parent of a vertex, with no allocations
+     * @param id Id of a vertex
+     * @param action The action to apply on the id of each parent
+     */
+    public void forEachParent(int id, IntConsumer action) {
+        int index = indexOf(id);
+        if (index >= 0) {
+            for (int i = parentOffsets[index], end = parentOffsets[index + 1]; i < end; i++) {
+                action.accept(parents[i]);
+            }
+        }
+    }
+
+    /**
+     * @param id Id of a vertex
+     * @return The vertex of the specified id
+     */
+    public Index vertexOf(int id) {
+        return graph.vertexOf(id);
+    }
+
+    /**
+     * @return Estimated size of this tree in memory, in bytes
+     */
+    public long sizeInBytes() {
+        long lookupSize = ((vertices == null) ? 0L : vertices.length) + ((indexTable == null) ? 0L : indexTable.length);
+        return (long) distance.length * Long.BYTES + (lookupSize + parentOffsets.length + parents.length) * Integer.BYTES;
+    }
+
+    /**
+     * Collects the parents of the vertices of a tree into compressed sparse rows, and builds the tree.<br/>
+     * The amount of parents of each vertex is not known in advance, so the collector of the parents is called twice. The
+     * first pass counts the parents of each vertex at offset + 1, so the prefix sum results with where each vertex begins.
+     * The second pass writes the parents, using the offset of each vertex as its cursor. Afterwards, each offset points to
+     * where the next vertex begins, so the offsets are shifted back.
+     */
+    public static class Builder {
+        private final CompiledGraph graph;
+        private final int source;
+        private final int[] vertices;
+        private final long[] distance;
+        private final int[] parentOffsets;
+
+        /**
+         * {@code null} during the first pass, which counts the parents
+         */
+        private int[] parents;
+
+        /**
+         * Constructs a new {@link Builder} of a tree over all ids of a graph
+         * @param graph The graph the tree was built over
+         * @param source Id of the source vertex
+         * @param distance Distance of each vertex, by id, or {@link #UNREACHED}
+         */
+        public Builder(CompiledGraph graph, int source, long[] distance) {
+            this(graph, source, null, distance);
+        }
+
+        /**
+         * Constructs a new {@link Builder} of a tree over the reached vertices only
+         * @param graph The graph the tree was built over
+         * @param source Id of the source vertex
+         * @param vertices Id of each reached vertex, by index. Each vertex appears once. When {@code null}, the index of a
+         * vertex is its id
+         * @param distance Distance of each reached vertex, by index
+         */
+        public Builder(CompiledGraph graph, int source, int[] vertices, long[] distance) {
+            this.graph = graph;
+            this.source = source;
+            this.vertices = vertices;
+            this.distance = distance;
+            parentOffsets = new int[distance.length + 1];
+        }
+
+        /**
+         * Add a parent of a vertex. The collector of {@link #build(Consumer)} calls this for each (child, parent) pair,
+         * in both passes.
+         * @param childIndex Index of the child in the tree
+         * @param parent Id of the parent
+         */
+        public void addParent(int childIndex, int parent) {
+            if (parents == null) {
+                parentOffsets[childIndex + 1]++;
+            } else {
+                parents[parentOffsets[childIndex]++] = parent;
+            }
+        }
+
+        /**
+         * @param parentCollector Goes over all (child, parent) pairs, and {@link #addParent(int, int) adds} them. It is
+         * called twice, and it must add the same pairs each time
+         * @return The tree
+         */
+        public ShortestPathTree build(Consumer<Builder> parentCollector) {
+            int size = distance.length;
+
+            parentCollector.accept(this);
+            for (int i = 0; i < size; i++) {
+                parentOffsets[i + 1] += parentOffsets[i];
+            }
+
+            parents = new int[parentOffsets[size]];
+            parentCollector.accept(this);
+            System.arraycopy(parentOffsets, 0, parentOffsets, 1, size);
+            parentOffsets[0] = 0;
+
+            if (vertices == null) {
+                return new ShortestPathTree(graph, source, distance, parentOffsets, parents);
+            }
+
+            return new ShortestPathTree(graph, source, vertices, distance, parentOffsets, parents);
+        }
+    }
+}
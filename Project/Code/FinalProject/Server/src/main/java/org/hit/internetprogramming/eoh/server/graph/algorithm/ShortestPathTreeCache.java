@@ -0,0 +1,316 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of {@link ShortestPathTree shortest path trees}, so a query from a source that was traversed already
+ * walks the parents of its tree, rather than traversing the graph again.
+ * <p>
+ * A tree is keyed by the graph it was built over, its source, and the algorithm that built it, as trees of different
+ * algorithms hold different distances (hops of BFS, or weights). All {@link CompiledGraph#withRoot(Index) roots} of a
+ * compiled graph share its {@link CompiledGraph#source() source} graph, so we use the identity of the source graph. A
+ * compiled graph is a snapshot, and the server never modifies a graph: a client modifies its graph by putting another
+ * instance. So the identity of a graph is its version as well, and the owner of a graph {@link #invalidate(IGraph) invalidates}
+ * its trees once the graph is released.
+ * </p>
+ * <p>
+ * A traversal runs outside of the lock, so a graph might be released while it is traversed, and its tree would be put
+ * after the graph was invalidated, keeping a released graph in memory. Hence the owner of the graphs
+ * {@link #register(IGraph) registers} each graph it caches, and a tree is put only while its graph is registered, which
+ * is checked under the same lock that {@link #invalidate(IGraph) invalidate} unregisters the graph with.
+ * </p>
+ * <p>
+ * A search with a known destination stops early, or searches from both ends, so it is much faster than a traversal of
+ * the whole graph. Hence a tree is {@link #isAdmitted(CompiledGraph, int, ShortestPathAlgorithm.Algorithm) admitted}
+ * only once its source missed before. A single query does not pay for a full traversal, and a source that is queried
+ * repeatedly pays for it once.
+ * </p>
+ * Trees are evicted least recently used first, to keep their estimated size under a budget.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class ShortestPathTreeCache {
+    /**
+     * Amount of missed keys to remember for the admission of trees. A missed key takes a few bytes only.
+     */
+    private static final int MAXIMUM_MISSES = 1024;
+
+    /**
+     * Entries are kept in access order, least recently used first. Guarded by {@link #lock}, as a lookup modifies the order.
+     */
+    private final Map<Key, ShortestPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Keys that missed, and were not admitted yet. Guarded by {@link #lock}
+     */
+    private final Map<Key, Boolean> misses = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > MAXIMUM_MISSES;
+        }
+    };
+
+    /**
+     * Graphs that trees may be put for, by identity, or {@code null} when trees of any graph may be put. Guarded by {@link #lock}
+     */
+    private final Set<IGraph<?>> registeredGraphs;
+
+    private final Lock lock = new ReentrantLock();
+    private final long maxSizeInBytes;
+
+    /**
+     * Estimated size of all cached trees. Guarded by {@link #lock}
+     */
+    private long sizeInBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructs a new {@link ShortestPathTreeCache}
+     * @param maxSizeInBytes Estimated amount of bytes all cached trees may take. A tree that is larger than that is not cached
+     */
+    public ShortestPathTreeCache(long maxSizeInBytes) {
+        this(maxSizeInBytes, false);
+    }
+
+    /**
+     * Constructs a new {@link ShortestPathTreeCache}
+     * @param maxSizeInBytes Estimated amount of bytes all cached trees may take. A tree that is larger than that is not cached
+     * @param isRegistrationRequired Whether trees are put only for {@link #register(IGraph) registered} graphs. Owners of
+     * graphs that release them must use {@code true}, so trees of released graphs are not put after they were invalidated
+     */
+    public ShortestPathTreeCache(long maxSizeInBytes, boolean isRegistrationRequired) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        registeredGraphs = isRegistrationRequired ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+    }
+
+    /**
+     * Get the tree of a source. A miss is remembered, so the tree of that source is admitted next time it misses.
+     * @param graph The graph to get a tree of. Any root of it
+     * @param source Id of the source vertex
+     * @param algorithm The algorithm that builds the tree
+     * @return The cached tree, or {@code null} in case it is not cached
+     */
+    public ShortestPathTree get(CompiledGraph graph, int source, ShortestPathAlgorithm.Algorithm algorithm) {
+        Key key = new Key(graph.source(), source, algorithm);
+
+        lock.lock();
+        try {
+            ShortestPathTree tree = trees.get(key);
+            if (tree == null) {
+                missCount.increment();
+                misses.putIfAbsent(key, Boolean.FALSE);
+            } else {
+                hitCount.increment();
+            }
+
+            return tree;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param graph The graph to get a tree of. Any root of it
+     * @param source Id of the source vertex
+     * @param algorithm The algorithm that builds the tree
+     * @return Whether the tree of a source missed more than once, so it is worth traversing the whole graph and {@link #put(ShortestPathTree, ShortestPathAlgorithm.Algorithm) putting} its tree
+     */
+    public boolean isAdmitted(CompiledGraph graph, int source, ShortestPathAlgorithm.Algorithm algorithm) {
+        Key key = new Key(graph.source(), source, algorithm);
+
+        lock.lock();
+        try {
+            // The first miss adds FALSE, and the second one finds it
+            Boolean isMissedBefore = misses.get(key);
+            if (isMissedBefore == null) {
+                return false;
+            }
+
+            misses.put(key, Boolean.TRUE);
+            return isMissedBefore;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Let trees of a graph be put, until it is {@link #invalidate(IGraph) invalidated}. We call this once a graph is cached.
+     * @param graph The graph to let its trees be put. This is the {@link CompiledGraph#source() source} of a compiled graph
+     */
+    public void register(IGraph<?> graph) {
+        lock.lock();
+        try {
+            if (registeredGraphs != null) {
+                registeredGraphs.add(graph);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Put a tree into the cache. Least recently used trees might be evicted, in case there is not enough room for it.<br/>
+     * The tree is dropped in case registration is required and its graph is not registered, e.g. when the graph was released
+     * while it was traversed.
+     * @param tree A tree of all vertices reachable from its source. Trees of searches that stop early must not be put
+     * @param algorithm The algorithm that built the tree
+     */
+    public void put(ShortestPathTree tree, ShortestPathAlgorithm.Algorithm algorithm) {
+        if (tree.sizeInBytes() > maxSizeInBytes) {
+            return;
+        }
+
+        Key key = new Key(tree.getGraph().source(), tree.getSource(), algorithm);
+
+        lock.lock();
+        try {
+            if ((registeredGraphs != null) && !registeredGraphs.contains(key.graph)) {
+                return;
+            }
+
+            misses.remove(key);
+            ShortestPathTree previous = trees.put(key, tree);
+            if (previous != null) {
+                sizeInBytes -= previous.sizeInBytes();
+            }
+
+            sizeInBytes += tree.sizeInBytes();
+            Iterator<ShortestPathTree> iterator = trees.values().iterator();
+            while ((sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+                ShortestPathTree eldest = iterator.next();
+                if (eldest != tree) {
+                    iterator.remove();
+                    sizeInBytes -= eldest.sizeInBytes();
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all trees of a graph, and unregister it. We call this when a graph is released, so its trees do not keep it in memory.
+     * @param graph The graph to remove its trees. This is the {@link CompiledGraph#source() source} of a compiled graph
+     */
+    public void invalidate(IGraph<?> graph) {
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Key, ShortestPathTree>> iterator = trees.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, ShortestPathTree> entry = iterator.next();
+                if (entry.getKey().graph == graph) {
+                    iterator.remove();
+                    sizeInBytes -= entry.getValue().sizeInBytes();
+                }
+            }
+
+            misses.keySet().removeIf(key -> key.graph == graph);
+            if (registeredGraphs != null) {
+                registeredGraphs.remove(graph);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Amount of cached trees
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return trees.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Estimated amount of bytes all cached trees take
+     */
+    public long getSizeInBytes() {
+        lock.lock();
+        try {
+            return sizeInBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return How many times a tree was found in the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return How many times a tree was looked for, and it was not in the cache
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return How many trees were evicted in order to keep the cache under its size limit
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestPathTreeCache{size=" + size() + ", sizeInBytes=" + getSizeInBytes() + ", maxSizeInBytes=" + maxSizeInBytes +
+                ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    /**
+     * Graphs are compared by identity. See {@link ShortestPathTreeCache}
+     */
+    private static final class Key {
+        private final IGraph<?> graph;
+        private final int source;
+        private final ShortestPathAlgorithm.Algorithm algorithm;
+
+        private Key(IGraph<?> graph, int source, ShortestPathAlgorithm.Algorithm algorithm) {
+            this.graph = graph;
+            this.source = source;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return (graph == other.graph) && (source == other.source) && (algorithm == other.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(graph) * 31 + source) * 31 + algorithm.hashCode();
+        }
+    }
+}
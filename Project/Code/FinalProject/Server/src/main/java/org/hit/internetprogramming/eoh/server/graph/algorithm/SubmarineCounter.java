@@ -0,0 +1,520 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.Neighborhood;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A class for counting the submarines of a graph that adapts a matrix, in a single streaming scan.<br/>
+ * A submarine only depends on the size and bounding box of a connected component, so we never collect the components.
+ * Instead, we label the matrix row by row, keeping the labels of the previous row only, and the size and bounding box
+ * of each label. A component that does not continue into the current row is complete, so we check it and forget it.
+ * Labels are renumbered after every row, so there are at most two labels per column, and memory is O(cols).
+ * <p>
+ * The matrix is split into horizontal stripes, which are scanned in parallel. A component that touches the first or
+ * last row of its stripe might continue in another stripe, so its statistics are kept as a partial component, with the
+ * partial component of each cell in the first and last rows. Partial components are merged across stripe boundaries
+ * once all stripes are scanned.
+ * </p>
+ * Graphs that do not adapt a matrix fall back to {@link Submarines}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see Submarines
+ */
+@Log4j2
+public class SubmarineCounter {
+    /**
+     * Label of cells that have no value
+     */
+    private static final int NO_LABEL = -1;
+
+    /**
+     * Thinner stripes cost more in boundary merges and tasks than they gain in parallelism
+     */
+    private static final int MIN_ROWS_PER_STRIPE = 64;
+
+    /**
+     * Amount of stripes to scan in parallel, at most
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a new {@link SubmarineCounter}, using a stripe per available processor
+     */
+    public SubmarineCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new {@link SubmarineCounter}
+     * @param parallelism Amount of stripes to scan in parallel, at most
+     */
+    public SubmarineCounter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Count the submarines of a graph
+     * @param graph The graph to count its submarines
+     * @return Amount of submarines
+     */
+    public int countSubmarines(IGraph<Index> graph) {
+        IGraph<Index> source = (graph instanceof CompiledGraph) ? ((CompiledGraph) graph).source() : graph;
+        if (source instanceof MatrixGraphAdapter) {
+            IMatrix<?> matrix = ((MatrixGraphAdapter<?>) source).getMatrix();
+            if (matrix.neighborhood() != null) {
+                return countSubmarines(matrix);
+            }
+        }
+
+        return new Submarines(ConnectedComponentsAlgorithm.Algorithm.UNION_FIND).findSubmarines(graph);
+    }
+
+    /**
+     * Count the submarines of a matrix, where connected cells are the ones in the {@link IMatrix#neighborhood() neighborhood}
+     * of each other.
+     * @param matrix The matrix to count its submarines. Must have a neighborhood
+     * @return Amount of submarines
+     */
+    public int countSubmarines(IMatrix<?> matrix) {
+        Neighborhood neighborhood = matrix.neighborhood();
+        int rows = matrix.rows();
+        int stripeCount = Math.max(1, Math.min(parallelism, rows / MIN_ROWS_PER_STRIPE));
+
+        List<Callable<StripeScanner>> tasks = new ArrayList<>(stripeCount);
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            int from = (int) ((long) rows * stripe / stripeCount), to = (int) ((long) rows * (stripe + 1) / stripeCount);
+            tasks.add(() -> new StripeScanner(matrix, neighborhood, from, to).scan());
+        }
+
+        List<StripeScanner> stripes = new ArrayList<>(stripeCount);
+        try {
+            for (Future<StripeScanner> future : ActionThreadService.getInstance().invokeAll(tasks)) {
+                stripes.add(future.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Failed to count submarines", e);
+            return 0;
+        }
+
+        return mergeStripes(stripes, neighborhood, matrix.cols());
+    }
+
+    /**
+     * Join the partial components of all stripes, where the last row of a stripe touches the first row of the next one,
+     * and count the submarines among them, in addition to the submarines each stripe completed by itself.
+     */
+    private static int mergeStripes(List<StripeScanner> stripes, Neighborhood neighborhood, int cols) {
+        int[] base = new int[stripes.size() + 1];
+        int submarinesCounter = 0;
+        for (int i = 0; i < stripes.size(); i++) {
+            submarinesCounter += stripes.get(i).submarinesCounter;
+            base[i + 1] = base[i] + stripes.get(i).partials.size;
+        }
+
+        // Join the partial components a stripe has joined by itself, then the ones that touch across stripe boundaries
+        DisjointSet components = new DisjointSet(base[stripes.size()]);
+        for (int i = 0; i < stripes.size(); i++) {
+            ComponentStatistics partials = stripes.get(i).partials;
+            for (int partial = 0; partial < partials.size; partial++) {
+                components.union(base[i] + partial, base[i] + partials.find(partial));
+            }
+        }
+
+        int[] upColumnOffsets = upColumnOffsets(neighborhood);
+        for (int i = 0; i + 1 < stripes.size(); i++) {
+            int[] bottomLabels = stripes.get(i).bottomLabels, topLabels = stripes.get(i + 1).topLabels;
+            for (int col = 0; col < cols; col++) {
+                if (topLabels[col] != NO_LABEL) {
+                    for (int columnOffset : upColumnOffsets) {
+                        int neighborCol = col + columnOffset;
+                        if ((neighborCol >= 0) && (neighborCol < cols) && (bottomLabels[neighborCol] != NO_LABEL)) {
+                            components.union(base[i + 1] + topLabels[col], base[i] + bottomLabels[neighborCol]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Statistics are kept at the root of each stripe's partial components, so sum them up by the joined roots
+        ComponentStatistics joined = new ComponentStatistics(base[stripes.size()]);
+        joined.size = base[stripes.size()];
+        for (int i = 0; i < stripes.size(); i++) {
+            ComponentStatistics partials = stripes.get(i).partials;
+            for (int partial = 0; partial < partials.size; partial++) {
+                if ((partials.find(partial) == partial) && (partials.count[partial] > 0)) {
+                    joined.merge(components.find(base[i] + partial), partials, partial);
+                }
+            }
+        }
+
+        for (int component = 0; component < joined.size; component++) {
+            if (joined.isSubmarine(component)) {
+                submarinesCounter++;
+            }
+        }
+
+        return submarinesCounter;
+    }
+
+    /**
+     * @return Column offsets of the neighbors in the row above a cell
+     */
+    private static int[] upColumnOffsets(Neighborhood neighborhood) {
+        int[] columnOffsets = new int[neighborhood.size()];
+        int count = 0;
+        for (int i = 0; i < neighborhood.size(); i++) {
+            if (neighborhood.rowOffset(i) < 0) {
+                columnOffsets[count++] = neighborhood.columnOffset(i);
+            }
+        }
+
+        return Arrays.copyOf(columnOffsets, count);
+    }
+
+    /**
+     * Size and bounding box of components, by their label, where labels are joined using union-find.
+     */
+    private static class ComponentStatistics {
+        private final int[] parent;
+        private final long[] count;
+        private final int[] top;
+        private final int[] bottom;
+        private final int[] left;
+        private final int[] right;
+
+        /**
+         * Amount of labels in use
+         */
+        private int size;
+
+        private ComponentStatistics(int capacity) {
+            parent = new int[capacity];
+            count = new long[capacity];
+            top = new int[capacity];
+            bottom = new int[capacity];
+            left = new int[capacity];
+            right = new int[capacity];
+
+            for (int i = 0; i < capacity; i++) {
+                parent[i] = i;
+            }
+        }
+
+        private int newLabel() {
+            parent[size] = size;
+            count[size] = 0;
+            return size++;
+        }
+
+        /**
+         * Keep the first labels only, each as a root of its own. Statistics of the kept labels remain as they are.
+         */
+        private void truncate(int size) {
+            for (int i = 0; i < size; i++) {
+                parent[i] = i;
+            }
+
+            this.size = size;
+        }
+
+        private int find(int label) {
+            while (parent[label] != label) {
+                parent[label] = parent[parent[label]];
+                label = parent[label];
+            }
+
+            return label;
+        }
+
+        /**
+         * Join two labels, where both are roots, and sum their statistics at the smaller one
+         * @return The root of the joined labels
+         */
+        private int union(int firstRoot, int secondRoot) {
+            if (firstRoot == secondRoot) {
+                return firstRoot;
+            }
+
+            int root = Math.min(firstRoot, secondRoot), other = Math.max(firstRoot, secondRoot);
+            parent[other] = root;
+            merge(root, this, other);
+            return root;
+        }
+
+        private void add(int label, int row, int col) {
+            if (count[label]++ == 0) {
+                top[label] = bottom[label] = row;
+                left[label] = right[label] = col;
+            } else {
+                top[label] = Math.min(top[label], row);
+                bottom[label] = Math.max(bottom[label], row);
+                left[label] = Math.min(left[label], col);
+                right[label] = Math.max(right[label], col);
+            }
+        }
+
+        /**
+         * Add the statistics of a label of (possibly) another instance into a label of this instance
+         */
+        private void merge(int label, ComponentStatistics from, int fromLabel) {
+            if (from.count[fromLabel] == 0) {
+                return;
+            }
+
+            if (count[label] == 0) {
+                top[label] = from.top[fromLabel];
+                bottom[label] = from.bottom[fromLabel];
+                left[label] = from.left[fromLabel];
+                right[label] = from.right[fromLabel];
+            } else {
+                top[label] = Math.min(top[label], from.top[fromLabel]);
+                bottom[label] = Math.max(bottom[label], from.bottom[fromLabel]);
+                left[label] = Math.min(left[label], from.left[fromLabel]);
+                right[label] = Math.max(right[label], from.right[fromLabel]);
+            }
+
+            count[label] += from.count[fromLabel];
+        }
+
+        private void copy(int label, int toLabel) {
+            count[toLabel] = count[label];
+            top[toLabel] = top[label];
+            bottom[toLabel] = bottom[label];
+            left[toLabel] = left[label];
+            right[toLabel] = right[label];
+        }
+
+        /**
+         * Submarine: Submarine is a full rectangle (without holes), of at least 2 cells.
+         */
+        private boolean isSubmarine(int label) {
+            return (count[label] >= 2) && (count[label] == (long) (right[label] - left[label] + 1) * (bottom[label] - top[label] + 1));
+        }
+    }
+
+    /**
+     * Scans the rows [from, to) of a matrix, one row after the other.<br/>
+     * Components completed inside the stripe are counted. Components that touch the first or last row of the stripe
+     * become partial components, which are joined with other stripes by {@link #mergeStripes(List, Neighborhood, int)}.
+     */
+    private static class StripeScanner {
+        private final IMatrix<?> matrix;
+        private final IIntMatrix intMatrix;
+        private final int from;
+        private final int to;
+        private final int cols;
+        private final boolean isLeftNeighbor;
+        private final int[] upColumnOffsets;
+
+        /**
+         * Statistics of the labels of the previous row, followed by the new labels of the current row.<br/>
+         * Each label of the previous row belongs to a different component, and a row has at most one new label per column.
+         */
+        private final ComponentStatistics labels;
+
+        /**
+         * Partial component of each label, or {@link #NO_LABEL}
+         */
+        private final int[] partialOfLabel;
+
+        /**
+         * Components that touch the first or last row of this stripe. There are at most one per column in each of these rows.
+         */
+        private final ComponentStatistics partials;
+
+        private int[] previousRow;
+        private int[] currentRow;
+        private final int[] topLabels;
+        private final int[] bottomLabels;
+        private final int[] renumbered;
+        private int submarinesCounter;
+
+        private StripeScanner(IMatrix<?> matrix, Neighborhood neighborhood, int from, int to) {
+            this.matrix = matrix;
+            intMatrix = (matrix instanceof IIntMatrix) ? (IIntMatrix) matrix : null;
+            this.from = from;
+            this.to = to;
+            cols = matrix.cols();
+            upColumnOffsets = upColumnOffsets(neighborhood);
+
+            boolean isLeftNeighbor = false;
+            for (int i = 0; i < neighborhood.size(); i++) {
+                isLeftNeighbor |= (neighborhood.rowOffset(i) == 0) && (neighborhood.columnOffset(i) == -1);
+            }
+            this.isLeftNeighbor = isLeftNeighbor;
+
+            labels = new ComponentStatistics(2 * cols);
+            partialOfLabel = new int[2 * cols];
+            partials = new ComponentStatistics(2 * cols);
+            previousRow = new int[cols];
+            currentRow = new int[cols];
+            topLabels = new int[cols];
+            bottomLabels = new int[cols];
+            renumbered = new int[2 * cols];
+            Arrays.fill(previousRow, NO_LABEL);
+            Arrays.fill(topLabels, NO_LABEL);
+            Arrays.fill(bottomLabels, NO_LABEL);
+        }
+
+        private StripeScanner scan() {
+            for (int row = from; row < to; row++) {
+                // In case server was instructed to shutdown now, we should stop current execution.
+                if (ActionThreadService.getInstance().isShutdownNow()) {
+                    break;
+                }
+
+                scanRow(row);
+                if (row == from) {
+                    // Every component in the first row might continue in the stripe above
+                    for (int col = 0; col < cols; col++) {
+                        if (currentRow[col] != NO_LABEL) {
+                            topLabels[col] = partialOf(labels.find(currentRow[col]));
+                        }
+                    }
+                }
+
+                if (row == to - 1) {
+                    // Every component in the last row might continue in the stripe below
+                    for (int col = 0; col < cols; col++) {
+                        if (currentRow[col] != NO_LABEL) {
+                            bottomLabels[col] = partialOf(labels.find(currentRow[col]));
+                        }
+                    }
+                }
+
+                completeAndRenumber();
+
+                int[] temp = previousRow;
+                previousRow = currentRow;
+                currentRow = temp;
+            }
+
+            // Everything left is complete, as there are no more rows
+            Arrays.fill(currentRow, NO_LABEL);
+            completeAndRenumber();
+            return this;
+        }
+
+        private void scanRow(int row) {
+            for (int col = 0; col < cols; col++) {
+                if (!hasValue(row, col)) {
+                    currentRow[col] = NO_LABEL;
+                    continue;
+                }
+
+                int label = NO_LABEL;
+                if (isLeftNeighbor && (col > 0) && (currentRow[col - 1] != NO_LABEL)) {
+                    label = labels.find(currentRow[col - 1]);
+                }
+
+                for (int columnOffset : upColumnOffsets) {
+                    int neighborCol = col + columnOffset;
+                    if ((neighborCol >= 0) && (neighborCol < cols) && (previousRow[neighborCol] != NO_LABEL)) {
+                        int neighborLabel = labels.find(previousRow[neighborCol]);
+                        label = (label == NO_LABEL) ? neighborLabel : union(label, neighborLabel);
+                    }
+                }
+
+                if (label == NO_LABEL) {
+                    label = labels.newLabel();
+                    partialOfLabel[label] = NO_LABEL;
+                }
+
+                labels.add(label, row, col);
+                currentRow[col] = label;
+            }
+        }
+
+        /**
+         * Join two root labels, together with their partial components
+         */
+        private int union(int firstRoot, int secondRoot) {
+            int root = labels.union(firstRoot, secondRoot);
+            int other = (root == firstRoot) ? secondRoot : firstRoot;
+            if (partialOfLabel[root] == NO_LABEL) {
+                partialOfLabel[root] = partialOfLabel[other];
+            } else if ((partialOfLabel[other] != NO_LABEL) && (root != other)) {
+                partialOfLabel[root] = partials.union(partials.find(partialOfLabel[root]), partials.find(partialOfLabel[other]));
+            }
+
+            return root;
+        }
+
+        /**
+         * @return Partial component of a root label, created when there is none yet
+         */
+        private int partialOf(int root) {
+            if (partialOfLabel[root] == NO_LABEL) {
+                partialOfLabel[root] = partials.newLabel();
+            }
+
+            return partials.find(partialOfLabel[root]);
+        }
+
+        /**
+         * Complete the components that do not continue into the current row, and renumber the rest, so labels of the
+         * current row become 0 to k-1, where k is the amount of components in the row.
+         */
+        private void completeAndRenumber() {
+            Arrays.fill(renumbered, 0, labels.size, NO_LABEL);
+            for (int col = 0; col < cols; col++) {
+                if (currentRow[col] != NO_LABEL) {
+                    currentRow[col] = labels.find(currentRow[col]);
+                    renumbered[currentRow[col]] = 0;
+                }
+            }
+
+            // Labels are visited in increasing order, and new labels are never larger than old ones, so we can copy in place
+            int size = 0;
+            for (int label = 0; label < labels.size; label++) {
+                if (labels.parent[label] != label) {
+                    continue;
+                }
+
+                if (renumbered[label] == NO_LABEL) {
+                    complete(label);
+                } else {
+                    renumbered[label] = size;
+                    labels.copy(label, size);
+                    partialOfLabel[size] = partialOfLabel[label];
+                    size++;
+                }
+            }
+
+            labels.truncate(size);
+            for (int col = 0; col < cols; col++) {
+                if (currentRow[col] != NO_LABEL) {
+                    currentRow[col] = renumbered[currentRow[col]];
+                }
+            }
+        }
+
+        private void complete(int root) {
+            if (partialOfLabel[root] == NO_LABEL) {
+                if (labels.isSubmarine(root)) {
+                    submarinesCounter++;
+                }
+            } else {
+                partials.merge(partials.find(partialOfLabel[root]), labels, root);
+            }
+        }
+
+        private boolean hasValue(int row, int col) {
+            return (intMatrix != null) ? intMatrix.hasValue(row, col) : matrix.hasValue(Index.from(row, col));
+        }
+    }
+}
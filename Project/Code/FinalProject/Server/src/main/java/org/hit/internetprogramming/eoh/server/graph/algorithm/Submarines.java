@@ -1,47 +1,90 @@
 package org.hit.internetprogramming.eoh.server.graph.algorithm;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.mat.Index;
-import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
 
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
-@AllArgsConstructor
 @Log4j2
 public class Submarines {
+    /**
+     * The algorithm we use when none is specified. This is the default of {@link org.hit.internetprogramming.eoh.server.action.impl.FindSubmarines} as well
+     */
+    public static final ConnectedComponentsAlgorithm.Algorithm DEFAULT_ALGORITHM = ConnectedComponentsAlgorithm.Algorithm.DFS;
+
+    private final ConnectedComponentsAlgorithm.Algorithm algorithm;
+
+    /**
+     * Constructs a new {@link Submarines}, that uses the {@link #DEFAULT_ALGORITHM default algorithm}
+     */
+    public Submarines() {
+        this(DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * Constructs a new {@link Submarines}
+     * @param algorithm The algorithm to use in order to find the connected components of a graph
+     */
+    public Submarines(ConnectedComponentsAlgorithm.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
     public int findSubmarines(IGraph<Index> graph) {
-        ConnectedComponents connectedComponents = new ConnectedComponents();
-        List<Set<Index>> allCC = connectedComponents.collect(graph);
-
-        List<Callable<Void>> tasks = new ArrayList<>();
-        Lock lock = new ReentrantLock();
-        List<Boolean> countResults = new ArrayList<>();
-
-        allCC.forEach(connectedComponent -> tasks.add(() -> {
-            lock.lock();
-            try {
-                countResults.add(checkSubmarine(connectedComponent));
-            } finally {
-                lock.unlock();
+        if (algorithm == ConnectedComponentsAlgorithm.Algorithm.UNION_FIND) {
+            return countSubmarines(CompiledGraph.compile(graph));
+        }
+
+        if (algorithm == ConnectedComponentsAlgorithm.Algorithm.PARALLEL) {
+            return new SubmarineCounter().countSubmarines(graph);
+        }
+
+        // Checking a component is a single pass over its vertices, so it is not worth a task (and a lock) per component
+        int submarinesCounter = 0;
+        for (Set<Index> connectedComponent : ConnectedComponentsAlgorithm.of(algorithm).collect(graph)) {
+            if (checkSubmarine(connectedComponent)) {
+                submarinesCounter++;
+            }
+        }
+
+        log.debug(() -> "Checked connected components are submarines using " + algorithm);
+        return submarinesCounter;
+    }
+
+    /**
+     * Count submarines using the labeling of {@link UnionFindConnectedComponents}.<br/>
+     * Instead of collecting the connected components into sets, we keep the size and bounding box of each component,
+     * by its root, and check whether its size equals to the area of its bounding box. See {@link #checkSubmarine(Set)}
+     * @param graph The graph to count its submarines
+     * @return Amount of submarines
+     */
+    private int countSubmarines(CompiledGraph graph) {
+        DisjointSet components = new UnionFindConnectedComponents().label(graph);
+        int vertexCount = graph.vertexCount();
+        int[] size = new int[vertexCount];
+        int[] top = new int[vertexCount], bottom = new int[vertexCount], left = new int[vertexCount], right = new int[vertexCount];
+
+        for (int id = 0; id < vertexCount; id++) {
+            int root = components.find(id);
+            Index vertex = graph.vertexOf(id);
+            int row = vertex.getRow(), col = vertex.getColumn();
+            if (size[root]++ == 0) {
+                top[root] = bottom[root] = row;
+                left[root] = right[root] = col;
+            } else {
+                top[root] = Math.min(top[root], row);
+                bottom[root] = Math.max(bottom[root], row);
+                left[root] = Math.min(left[root], col);
+                right[root] = Math.max(right[root], col);
             }
-            log.debug(() -> Thread.currentThread().getName() +
-                    " Checked connected component is a submarine: " + connectedComponent);
-            return null;
-        }));
+        }
 
         int submarinesCounter = 0;
-        try {
-            ActionThreadService.getInstance().invokeAll(tasks);
-            for (Boolean currResult : countResults)
-                if (currResult)
-                    submarinesCounter++;
-        } catch (InterruptedException e) {
-            log.error(" Failed to check connected component", e);
+        for (int root = 0; root < vertexCount; root++) {
+            if ((size[root] >= 2) && (size[root] == ((right[root] - left[root] + 1) * (bottom[root] - top[root] + 1)))) {
+                submarinesCounter++;
+            }
         }
 
         return submarinesCounter;
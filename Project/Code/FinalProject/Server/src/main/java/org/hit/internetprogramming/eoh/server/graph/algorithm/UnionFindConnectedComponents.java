@@ -0,0 +1,82 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
+
+import java.util.*;
+
+/**
+ * A class for receiving all the connected components in a graph, using a {@link DisjointSet}.<br/>
+ * Instead of running a DFS from every vertex, we go over all edges of the {@link CompiledGraph compiled} graph once,
+ * and merge the sets of the two vertices of each edge. Once all edges are merged, each set is a connected component.
+ * This takes near-linear time in the amount of edges, with no tasks, locks or hashing of sets.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ * @see ConnectedComponents
+ */
+@Log4j2
+public class UnionFindConnectedComponents implements ConnectedComponentsAlgorithm {
+    /**
+     * How many vertices to label between checks whether the server was instructed to shutdown now
+     */
+    private static final int SHUTDOWN_CHECK_INTERVAL = 1 << 12;
+
+    @Override
+    public List<Set<Index>> collect(IGraph<Index> graph) {
+        if (graph == null) {
+            return null;
+        }
+
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        DisjointSet components = label(compiledGraph);
+        int vertexCount = compiledGraph.vertexCount();
+
+        // Count the size of each component first, so we create each set with the right capacity
+        int[] sizeByRoot = new int[vertexCount];
+        for (int id = 0; id < vertexCount; id++) {
+            sizeByRoot[components.find(id)]++;
+        }
+
+        List<Set<Index>> connectedComponents = new ArrayList<>(components.count());
+        int[] componentByRoot = new int[vertexCount];
+        Arrays.fill(componentByRoot, -1);
+        for (int id = 0; id < vertexCount; id++) {
+            int root = components.find(id);
+            if (componentByRoot[root] < 0) {
+                componentByRoot[root] = connectedComponents.size();
+                connectedComponents.add(new HashSet<>((int) (sizeByRoot[root] / 0.75f) + 1));
+            }
+
+            connectedComponents.get(componentByRoot[root]).add(compiledGraph.vertexOf(id));
+        }
+
+        connectedComponents.sort(Comparator.comparingInt(Set::size));
+        log.debug(() -> "Collected " + connectedComponents.size() + " connected components using union-find");
+        return connectedComponents;
+    }
+
+    /**
+     * Merge the vertices of each edge in the specified graph, so each set of the result is a connected component.
+     * @param graph The graph to label
+     * @return Sets of vertex ids, where ids are the ones of the specified graph
+     */
+    public DisjointSet label(CompiledGraph graph) {
+        DisjointSet components = new DisjointSet(graph.vertexCount());
+
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            // In case server was instructed to shutdown now, we should stop current execution.
+            if (((id & (SHUTDOWN_CHECK_INTERVAL - 1)) == 0) && ActionThreadService.getInstance().isShutdownNow()) {
+                break;
+            }
+
+            for (int edge = graph.firstEdge(id), end = graph.endEdge(id); edge < end; edge++) {
+                components.union(id, graph.target(edge));
+            }
+        }
+
+        return components;
+    }
+}
@@ -0,0 +1,76 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Layers the vertices of equal distance, to keep the parents over zero weight edges acyclic. Used by the weighted
+ * algorithms, {@link DialDijkstra}, {@link AStar} and {@link DeltaStepping}, so all of them collect the same parents.<br/>
+ * A vertex that has a shortest path parent over a positive weight edge (or source) is at layer 1, and a vertex that is
+ * reached over zero weight edges only is one layer after the closest vertex of layer 1 it is reached from. Then {@code u}
+ * is a parent of {@code v} over a zero weight edge when it is at a lower layer.
+ * <p>
+ * Layers depend on the final distances only, rather than on the order a search has settled vertices at, so trees of
+ * different algorithms have the same parents, and the same amount of shortest paths. A search that stops at destination
+ * must settle all vertices at the distance of destination before it stops, so the zero weight parents of destination are
+ * layered as well.
+ * </p>
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+final class ZeroWeightLayers {
+    private ZeroWeightLayers() {
+    }
+
+    /**
+     * @param graph The graph that was traversed
+     * @param source Id of the source vertex
+     * @param vertices Id of each vertex with a final distance, by index, or {@code null} when the index of a vertex is its id
+     * @param distance Final distance of each vertex, by index, or {@link ShortestPathTree#UNREACHED}
+     * @param indexOf Index of a vertex by its id, or -1 when it has no final distance
+     * @return Layer of each vertex, by index, or 0 for unreached vertices
+     */
+    static int[] of(CompiledGraph graph, int source, int[] vertices, long[] distance, IntUnaryOperator indexOf) {
+        int[] layer = new int[distance.length];
+        int[] queue = new int[distance.length];
+        int tail = 0;
+
+        if ((source != CompiledGraph.NO_VERTEX) && (indexOf.applyAsInt(source) >= 0)) {
+            layer[indexOf.applyAsInt(source)] = 1;
+        }
+
+        for (int index = 0; index < distance.length; index++) {
+            if (distance[index] != ShortestPathTree.UNREACHED) {
+                int vertex = (vertices == null) ? index : vertices[index];
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    int targetIndex = indexOf.applyAsInt(graph.target(edge));
+                    if ((targetIndex >= 0) && (graph.weight(edge) > 0) && (distance[index] + graph.weight(edge) == distance[targetIndex])) {
+                        layer[targetIndex] = 1;
+                    }
+                }
+            }
+        }
+
+        // BFS over zero weight edges between vertices of equal distance, starting from all vertices of layer 1
+        for (int index = 0; index < distance.length; index++) {
+            if (layer[index] == 1) {
+                queue[tail++] = index;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int index = queue[head];
+            int vertex = (vertices == null) ? index : vertices[index];
+            for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                int targetIndex = indexOf.applyAsInt(graph.target(edge));
+                if ((targetIndex >= 0) && (graph.weight(edge) == 0) && (layer[targetIndex] == 0) && (distance[targetIndex] == distance[index])) {
+                    layer[targetIndex] = layer[index] + 1;
+                    queue[tail++] = targetIndex;
+                }
+            }
+        }
+
+        return layer;
+    }
+}
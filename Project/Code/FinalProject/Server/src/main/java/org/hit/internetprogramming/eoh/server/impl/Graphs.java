@@ -1,25 +1,142 @@
 package org.hit.internetprogramming.eoh.server.impl;
 
+import lombok.extern.log4j.Log4j2;
+import org.hit.internetprogramming.eoh.common.comms.Preprocessing;
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.server.action.ActionThreadService;
 import org.hit.internetprogramming.eoh.server.common.ClientInfo;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ContractionHierarchy;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.Landmarks;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ScratchPool;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ShortestPathTreeCache;
 
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
  * A singleton used to cache graph for each client, so we can handle separate client requests independently,
- * and let a client to work on its graph without having to attach it to every request.
+ * and let a client to work on its graph without having to attach it to every request.<br/>
+ * Next to each graph we keep its {@link CompiledGraph compiled} form, which is compiled once, on first use, so
+ * algorithms do not pay for compiling the graph on every request. In the same way, the {@link Landmarks} of a graph are
+ * built on the first request that asks for them, and they are kept until the client puts another graph. The
+ * {@link ContractionHierarchy} of a graph takes much longer to build, as it contracts the vertices one by one, so the
+ * first request that asks for it starts building it in the background, and requests are answered without it until it is
+ * ready. The {@link ShortestPathTreeCache shortest path trees} of cached graphs are kept in a cache of their own, and the
+ * trees of a graph are invalidated once the graph is released.
+ * <p>
+ * Socket clients get a new entry for every connection (port), so the cache is bounded, to keep the heap from growing
+ * until the server runs out of memory:
+ * <ul>
+ *     <li>All cached graphs (and their compiled forms and preprocessings) may take up to {@value #MAX_BYTES_PROPERTY} bytes, according to
+ *     {@link IGraph#sizeInBytes()}. When a graph does not fit, we evict the least recently used graphs. A single graph
+ *     that is larger than the budget is still cached, alone, so its client can work with it.</li>
+ *     <li>Idle working arrays of the algorithms (see {@link ScratchPool}) take the room that the graphs leave in that
+ *     budget, and arrays sized for a graph larger than all cached graphs are dropped.</li>
+ *     <li>Graphs that were not used for {@value #IDLE_TIMEOUT_PROPERTY} seconds are evicted.</li>
+ *     <li>The graph of a client is released when the client {@link #removeGraph(ClientInfo) disconnects}.</li>
+ * </ul>
+ * </p>
  * @author Haim Adrian
  * @since 23-Apr-21
  */
+@Log4j2
 public class Graphs {
     /**
-     * Cache the graph for each client, so subsequent requests will be executed on an already initialized graph.
+     * A system property used to limit the estimated amount of bytes all cached graphs may take. e.g. -Deoh.graphs.maxBytes=268435456<br/>
+     * Defaults to a quarter of the maximum heap size
      */
-    private final Map<ClientInfo, IGraph<?>> clientToGraph;
+    public static final String MAX_BYTES_PROPERTY = "eoh.graphs.maxBytes";
+
+    /**
+     * A system property used to evict graphs that were not used for a while, in seconds. e.g. -Deoh.graphs.idleTimeoutSeconds=600<br/>
+     * Defaults to 30 minutes. Use 0 in order to never evict idle graphs.
+     */
+    public static final String IDLE_TIMEOUT_PROPERTY = "eoh.graphs.idleTimeoutSeconds";
+
+    /**
+     * A system property used to set the amount of {@link Landmarks} to build for a graph. e.g. -Deoh.graphs.landmarks=16<br/>
+     * Defaults to {@value Landmarks#DEFAULT_COUNT}. Each landmark takes 4 bytes per vertex.
+     */
+    public static final String LANDMARKS_PROPERTY = "eoh.graphs.landmarks";
+
+    /**
+     * A system property used to limit the estimated amount of bytes cached shortest path trees may take. e.g. -Deoh.graphs.treesMaxBytes=67108864<br/>
+     * Defaults to half of the limit of the graphs. A tree takes 16 bytes per vertex, and 4 bytes per parent.
+     */
+    public static final String TREES_MAX_BYTES_PROPERTY = "eoh.graphs.treesMaxBytes";
+
+    private static final long DEFAULT_IDLE_TIMEOUT_SECONDS = TimeUnit.MINUTES.toSeconds(30);
+
+    /**
+     * Cache the graph for each client, so subsequent requests will be executed on an already initialized graph.<br/>
+     * Entries are kept in access order, least recently used first. Guarded by {@link #lock}, as a lookup modifies the order.
+     */
+    private final Map<ClientInfo, CachedGraph> clientToGraph;
+    private final Lock lock = new ReentrantLock();
+
+    private final long maxSizeInBytes;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final int landmarkCount = Integer.getInteger(LANDMARKS_PROPERTY, Landmarks.DEFAULT_COUNT);
+    private final ShortestPathTreeCache shortestPathTrees;
+
+    /**
+     * Builds contraction hierarchies in the background
+     */
+    private final Executor preprocessingExecutor;
+
+    /**
+     * Estimated size of all cached graphs. Guarded by {@link #lock}
+     */
+    private long sizeInBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
 
     private Graphs() {
-        clientToGraph = new ConcurrentHashMap<>();
+        this(Long.getLong(MAX_BYTES_PROPERTY, Runtime.getRuntime().maxMemory() / 4),
+                TimeUnit.SECONDS.toNanos(Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_SECONDS)),
+                System::nanoTime);
+    }
+
+    /**
+     * Constructs a new {@link Graphs}. Used by tests, to control the limits and the time.
+     * @param maxSizeInBytes Estimated amount of bytes all cached graphs may take
+     * @param idleTimeoutNanos Evict graphs that were not used for this long. Use 0 in order to never evict idle graphs
+     * @param nanoClock The clock to measure idle time with
+     */
+    Graphs(long maxSizeInBytes, long idleTimeoutNanos, LongSupplier nanoClock) {
+        this(maxSizeInBytes, idleTimeoutNanos, nanoClock, ActionThreadService.getInstance());
+    }
+
+    /**
+     * Constructs a new {@link Graphs}. Used by tests, to control when contraction hierarchies are built as well.
+     * @param maxSizeInBytes Estimated amount of bytes all cached graphs may take
+     * @param idleTimeoutNanos Evict graphs that were not used for this long. Use 0 in order to never evict idle graphs
+     * @param nanoClock The clock to measure idle time with
+     * @param preprocessingExecutor Builds contraction hierarchies in the background
+     */
+    Graphs(long maxSizeInBytes, long idleTimeoutNanos, LongSupplier nanoClock, Executor preprocessingExecutor) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.nanoClock = nanoClock;
+        this.preprocessingExecutor = preprocessingExecutor;
+        clientToGraph = new LinkedHashMap<>(16, 0.75f, true);
+        shortestPathTrees = new ShortestPathTreeCache(Long.getLong(TREES_MAX_BYTES_PROPERTY, maxSizeInBytes / 2), true);
     }
 
     /**
@@ -39,17 +156,456 @@ public class Graphs {
      */
     @SuppressWarnings("unchecked")
     public <T> IGraph<T> getGraph(ClientInfo clientInfo) {
-        return (IGraph<T>) clientToGraph.get(clientInfo);
+        CachedGraph cachedGraph = lookup(clientInfo);
+        return (cachedGraph == null) ? null : (IGraph<T>) cachedGraph.graph;
     }
 
     /**
-     * Put a graph into the cache, mapped to the specified client info.
+     * Get the {@link CompiledGraph compiled} form of the graph cached for the specified client, or {@code null} in case
+     * there is no graph cached for that client.<br/>
+     * The graph is compiled on the first call, and the compiled form is kept until the client puts another graph, or
+     * the graph is evicted.
+     * @param clientInfo The client info to get its compiled graph
+     * @return The compiled graph, in case there is one, or {@code null} otherwise.
+     */
+    public CompiledGraph getCompiledGraph(ClientInfo clientInfo) {
+        CachedGraph cachedGraph = lookup(clientInfo);
+        if (cachedGraph == null) {
+            return null;
+        }
+
+        return compile(cachedGraph);
+    }
+
+    /**
+     * Get the {@link Landmarks} of the graph cached for the specified client, or {@code null} in case there is no graph
+     * cached for that client, or its landmarks are not {@link Landmarks#supports(CompiledGraph) supported}.<br/>
+     * Landmarks are built on the first call, and they are kept until the client puts another graph, or the graph is evicted.
+     * Their size is counted as part of the size of the graph.
+     * @param clientInfo The client info to get the landmarks of its graph
+     * @return The landmarks, in case there are, or {@code null} otherwise.
+     */
+    public Landmarks getLandmarks(ClientInfo clientInfo) {
+        CachedGraph cachedGraph = lookup(clientInfo);
+        if (cachedGraph == null) {
+            return null;
+        }
+
+        CompiledGraph compiledGraph = compile(cachedGraph);
+        if (!Landmarks.supports(compiledGraph)) {
+            return null;
+        }
+
+        // Build outside of the lock, same as compiling
+        Landmarks landmarks = cachedGraph.getLandmarks(landmarkCount);
+        if (landmarks == null) {
+            return null;
+        }
+
+        if (count(cachedGraph, Preprocessing.LANDMARKS, landmarks.sizeInBytes())) {
+            log.info("Built " + landmarks.count() + " landmarks of " + landmarks.sizeInBytes() + " bytes for client: " + clientInfo + ". " + this);
+        }
+
+        return landmarks;
+    }
+
+    /**
+     * Get the {@link ContractionHierarchy} of the graph cached for the specified client, or {@code null} in case there is
+     * no graph cached for that client, its hierarchy is not {@link ContractionHierarchy#supports(CompiledGraph) supported},
+     * or it is not ready yet.<br/>
+     * The first call starts building the hierarchy in the background, and returns {@code null}, so the caller answers
+     * without it rather than waiting for it. The hierarchy is kept until the client puts another graph, or the graph is
+     * evicted. Its size is counted as part of the size of the graph.
+     * @param clientInfo The client info to get the hierarchy of its graph
+     * @return The hierarchy, in case it is ready, or {@code null} otherwise.
+     */
+    public ContractionHierarchy getContractionHierarchy(ClientInfo clientInfo) {
+        CachedGraph cachedGraph = lookup(clientInfo);
+        if (cachedGraph == null) {
+            return null;
+        }
+
+        CompiledGraph compiledGraph = compile(cachedGraph);
+        if (!ContractionHierarchy.supports(compiledGraph)) {
+            return null;
+        }
+
+        if ((cachedGraph.contractionHierarchy == null) && cachedGraph.isContractionHierarchyRequested.compareAndSet(false, true)) {
+            preprocessingExecutor.execute(() -> buildContractionHierarchy(clientInfo, cachedGraph));
+        }
+
+        return cachedGraph.contractionHierarchy;
+    }
+
+    /**
+     * Build the hierarchy of a cached graph, and count it, unless the graph was released in the meantime
+     */
+    private void buildContractionHierarchy(ClientInfo clientInfo, CachedGraph cachedGraph) {
+        if (!isCached(cachedGraph) || ActionThreadService.getInstance().isShutdownNow()) {
+            return;
+        }
+
+        try {
+            ContractionHierarchy contractionHierarchy = ContractionHierarchy.build(cachedGraph.getCompiledGraph());
+            cachedGraph.contractionHierarchy = contractionHierarchy;
+            if (count(cachedGraph, Preprocessing.CONTRACTION_HIERARCHY, contractionHierarchy.sizeInBytes())) {
+                log.info("Built contraction hierarchy of " + contractionHierarchy.sizeInBytes() + " bytes for client: " + clientInfo + ". " + this);
+            }
+        } catch (Exception e) {
+            // Let a later request try again
+            cachedGraph.isContractionHierarchyRequested.set(false);
+            log.error("Failed to build contraction hierarchy for client: " + clientInfo + ". Error: " + e, e);
+        }
+    }
+
+    private boolean isCached(CachedGraph cachedGraph) {
+        lock.lock();
+        try {
+            return cachedGraph.isCached;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The cache of shortest path trees of all cached graphs
+     */
+    public ShortestPathTreeCache getShortestPathTrees() {
+        return shortestPathTrees;
+    }
+
+    /**
+     * Count the size of a preprocessing of a cached graph once, and only while that graph is still cached
+     * @return Whether the preprocessing was counted by this call
+     */
+    private boolean count(CachedGraph cachedGraph, Preprocessing preprocessing, long preprocessingSizeInBytes) {
+        lock.lock();
+        try {
+            if (!cachedGraph.isCached || !cachedGraph.countedPreprocessings.add(preprocessing)) {
+                return false;
+            }
+
+            cachedGraph.sizeInBytes += preprocessingSizeInBytes;
+            sizeInBytes += preprocessingSizeInBytes;
+            evictIfNecessary(cachedGraph);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The compiled form of a cached graph, which is counted once it is compiled
+     */
+    private CompiledGraph compile(CachedGraph cachedGraph) {
+        // Compile outside of the lock, so compiling a large graph does not block other clients
+        CompiledGraph compiledGraph = cachedGraph.getCompiledGraph();
+
+        lock.lock();
+        try {
+            // Count the compiled form once, and only while its graph is still cached
+            if (cachedGraph.isCached && !cachedGraph.isCompiledGraphCounted) {
+                cachedGraph.isCompiledGraphCounted = true;
+                cachedGraph.sizeInBytes += compiledGraph.sizeInBytes();
+                sizeInBytes += compiledGraph.sizeInBytes();
+
+                // Trees of a graph are put only while it is cached, so a traversal that ends after release drops its tree
+                shortestPathTrees.register(compiledGraph.source());
+                evictIfNecessary(cachedGraph);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return compiledGraph;
+    }
+
+    /**
+     * Put a graph into the cache, mapped to the specified client info.<br/>
+     * Least recently used graphs of other clients might be evicted, in case there is not enough room for the specified graph.
      * @param clientInfo The client info to map the specified graph to
      * @param graph The graph to put into the cache
      * @param <T> Type of elements in {@link IGraph}
      */
     public <T> void putGraph(ClientInfo clientInfo, IGraph<T> graph) {
-        clientToGraph.put(clientInfo, graph);
+        CachedGraph cachedGraph = new CachedGraph(graph, graph.sizeInBytes());
+
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            expireIdleGraphs(now);
+
+            cachedGraph.lastAccessNanos = now;
+            release(clientToGraph.put(clientInfo, cachedGraph));
+            sizeInBytes += cachedGraph.sizeInBytes;
+            evictIfNecessary(cachedGraph);
+        } finally {
+            lock.unlock();
+        }
+
+        log.debug(() -> "Cached graph of " + cachedGraph.sizeInBytes + " bytes for client: " + clientInfo + ". " + this);
+    }
+
+    /**
+     * Remove the graph of the specified client from the cache. We call this when a client disconnects.
+     * @param clientInfo The client info to remove its graph
+     * @return Whether there was a graph cached for the specified client or not
+     */
+    public boolean removeGraph(ClientInfo clientInfo) {
+        CachedGraph cachedGraph;
+
+        lock.lock();
+        try {
+            cachedGraph = clientToGraph.remove(clientInfo);
+            release(cachedGraph);
+            limitScratchPools();
+        } finally {
+            lock.unlock();
+        }
+
+        if (cachedGraph != null) {
+            log.debug(() -> "Released graph of client: " + clientInfo + ". " + this);
+        }
+
+        return cachedGraph != null;
+    }
+
+    /**
+     * Evict graphs that were not used for longer than the idle timeout.<br/>
+     * We do that anyway when graphs are looked up or put, so there is no need to call this periodically.
+     */
+    public void evictIdleGraphs() {
+        lock.lock();
+        try {
+            expireIdleGraphs(nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedGraph lookup(ClientInfo clientInfo) {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            expireIdleGraphs(now);
+
+            CachedGraph cachedGraph = clientToGraph.get(clientInfo);
+            if (cachedGraph == null) {
+                missCount.increment();
+            } else {
+                hitCount.increment();
+                cachedGraph.lastAccessNanos = now;
+            }
+
+            return cachedGraph;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evict least recently used graphs, until all graphs fit into the budget. Must be called under the lock.
+     * @param keep A graph that must not be evicted, which is the one we are making room for
+     */
+    private void evictIfNecessary(CachedGraph keep) {
+        Iterator<Map.Entry<ClientInfo, CachedGraph>> iterator = clientToGraph.entrySet().iterator();
+        while ((sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+            Map.Entry<ClientInfo, CachedGraph> eldest = iterator.next();
+            if (eldest.getValue() != keep) {
+                iterator.remove();
+                release(eldest.getValue());
+                evictionCount.increment();
+                log.info("Evicted graph of client: " + eldest.getKey() + ", to keep graphs under " + maxSizeInBytes + " bytes. " + this);
+            }
+        }
+
+        limitScratchPools();
+    }
+
+    /**
+     * Evict graphs that were not used for longer than the idle timeout. Must be called under the lock.<br/>
+     * Graphs are kept in access order, so we stop at the first graph that was used recently.
+     */
+    private void expireIdleGraphs(long now) {
+        if (idleTimeoutNanos <= 0) {
+            return;
+        }
+
+        boolean isExpired = false;
+        Iterator<Map.Entry<ClientInfo, CachedGraph>> iterator = clientToGraph.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ClientInfo, CachedGraph> eldest = iterator.next();
+            if (now - eldest.getValue().lastAccessNanos <= idleTimeoutNanos) {
+                break;
+            }
+
+            iterator.remove();
+            release(eldest.getValue());
+            expirationCount.increment();
+            isExpired = true;
+            log.info("Evicted idle graph of client: " + eldest.getKey() + ". " + this);
+        }
+
+        if (isExpired) {
+            limitScratchPools();
+        }
+    }
+
+    /**
+     * Let the idle working arrays of the algorithms take the room that the graphs leave in the budget, and drop the ones
+     * that were sized for a graph larger than all cached graphs. Must be called under the lock.
+     */
+    private void limitScratchPools() {
+        int maxVertexCount = 0;
+        for (CachedGraph cachedGraph : clientToGraph.values()) {
+            CompiledGraph compiledGraph = cachedGraph.compiledGraph;
+            if (compiledGraph != null) {
+                maxVertexCount = Math.max(maxVertexCount, compiledGraph.vertexCount());
+            }
+        }
+
+        ScratchPool.limit(maxVertexCount, Math.max(0, maxSizeInBytes - sizeInBytes));
+    }
+
+    /**
+     * Update the size after a graph was removed from the map, and drop its trees. Must be called under the lock.
+     */
+    private void release(CachedGraph cachedGraph) {
+        if (cachedGraph != null) {
+            cachedGraph.isCached = false;
+            sizeInBytes -= cachedGraph.sizeInBytes;
+
+            // Trees are built over the compiled form only, and they are keyed by its source
+            CompiledGraph compiledGraph = cachedGraph.compiledGraph;
+            if (compiledGraph != null) {
+                shortestPathTrees.invalidate(compiledGraph.source());
+            }
+        }
+    }
+
+    /**
+     * @return Amount of cached graphs
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return clientToGraph.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Estimated amount of bytes all cached graphs take
+     */
+    public long getSizeInBytes() {
+        lock.lock();
+        try {
+            return sizeInBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return How many times a client found its graph in the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return How many times a client looked for a graph that was not in the cache
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return How many graphs were evicted in order to keep the cache under its size limit
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return How many graphs were evicted because they were not used for longer than the idle timeout
+     */
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        // May be called under the lock, so read the fields rather than using the locking getters
+        return "Graphs{size=" + clientToGraph.size() + ", sizeInBytes=" + sizeInBytes + ", maxSizeInBytes=" + maxSizeInBytes +
+                ", hits=" + hitCount.sum() + ", misses=" + missCount.sum() + ", evictions=" + evictionCount.sum() +
+                ", expirations=" + expirationCount.sum() + ", scratchSizeInBytes=" + ScratchPool.idleSizeInBytes() + "}";
+    }
+
+    /**
+     * A graph together with its lazily compiled form and preprocessings
+     */
+    private static final class CachedGraph {
+        private final IGraph<?> graph;
+        private volatile CompiledGraph compiledGraph;
+        private volatile Landmarks landmarks;
+        private volatile ContractionHierarchy contractionHierarchy;
+
+        /**
+         * Whether a build of {@link #contractionHierarchy} was started already, so it is built in the background once
+         */
+        private final AtomicBoolean isContractionHierarchyRequested = new AtomicBoolean();
+
+        /**
+         * Estimated size of the graph, and of its compiled form and preprocessings once they are built. Guarded by the lock of {@link Graphs}
+         */
+        private long sizeInBytes;
+        private long lastAccessNanos;
+        private boolean isCached = true;
+        private boolean isCompiledGraphCounted;
+        private final Set<Preprocessing> countedPreprocessings = EnumSet.noneOf(Preprocessing.class);
+
+        CachedGraph(IGraph<?> graph, long sizeInBytes) {
+            this.graph = graph;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        @SuppressWarnings("unchecked")
+        CompiledGraph getCompiledGraph() {
+            CompiledGraph result = compiledGraph;
+            if (result == null) {
+                // Compile once, even when several requests of the same client ask for it concurrently
+                synchronized (this) {
+                    result = compiledGraph;
+                    if (result == null) {
+                        result = CompiledGraph.compile((IGraph<Index>) graph);
+                        compiledGraph = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * @return The landmarks, or {@code null} in case we were stopped due to a shutdown
+         */
+        Landmarks getLandmarks(int count) {
+            Landmarks result = landmarks;
+            if (result == null) {
+                // Build once, even when several requests of the same client ask for it concurrently
+                synchronized (this) {
+                    result = landmarks;
+                    if (result == null) {
+                        result = Landmarks.build(getCompiledGraph(), count);
+                        landmarks = result;
+                    }
+                }
+            }
+
+            return result;
+        }
     }
 
     // A lazy, thread-safe initializer for the unique instance of our singleton.
@@ -57,4 +613,3 @@ public class Graphs {
         private static final Graphs instance = new Graphs();
     }
 }
-
@@ -3,12 +3,13 @@ package org.hit.internetprogramming.eoh.server.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import lombok.extern.log4j.Log4j2;
 import org.hit.internetprogramming.eoh.common.action.ActionType;
 import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
 import org.hit.internetprogramming.eoh.common.comms.Request;
 import org.hit.internetprogramming.eoh.common.comms.Response;
-import org.hit.internetprogramming.eoh.common.comms.TwoVerticesBody;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsBody;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.common.util.JsonUtils;
@@ -22,6 +23,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
@@ -129,27 +132,64 @@ public class MatrixClientHandler implements RequestHandler {
 
     @Override
     public String onRequest(ClientInfo client, String requestString, Consumer<Boolean> stopCommunication) throws IOException {
-        Boolean stopCommunicating = Boolean.TRUE;
-        Response response;
         Request request;
 
         if (requestString.startsWith("{")) {
             try {
                 request = objectMapper.readValue(requestString, Request.class);
             } catch (Exception e) {
-                throw new IllegalArgumentException(e.getMessage());
+                throw new IllegalArgumentException(e.getMessage(), e);
             }
         } else {
             request = readHttpRequest(requestString);
         }
 
+        Response response = executeRequest(client, request, stopCommunication);
+        if (response == null) {
+            return null; // Return nothing back to client
+        }
+
+        return responseToString(response, request != null && request.isHttp(), request);
+    }
+
+    /**
+     * Framed requests are always json, so we parse them right out of the received bytes, and write the response
+     * right into the response frame, without going through strings.
+     */
+    @Override
+    public boolean onRequest(ClientInfo client, ByteBuffer requestBytes, OutputStream responseOutput, Consumer<Boolean> stopCommunication) throws IOException {
+        Request request;
+        try {
+            if (requestBytes.hasArray()) {
+                request = objectMapper.readValue(requestBytes.array(), requestBytes.arrayOffset() + requestBytes.position(), requestBytes.remaining(), Request.class);
+            } else {
+                request = objectMapper.readValue(new ByteBufferBackedInputStream(requestBytes), Request.class);
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+
+        Response response = executeRequest(client, request, stopCommunication);
+        if (response == null) {
+            return false; // Return nothing back to client
+        }
+
+        objectMapper.writeValue(responseOutput, response);
+        return true;
+    }
+
+    private Response executeRequest(ClientInfo client, Request request, Consumer<Boolean> stopCommunication) {
+        Boolean stopCommunicating = Boolean.TRUE;
+        Response response;
+
+        if ((request != null) && request.isHttp()) {
+            // In order to recognize a user from browser (HTTP), we reset its port because every HTTP request
+            // arrives as a new socket, with a different port.
+            client = client.toBuilder().port(0).build();
+        }
+
         if ((request != null) && (request.getActionType() != ActionType.DISCONNECT)) {
             stopCommunicating = Boolean.FALSE;
-            if (request.isHttp()) {
-                // In order to recognize a user from browser (HTTP), we reset its port because every HTTP request
-                // arrives as a new socket, with a different port.
-                client = client.toBuilder().port(0).build();
-            }
 
             if (request.getActionType() == null) {
                 response = Response.badRequest("actionType is mandatory");
@@ -157,15 +197,20 @@ public class MatrixClientHandler implements RequestHandler {
                 // !-- Execute the action
                 response = ActionExecutor.getInstance().execute(client, request);
                 if (response == null) {
-                    return null; // Return nothing back to client
+                    return null;
                 }
             }
         } else {
+            if (request != null) {
+                // Client is done with its graph, so release it rather than waiting for it to be evicted
+                Graphs.getInstance().removeGraph(client);
+            }
+
             response = Response.ok();
         }
 
         stopCommunication.accept(stopCommunicating);
-        return responseToString(response, request != null && request.isHttp(), request);
+        return response;
     }
 
     @Override
@@ -184,13 +229,15 @@ public class MatrixClientHandler implements RequestHandler {
     }
 
     private String responseToString(Response response, boolean httpRequest, Request request) throws IOException {
-        String responseString = objectMapper.writeValueAsString(response);
+        String responseString;
 
         if (httpRequest || response.isHttp()) {
             String paragraph1 = (request == null ? "Error" : request.getActionType().name()) + " response:";
             String contentFormatted = formatContentForHttp(response);
             String body = HTML_PAGE.replace("##1", paragraph1).replace("##2", contentFormatted);
             responseString = String.format(HTTP_HEADERS, response.getStatus(), HttpStatus.valueOf(response.getStatus()).name(), "text/html", body.length()) + END_OF_HEADERS + body;
+        } else {
+            responseString = objectMapper.writeValueAsString(response);
         }
 
         return responseString;
@@ -296,9 +343,17 @@ public class MatrixClientHandler implements RequestHandler {
         } else if (httpPathLower.contains(CONNECTED_COMPONENTS_PATH)) {
             request = new Request(ActionType.CONNECTED_COMPONENTS, null, true);
         }  else if (httpPathLower.contains(SHORTEST_PATHS_PATH)) {
-            request = new Request(ActionType.SHORTEST_PATHS, new TwoVerticesBody<>(
+            Long offset = fetchLongFromQuery(httpPathLower, "offset");
+            Long limit = fetchLongFromQuery(httpPathLower, "limit");
+            request = new Request(ActionType.SHORTEST_PATHS, new ShortestPathsBody<>(
                     fetchIndexFromQuery(httpPathLower, false, "srcrow", "srccol"),
-                    fetchIndexFromQuery(httpPathLower, false, "destrow", "destcol")), true);
+                    fetchIndexFromQuery(httpPathLower, false, "destrow", "destcol"),
+                    offset,
+                    (limit == null) ? null : (int) Math.min(limit, Integer.MAX_VALUE),
+                    "true".equals(fetchValueFromQuery(httpPathLower, "countonly")),
+                    "true".equals(fetchValueFromQuery(httpPathLower, "singlepath")),
+                    "true".equals(fetchValueFromQuery(httpPathLower, "jumppointsonly")),
+                    null), true);
         } else if (httpPathLower.equals("/")) {
             request = new Request(ActionType.INDEX_HTML, null, true);
         } else {
@@ -340,6 +395,40 @@ public class MatrixClientHandler implements RequestHandler {
         return Index.from(row, col);
     }
 
+    /**
+     * @return The value of an optional query parameter, or {@code null} when it is missing
+     */
+    private String fetchValueFromQuery(String httpPath, String paramName) throws WebException {
+        String[] queryParams = httpPath.split("\\?");
+        if (queryParams.length > 1) {
+            for (String queryParam : queryParams[1].split("&")) {
+                String[] nameAndValue = queryParam.split("=");
+                if (nameAndValue.length != 2) {
+                    throw new WebException(HttpStatus.BAD_REQUEST, "Illegal query parameter. Was: " + nameAndValue[0]);
+                }
+
+                if (nameAndValue[0].equalsIgnoreCase(paramName)) {
+                    return nameAndValue[1].trim();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private Long fetchLongFromQuery(String httpPath, String paramName) throws WebException {
+        String value = fetchValueFromQuery(httpPath, paramName);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new WebException(HttpStatus.BAD_REQUEST, "Illegal query parameter. '" + paramName + "' must be of type long. Was: " + value);
+        }
+    }
+
     private int parseInteger(String valueToParse, String paramName) throws WebException {
         int value;
         try {
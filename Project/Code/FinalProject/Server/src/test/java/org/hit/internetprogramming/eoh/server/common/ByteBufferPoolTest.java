@@ -0,0 +1,60 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link ByteBufferPool}, to make sure released buffers are reused, and buffers that were not allocated by the pool
+ * are left for the GC.<br/>
+ * The pool is a singleton, so each test uses a size class that the other tests do not use.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class ByteBufferPoolTest {
+    private final ByteBufferPool pool = ByteBufferPool.getInstance();
+
+    @Test
+    public void testAcquire_afterRelease_shouldReuseClearedBuffer() {
+        ByteBuffer buffer = pool.acquire(3 * 1024 * 1024);
+        assertThat(buffer.capacity(), is(4 * 1024 * 1024));
+        buffer.put(new byte[100]).flip();
+
+        pool.release(buffer);
+        ByteBuffer reused = pool.acquire(3 * 1024 * 1024 + 1);
+
+        assertThat(reused, sameInstance(buffer));
+        assertThat(reused.position(), is(0));
+        assertThat(reused.limit(), is(reused.capacity()));
+    }
+
+    @Test
+    public void testAcquire_smallCapacity_shouldRoundUpToSizeClass() {
+        assertThat(pool.acquire(1).capacity(), is(1024));
+        assertThat(pool.acquire(1025).capacity(), is(2048));
+    }
+
+    @Test
+    public void testRelease_notOfASizeClass_shouldNotReuse() {
+        ByteBuffer buffer = ByteBuffer.allocate(100 * 1024);
+
+        pool.release(buffer);
+
+        assertThat(pool.acquire(100 * 1024), not(sameInstance(buffer)));
+    }
+
+    @Test
+    public void testRelease_largerThanLargestSizeClass_shouldNotReuse() {
+        ByteBuffer buffer = pool.acquire(32 * 1024 * 1024);
+        assertThat(buffer.capacity(), is(32 * 1024 * 1024));
+
+        pool.release(buffer);
+
+        assertThat(pool.acquire(32 * 1024 * 1024), not(sameInstance(buffer)));
+    }
+}
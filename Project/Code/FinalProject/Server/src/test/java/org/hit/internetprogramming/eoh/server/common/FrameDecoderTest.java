@@ -0,0 +1,93 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import org.hit.internetprogramming.eoh.common.comms.FramedProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link SelectorServer.FrameDecoder}, to make sure frames are decoded no matter how their bytes are split between reads.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class FrameDecoderTest {
+    private static final String PAYLOAD = "{\"actionType\":\"GET_GRAPH\",\"body\":\"some body\"}";
+
+    @Test
+    public void testDecode_oneByteAtATime_shouldDecodeFrame() throws IOException {
+        byte[] frame = frame(PAYLOAD);
+        SelectorServer.FrameDecoder decoder = new SelectorServer.FrameDecoder();
+
+        // Header and payload are both split across reads
+        for (int i = 0; i < frame.length; i++) {
+            assertThat(decoder.poll(), nullValue());
+            decoder.decode(ByteBuffer.wrap(frame, i, 1));
+        }
+
+        assertThat(text(decoder.poll()), is(PAYLOAD));
+        assertThat(decoder.poll(), nullValue());
+    }
+
+    @Test
+    public void testDecode_severalFramesInOneRead_shouldDecodeAllInOrder() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(frame("first"));
+        bytes.write(frame(""));
+        bytes.write(frame("third"));
+        SelectorServer.FrameDecoder decoder = new SelectorServer.FrameDecoder();
+
+        decoder.decode(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertThat(text(decoder.poll()), is("first"));
+        assertThat(text(decoder.poll()), is(""));
+        assertThat(text(decoder.poll()), is("third"));
+        assertThat(decoder.poll(), nullValue());
+    }
+
+    @Test
+    public void testDecode_readIntoPendingPayload_shouldDecodeFrame() throws IOException {
+        byte[] frame = frame(PAYLOAD);
+        SelectorServer.FrameDecoder decoder = new SelectorServer.FrameDecoder();
+
+        // Header and the beginning of the payload are decoded, and the rest is read straight into the pending payload
+        int split = FramedProtocol.HEADER_LENGTH + 3;
+        decoder.decode(ByteBuffer.wrap(frame, 0, split));
+        ByteBuffer payload = decoder.getPendingPayload();
+        assertThat(payload, notNullValue());
+
+        payload.put(frame, split, frame.length - split);
+        decoder.onPayloadRead();
+
+        assertThat(decoder.getPendingPayload(), nullValue());
+        assertThat(text(decoder.poll()), is(PAYLOAD));
+    }
+
+    @Test
+    public void testDecode_overMaxFrameLength_shouldThrow() {
+        byte[] header = new byte[FramedProtocol.HEADER_LENGTH];
+        FramedProtocol.putLength(header, 0, FramedProtocol.MAX_FRAME_LENGTH + 1);
+        SelectorServer.FrameDecoder decoder = new SelectorServer.FrameDecoder();
+
+        Assertions.assertThrows(IOException.class, () -> decoder.decode(ByteBuffer.wrap(header)));
+        assertThat(decoder.getPendingPayload(), nullValue());
+    }
+
+    private static byte[] frame(String payload) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        FramedProtocol.writeFrame(frame, payload.getBytes(StandardCharsets.UTF_8));
+        return frame.toByteArray();
+    }
+
+    private static String text(ByteBuffer payload) {
+        return StandardCharsets.UTF_8.decode(payload).toString();
+    }
+}
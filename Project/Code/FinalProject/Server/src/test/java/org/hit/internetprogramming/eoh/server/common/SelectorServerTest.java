@@ -0,0 +1,198 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hit.internetprogramming.eoh.common.action.ActionType;
+import org.hit.internetprogramming.eoh.common.comms.FramedProtocol;
+import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
+import org.hit.internetprogramming.eoh.common.comms.Request;
+import org.hit.internetprogramming.eoh.common.comms.Response;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.hit.internetprogramming.eoh.common.util.JsonUtils;
+import org.hit.internetprogramming.eoh.server.impl.MatrixClientHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link TCPServer.Mode#SELECTOR} mode end to end, with MatrixClient-like clients talking to a {@link MatrixClientHandler}
+ * over real sockets.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class SelectorServerTest {
+    private static final int PORT = 18007;
+
+    /**
+     * Less workers than clients, so requests are queued until there is a free worker
+     */
+    private static final int WORKERS = 4;
+
+    private static final int CLIENTS = 32;
+
+    private final ObjectMapper objectMapper = JsonUtils.createObjectMapper();
+    private TCPServer server;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        server = new TCPServer(PORT, 0, WORKERS, new MatrixClientHandler(), TCPServer.Mode.SELECTOR);
+        server.start();
+        awaitListening();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testPutGraphThenGetGraph_concurrentClients_eachClientShouldGetItsOwnGraph() throws Exception {
+        ExecutorService clientThreads = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            // All clients are connected before the first request is sent, so their requests are in flight concurrently
+            CyclicBarrier allConnected = new CyclicBarrier(CLIENTS);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                IGraph<Index> graph = randomGraph(client);
+                futures.add(clientThreads.submit(() -> {
+                    try (Socket socket = connect()) {
+                        allConnected.await();
+                        assertThat(execute(socket, new Request(ActionType.PUT_GRAPH, graph)).getStatus(), is(HttpStatus.OK.getCode()));
+
+                        IGraph<Index> result = execute(socket, new Request(ActionType.GET_GRAPH)).getBodyAs(new TypeReference<>() {});
+                        execute(socket, new Request(ActionType.DISCONNECT));
+                        return result.printGraph().equals(graph.printGraph());
+                    }
+                }));
+            }
+
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS), is(true));
+            }
+        } finally {
+            clientThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDisconnect_midRequest_shouldKeepServingOtherClients() throws Exception {
+        try (Socket connected = connect()) {
+            // Client closes its socket in the middle of a frame, having sent its header and part of its payload
+            try (Socket socket = connect()) {
+                byte[] header = new byte[FramedProtocol.HEADER_LENGTH];
+                FramedProtocol.putLength(header, 0, 1000);
+                socket.getOutputStream().write(header);
+                socket.getOutputStream().write("{\"actionType\":".getBytes(StandardCharsets.UTF_8));
+                socket.getOutputStream().flush();
+            }
+
+            // Client resets its socket in the middle of a line
+            try (Socket socket = new Socket("localhost", PORT)) {
+                socket.setSoLinger(true, 0);
+                socket.getOutputStream().write("{\"actionType\":\"GET_".getBytes(StandardCharsets.UTF_8));
+                socket.getOutputStream().flush();
+            }
+
+            // Both the client that was connected before, and a new one, are served
+            assertThat(execute(connected, new Request(ActionType.PUT_GRAPH, randomGraph(0))).getStatus(), is(HttpStatus.OK.getCode()));
+            try (Socket socket = connect()) {
+                assertThat(execute(socket, new Request(ActionType.DISCONNECT)).getStatus(), is(HttpStatus.OK.getCode()));
+            }
+
+            execute(connected, new Request(ActionType.DISCONNECT));
+        }
+    }
+
+    @Test
+    public void testTextRequest_firstByteIsNotMagic_shouldUseLines() throws Exception {
+        try (Socket socket = new Socket("localhost", PORT)) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(30));
+            socket.getOutputStream().write("{\"actionType\":\"GET_GRAPH\"}\n\n".getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+
+            // There is no graph for this client yet
+            String response = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+            assertThat(objectMapper.readValue(response, Response.class).getStatus(), is(HttpStatus.NOT_FOUND.getCode()));
+        }
+    }
+
+    @Test
+    public void testHttpRequest_firstByteIsNotMagic_shouldRespondWithHttp() throws Exception {
+        try (Socket socket = new Socket("localhost", PORT)) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(30));
+            socket.getOutputStream().write("GET /graph/generate/standard?row=3&col=3 HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+            assertThat(statusLine, is("HTTP/1.1 200 OK"));
+        }
+    }
+
+    /**
+     * Connect to the server using the {@link FramedProtocol framed protocol}, same as MatrixClient does
+     */
+    private static Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", PORT);
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(30));
+        socket.setTcpNoDelay(true);
+        socket.getOutputStream().write(FramedProtocol.MAGIC);
+        return socket;
+    }
+
+    private Response execute(Socket socket, Request request) throws IOException {
+        OutputStream output = socket.getOutputStream();
+        FramedProtocol.writeFrame(output, objectMapper.writeValueAsBytes(request));
+        output.flush();
+
+        InputStream input = socket.getInputStream();
+        return objectMapper.readValue(FramedProtocol.readFrame(input), Response.class);
+    }
+
+    private static IGraph<Index> randomGraph(int seed) {
+        Random random = new Random(seed);
+        Integer[][] matrix = new Integer[6][6];
+        for (Integer[] row : matrix) {
+            for (int col = 0; col < row.length; col++) {
+                row[col] = random.nextInt(2);
+            }
+        }
+
+        matrix[0][0] = 1;
+        return new MatrixGraphAdapter<>(new StandardMatrix<>(matrix), Index.from(0, 0));
+    }
+
+    private static void awaitListening() throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            try (Socket socket = new Socket("localhost", PORT)) {
+                socket.getOutputStream().write('\n');
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+
+        throw new IllegalStateException("Server did not start listening on port " + PORT);
+    }
+}
@@ -0,0 +1,254 @@
+package org.hit.internetprogramming.eoh.server.common;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Load test comparing {@link TCPServer.Mode#VIRTUAL_THREADS} mode against the bounded thread pool of {@link TCPServer.Mode#BLOCKING} mode.<br/>
+ * Every client connects, then all clients send a request at the same time, and we measure the p99 latency of the responses.<br/>
+ * This test is tagged as "load" and it is excluded from the regular test task. Run it using: gradle :Server:loadTest<br/>
+ * Note that 10k clients require a file descriptors limit (ulimit -n) of at least 25k.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+@Tag("load")
+public class TCPServerLoadTest {
+    private static final int PORT = 18005;
+
+    /**
+     * Amount of workers of the {@link TCPServer.Mode#BLOCKING} mode, same as ServerMain uses
+     */
+    private static final int POOL_SIZE = 10;
+
+    /**
+     * How long the request handler works on every request, to simulate a real action
+     */
+    private static final long REQUEST_WORK_MILLIS = 5;
+
+    /**
+     * Amount of client threads. Each thread drives a slice of the clients, so all requests are in flight concurrently.
+     */
+    private static final int CLIENT_THREADS = 200;
+
+    /**
+     * How long we let the clients connect, and how long we wait for all responses. When the server cannot keep up, e.g. its
+     * accept queue overflows, clients would otherwise wait for a timeout one socket after the other. Such clients are counted as failed.
+     */
+    private static final long PHASE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String REQUEST = "{\"actionType\":\"GET_GRAPH\"}";
+    private static final String RESPONSE = "{\"status\":200}";
+    private static final String ERROR_PREFIX = "ERROR: ";
+
+    @Test
+    public void testLatency_1kConcurrentClients() throws Exception {
+        compareModes(1_000);
+    }
+
+    @Test
+    public void testLatency_10kConcurrentClients() throws Exception {
+        compareModes(10_000);
+    }
+
+    private void compareModes(int clients) throws Exception {
+        // Act
+        LoadResult pool = runLoad(TCPServer.Mode.BLOCKING, POOL_SIZE, clients, PORT);
+        LoadResult virtual = runLoad(TCPServer.Mode.VIRTUAL_THREADS, clients, clients, PORT + 1);
+
+        // Older JVMs fall back to a cached thread pool, so do not present its numbers as the numbers of virtual threads
+        System.out.println(clients + " concurrent clients:" + System.lineSeparator() +
+            "    Thread pool (" + POOL_SIZE + " workers): " + pool + System.lineSeparator() +
+            (virtual.isUsingVirtualThreads ? "    Virtual threads:            " : "    Cached thread pool (virtual threads are not supported by Java " +
+                System.getProperty("java.version") + "): ") + virtual);
+
+        // Assert
+        // All clients should be admitted, as the admission limit equals to the amount of clients
+        assertThat(virtual.rejected + virtual.failed, is(0));
+        assertThat(virtual.succeeded, is(clients));
+    }
+
+    private LoadResult runLoad(TCPServer.Mode mode, int maxPoolSize, int clients, int port) throws Exception {
+        TCPServer server = new TCPServer(port, 0, maxPoolSize, new EchoRequestHandler(), mode);
+        server.start();
+
+        ExecutorService clientThreads = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            awaitListening(port);
+
+            long[] latencies = new long[clients];
+            Arrays.fill(latencies, -1);
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+
+            // All clients should be connected before the first request is sent
+            int threads = Math.min(CLIENT_THREADS, clients);
+            CyclicBarrier allConnected = new CyclicBarrier(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int from = thread * clients / threads;
+                int to = (thread + 1) * clients / threads;
+                futures.add(clientThreads.submit(() -> {
+                    runClients(port, from, to, latencies, allConnected, rejected, failed);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+
+            return new LoadResult(latencies, rejected.get(), failed.get(), server.isUsingVirtualThreads());
+        } finally {
+            clientThreads.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private void runClients(int port, int from, int to, long[] latencies, CyclicBarrier allConnected, AtomicInteger rejected, AtomicInteger failed) throws Exception {
+        Socket[] sockets = new Socket[to - from];
+        long[] sentAt = new long[to - from];
+        try {
+            long deadline = System.currentTimeMillis() + PHASE_TIMEOUT_MILLIS;
+            for (int i = 0; i < sockets.length; i++) {
+                try {
+                    sockets[i] = new Socket();
+                    sockets[i].connect(new InetSocketAddress("localhost", port), remainingMillis(deadline));
+                } catch (IOException e) {
+                    sockets[i] = closeQuietly(sockets[i]);
+                    failed.incrementAndGet();
+                }
+            }
+
+            allConnected.await();
+
+            for (int i = 0; i < sockets.length; i++) {
+                if (sockets[i] != null) {
+                    try {
+                        sentAt[i] = System.nanoTime();
+                        sockets[i].getOutputStream().write((REQUEST + "\n\n").getBytes(StandardCharsets.UTF_8));
+                        sockets[i].getOutputStream().flush();
+                    } catch (IOException e) {
+                        // Server might have rejected this client, and closed the socket already. Continue to read the error.
+                    }
+                }
+            }
+
+            deadline = System.currentTimeMillis() + PHASE_TIMEOUT_MILLIS;
+            for (int i = 0; i < sockets.length; i++) {
+                if (sockets[i] != null) {
+                    try {
+                        sockets[i].setSoTimeout(remainingMillis(deadline));
+                        String response = new BufferedReader(new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8)).readLine();
+                        if (RESPONSE.equals(response)) {
+                            latencies[from + i] = System.nanoTime() - sentAt[i];
+                        } else if ((response != null) && response.startsWith(ERROR_PREFIX)) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private static void awaitListening(int port) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.getOutputStream().write('\n');
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+
+        throw new IllegalStateException("Server did not start listening on port " + port);
+    }
+
+    private static int remainingMillis(long deadline) {
+        // Zero means infinite timeout, so make sure we use at least 1 millisecond
+        return (int) Math.max(1, deadline - System.currentTimeMillis());
+    }
+
+    private static Socket closeQuietly(Socket socket) {
+        if (socket != null) {
+            try { socket.close(); } catch (IOException ignore) { }
+        }
+
+        return null;
+    }
+
+    /**
+     * A request handler that simulates some work, and responds with a constant response
+     */
+    private static class EchoRequestHandler implements RequestHandler {
+        @Override
+        public String onRequest(ClientInfo client, String request, Consumer<Boolean> stopCommunication) {
+            try {
+                Thread.sleep(REQUEST_WORK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return RESPONSE;
+        }
+
+        @Override
+        public String onError(ClientInfo client, Throwable thrown) {
+            return ERROR_PREFIX + thrown.getMessage();
+        }
+    }
+
+    private static class LoadResult {
+        private final int succeeded;
+        private final int rejected;
+        private final int failed;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final boolean isUsingVirtualThreads;
+
+        LoadResult(long[] latencies, int rejected, int failed, boolean isUsingVirtualThreads) {
+            long[] succeededLatencies = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+            this.succeeded = succeededLatencies.length;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.isUsingVirtualThreads = isUsingVirtualThreads;
+            p50Millis = percentile(succeededLatencies, 0.5);
+            p99Millis = percentile(succeededLatencies, 0.99);
+        }
+
+        private static double percentile(long[] sortedLatencies, double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("succeeded=%d, rejected=%d, failed=%d, p50=%.2fms, p99=%.2fms", succeeded, rejected, failed, p50Millis, p99Millis);
+        }
+    }
+}
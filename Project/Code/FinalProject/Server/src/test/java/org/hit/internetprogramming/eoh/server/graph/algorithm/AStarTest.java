@@ -0,0 +1,152 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.reachedCount;
+
+/**
+ * Test {@link AStar}, comparing its shortest paths with the ones of {@link IntBFSVisit} and {@link DialDijkstra}.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class AStarTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_unweightedRandomMatrices_shouldMatchIntBfsVisit() {
+        for (int i = 0; i < 3; i++) {
+            assertSamePaths(compile(random.fill(new BitMatrix(30, 30), 1, 2, 35)), false);
+            assertSamePaths(compile(random.fill(new BitStandardMatrix(30, 30), 1, 2, 35)), false);
+            assertSamePaths(compile(random.fill(new BitCrossMatrix(30, 30), 1, 2, 35)), false);
+        }
+    }
+
+    @Test
+    public void testTraverse_weightedRandomMatrices_shouldMatchDialDijkstra() {
+        for (int i = 0; i < 3; i++) {
+            // Small weights, so there are many paths of the same weight
+            assertSamePaths(compile(random.fill(new IntMatrix(30, 30), 1, 4, 10)), true);
+            assertSamePaths(compile(random.fill(new IntStandardMatrix(30, 30), 1, 4, 10)), true);
+            assertSamePaths(compile(random.fill(new IntCrossMatrix(30, 30), 1, 4, 10)), true);
+        }
+    }
+
+    @Test
+    public void testTraverse_zeroWeights_shouldMatchDialDijkstraAndKeepParentsAcyclic() {
+        // Zero weights make the heuristic useless. Parents over zero weight edges are chosen by layers rather than by
+        // the order vertices are settled in, so the amount of paths matches a search and a traversal of Dial's Dijkstra.
+        CompiledGraph graph = compile(random.fill(new IntMatrix(30, 30), 0, 3, 10));
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = new DialDijkstra().traverse(graph, source, destination);
+            ShortestPathTree traversal = new DialDijkstra().traverse(graph, source, CompiledGraph.NO_VERTEX);
+            ShortestPathTree actual = new AStar().traverse(graph, source, destination);
+
+            assertThat(actual.isReached(destination), is(expected.isReached(destination)));
+            if (expected.isReached(destination)) {
+                assertThat(actual.distance(destination), is(expected.distance(destination)));
+                assertThat(ShortestPathCounts.of(actual, destination).getTotal(), is(ShortestPathCounts.of(expected, destination).getTotal()));
+                assertThat(ShortestPathCounts.of(actual, destination).getTotal(), is(ShortestPathCounts.of(traversal, destination).getTotal()));
+
+                // Parents must be acyclic, so a path from source never repeats a vertex
+                List<Index> path = new ArrayList<>(ShortestPathCounts.of(actual, destination).paths(0, 1).get(0));
+                assertThat(path.get(0), is(graph.vertexOf(source)));
+                assertThat(new HashSet<>(path).size(), is(path.size()));
+            }
+        }
+    }
+
+    @Test
+    public void testTraverse_openGrid_shouldSettleLessVerticesThanBfs() {
+        BitStandardMatrix matrix = new BitStandardMatrix(301, 301);
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                matrix.setIntValue(row, col, 1);
+            }
+        }
+        CompiledGraph graph = compile(matrix);
+        int source = graph.idOf(150, 20), destination = graph.idOf(150, 280);
+
+        ShortestPathTree expected = new IntBFSVisit().traverse(graph, source, destination);
+        ShortestPathTree actual = new AStar(false).traverse(graph, source, destination);
+
+        assertThat(actual.distance(destination), is(260L));
+        assertThat(ShortestPathCounts.of(actual, destination).getTotal(), is(BigInteger.ONE));
+        assertThat(reachedCount(actual), lessThan(reachedCount(expected) / 100));
+    }
+
+    @Test
+    public void testTraverse_crossMatrixOfAnotherParity_shouldNotReachDestination() {
+        CompiledGraph graph = compile(random.fill(new BitCrossMatrix(10, 10), 1, 2, 0));
+
+        ShortestPathTree tree = new AStar(false).traverse(graph, graph.idOf(0, 0), graph.idOf(0, 1));
+
+        assertThat(tree.isReached(graph.idOf(0, 1)), is(false));
+        assertThat(reachedCount(tree), is(0));
+    }
+
+    @Test
+    public void testTraverse_graphApi_shouldHaveAllParentsOfShortestPaths() {
+        //@formatter:off
+        Integer[][] mat = {{1, 1, 1},
+                           {1, 5, 1},
+                           {1, 1, 1}};
+        //@formatter:on
+        MatrixGraphAdapter<Integer> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0));
+
+        Map<Index, VertexDistanceInfo<Index>> visitedVertices = new AStar().traverse(graph, Index.from(2, 2));
+
+        assertThat(visitedVertices.get(Index.from(2, 2)).getDistance(), is(4L));
+        assertThat(new HashSet<>(visitedVertices.get(Index.from(2, 2)).getParents()), is(new HashSet<>(List.of(Index.from(1, 2), Index.from(2, 1)))));
+    }
+
+    @Test
+    public void testTraverse_negativeWeights_notSupported() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, -1}}), Index.from(0, 0)));
+
+        Assertions.assertFalse(AStar.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AStar().traverse(graph, graph.rootId(), graph.idOf(0, 1)));
+    }
+
+    private void assertSamePaths(CompiledGraph graph, boolean isWeighted) {
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = isWeighted ? new DialDijkstra().traverse(graph, source, CompiledGraph.NO_VERTEX) : new IntBFSVisit().traverse(graph, source, destination);
+            ShortestPathTree actual = new AStar(isWeighted).traverse(graph, source, destination);
+
+            assertThat(actual.isReached(destination), is(expected.isReached(destination)));
+            if (expected.isReached(destination)) {
+                ShortestPathCounts expectedCounts = ShortestPathCounts.of(expected, destination);
+                ShortestPathCounts actualCounts = ShortestPathCounts.of(actual, destination);
+                assertThat(actualCounts.getDistance(), is(expectedCounts.getDistance()));
+                assertThat(actualCounts.getTotal(), is(expectedCounts.getTotal()));
+
+                if (expectedCounts.getTotal().compareTo(BigInteger.valueOf(1000)) <= 0) {
+                    int total = expectedCounts.getTotal().intValue();
+                    assertThat(new HashSet<>(actualCounts.paths(0, total)), is(new HashSet<>(expectedCounts.paths(0, total))));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.reachedCount;
+
+/**
+ * Test {@link BidirectionalIntBFSVisit}, comparing its shortest paths with the ones of {@link IntBFSVisit}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class BidirectionalIntBFSVisitTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomMatrices_shouldMatchIntBfsVisit() {
+        for (int i = 0; i < 3; i++) {
+            assertSamePaths(compile(random.fill(new BitMatrix(30, 30), 65)));
+            assertSamePaths(compile(random.fill(new BitStandardMatrix(30, 30), 65)));
+            assertSamePaths(compile(random.fill(new BitCrossMatrix(30, 30), 65)));
+        }
+    }
+
+    @Test
+    public void testTraverse_openGrid_shouldReachLessVertices() {
+        BitStandardMatrix matrix = new BitStandardMatrix(101, 101);
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                matrix.setIntValue(row, col, 1);
+            }
+        }
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(matrix, Index.from(50, 50)));
+        int source = graph.idOf(50, 50), destination = graph.idOf(50, 80);
+
+        ShortestPathTree expected = new IntBFSVisit().traverse(graph, source, destination);
+        ShortestPathTree actual = new BidirectionalIntBFSVisit().traverse(graph, source, destination);
+
+        assertThat(actual.distance(destination), is(30L));
+        assertThat(ShortestPathCounts.of(actual, destination).getTotal(), is(BigInteger.ONE));
+        assertThat(reachedCount(actual), lessThan(reachedCount(expected) / 2));
+    }
+
+    @Test
+    public void testTraverse_unreachableDestination_shouldNotReachDestination() {
+        BitStandardMatrix matrix = new BitStandardMatrix(5, 5);
+        matrix.setIntValue(0, 0, 1);
+        matrix.setIntValue(0, 1, 1);
+        matrix.setIntValue(4, 4, 1);
+        matrix.setIntValue(3, 4, 1);
+        CompiledGraph graph = compile(matrix);
+
+        ShortestPathTree tree = new BidirectionalIntBFSVisit().traverse(graph, graph.idOf(0, 0), graph.idOf(4, 4));
+
+        assertThat(tree.isReached(graph.idOf(4, 4)), is(false));
+    }
+
+    private void assertSamePaths(CompiledGraph graph) {
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = new IntBFSVisit().traverse(graph, source, destination);
+            ShortestPathTree actual = new BidirectionalIntBFSVisit().traverse(graph, source, destination);
+
+            assertThat(actual.isReached(destination), is(expected.isReached(destination)));
+            if (expected.isReached(destination)) {
+                ShortestPathCounts expectedCounts = ShortestPathCounts.of(expected, destination);
+                ShortestPathCounts actualCounts = ShortestPathCounts.of(actual, destination);
+                assertThat(actualCounts.getDistance(), is(expectedCounts.getDistance()));
+                assertThat(actualCounts.getTotal(), is(expectedCounts.getTotal()));
+
+                if (expectedCounts.getTotal().compareTo(BigInteger.valueOf(1000)) <= 0) {
+                    int total = expectedCounts.getTotal().intValue();
+                    assertThat(new HashSet<>(actualCounts.paths(0, total)), is(new HashSet<>(expectedCounts.paths(0, total))));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+
+/**
+ * Test {@link ContractionHierarchy}, comparing the weight of its paths with the distances of {@link DialDijkstra}.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class ContractionHierarchyTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testFindPath_randomMatrices_shouldBeShortestPaths() {
+        for (int i = 0; i < 3; i++) {
+            assertShortestPaths(compile(random.fill(new IntMatrix(30, 30), 1, 1000, 20)));
+            assertShortestPaths(compile(random.fill(new IntStandardMatrix(30, 30), 1, 10, 30)));
+            assertShortestPaths(compile(random.fill(new IntCrossMatrix(30, 30), 1, 100, 10)));
+        }
+    }
+
+    @Test
+    public void testFindPath_zeroWeights_shouldBeShortestPaths() {
+        assertShortestPaths(compile(random.fill(new IntMatrix(30, 30), 0, 3, 10)));
+        assertShortestPaths(compile(random.fill(new IntStandardMatrix(30, 30), 0, 1, 0)));
+    }
+
+    @Test
+    public void testFindPath_sameVertex_shouldBeThatVertexOnly() {
+        CompiledGraph graph = compile(random.fill(new IntMatrix(5, 5), 1, 10, 0));
+
+        List<Index> path = ContractionHierarchy.build(graph).findPath(graph.idOf(2, 2), graph.idOf(2, 2));
+
+        assertThat(path, is(List.of(Index.from(2, 2))));
+    }
+
+    @Test
+    public void testFindPath_anotherRoot_shouldUseSameHierarchy() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(20, 20), 1, 10, 20));
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        CompiledGraph rooted = graph.withRoot(Index.from(19, 19));
+        if (rooted.rootId() == CompiledGraph.NO_VERTEX) {
+            return;
+        }
+
+        ShortestPathTree expected = new DialDijkstra().traverse(rooted);
+        for (int destination = 0; destination < rooted.vertexCount(); destination++) {
+            List<Index> path = hierarchy.findPath(rooted.rootId(), destination);
+            assertThat(path.isEmpty(), is(!expected.isReached(destination)));
+            if (!path.isEmpty()) {
+                assertThat(hierarchy.weightOf(path), is(expected.distance(destination)));
+            }
+        }
+    }
+
+    @Test
+    public void testBuild_negativeWeights_notSupported() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, -1}}), Index.from(0, 0)));
+
+        Assertions.assertFalse(ContractionHierarchy.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.build(graph));
+    }
+
+    private void assertShortestPaths(CompiledGraph graph) {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        for (int i = 0; i < 30; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = new DialDijkstra().traverse(graph, source, destination);
+            List<Index> path = hierarchy.findPath(source, destination);
+
+            assertThat(path.isEmpty(), is(!expected.isReached(destination)));
+            if (!path.isEmpty()) {
+                assertThat(hierarchy.weightOf(path), is(expected.distance(destination)));
+                assertThat(path.get(0), is(graph.vertexOf(source)));
+                assertThat(path.get(path.size() - 1), is(graph.vertexOf(destination)));
+                for (int j = 1; j < path.size(); j++) {
+                    Assertions.assertTrue(graph.getReachableVertices(path.get(j - 1)).contains(path.get(j)), "Each step must be an edge");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.measure;
+
+/**
+ * Benchmark of {@link DeltaStepping}, on grids shaped like the ones of {@code GENERATE_RANDOM_GRAPH_REGULAR}: an
+ * {@link IntMatrix} (8 neighbors per cell) with values in range [0, 1000).<br/>
+ * Generated graphs have negative values as well, and as edges go both ways, any negative value is a negative cycle, where
+ * shortest paths are not defined. So we use the same grids with non-negative values, which is what delta-stepping supports.
+ * <ul>
+ *     <li>On 1000x1000 and 4000x4000 grids we compare delta-stepping with {@link DialDijkstra}, our fastest sequential
+ *     algorithm. A 4000x4000 grid takes about 2.5 GB once compiled, so it is skipped when the heap is smaller.</li>
+ *     <li>{@link DijkstraWithNegCycleSupport} and {@link BellmanFord} work with maps of vertices. Bellman-Ford relaxes all
+ *     edges once per vertex, which is 10^13 relaxations on a 1000x1000 grid, and Dijkstra forks a task per improved
+ *     neighbor, which fails on grids larger than a few dozens of cells per side. So we compare them on a small grid only.</li>
+ * </ul>
+ * This test is tagged as "load" and it is excluded from the regular test task. Run it using: gradle :Server:loadTest
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+@Tag("load")
+public class DeltaSteppingBenchmarkTest {
+    private static final int LEGACY_GRID_SIZE = 20;
+
+    @Test
+    public void testDeltaStepping_1000x1000() {
+        benchmark(1000);
+    }
+
+    @Test
+    public void testDeltaStepping_4000x4000() {
+        Assumptions.assumeTrue(Runtime.getRuntime().maxMemory() >= 3_500_000_000L, "Not enough memory for a 4000x4000 grid. Use at least -Xmx4g");
+        benchmark(4000);
+    }
+
+    @Test
+    public void testDeltaStepping_againstLegacyAlgorithms() {
+        MatrixGraphAdapter<Integer> graph = randomGraph(LEGACY_GRID_SIZE);
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        Index corner = Index.from(LEGACY_GRID_SIZE - 1, LEGACY_GRID_SIZE - 1);
+
+        long expectedDistance = new BellmanFord<Index>().traverse(graph).get(corner).getDistance();
+        Assertions.assertEquals(expectedDistance, new DijkstraWithNegCycleSupport<Index>().traverse(graph).get(corner).getDistance());
+        Assertions.assertEquals(expectedDistance, new DeltaStepping().traverse(compiledGraph).distance(compiledGraph.idOf(corner)));
+
+        long bellmanFordNanos = measure(() -> new BellmanFord<Index>().traverse(graph));
+        long dijkstraNanos = measure(() -> new DijkstraWithNegCycleSupport<Index>().traverse(graph));
+        long dialNanos = measure(() -> new DialDijkstra().traverse(compiledGraph));
+        long deltaSteppingNanos = measure(() -> new DeltaStepping().traverse(compiledGraph));
+
+        System.out.println(String.format("Shortest paths of %dx%d cells:%n    Bellman-Ford:   %,d ms%n    Dijkstra:       %,d ms%n" +
+                "    Dial's:         %,d ms%n    Delta-stepping: %,d ms", LEGACY_GRID_SIZE, LEGACY_GRID_SIZE, bellmanFordNanos / 1_000_000,
+            dijkstraNanos / 1_000_000, dialNanos / 1_000_000, deltaSteppingNanos / 1_000_000));
+    }
+
+    private static void benchmark(int gridSize) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        CompiledGraph graph = CompiledGraph.compile(randomGraph(gridSize));
+        int corner = graph.idOf(gridSize - 1, gridSize - 1);
+        DeltaStepping deltaStepping = new DeltaStepping();
+
+        // Warm up both, so the JIT compiles them before we measure
+        long expectedDistance = new DialDijkstra().traverse(graph).distance(corner);
+        Assertions.assertEquals(expectedDistance, deltaStepping.traverse(graph).distance(corner));
+
+        long dialNanos = measure(() -> new DialDijkstra().traverse(graph));
+        long deltaSteppingNanos = measure(() -> deltaStepping.traverse(graph));
+
+        System.out.println(String.format("Shortest paths of %dx%d cells:%n    Dial's:                      %,d ms%n" +
+                "    Delta-stepping (delta %d): %,d ms (x%.1f, %d processors)", gridSize, gridSize, dialNanos / 1_000_000,
+            deltaStepping.deltaOf(graph), deltaSteppingNanos / 1_000_000, (double) dialNanos / deltaSteppingNanos, processors));
+    }
+
+    private static MatrixGraphAdapter<Integer> randomGraph(int gridSize) {
+        IntMatrix matrix = new RandomMatrices().fill(new IntMatrix(gridSize, gridSize), 0, 1000, 0);
+
+        // Same as the generated graphs
+        matrix.setIntValue(0, 0, 1);
+        return new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+    }
+}
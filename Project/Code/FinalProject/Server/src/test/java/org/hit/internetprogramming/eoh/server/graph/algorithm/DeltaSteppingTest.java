@@ -0,0 +1,115 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link DeltaStepping}, comparing its distances and parents with the ones of {@link DialDijkstra}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class DeltaSteppingTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomPositiveWeights_shouldMatchDialDijkstraForAnyDelta() {
+        for (int delta : new int[] {1, 7, 100, Integer.MAX_VALUE, DeltaStepping.AUTO_DELTA}) {
+            assertSameTraversal(randomGraph(new IntMatrix(60, 60), 1, 1000, 0), new DeltaStepping(delta));
+            assertSameTraversal(randomGraph(new IntCrossMatrix(60, 60), 1, 10, 20), new DeltaStepping(delta));
+        }
+    }
+
+    @Test
+    public void testTraverse_largePhases_shouldMatchDialDijkstra() {
+        // An infinite delta puts all vertices in a single bucket, so phases are large enough to be split between tasks
+        assertSameTraversal(randomGraph(new IntMatrix(300, 300), 1, 1000, 10), new DeltaStepping(Integer.MAX_VALUE));
+        assertSameTraversal(randomGraph(new IntMatrix(300, 300), 1, 1000, 10), new DeltaStepping());
+    }
+
+    @Test
+    public void testTraverse_zeroWeights_shouldMatchDialDijkstraAndKeepParentsAcyclic() {
+        for (int delta : new int[] {1, 2, DeltaStepping.AUTO_DELTA}) {
+            CompiledGraph graph = CompiledGraph.compile(randomGraph(new IntMatrix(30, 30), 0, 3, 0));
+            ShortestPathTree expected = new DialDijkstra().traverse(graph);
+            ShortestPathTree actual = new DeltaStepping(delta).traverse(graph);
+
+            for (int id = 0; id < graph.vertexCount(); id++) {
+                assertThat(actual.distance(id), is(expected.distance(id)));
+
+                // Both choose the parents over zero weight edges by layers, so the trees of both can be cached as one
+                Set<Integer> expectedParents = new HashSet<>(), actualParents = new HashSet<>();
+                expected.forEachParent(id, expectedParents::add);
+                actual.forEachParent(id, actualParents::add);
+                assertThat(actualParents, is(expectedParents));
+
+                // Parents must be acyclic, so a path from root never repeats a vertex
+                Collection<Index> path = ShortestPathCounts.of(actual, id).paths(0, 1).get(0);
+                assertThat(path.iterator().next(), is(graph.getRoot()));
+                assertThat(new HashSet<>(path).size(), is(path.size()));
+            }
+        }
+    }
+
+    @Test
+    public void testTraverse_stopAtDestination_shouldKeepAllShortestPaths() {
+        //@formatter:off
+        Integer[][] mat = {{1, 1, 1, 9},
+                           {1, 5, 1, 9},
+                           {1, 1, 1, 9}};
+        //@formatter:on
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0)));
+
+        ShortestPathTree tree = new DeltaStepping(1).traverse(graph, graph.rootId(), graph.idOf(2, 2));
+        ShortestPathCounts counts = ShortestPathCounts.of(tree, graph.idOf(2, 2));
+
+        assertThat(counts.getDistance(), is(4L));
+        assertThat(counts.getTotal(), is(BigInteger.valueOf(2)));
+        Assertions.assertFalse(tree.isReached(graph.idOf(0, 3)), "Vertices farther than destination are not final");
+    }
+
+    @Test
+    public void testTraverse_negativeWeights_notSupported() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, -1}}), Index.from(0, 0)));
+
+        Assertions.assertFalse(DeltaStepping.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DeltaStepping().traverse(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(-1));
+    }
+
+    private static void assertSameTraversal(MatrixGraphAdapter<Integer> graph, DeltaStepping deltaStepping) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        ShortestPathTree expected = new DialDijkstra().traverse(compiledGraph);
+        ShortestPathTree actual = deltaStepping.traverse(compiledGraph);
+
+        for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+            assertThat(actual.distance(id), is(expected.distance(id)));
+
+            Set<Integer> expectedParents = new HashSet<>(), actualParents = new HashSet<>();
+            expected.forEachParent(id, expectedParents::add);
+            actual.forEachParent(id, actualParents::add);
+            assertThat(actualParents, is(expectedParents));
+        }
+    }
+
+    /**
+     * @param emptyPercent Percentage of cells to leave with no value, so some vertices are unreachable
+     */
+    private MatrixGraphAdapter<Integer> randomGraph(IIntMatrix matrix, int minWeight, int maxWeight, int emptyPercent) {
+        return new MatrixGraphAdapter<>(random.fill(matrix, minWeight, maxWeight, emptyPercent), Index.from(0, 0));
+    }
+}
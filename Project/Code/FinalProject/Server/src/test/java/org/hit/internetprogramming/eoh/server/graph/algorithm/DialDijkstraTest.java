@@ -0,0 +1,124 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link DialDijkstra}, comparing its distances and parents with the ones of {@link BellmanFord}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class DialDijkstraTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomPositiveWeights_shouldMatchBellmanFord() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(IntMatrix::new, 1, 10));
+            assertSameTraversal(randomGraph(StandardMatrix::new, 1, 10));
+            assertSameTraversal(randomGraph(StandardMatrix::new, 1, 1000));
+        }
+    }
+
+    @Test
+    public void testTraverse_zeroWeights_shouldMatchBellmanFordDistancesAndKeepParentsAcyclic() {
+        for (int i = 0; i < 5; i++) {
+            IGraph<Index> graph = randomGraph(StandardMatrix::new, 0, 3);
+            CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+            Map<Index, VertexDistanceInfo<Index>> expected = new BellmanFord<Index>().traverse(graph);
+            ShortestPathTree actual = new DialDijkstra().traverse(compiledGraph);
+
+            for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+                VertexDistanceInfo<Index> expectedInfo = expected.get(compiledGraph.vertexOf(id));
+                assertThat(actual.distance(id), is(expectedInfo.getDistance()));
+
+                // Parents must be acyclic, so a path from root never repeats a vertex
+                Collection<Index> path = ShortestPathCounts.of(actual, id).paths(0, 1).get(0);
+                assertThat(path.iterator().next(), is(graph.getRoot()));
+                assertThat(new HashSet<>(path).size(), is(path.size()));
+            }
+        }
+    }
+
+    @Test
+    public void testTraverse_stopAtDestination_shouldKeepAllShortestPaths() {
+        //@formatter:off
+        Integer[][] mat = {{1, 1, 1},
+                           {1, 5, 1},
+                           {1, 1, 1}};
+        //@formatter:on
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0)));
+
+        ShortestPathTree tree = new DialDijkstra().traverse(graph, graph.rootId(), graph.idOf(2, 2));
+        ShortestPathCounts counts = ShortestPathCounts.of(tree, graph.idOf(2, 2));
+
+        assertThat(counts.getDistance(), is(4L));
+        assertThat(counts.getTotal(), is(BigInteger.valueOf(2)));
+    }
+
+    @Test
+    public void testDistances_randomWeights_shouldMatchTraverse() {
+        CompiledGraph graph = CompiledGraph.compile(randomGraph(StandardMatrix::new, 0, 10));
+        int source = random.nextId(graph);
+
+        long[] distances = new DialDijkstra().distances(graph, source);
+        ShortestPathTree tree = new DialDijkstra().traverse(graph, source, CompiledGraph.NO_VERTEX);
+
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            assertThat(distances[id], is(tree.distance(id)));
+        }
+    }
+
+    @Test
+    public void testTraverse_negativeWeights_notSupported() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, -1}}), Index.from(0, 0)));
+
+        Assertions.assertFalse(DialDijkstra.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DialDijkstra().traverse(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DialDijkstra().distances(graph, graph.rootId()));
+    }
+
+    private void assertSameTraversal(IGraph<Index> graph) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        Map<Index, VertexDistanceInfo<Index>> expected = new BellmanFord<Index>().traverse(graph);
+        ShortestPathTree actual = new DialDijkstra().traverse(compiledGraph);
+
+        for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+            VertexDistanceInfo<Index> expectedInfo = expected.get(compiledGraph.vertexOf(id));
+            assertThat(actual.distance(id), is(expectedInfo.getDistance()));
+
+            Set<Index> parents = new HashSet<>();
+            actual.forEachParent(id, parent -> parents.add(compiledGraph.vertexOf(parent)));
+            assertThat(parents, is(new HashSet<>(expectedInfo.getParents())));
+        }
+    }
+
+    private IGraph<Index> randomGraph(Function<Integer[][], IMatrix<Integer>> matrixFactory, int minWeight, int maxWeight) {
+        Integer[][] mat = new Integer[20][20];
+        for (int row = 0; row < mat.length; row++) {
+            for (int col = 0; col < mat[row].length; col++) {
+                mat[row][col] = minWeight + random.nextInt(maxWeight - minWeight);
+            }
+        }
+
+        // All cells have values, as BellmanFord expects all vertices to be reachable. (Hence there is no CrossMatrix)
+        return new MatrixGraphAdapter<>(matrixFactory.apply(mat), Index.from(0, 0));
+    }
+}
@@ -1,5 +1,6 @@
 package org.hit.internetprogramming.eoh.server.graph.algorithm;
 
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsPage;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
 import org.hit.internetprogramming.eoh.common.mat.IMatrix;
@@ -9,6 +10,7 @@ import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCyc
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -209,6 +211,118 @@ public class FindPathsInWeightedGraphTest {
         FindPathsTest.pathsValidation(expectedPaths, paths);
     }
 
+    @Test
+    public void testFindShortestPathsInWeightedGraph_useNonNegativeWeights_findShortestPath() {
+        // Arrange
+        //@formatter:off
+        Integer[][] mat = {{100, 100, 100},
+                           {500, 900, 300}};
+        //@formatter:on
+        IMatrix<Integer> matrix = new StandardMatrix<>(mat);
+        IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(1, 0));
+
+        List<List<Index>> expectedPaths = new ArrayList<>(1);
+        expectedPaths.add(Arrays.asList(Index.from(1, 0), Index.from(0, 0), Index.from(0, 1), Index.from(0, 2), Index.from(1, 2)));
+
+        // Act
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        Collection<Collection<Index>> paths = findPaths.findShortestPathsInWeightedGraph(Index.from(1, 2));
+        ShortestPathsPage<Index> page = findPaths.findShortestPathsInWeightedGraph(Index.from(1, 2), 0, 0);
+
+        // Assert
+        FindPathsTest.pathsValidation(expectedPaths, paths);
+        Assertions.assertEquals(600L, page.getDistance(), "Wrong distance");
+        Assertions.assertEquals(BigInteger.ONE, page.getCount(), "Wrong amount of paths");
+    }
+
+    @Test
+    public void testFindShortestPathsInWeightedGraph_useNegativeWeight_findShortestPath() {
+        // Arrange
+        //@formatter:off
+        Integer[][] mat = {{100,  100, 100},
+                           {500, -100, 300}};
+        //@formatter:on
+        IMatrix<Integer> matrix = new StandardMatrix<>(mat);
+        IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(1, 0));
+
+        List<List<Index>> expectedPaths = new ArrayList<>(1);
+        expectedPaths.add(Arrays.asList(Index.from(1, 0), Index.from(1, 1), Index.from(1, 2)));
+
+        // Act
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        Collection<Collection<Index>> paths = findPaths.findShortestPathsInWeightedGraph(Index.from(1, 2));
+        ShortestPathsPage<Index> page = findPaths.findShortestPathsInWeightedGraph(Index.from(1, 2), 0, 10);
+
+        // Assert
+        FindPathsTest.pathsValidation(expectedPaths, paths);
+        Assertions.assertEquals(200L, page.getDistance(), "Wrong distance");
+        Assertions.assertEquals(BigInteger.ONE, page.getCount(), "Wrong amount of paths");
+    }
+
+    @Test
+    public void testFindShortestPathsInWeightedGraph_useNonNegativeWeights_countPathsOverCompiledGraph() {
+        // Arrange (Open grid, so there are C(10, 5) shortest paths from corner to corner)
+        Integer[][] mat = new Integer[6][6];
+        for (Integer[] row : mat) {
+            Arrays.fill(row, 7);
+        }
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+
+        // Act (Trees are cached by the compiled engines only, so the second miss caches the tree of root)
+        new FindPaths<>(graph, null, null, cache).findShortestPathsInWeightedGraph(Index.from(5, 5), 0, 0);
+        ShortestPathsPage<Index> page = new FindPaths<>(graph, null, null, cache).findShortestPathsInWeightedGraph(Index.from(5, 5), 0, 0);
+
+        // Assert
+        Assertions.assertEquals(1, cache.size(), "Non-negative weights should be searched over the compiled graph");
+        Assertions.assertEquals(70L, page.getDistance(), "Wrong distance");
+        Assertions.assertEquals(BigInteger.valueOf(252), page.getCount(), "Wrong amount of paths");
+    }
+
+    @Test
+    public void testFindShortestPathsInWeightedGraph_useNegativeWeight_searchUsingDijkstraWithNegCycleSupport() {
+        // Arrange
+        //@formatter:off
+        Integer[][] mat = {{100,  100, 100},
+                           {500, -100, 300}};
+        //@formatter:on
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(1, 0));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+
+        // Act
+        new FindPaths<>(graph, null, null, cache).findShortestPathsInWeightedGraph(Index.from(1, 2), 0, 0);
+        new FindPaths<>(graph, null, null, cache).findShortestPathsInWeightedGraph(Index.from(1, 2), 0, 0);
+
+        // Assert
+        Assertions.assertEquals(0L, cache.getMissCount(), "Negative weights should not be searched over the compiled graph");
+    }
+
+    @Test
+    public void testFindShortestPaths_useWeightedGraphWithCloseWeights_findAllShortestPaths() {
+        // Arrange (Weights are close to each other, so A* is used)
+        //@formatter:off
+        Integer[][] mat = {{500, 500, 500, 900},
+                           {500, 900, 500, 900},
+                           {500, 500, 500, 500}};
+        //@formatter:on
+        IMatrix<Integer> matrix = new StandardMatrix<>(mat);
+        IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+
+        List<List<Index>> expectedPaths = new ArrayList<>(2);
+        expectedPaths.add(Arrays.asList(Index.from(0, 0), Index.from(0, 1), Index.from(0, 2), Index.from(1, 2), Index.from(2, 2), Index.from(2, 3)));
+        expectedPaths.add(Arrays.asList(Index.from(0, 0), Index.from(1, 0), Index.from(2, 0), Index.from(2, 1), Index.from(2, 2), Index.from(2, 3)));
+
+        // Act
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        Collection<Collection<Index>> paths = findPaths.findShortestPathsInWeightedGraph(Index.from(2, 3));
+        ShortestPathsPage<Index> page = findPaths.findShortestPathsInWeightedGraph(Index.from(2, 3), 0, 0);
+
+        // Assert
+        FindPathsTest.pathsValidation(expectedPaths, paths);
+        Assertions.assertEquals(2500L, page.getDistance(), "Wrong distance");
+        Assertions.assertEquals(BigInteger.valueOf(2), page.getCount(), "Wrong amount of paths");
+    }
+
     @Test
     public void testFindShortestPathsDijkstra_useWeightedGraph_findShortestPath() {
         // Arrange
@@ -1,5 +1,6 @@
 package org.hit.internetprogramming.eoh.server.graph.algorithm;
 
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsPage;
 import org.hit.internetprogramming.eoh.common.graph.IGraph;
 import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
 import org.hit.internetprogramming.eoh.common.mat.IMatrix;
@@ -7,11 +8,11 @@ import org.hit.internetprogramming.eoh.common.mat.Index;
 import org.hit.internetprogramming.eoh.common.mat.impl.CrossMatrix;
 import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
 import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
-import org.hit.internetprogramming.eoh.server.common.exception.InputTooLargeException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.opentest4j.AssertionFailedError;
 
+import java.math.BigInteger;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -110,25 +111,98 @@ public class FindPathsTest {
     }
 
     @Test
-    public void testFindShortestPaths_useRegularMatrixWithSize51x51_catchException() {
+    public void testFindShortestPaths_useRegularMatrixWithSize51x51_findNoPath() {
         // Arrange
         Integer[][] mat = new Integer[51][51];
         IMatrix<Integer> matrix = new Matrix<>(mat);
         IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
 
-        Throwable thrown = null;
+        // Act
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        List<Collection<Index>> paths = findPaths.findShortestPaths(Index.from(3, 3));
+
+        // Assert
+        Assertions.assertTrue(paths.isEmpty(), "Size of graph is not limited, and there are no vertices");
+    }
+
+    @Test
+    public void testFindShortestPaths_useOpenStandardMatrixWithSize10x10_allPathsFound() {
+        // Arrange
+        IGraph<Index> graph = new MatrixGraphAdapter<>(openStandardMatrix(10), Index.from(0, 0));
 
         // Act
-        try {
-            FindPaths<Index> findPaths = new FindPaths<>(graph);
-            findPaths.findShortestPaths(Index.from(3, 3));
-        } catch (Throwable t) {
-            thrown = t;
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        List<Collection<Index>> paths = findPaths.findShortestPaths(Index.from(9, 9));
+
+        // Assert
+        Assertions.assertEquals(binomial(18, 9).intValue(), paths.size(), "Unpaged request is supposed to get all shortest paths");
+    }
+
+    @Test
+    public void testFindShortestPathsPage_useOpenStandardMatrixWithSize8x8_pagesEqualToAllPaths() {
+        // Arrange
+        IGraph<Index> graph = new MatrixGraphAdapter<>(openStandardMatrix(8), Index.from(0, 0));
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+        List<Collection<Index>> allPaths = findPaths.findShortestPaths(Index.from(7, 7));
+
+        // Act
+        List<Collection<Index>> pagedPaths = new ArrayList<>();
+        ShortestPathsPage<Index> page;
+        long offset = 0;
+        do {
+            page = findPaths.findShortestPaths(Index.from(7, 7), offset, 500);
+            pagedPaths.addAll(page.getPaths());
+            offset += page.getPaths().size();
+        } while (!page.getPaths().isEmpty());
+
+        // Assert
+        Assertions.assertEquals(binomial(14, 7), page.getCount(), "Wrong amount of paths");
+        Assertions.assertEquals(14L, page.getDistance(), "Wrong distance");
+        Assertions.assertEquals(binomial(14, 7).intValue(), allPaths.size(), "Wrong amount of paths");
+        Assertions.assertEquals(allPaths, pagedPaths, "Pages are expected to be in the same order as all paths");
+        Assertions.assertEquals(allPaths.size(), new HashSet<>(allPaths).size(), "Paths are expected to be distinct");
+    }
+
+    @Test
+    public void testFindShortestPathsPage_useOpenStandardMatrixWithSize200x200_countWithoutEnumerating() {
+        // Arrange
+        IGraph<Index> graph = new MatrixGraphAdapter<>(openStandardMatrix(200), Index.from(0, 0));
+        FindPaths<Index> findPaths = new FindPaths<>(graph);
+
+        // Act
+        ShortestPathsPage<Index> countOnly = findPaths.findShortestPaths(Index.from(199, 199), 0, 0);
+        ShortestPathsPage<Index> lastPage = findPaths.findShortestPaths(Index.from(199, 199), Long.MAX_VALUE - 1, 10);
+        ShortestPathsPage<Index> firstPage = findPaths.findShortestPaths(Index.from(199, 199), 0, 3);
+
+        // Assert
+        Assertions.assertEquals(binomial(398, 199), countOnly.getCount(), "Wrong amount of paths");
+        Assertions.assertEquals(398L, countOnly.getDistance(), "Wrong distance");
+        Assertions.assertTrue(countOnly.getPaths().isEmpty(), "No paths are expected when limit is 0");
+        Assertions.assertEquals(10, lastPage.getPaths().size(), "Expected to find paths at any rank");
+        Assertions.assertEquals(3, firstPage.getPaths().size(), "Wrong amount of paths");
+        for (Collection<Index> path : firstPage.getPaths()) {
+            Assertions.assertEquals(399, path.size(), "Wrong path length");
+            Assertions.assertEquals(Index.from(0, 0), path.iterator().next(), "Path is expected to start at source");
         }
+    }
+
+    @Test
+    public void testFindShortestPathsPage_unreachableDestination_countIsZero() {
+        // Arrange
+        //@formatter:off
+        Integer[][] mat = {{1, 0, 1},
+                           {0, 0, 1},
+                           {1, 1, 1}};
+        //@formatter:on
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(replaceZeroesWithNulls(mat)), Index.from(0, 0));
+
+        // Act
+        ShortestPathsPage<Index> page = new FindPaths<>(graph).findShortestPaths(Index.from(2, 2), 0, 10);
 
         // Assert
-        Assertions.assertNotNull(thrown, "Supposed to fail with exception when size is bigger than 50x50");
-        Assertions.assertTrue(thrown instanceof InputTooLargeException, "Expected exception is InputTooLargeException");
+        Assertions.assertEquals(BigInteger.ZERO, page.getCount(), "Destination is not reachable");
+        Assertions.assertNull(page.getDistance(), "Destination is not reachable");
+        Assertions.assertTrue(page.getPaths().isEmpty(), "Destination is not reachable");
     }
 
     @Test
@@ -694,4 +768,29 @@ public class FindPathsTest {
 
         return matrix;
     }
+
+    /**
+     * @param size Amount of rows and columns
+     * @return A standard matrix with a value at each of its cells
+     */
+    private static IMatrix<Integer> openStandardMatrix(int size) {
+        Integer[][] mat = new Integer[size][size];
+        for (Integer[] row : mat) {
+            Arrays.fill(row, 1);
+        }
+
+        return new StandardMatrix<>(mat);
+    }
+
+    /**
+     * @return Amount of ways to choose k out of n, which is the amount of shortest paths along an open grid
+     */
+    private static BigInteger binomial(int n, int k) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 1; i <= k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,123 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link IntBFSVisit}, comparing its distances and parents with the ones of {@link BFSVisit}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class IntBFSVisitTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomMatrices_shouldMatchBfsVisit() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(new MatrixGraphAdapter<>(random.fill(new BitMatrix(30, 30), 65), Index.from(0, 0)));
+            assertSameTraversal(new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(30, 30), 65), Index.from(0, 0)));
+            assertSameTraversal(new MatrixGraphAdapter<>(random.fill(new BitCrossMatrix(30, 30), 65), Index.from(0, 0)));
+        }
+    }
+
+    @Test
+    public void testTraverse_reuseScratch_previousResultShouldRemainValid() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(20, 20), 65), Index.from(0, 0)));
+        IntBFSVisit bfs = new IntBFSVisit();
+
+        ShortestPathTree first = bfs.traverse(graph, 0, CompiledGraph.NO_VERTEX);
+        long[] firstDistances = new long[graph.vertexCount()];
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            firstDistances[id] = first.distance(id);
+        }
+
+        ShortestPathTree second = bfs.traverse(graph, graph.vertexCount() - 1, CompiledGraph.NO_VERTEX);
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            assertThat(first.distance(id), is(firstDistances[id]));
+        }
+        assertThat(second.distance(graph.vertexCount() - 1), is(0L));
+        assertThat(second.parentCount(graph.vertexCount() - 1), is(0));
+    }
+
+    @Test
+    public void testTraverse_stopEarly_treeShouldHoldReachedVerticesOnly() {
+        BitStandardMatrix matrix = new BitStandardMatrix(100, 100);
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                matrix.setIntValue(row, col, 1);
+            }
+        }
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(matrix, Index.from(50, 50)));
+        int destination = graph.idOf(52, 50);
+
+        ShortestPathTree tree = new IntBFSVisit().traverse(graph, graph.rootId(), destination);
+        ShortestPathTree fullTree = new IntBFSVisit().traverse(graph);
+
+        // Vertices at distance 2 or less, which are 13 on a grid with 4 neighbors
+        assertThat(tree.size(), is(13));
+        assertThat(tree.sizeInBytes() < graph.vertexCount(), is(true));
+        assertThat(tree.distance(destination), is(2L));
+        assertThat(tree.parentCount(destination), is(1));
+        assertThat(tree.parent(destination, 0), is(graph.idOf(51, 50)));
+        assertThat(tree.isReached(graph.idOf(0, 0)), is(false));
+        assertThat(tree.distance(graph.idOf(0, 0)), is(ShortestPathTree.UNREACHED));
+        assertThat(tree.indexOf(CompiledGraph.NO_VERTEX), is(-1));
+
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            if (tree.isReached(id)) {
+                assertThat(tree.distance(id), is(fullTree.distance(id)));
+                assertThat(tree.vertexOf(id), is(graph.vertexOf(id)));
+            }
+        }
+    }
+
+    @Test
+    public void testFindShortestPaths_compiledGraph_shouldMatchMatrixGraph() {
+        for (int i = 0; i < 5; i++) {
+            BitStandardMatrix matrix = random.fill(new BitStandardMatrix(8, 8), 65);
+            matrix.setIntValue(7, 7, 1);
+            IGraph<Index> graph = new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+
+            List<Collection<Index>> expected = new FindPaths<>(graph).findShortestPaths(Index.from(7, 7));
+            List<Collection<Index>> actual = new FindPaths<>(CompiledGraph.compile(graph)).findShortestPaths(Index.from(7, 7));
+
+            assertThat(actual.size(), is(expected.size()));
+            assertThat(new HashSet<>(actual), is(new HashSet<>(expected)));
+        }
+    }
+
+    private void assertSameTraversal(IGraph<Index> graph) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        Map<Index, VertexDistanceInfo<Index>> expected = new BFSVisit<Index>().traverse(graph);
+        ShortestPathTree actual = new IntBFSVisit().traverse(compiledGraph);
+
+        for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+            VertexDistanceInfo<Index> expectedInfo = expected.get(compiledGraph.vertexOf(id));
+            if (expectedInfo == null) {
+                assertThat(actual.isReached(id), is(false));
+            } else {
+                assertThat(actual.distance(id), is(expectedInfo.getDistance()));
+
+                Set<Index> parents = new HashSet<>();
+                actual.forEachParent(id, parent -> parents.add(compiledGraph.vertexOf(parent)));
+                assertThat(parents, is(new HashSet<>(expectedInfo.getParents())));
+                assertThat(actual.parentCount(id), is(parents.size()));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.measure;
+
+/**
+ * Benchmark of {@link JumpPointSearch}, looking for a single shortest path between corners of binary grids with 25% of
+ * blocked cells. We compare it with {@link BidirectionalIntBFSVisit}, which is what {@link FindPaths} uses for unweighted
+ * graphs, and with {@link AStar}, which settles one cell at a time using the same heuristic.<br/>
+ * A 4000x4000 grid takes about 2.5 GB once compiled, so it is skipped when the heap is smaller.<br/>
+ * This test is tagged as "load" and it is excluded from the regular test task. Run it using: gradle :Server:loadTest
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+@Tag("load")
+public class JumpPointSearchBenchmarkTest {
+    private static final int BLOCKED_PERCENT = 25;
+
+    @Test
+    public void testJumpPointSearch_2000x2000() {
+        benchmark(new BitMatrix(2000, 2000));
+        benchmark(new BitStandardMatrix(2000, 2000));
+    }
+
+    @Test
+    public void testJumpPointSearch_4000x4000() {
+        Assumptions.assumeTrue(Runtime.getRuntime().maxMemory() >= 3_500_000_000L, "Not enough memory for a 4000x4000 grid. Use at least -Xmx4g");
+        benchmark(new BitMatrix(4000, 4000));
+    }
+
+    private static void benchmark(IIntMatrix matrix) {
+        CompiledGraph graph = compile(fillRandomly(matrix));
+        int source = graph.idOf(0, 0), destination = graph.idOf(matrix.rows() - 1, matrix.cols() - 1);
+
+        // Warm up all, so the JIT compiles them before we measure
+        long expectedDistance = new BidirectionalIntBFSVisit().traverse(graph, source, destination).distance(destination);
+        Assertions.assertEquals(expectedDistance, new AStar(false).traverse(graph, source, destination).distance(destination));
+        Assertions.assertEquals(expectedDistance, new JumpPointSearch().findPath(graph, source, destination, false).size() - 1);
+        int jumpPoints = new JumpPointSearch().findPath(graph, source, destination, true).size();
+
+        long bfsNanos = measure(() -> new IntBFSVisit().traverse(graph, source, destination));
+        long bidirectionalNanos = measure(() -> new BidirectionalIntBFSVisit().traverse(graph, source, destination));
+        long aStarNanos = measure(() -> new AStar(false).traverse(graph, source, destination));
+        long jpsNanos = measure(() -> new JumpPointSearch().findPath(graph, source, destination, false));
+
+        System.out.println(String.format("Single path between corners of %dx%d cells (%s, distance %d):%n    BFS:               %,d ms%n" +
+                "    Bidirectional BFS: %,d ms%n    A*:                %,d ms%n    Jump point search: %,d ms (%d jump points)",
+            matrix.rows(), matrix.cols(), matrix.neighborhood(), expectedDistance, bfsNanos / 1_000_000, bidirectionalNanos / 1_000_000,
+            aStarNanos / 1_000_000, jpsNanos / 1_000_000, jumpPoints));
+    }
+
+    private static IIntMatrix fillRandomly(IIntMatrix matrix) {
+        new RandomMatrices().fill(matrix, 100 - BLOCKED_PERCENT);
+
+        // Both corners are always vertices
+        matrix.setIntValue(matrix.rows() - 1, matrix.cols() - 1, 1);
+        return matrix;
+    }
+}
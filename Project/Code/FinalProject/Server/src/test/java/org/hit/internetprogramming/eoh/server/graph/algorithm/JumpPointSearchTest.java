@@ -0,0 +1,107 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+
+/**
+ * Test {@link JumpPointSearch}, comparing the length of its paths with the distances of {@link IntBFSVisit}.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class JumpPointSearchTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testFindPath_randomMatrices_shouldBeShortestPaths() {
+        for (int openPercent : new int[] {55, 70, 85, 100}) {
+            for (int i = 0; i < 5; i++) {
+                assertShortestPaths(compile(random.fill(new BitMatrix(40, 40), openPercent)));
+                assertShortestPaths(compile(random.fill(new BitStandardMatrix(40, 40), openPercent)));
+            }
+        }
+    }
+
+    @Test
+    public void testFindPath_jumpPointsOnly_shouldBeOnLinesOfTheExpandedPath() {
+        CompiledGraph graph = compile(random.fill(new BitMatrix(60, 60), 80));
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            List<Index> jumpPoints = new JumpPointSearch().findPath(graph, source, destination, true);
+            List<Index> path = new JumpPointSearch().findPath(graph, source, destination, false);
+
+            assertThat(jumpPoints.isEmpty(), is(path.isEmpty()));
+            if (!path.isEmpty()) {
+                assertThat(jumpPoints.get(0), is(path.get(0)));
+                assertThat(jumpPoints.get(jumpPoints.size() - 1), is(path.get(path.size() - 1)));
+                Assertions.assertTrue(path.containsAll(jumpPoints), "Jump points must be cells of the path");
+                for (int j = 1; j < jumpPoints.size(); j++) {
+                    int rowDistance = Math.abs(jumpPoints.get(j).getRow() - jumpPoints.get(j - 1).getRow());
+                    int colDistance = Math.abs(jumpPoints.get(j).getColumn() - jumpPoints.get(j - 1).getColumn());
+                    Assertions.assertTrue((rowDistance == 0) || (colDistance == 0) || (rowDistance == colDistance), "Jump points must be on a line");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindPath_openGrid_shouldHaveFewJumpPoints() {
+        CompiledGraph graph = compile(random.fill(new BitMatrix(500, 500), 100));
+
+        List<Index> jumpPoints = new JumpPointSearch().findPath(graph, graph.idOf(0, 0), graph.idOf(499, 200), true);
+
+        assertThat(jumpPoints.size(), lessThan(4));
+        assertThat(new JumpPointSearch().findPath(graph, graph.idOf(0, 0), graph.idOf(499, 200), false).size(), is(500));
+    }
+
+    @Test
+    public void testFindPath_unreachableDestination_shouldBeEmpty() {
+        BitStandardMatrix matrix = new BitStandardMatrix(5, 5);
+        matrix.setIntValue(0, 0, 1);
+        matrix.setIntValue(0, 1, 1);
+        matrix.setIntValue(4, 4, 1);
+        matrix.setIntValue(3, 4, 1);
+        CompiledGraph graph = compile(matrix);
+
+        Assertions.assertTrue(new JumpPointSearch().findPath(graph, graph.idOf(0, 0), graph.idOf(4, 4), false).isEmpty());
+    }
+
+    @Test
+    public void testFindPath_crossMatrix_notSupported() {
+        CompiledGraph graph = compile(random.fill(new BitCrossMatrix(5, 5), 100));
+
+        Assertions.assertFalse(JumpPointSearch.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JumpPointSearch().findPath(graph, graph.idOf(0, 0), graph.idOf(2, 2), false));
+    }
+
+    private void assertShortestPaths(CompiledGraph graph) {
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = new IntBFSVisit().traverse(graph, source, destination);
+            List<Index> path = new JumpPointSearch().findPath(graph, source, destination, false);
+
+            if (!expected.isReached(destination)) {
+                Assertions.assertTrue(path.isEmpty(), "Destination is not reachable");
+                continue;
+            }
+
+            assertThat((long) path.size() - 1, is(expected.distance(destination)));
+            assertThat(path.get(0), is(graph.vertexOf(source)));
+            assertThat(path.get(path.size() - 1), is(graph.vertexOf(destination)));
+            for (int j = 1; j < path.size(); j++) {
+                Assertions.assertTrue(graph.getReachableVertices(path.get(j - 1)).contains(path.get(j)), "Each step must be an edge");
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.reachedCount;
+
+/**
+ * Test {@link Landmarks}, to make sure their bounds are admissible and consistent, and that {@link AStar} directed by
+ * them finds the same shortest paths as {@link DialDijkstra}.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class LandmarksTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testLowerBound_randomMatrices_shouldBeAdmissibleAndConsistent() {
+        assertAdmissibleAndConsistent(compile(random.fill(new IntMatrix(25, 25), 0, 20, 20)));
+        assertAdmissibleAndConsistent(compile(random.fill(new IntStandardMatrix(25, 25), 0, 20, 20)));
+        assertAdmissibleAndConsistent(compile(random.fill(new IntCrossMatrix(25, 25), 0, 20, 20)));
+    }
+
+    @Test
+    public void testTraverse_randomMatrices_shouldMatchDialDijkstra() {
+        for (int i = 0; i < 3; i++) {
+            assertSamePaths(compile(random.fill(new IntMatrix(30, 30), 1, 4, 10)));
+            assertSamePaths(compile(random.fill(new IntStandardMatrix(30, 30), 1, 100, 25)));
+            assertSamePaths(compile(random.fill(new IntCrossMatrix(30, 30), 1, 4, 10)));
+        }
+    }
+
+    @Test
+    public void testBuild_openGrid_shouldSelectFarthestVertices() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(50, 50), 1, 2, 0));
+
+        Landmarks landmarks = Landmarks.build(graph, Landmarks.DEFAULT_COUNT);
+
+        assertThat(landmarks.count(), is(Landmarks.DEFAULT_COUNT));
+        assertThat(graph.vertexOf(landmarks.landmark(0)), is(Index.from(49, 49)));
+        assertThat(graph.vertexOf(landmarks.landmark(1)), is(Index.from(0, 0)));
+        Set<Integer> distinct = new HashSet<>();
+        for (int i = 0; i < landmarks.count(); i++) {
+            distinct.add(landmarks.landmark(i));
+        }
+        assertThat(distinct.size(), is(landmarks.count()));
+        assertThat(landmarks.sizeInBytes(), is((long) (graph.vertexCount() + 1) * Landmarks.DEFAULT_COUNT * Integer.BYTES));
+    }
+
+    @Test
+    public void testBuild_smallGraph_shouldNotSelectMoreLandmarksThanVertices() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, 2, 3}}), Index.from(0, 1)));
+
+        Landmarks landmarks = Landmarks.build(graph, Landmarks.DEFAULT_COUNT);
+
+        assertThat(landmarks.count(), is(3));
+        assertThat(new AStar(landmarks).traverse(graph, graph.idOf(0, 0), graph.idOf(0, 2)).distance(graph.idOf(0, 2)), is(5L));
+    }
+
+    @Test
+    public void testTraverse_variedWeights_shouldSettleLessVerticesThanGridHeuristic() {
+        // Weights vary, so the grid heuristic is multiplied by the minimum weight, which barely directs the search
+        CompiledGraph graph = compile(random.fill(new IntMatrix(200, 200), 1, 100, 0));
+        Landmarks landmarks = Landmarks.build(graph, Landmarks.DEFAULT_COUNT);
+        int source = graph.idOf(20, 30), destination = graph.idOf(180, 150);
+
+        ShortestPathTree expected = new AStar().traverse(graph, source, destination);
+        ShortestPathTree actual = new AStar(landmarks).traverse(graph, source, destination);
+
+        assertThat(actual.distance(destination), is(expected.distance(destination)));
+        assertThat(ShortestPathCounts.of(actual, destination).getTotal(), is(ShortestPathCounts.of(expected, destination).getTotal()));
+        assertThat(reachedCount(actual), lessThan(reachedCount(expected) / 2));
+    }
+
+    @Test
+    public void testTraverse_anotherRootAndComponent_shouldUseSameLandmarks() {
+        IntStandardMatrix matrix = random.fill(new IntStandardMatrix(20, 20), 1, 10, 0);
+
+        // A wall, so the right part is not reachable from root, and it has no landmarks
+        for (int row = 0; row < matrix.rows(); row++) {
+            matrix.setIntValue(row, 10, IIntMatrix.NO_VALUE);
+        }
+        CompiledGraph graph = compile(matrix);
+        Landmarks landmarks = Landmarks.build(graph, Landmarks.DEFAULT_COUNT);
+
+        for (Index[] query : new Index[][] {{Index.from(19, 0), Index.from(5, 9)}, {Index.from(0, 11), Index.from(19, 19)}}) {
+            CompiledGraph rooted = graph.withRoot(query[0]);
+            int source = rooted.rootId(), destination = rooted.idOf(query[1]);
+
+            ShortestPathTree expected = new DialDijkstra().traverse(rooted, source, CompiledGraph.NO_VERTEX);
+            ShortestPathTree actual = new AStar(landmarks).traverse(rooted, source, destination);
+
+            assertThat(actual.distance(destination), is(expected.distance(destination)));
+        }
+    }
+
+    @Test
+    public void testBuild_negativeWeights_notSupported() {
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, -1}}), Index.from(0, 0)));
+
+        Assertions.assertFalse(Landmarks.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Landmarks.build(graph, Landmarks.DEFAULT_COUNT));
+    }
+
+    @Test
+    public void testTraverse_landmarksOfAnotherGraph_shouldThrow() {
+        Landmarks landmarks = Landmarks.build(compile(random.fill(new IntMatrix(5, 5), 1, 4, 0)), Landmarks.DEFAULT_COUNT);
+        CompiledGraph graph = compile(random.fill(new IntMatrix(6, 6), 1, 4, 0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AStar(landmarks).traverse(graph, graph.rootId(), graph.idOf(5, 5)));
+    }
+
+    private void assertAdmissibleAndConsistent(CompiledGraph graph) {
+        Landmarks landmarks = Landmarks.build(graph, 4);
+        for (int i = 0; i < 10; i++) {
+            int destination = random.nextId(graph);
+            for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+                ShortestPathTree fromVertex = new DialDijkstra().traverse(graph, vertex, destination);
+                long bound = landmarks.lowerBound(graph, vertex, destination);
+                if (fromVertex.isReached(destination)) {
+                    Assertions.assertTrue(bound <= fromVertex.distance(destination), "Bound must not be longer than the distance");
+                }
+
+                for (int edge = graph.firstEdge(vertex), end = graph.endEdge(vertex); edge < end; edge++) {
+                    long targetBound = landmarks.lowerBound(graph, graph.target(edge), destination);
+                    Assertions.assertTrue(bound <= graph.weight(edge) + targetBound, "Bound must be consistent");
+                }
+            }
+        }
+    }
+
+    private void assertSamePaths(CompiledGraph graph) {
+        Landmarks landmarks = Landmarks.build(graph, Landmarks.DEFAULT_COUNT);
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextId(graph), destination = random.nextId(graph);
+            ShortestPathTree expected = new DialDijkstra().traverse(graph, source, CompiledGraph.NO_VERTEX);
+            ShortestPathTree actual = new AStar(landmarks).traverse(graph, source, destination);
+
+            assertThat(actual.isReached(destination), is(expected.isReached(destination)));
+            if (expected.isReached(destination)) {
+                ShortestPathCounts expectedCounts = ShortestPathCounts.of(expected, destination);
+                ShortestPathCounts actualCounts = ShortestPathCounts.of(actual, destination);
+                assertThat(actualCounts.getDistance(), is(expectedCounts.getDistance()));
+                assertThat(actualCounts.getTotal(), is(expectedCounts.getTotal()));
+
+                if (expectedCounts.getTotal().compareTo(BigInteger.valueOf(1000)) <= 0) {
+                    int total = expectedCounts.getTotal().intValue();
+                    assertThat(new HashSet<>(actualCounts.paths(0, total)), is(new HashSet<>(expectedCounts.paths(0, total))));
+                }
+            }
+        }
+    }
+}
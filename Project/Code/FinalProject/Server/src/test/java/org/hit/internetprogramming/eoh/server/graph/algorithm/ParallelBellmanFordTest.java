@@ -0,0 +1,116 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCycleException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Test {@link ParallelBellmanFord}, comparing its distances and parents with the ones of {@link SPFA}, for several amounts
+ * of workers.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class ParallelBellmanFordTest {
+    private static final int[] PARALLELISM = {1, 3, 8, 16};
+
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomPositiveWeights_shouldMatchSPFA() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntMatrix(40, 40), 1, 1000, 0, 0));
+            assertSameTraversal(randomGraph(new IntStandardMatrix(40, 40), 1, 10, 0, 0));
+        }
+    }
+
+    @Test
+    public void testTraverse_negativeWeightsWithNoNegativeCycle_shouldMatchSPFA() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntMatrix(40, 40), 100, 200, 0, 30));
+            assertSameTraversal(randomGraph(new IntStandardMatrix(40, 40), 100, 200, 0, 30));
+        }
+    }
+
+    @Test
+    public void testTraverse_unreachableVertices_shouldMatchSPFA() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntCrossMatrix(40, 40), 100, 200, 30, 30));
+        }
+    }
+
+    @Test
+    public void testTraverse_zeroWeightCycles_shouldMatchSPFA() {
+        //@formatter:off
+        Integer[][] mat = {{1,  5, -5},
+                           {1,  5,  5}};
+        //@formatter:on
+        assertSameTraversal(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0)));
+    }
+
+    @Test
+    public void testTraverse_negativeCycle_shouldReportCycleVertices() {
+        //@formatter:off
+        Integer[][] mat = {{100, -100, -100},
+                           {500,  900,  300}};
+        //@formatter:on
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(1, 0)));
+
+        for (int parallelism : PARALLELISM) {
+            NegativeWeightCycleException thrown = Assertions.assertThrows(NegativeWeightCycleException.class, () -> new ParallelBellmanFord(parallelism).traverse(graph));
+            assertThat(thrown.getCycle().size(), greaterThan(1));
+        }
+    }
+
+    @Test
+    public void testTraverse_noSource_shouldReachNothing() {
+        CompiledGraph graph = CompiledGraph.compile(randomGraph(new IntMatrix(5, 5), 1, 10, 0, 0));
+        ShortestPathTree tree = new ParallelBellmanFord(3).traverse(graph, CompiledGraph.NO_VERTEX);
+
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            Assertions.assertFalse(tree.isReached(id));
+        }
+    }
+
+    /**
+     * Parents must be the same ones, in the same order, for any amount of workers
+     */
+    private static void assertSameTraversal(MatrixGraphAdapter<Integer> graph) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        ShortestPathTree expected = new SPFA().traverse(compiledGraph);
+
+        for (int parallelism : PARALLELISM) {
+            ShortestPathTree actual = new ParallelBellmanFord(parallelism).traverse(compiledGraph);
+
+            for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+                assertThat(actual.distance(id), is(expected.distance(id)));
+
+                List<Integer> expectedParents = new ArrayList<>(), actualParents = new ArrayList<>();
+                expected.forEachParent(id, expectedParents::add);
+                actual.forEachParent(id, actualParents::add);
+                assertThat(actualParents, is(expectedParents));
+            }
+        }
+    }
+
+    /**
+     * @see RandomMatrices#fill(IIntMatrix, int, int, int, int)
+     */
+    private MatrixGraphAdapter<Integer> randomGraph(IIntMatrix matrix, int minWeight, int maxWeight, int emptyPercent, int negativePercent) {
+        return new MatrixGraphAdapter<>(random.fill(matrix, minWeight, maxWeight, emptyPercent, negativePercent), Index.from(0, 0));
+    }
+}
@@ -0,0 +1,82 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.CrossMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+/**
+ * Test {@link ParallelConnectedComponents}, comparing its results with the DFS ones.<br/>
+ * Matrices are tall enough to be split into several stripes, so components cross stripe boundaries.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class ParallelConnectedComponentsTest {
+    private static final int ROWS = 300;
+    private static final int COLS = 40;
+
+    private final RandomMatrices random = new RandomMatrices();
+    private final ParallelConnectedComponents parallelConnectedComponents = new ParallelConnectedComponents(4);
+
+    @Test
+    public void testCollect_randomMatrices_shouldMatchDfs() {
+        for (int i = 0; i < 3; i++) {
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitMatrix(ROWS, COLS), 45), Index.from(0, 0)));
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(ROWS, COLS), 45), Index.from(0, 0)));
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitCrossMatrix(ROWS, COLS), 45), Index.from(0, 0)));
+        }
+    }
+
+    @Test
+    public void testCollect_compiledGraphOfGenericMatrix_shouldMatchDfs() {
+        Integer[][] arr = new Integer[ROWS][COLS];
+        for (Integer[] row : arr) {
+            for (int col = 0; col < COLS; col++) {
+                row[col] = random.nextInt(100) < 50 ? 1 : null;
+            }
+        }
+
+        assertSameComponents(CompiledGraph.compile(new MatrixGraphAdapter<>(new CrossMatrix<>(arr), Index.from(0, 0))));
+    }
+
+    @Test
+    public void testCollect_snakeAcrossStripes_shouldFindOneComponent() {
+        // A single path that goes down and up through all stripes, so it is merged at every boundary, several times
+        BitStandardMatrix matrix = new BitStandardMatrix(ROWS, 9);
+        for (int col = 0; col < 9; col += 2) {
+            for (int row = 0; row < ROWS; row++) {
+                matrix.setIntValue(row, col, 1);
+            }
+            if (col + 1 < 9) {
+                matrix.setIntValue(((col / 2) % 2 == 0) ? ROWS - 1 : 0, col + 1, 1);
+            }
+        }
+
+        List<Set<Index>> connectedComponents = parallelConnectedComponents.collect(new MatrixGraphAdapter<>(matrix, Index.from(0, 0)));
+
+        assertThat(connectedComponents, hasSize(1));
+        assertThat(connectedComponents.get(0), hasSize(ROWS * 5 + 4));
+    }
+
+    private void assertSameComponents(IGraph<Index> graph) {
+        List<Set<Index>> expected = new ConnectedComponents().collect(graph);
+        List<Set<Index>> actual = parallelConnectedComponents.collect(graph);
+
+        // Components of equal size might be ordered differently, so compare them regardless of order
+        assertThat(actual, hasSize(expected.size()));
+        assertThat(new HashSet<>(actual), is(new HashSet<>(expected)));
+    }
+}
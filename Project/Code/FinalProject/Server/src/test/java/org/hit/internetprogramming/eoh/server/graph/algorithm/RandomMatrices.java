@@ -0,0 +1,155 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Random matrices and vertices for the tests that compare algorithms over random graphs.<br/>
+ * Each instance uses the same seed, so a test that fails over some random graph fails the same way when it is run again.
+ * The root cell, (0, 0), is always a vertex.<br/>
+ * It also holds the static helpers these tests share.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+final class RandomMatrices {
+    private static final long SEED = 16;
+
+    /**
+     * Amount of times {@link #measure(Supplier)} runs an algorithm. The fastest run is the one reported
+     */
+    private static final int RUNS = 3;
+
+    private final Random random = new Random(SEED);
+
+    /**
+     * @param bound Upper bound (exclusive)
+     * @return A random int in range [0, bound)
+     */
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * @param graph A compiled graph
+     * @return Id of a random vertex of the specified graph
+     */
+    int nextId(CompiledGraph graph) {
+        return random.nextInt(graph.vertexCount());
+    }
+
+    /**
+     * Fill a matrix with cells of value 1, or with no value
+     * @param matrix The matrix to fill
+     * @param vertexPercent Percentage of cells to set a value at
+     * @return The specified matrix
+     */
+    <T extends IIntMatrix> T fill(T matrix, int vertexPercent) {
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                matrix.setIntValue(row, col, random.nextInt(100) < vertexPercent ? 1 : IIntMatrix.NO_VALUE);
+            }
+        }
+
+        matrix.setIntValue(0, 0, 1);
+        return matrix;
+    }
+
+    /**
+     * Fill a matrix with weights in range [minWeight, maxWeight), or with no value
+     * @param matrix The matrix to fill
+     * @param emptyPercent Percentage of cells to leave with no value, so some vertices are unreachable
+     * @return The specified matrix
+     */
+    <T extends IIntMatrix> T fill(T matrix, int minWeight, int maxWeight, int emptyPercent) {
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                boolean isEmpty = random.nextInt(100) < emptyPercent;
+                matrix.setIntValue(row, col, isEmpty ? IIntMatrix.NO_VALUE : minWeight + random.nextInt(Math.max(1, maxWeight - minWeight)));
+            }
+        }
+
+        matrix.setIntValue(0, 0, minWeight);
+        return matrix;
+    }
+
+    /**
+     * Fill a matrix with weights in range [minWeight, maxWeight), and then make some of the cells negative.<br/>
+     * Negative cells are never adjacent, and their weight is smaller than the weight of any positive cell, so every cycle
+     * has a positive weight.
+     * @param matrix The matrix to fill
+     * @param emptyPercent Percentage of cells to leave with no value, so some vertices are unreachable
+     * @param negativePercent Percentage of cells to try to make negative
+     * @return The specified matrix
+     */
+    <T extends IIntMatrix> T fill(T matrix, int minWeight, int maxWeight, int emptyPercent, int negativePercent) {
+        fill(matrix, minWeight, maxWeight, emptyPercent);
+
+        for (int row = 0; row < matrix.rows(); row++) {
+            for (int col = 0; col < matrix.cols(); col++) {
+                if ((random.nextInt(100) < negativePercent) && (matrix.getIntValue(row, col) != IIntMatrix.NO_VALUE) && !hasNegativeNeighbor(matrix, row, col)) {
+                    matrix.setIntValue(row, col, -1 - random.nextInt(minWeight - 1));
+                }
+            }
+        }
+
+        matrix.setIntValue(0, 0, minWeight);
+        return matrix;
+    }
+
+    /**
+     * @param matrix The matrix to compile
+     * @return A compiled graph of the specified matrix, rooted at (0, 0)
+     */
+    static CompiledGraph compile(IIntMatrix matrix) {
+        return CompiledGraph.compile(new MatrixGraphAdapter<>(matrix, Index.from(0, 0)));
+    }
+
+    /**
+     * @param tree A shortest path tree
+     * @return Amount of vertices of the graph that the specified tree has reached
+     */
+    static int reachedCount(ShortestPathTree tree) {
+        int count = 0;
+        for (int id = 0; id < tree.getGraph().vertexCount(); id++) {
+            if (tree.isReached(id)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Run an algorithm several times, for the benchmarks
+     * @param algorithm The algorithm to run
+     * @return The fastest run, in nanoseconds
+     */
+    static long measure(Supplier<?> algorithm) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            algorithm.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return best;
+    }
+
+    private static boolean hasNegativeNeighbor(IIntMatrix matrix, int row, int col) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(matrix.rows() - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(matrix.cols() - 1, col + 1); c++) {
+                int value = matrix.getIntValue(r, c);
+                if ((value != IIntMatrix.NO_VALUE) && (value < 0)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
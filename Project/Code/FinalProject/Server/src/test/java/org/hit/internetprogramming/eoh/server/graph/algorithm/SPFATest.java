@@ -0,0 +1,120 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.hit.internetprogramming.eoh.server.common.exception.NegativeWeightCycleException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Test {@link SPFA}, comparing its distances and parents with the ones of {@link BellmanFord}.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class SPFATest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testTraverse_randomPositiveWeights_shouldMatchBellmanFord() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntMatrix(20, 20), 1, 1000, 0, 0));
+            assertSameTraversal(randomGraph(new IntStandardMatrix(20, 20), 1, 10, 0, 0));
+        }
+    }
+
+    @Test
+    public void testTraverse_negativeWeightsWithNoNegativeCycle_shouldMatchBellmanFord() {
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntMatrix(20, 20), 100, 200, 0, 30));
+            assertSameTraversal(randomGraph(new IntStandardMatrix(20, 20), 100, 200, 0, 30));
+        }
+    }
+
+    @Test
+    public void testTraverse_unreachableVertices_shouldMatchBellmanFord() {
+        // Unreachable vertices used to overflow the negative cycle check of BellmanFord
+        for (int i = 0; i < 3; i++) {
+            assertSameTraversal(randomGraph(new IntCrossMatrix(20, 20), 100, 200, 30, 30));
+        }
+    }
+
+    @Test
+    public void testTraverse_negativeCycle_shouldReportCycleVertices() {
+        //@formatter:off
+        Integer[][] mat = {{100, -100, -100},
+                           {500,  900,  300}};
+        //@formatter:on
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(1, 0)));
+
+        NegativeWeightCycleException thrown = Assertions.assertThrows(NegativeWeightCycleException.class, () -> new SPFA().traverse(graph));
+
+        List<?> cycle = thrown.getCycle();
+        assertThat(cycle.size(), greaterThan(1));
+
+        // Each vertex of the cycle leads to the next one, and the last one leads back to the first one
+        long weight = 0;
+        for (int i = 0; i < cycle.size(); i++) {
+            Index vertex = (Index) cycle.get(i), next = (Index) cycle.get((i + 1) % cycle.size());
+            assertThat(graph.getReachableVertices(vertex).contains(next), is(true));
+            weight += graph.getValue(next);
+        }
+        assertThat(weight, lessThan(0L));
+    }
+
+    @Test
+    public void testTraverse_zeroWeightCycles_shouldKeepParentsAcyclic() {
+        //@formatter:off
+        Integer[][] mat = {{1,  5, -5},
+                           {1,  5,  5}};
+        //@formatter:on
+        CompiledGraph graph = CompiledGraph.compile(new MatrixGraphAdapter<>(new StandardMatrix<>(mat), Index.from(0, 0)));
+        ShortestPathTree tree = new SPFA().traverse(graph);
+        assertThat(tree.distance(graph.idOf(0, 2)), is(0L));
+
+        for (int id = 0; id < graph.vertexCount(); id++) {
+            Collection<Index> path = ShortestPathCounts.of(tree, id).paths(0, 1).get(0);
+            assertThat(path.iterator().next(), is(graph.getRoot()));
+            assertThat(new HashSet<>(path).size(), is(path.size()));
+        }
+    }
+
+    private static void assertSameTraversal(IGraph<Index> graph) {
+        CompiledGraph compiledGraph = CompiledGraph.compile(graph);
+        Map<Index, VertexDistanceInfo<Index>> expected = new BellmanFord<Index>().traverse(graph);
+        ShortestPathTree actual = new SPFA().traverse(compiledGraph);
+
+        for (int id = 0; id < compiledGraph.vertexCount(); id++) {
+            VertexDistanceInfo<Index> expectedInfo = expected.get(compiledGraph.vertexOf(id));
+            assertThat(actual.distance(id), is((expectedInfo == null) ? ShortestPathTree.UNREACHED : expectedInfo.getDistance()));
+
+            Set<Index> parents = new HashSet<>();
+            actual.forEachParent(id, parent -> parents.add(compiledGraph.vertexOf(parent)));
+            assertThat(parents, is((expectedInfo == null) ? Set.of() : new HashSet<>(expectedInfo.getParents())));
+        }
+    }
+
+    /**
+     * @see RandomMatrices#fill(IIntMatrix, int, int, int, int)
+     */
+    private IGraph<Index> randomGraph(IIntMatrix matrix, int minWeight, int maxWeight, int emptyPercent, int negativePercent) {
+        return new MatrixGraphAdapter<>(random.fill(matrix, minWeight, maxWeight, emptyPercent, negativePercent), Index.from(0, 0));
+    }
+}
@@ -0,0 +1,112 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link ScratchPool}, to make sure working arrays are reused, and that arrays exceeding the limits are dropped,
+ * including the ones that were in use when the limits were set.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class ScratchPoolTest {
+    @BeforeEach
+    public void setUp() {
+        ScratchPool.limit(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testAcquire_afterRelease_shouldReuse() {
+        ScratchPool<TestScratch> pool = new ScratchPool<>(TestScratch::new);
+        TestScratch scratch = pool.acquire();
+        pool.release(scratch);
+
+        assertThat(pool.idleCount(), is(1));
+        assertThat(pool.acquire(), sameInstance(scratch));
+        assertThat(pool.idleCount(), is(0));
+    }
+
+    @Test
+    public void testLimit_smallerVertexCount_shouldDropLargerIdleAndInUseScratches() {
+        ScratchPool<TestScratch> pool = new ScratchPool<>(TestScratch::new);
+        TestScratch idle = acquire(pool, 100);
+        TestScratch inUse = acquire(pool, 100);
+        TestScratch small = acquire(pool, 10);
+        pool.release(idle);
+
+        ScratchPool.limit(50, Long.MAX_VALUE);
+        assertThat(pool.idleCount(), is(0));
+
+        // Sized for a graph larger than the limit, so it is not pooled again
+        pool.release(inUse);
+        assertThat(pool.idleCount(), is(0));
+
+        pool.release(small);
+        assertThat(pool.idleCount(), is(1));
+        assertThat(pool.acquire(), sameInstance(small));
+    }
+
+    @Test
+    public void testRelease_overSizeLimit_shouldDrop() {
+        // The size limit is shared by all pools
+        ScratchPool<TestScratch> pool = new ScratchPool<>(TestScratch::new);
+        ScratchPool<TestScratch> otherPool = new ScratchPool<>(TestScratch::new);
+        TestScratch first = acquire(pool, 100);
+        TestScratch second = acquire(otherPool, 100);
+        ScratchPool.limit(Integer.MAX_VALUE, ScratchPool.idleSizeInBytes() + first.sizeInBytes());
+
+        pool.release(first);
+        otherPool.release(second);
+
+        assertThat(pool.idleCount(), is(1));
+        assertThat(otherPool.idleCount(), is(0));
+    }
+
+    @Test
+    public void testStartTraversal_largerGraph_shouldAllocateAndRestartEpochs() {
+        TestScratch scratch = new TestScratch();
+        scratch.startTraversal(10);
+        scratch.startTraversal(10);
+        assertThat(scratch.epoch(), is(2));
+
+        int[] stamp = scratch.stamp;
+        scratch.startTraversal(5);
+        assertThat(scratch.stamp, sameInstance(stamp));
+        assertThat(scratch.epoch(), is(3));
+
+        scratch.startTraversal(20);
+        assertThat(scratch.stamp, not(sameInstance(stamp)));
+        assertThat(scratch.capacity(), is(20));
+        assertThat(scratch.epoch(), is(1));
+    }
+
+    private static TestScratch acquire(ScratchPool<TestScratch> pool, int vertexCount) {
+        TestScratch scratch = pool.acquire();
+        scratch.startTraversal(vertexCount);
+        return scratch;
+    }
+
+    private static class TestScratch extends ScratchPool.Scratch {
+        private int[] stamp = new int[0];
+
+        @Override
+        protected void allocate(int vertexCount) {
+            stamp = new int[vertexCount];
+        }
+
+        @Override
+        protected int[][] stamps() {
+            return new int[][] { stamp };
+        }
+
+        @Override
+        protected long sizeInBytes() {
+            return (long) capacity() * Integer.BYTES;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hit.internetprogramming.eoh.server.graph.algorithm.RandomMatrices.compile;
+
+/**
+ * Test {@link ShortestPathTreeCache}, to make sure trees are admitted on the second miss, that queries of cached trees
+ * get the same paths as searches from scratch, and that trees are evicted by size and invalidated by graph.
+ * @author Haim Adrian
+ * @since 17-Oct-26
+ */
+public class ShortestPathTreeCacheTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testFindShortestPaths_sameSource_shouldCacheOnSecondMiss() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(20, 20), 1, 2, 20));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+
+        for (int i = 0; i < 20; i++) {
+            Index destination = randomVertex(graph);
+            assertThat(new FindPaths<>(graph, null, null, cache).findShortestPaths(destination, 0, 100),
+                    is(new FindPaths<>(graph).findShortestPaths(destination, 0, 100)));
+
+            // First query searches for destination, and the second one traverses all vertices and caches the tree
+            assertThat(cache.size(), is((i == 0) ? 0 : 1));
+        }
+
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getHitCount(), is(18L));
+    }
+
+    @Test
+    public void testFindShortestPathsInWeightedGraph_sameSource_shouldMatchSearchFromScratch() {
+        CompiledGraph graph = compile(random.fill(new IntMatrix(30, 30), 1, 100, 10));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+
+        for (int i = 0; i < 20; i++) {
+            Index destination = randomVertex(graph);
+            assertThat(new FindPaths<>(graph, null, null, cache).findShortestPathsInWeightedGraph(destination, 0, 100),
+                    is(new FindPaths<>(graph).findShortestPathsInWeightedGraph(destination, 0, 100)));
+        }
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getHitCount(), is(18L));
+    }
+
+    @Test
+    public void testGet_anotherRootOfSameGraph_shouldHit() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+        cache.put(new IntBFSVisit().traverse(graph), ShortestPathAlgorithm.Algorithm.BFS);
+
+        CompiledGraph rooted = graph.withRoot(Index.from(5, 5));
+
+        assertThat(cache.get(rooted, graph.rootId(), ShortestPathAlgorithm.Algorithm.BFS), notNullValue());
+        assertThat(cache.get(rooted, rooted.rootId(), ShortestPathAlgorithm.Algorithm.BFS), nullValue());
+        assertThat(cache.get(graph, graph.rootId(), ShortestPathAlgorithm.Algorithm.DIJKSTRA), nullValue());
+
+        // The same vertices, compiled again, are another graph
+        CompiledGraph recompiled = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        assertThat(cache.get(recompiled, recompiled.rootId(), ShortestPathAlgorithm.Algorithm.BFS), nullValue());
+    }
+
+    @Test
+    public void testPut_exceedBudget_shouldEvictLeastRecentlyUsed() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        ShortestPathTree first = new IntBFSVisit().traverse(graph, graph.idOf(0, 0), CompiledGraph.NO_VERTEX);
+        ShortestPathTree second = new IntBFSVisit().traverse(graph, graph.idOf(5, 5), CompiledGraph.NO_VERTEX);
+        ShortestPathTree third = new IntBFSVisit().traverse(graph, graph.idOf(9, 9), CompiledGraph.NO_VERTEX);
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(first.sizeInBytes() + second.sizeInBytes());
+        cache.put(first, ShortestPathAlgorithm.Algorithm.BFS);
+        cache.put(second, ShortestPathAlgorithm.Algorithm.BFS);
+
+        // Use the first tree, so the second one becomes the least recently used
+        assertThat(cache.get(graph, first.getSource(), ShortestPathAlgorithm.Algorithm.BFS), is(first));
+        cache.put(third, ShortestPathAlgorithm.Algorithm.BFS);
+
+        assertThat(cache.get(graph, second.getSource(), ShortestPathAlgorithm.Algorithm.BFS), nullValue());
+        assertThat(cache.get(graph, first.getSource(), ShortestPathAlgorithm.Algorithm.BFS), is(first));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.getSizeInBytes(), is(first.sizeInBytes() + third.sizeInBytes()));
+
+        // A tree that is larger than the budget is not cached at all
+        ShortestPathTreeCache smallCache = new ShortestPathTreeCache(first.sizeInBytes() - 1);
+        smallCache.put(first, ShortestPathAlgorithm.Algorithm.BFS);
+        assertThat(smallCache.size(), is(0));
+    }
+
+    @Test
+    public void testInvalidate_shouldRemoveTreesOfThatGraphOnly() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        CompiledGraph otherGraph = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE);
+        cache.put(new IntBFSVisit().traverse(graph), ShortestPathAlgorithm.Algorithm.BFS);
+        cache.put(new DialDijkstra().traverse(graph), ShortestPathAlgorithm.Algorithm.DIJKSTRA);
+        ShortestPathTree otherTree = new IntBFSVisit().traverse(otherGraph);
+        cache.put(otherTree, ShortestPathAlgorithm.Algorithm.BFS);
+
+        cache.invalidate(graph.source());
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getSizeInBytes(), is(otherTree.sizeInBytes()));
+        assertThat(cache.get(otherGraph, otherGraph.rootId(), ShortestPathAlgorithm.Algorithm.BFS), is(otherTree));
+    }
+
+    @Test
+    public void testPut_registrationRequired_shouldPutTreesOfRegisteredGraphsOnly() {
+        CompiledGraph graph = compile(random.fill(new IntStandardMatrix(10, 10), 1, 2, 0));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(Long.MAX_VALUE, true);
+        ShortestPathTree tree = new IntBFSVisit().traverse(graph);
+
+        cache.put(tree, ShortestPathAlgorithm.Algorithm.BFS);
+        assertThat("Not registered", cache.size(), is(0));
+
+        cache.register(graph.source());
+        cache.put(tree, ShortestPathAlgorithm.Algorithm.BFS);
+        assertThat(cache.size(), is(1));
+
+        // Invalidated while another tree was built, so that tree is dropped
+        cache.invalidate(graph.source());
+        cache.put(tree, ShortestPathAlgorithm.Algorithm.BFS);
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getSizeInBytes(), is(0L));
+    }
+
+    private Index randomVertex(CompiledGraph graph) {
+        return graph.vertexOf(random.nextId(graph));
+    }
+}
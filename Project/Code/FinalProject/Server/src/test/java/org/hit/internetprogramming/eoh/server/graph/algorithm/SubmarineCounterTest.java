@@ -0,0 +1,74 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.IIntMatrix;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test {@link SubmarineCounter}, comparing its results with counting submarines out of the DFS connected components.<br/>
+ * Matrices are tall enough to be split into several stripes, so submarines cross stripe boundaries.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class SubmarineCounterTest {
+    private static final int ROWS = 300;
+    private static final int COLS = 40;
+
+    private final RandomMatrices random = new RandomMatrices();
+    private final SubmarineCounter submarineCounter = new SubmarineCounter(4);
+
+    @Test
+    public void testCountSubmarines_smallMatrix() {
+        Integer[][] arr = {{1, 1, null, 1, 1},
+                           {null, null, null, 1, 1},
+                           {1, 1, null, 1, 1}};
+
+        assertThat(submarineCounter.countSubmarines(new MatrixGraphAdapter<>(new Matrix<>(arr), Index.from(0, 0))), is(3));
+    }
+
+    @Test
+    public void testCountSubmarines_rectanglesAcrossStripes() {
+        BitMatrix matrix = new BitMatrix(ROWS, COLS);
+
+        // A full rectangle that crosses all stripes, and a rectangle with a hole that crosses a single boundary
+        fill(matrix, 0, ROWS, 0, 3);
+        fill(matrix, 50, 100, 10, 20);
+        matrix.setIntValue(80, 15, IIntMatrix.NO_VALUE);
+
+        // A submarine in a single row, which is the first row of a stripe
+        fill(matrix, 75, 76, 30, 35);
+
+        assertThat(submarineCounter.countSubmarines(matrix), is(2));
+    }
+
+    @Test
+    public void testCountSubmarines_randomMatrices_shouldMatchDfs() {
+        for (int i = 0; i < 3; i++) {
+            assertSameCount(new MatrixGraphAdapter<>(random.fill(new BitMatrix(ROWS, COLS), 40), Index.from(0, 0)));
+            assertSameCount(new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(ROWS, COLS), 40), Index.from(0, 0)));
+            assertSameCount(new MatrixGraphAdapter<>(random.fill(new BitCrossMatrix(ROWS, COLS), 40), Index.from(0, 0)));
+        }
+    }
+
+    private static void fill(IIntMatrix matrix, int fromRow, int toRow, int fromCol, int toCol) {
+        for (int row = fromRow; row < toRow; row++) {
+            for (int col = fromCol; col < toCol; col++) {
+                matrix.setIntValue(row, col, 1);
+            }
+        }
+    }
+
+    private void assertSameCount(IGraph<Index> graph) {
+        int expected = new Submarines(ConnectedComponentsAlgorithm.Algorithm.DFS).findSubmarines(graph);
+        assertThat(submarineCounter.countSubmarines(graph), is(expected));
+    }
+}
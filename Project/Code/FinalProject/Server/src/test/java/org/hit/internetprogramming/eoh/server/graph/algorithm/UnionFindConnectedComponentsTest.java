@@ -0,0 +1,83 @@
+package org.hit.internetprogramming.eoh.server.graph.algorithm;
+
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitCrossMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.BitStandardMatrix;
+import org.hit.internetprogramming.eoh.common.mat.impl.Matrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+/**
+ * Test {@link UnionFindConnectedComponents} and {@link DisjointSet}, comparing the union-find results with the DFS ones.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class UnionFindConnectedComponentsTest {
+    private final RandomMatrices random = new RandomMatrices();
+
+    @Test
+    public void testDisjointSet_union_shouldMergeSets() {
+        DisjointSet disjointSet = new DisjointSet(5);
+
+        assertThat(disjointSet.union(0, 1), is(true));
+        assertThat(disjointSet.union(3, 4), is(true));
+        assertThat(disjointSet.union(1, 0), is(false));
+        assertThat(disjointSet.union(1, 4), is(true));
+
+        assertThat(disjointSet.count(), is(2));
+        assertThat(disjointSet.isConnected(0, 3), is(true));
+        assertThat(disjointSet.isConnected(2, 3), is(false));
+    }
+
+    @Test
+    public void testCollect_regularMatrix_shouldFindOneComponent() {
+        Integer[][] arr = {{1, null, 1},
+                           {null, 1, null},
+                           {1, null, 1}};
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new Matrix<>(arr), Index.from(0, 0));
+
+        List<Set<Index>> connectedComponents = new UnionFindConnectedComponents().collect(graph);
+
+        assertThat(connectedComponents, hasSize(1));
+        assertThat(connectedComponents.get(0), hasSize(5));
+    }
+
+    @Test
+    public void testCollect_randomMatrices_shouldMatchDfs() {
+        for (int i = 0; i < 5; i++) {
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitMatrix(30, 40), 40), Index.from(0, 0)));
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(30, 40), 40), Index.from(0, 0)));
+            assertSameComponents(new MatrixGraphAdapter<>(random.fill(new BitCrossMatrix(30, 40), 40), Index.from(0, 0)));
+        }
+    }
+
+    @Test
+    public void testFindSubmarines_unionFind_shouldMatchDfs() {
+        Submarines dfs = new Submarines(ConnectedComponentsAlgorithm.Algorithm.DFS);
+        Submarines unionFind = new Submarines(ConnectedComponentsAlgorithm.Algorithm.UNION_FIND);
+
+        for (int i = 0; i < 5; i++) {
+            IGraph<Index> graph = new MatrixGraphAdapter<>(random.fill(new BitStandardMatrix(30, 40), 40), Index.from(0, 0));
+            assertThat(unionFind.findSubmarines(graph), is(dfs.findSubmarines(graph)));
+        }
+    }
+
+    private static void assertSameComponents(IGraph<Index> graph) {
+        List<Set<Index>> expected = new ConnectedComponents().collect(graph);
+        List<Set<Index>> actual = new UnionFindConnectedComponents().collect(graph);
+
+        // Components of equal size might be ordered differently, so compare them regardless of order
+        assertThat(actual, hasSize(expected.size()));
+        assertThat(new HashSet<>(actual), is(new HashSet<>(expected)));
+    }
+}
@@ -0,0 +1,249 @@
+package org.hit.internetprogramming.eoh.server.impl;
+
+import org.hit.internetprogramming.eoh.common.graph.CompiledGraph;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.IntStandardMatrix;
+import org.hit.internetprogramming.eoh.server.common.ClientInfo;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ContractionHierarchy;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.IntBFSVisit;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.Landmarks;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ScratchPool;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ShortestPathAlgorithm;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ShortestPathTree;
+import org.hit.internetprogramming.eoh.server.graph.algorithm.ShortestPathTreeCache;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test the bounded {@link Graphs} cache, to make sure graphs are evicted by size, by idle time and on disconnect.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class GraphsTest {
+    /**
+     * A 10x10 int matrix takes 400 bytes
+     */
+    private static final long GRAPH_SIZE = 400;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testPutGraph_exceedBudget_shouldEvictLeastRecentlyUsed() {
+        Graphs graphs = new Graphs(GRAPH_SIZE * 2, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+        graphs.putGraph(client(2), newGraph());
+
+        // Use the first graph, so the second one becomes the least recently used
+        assertThat(graphs.getGraph(client(1)), notNullValue());
+        graphs.putGraph(client(3), newGraph());
+
+        assertThat(graphs.getGraph(client(2)), nullValue());
+        assertThat(graphs.getGraph(client(1)), notNullValue());
+        assertThat(graphs.getGraph(client(3)), notNullValue());
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE * 2));
+        assertThat(graphs.getEvictionCount(), is(1L));
+        assertThat(graphs.getHitCount(), is(3L));
+        assertThat(graphs.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void testPutGraph_largerThanBudget_shouldStillBeCached() {
+        Graphs graphs = new Graphs(GRAPH_SIZE / 2, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+        graphs.putGraph(client(2), newGraph());
+
+        assertThat(graphs.size(), is(1));
+        assertThat(graphs.getGraph(client(2)), notNullValue());
+    }
+
+    @Test
+    public void testGetCompiledGraph_shouldCountCompiledSizeOnce() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+
+        CompiledGraph compiledGraph = graphs.getCompiledGraph(client(1));
+        graphs.getCompiledGraph(client(1));
+
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE + compiledGraph.sizeInBytes()));
+
+        // Putting another graph releases the old one, with its compiled form
+        graphs.putGraph(client(1), newGraph());
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE));
+    }
+
+    @Test
+    public void testGetLandmarks_shouldBuildOnceAndReleaseOnPutGraph() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+
+        Landmarks landmarks = graphs.getLandmarks(client(1));
+        CompiledGraph compiledGraph = graphs.getCompiledGraph(client(1));
+
+        assertThat(landmarks.count(), is(2));
+        assertThat(graphs.getLandmarks(client(1)) == landmarks, is(true));
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE + compiledGraph.sizeInBytes() + landmarks.sizeInBytes()));
+
+        // Putting another graph releases the old one, with its landmarks, and the new graph gets its own landmarks
+        graphs.putGraph(client(1), newGraph());
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE));
+        assertThat(graphs.getLandmarks(client(1)) == landmarks, is(false));
+        assertThat(graphs.getLandmarks(client(2)), nullValue());
+    }
+
+    @Test
+    public void testGetContractionHierarchy_shouldBuildOnceInBackgroundAndCountWithLandmarks() {
+        Deque<Runnable> builds = new ArrayDeque<>();
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get, builds::add);
+        graphs.putGraph(client(1), newGraph());
+
+        // Not ready until the build is over, and requested once
+        assertThat(graphs.getContractionHierarchy(client(1)), nullValue());
+        assertThat(graphs.getContractionHierarchy(client(1)), nullValue());
+        assertThat(builds.size(), is(1));
+        builds.poll().run();
+
+        ContractionHierarchy contractionHierarchy = graphs.getContractionHierarchy(client(1));
+        Landmarks landmarks = graphs.getLandmarks(client(1));
+        CompiledGraph compiledGraph = graphs.getCompiledGraph(client(1));
+
+        assertThat(contractionHierarchy.vertexCount(), is(compiledGraph.vertexCount()));
+        assertThat(graphs.getContractionHierarchy(client(1)) == contractionHierarchy, is(true));
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE + compiledGraph.sizeInBytes() + landmarks.sizeInBytes() + contractionHierarchy.sizeInBytes()));
+
+        graphs.putGraph(client(1), newGraph());
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE));
+        assertThat(graphs.getContractionHierarchy(client(2)), nullValue());
+        assertThat(builds.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetContractionHierarchy_graphReleasedBeforeBuild_shouldNotBuildOrCount() {
+        Deque<Runnable> builds = new ArrayDeque<>();
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get, builds::add);
+        graphs.putGraph(client(1), newGraph());
+        assertThat(graphs.getContractionHierarchy(client(1)), nullValue());
+
+        graphs.putGraph(client(1), newGraph());
+        builds.poll().run();
+
+        assertThat(graphs.getSizeInBytes(), is(GRAPH_SIZE));
+        assertThat(graphs.getContractionHierarchy(client(1)), nullValue());
+        assertThat(builds.size(), is(1));
+    }
+
+    @Test
+    public void testPutGraph_shouldInvalidateTreesOfReleasedGraph() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+        graphs.putGraph(client(2), newGraph());
+        ShortestPathTreeCache shortestPathTrees = graphs.getShortestPathTrees();
+        shortestPathTrees.put(new IntBFSVisit().traverse(graphs.getCompiledGraph(client(1))), ShortestPathAlgorithm.Algorithm.BFS);
+        shortestPathTrees.put(new IntBFSVisit().traverse(graphs.getCompiledGraph(client(2))), ShortestPathAlgorithm.Algorithm.BFS);
+
+        graphs.putGraph(client(1), newGraph());
+        assertThat(shortestPathTrees.size(), is(1));
+
+        graphs.removeGraph(client(2));
+        assertThat(shortestPathTrees.size(), is(0));
+    }
+
+    @Test
+    public void testPutGraph_treeOfReleasedGraphPutAfterwards_shouldDropTree() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+        ShortestPathTree tree = new IntBFSVisit().traverse(graphs.getCompiledGraph(client(1)));
+
+        // The graph is released while it is traversed, so its tree is put after it was invalidated
+        graphs.putGraph(client(1), newGraph());
+        graphs.getShortestPathTrees().put(tree, ShortestPathAlgorithm.Algorithm.BFS);
+
+        assertThat(graphs.getShortestPathTrees().size(), is(0));
+    }
+
+    @Test
+    public void testGetGraph_idleTimeout_shouldExpire() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, TimeUnit.MINUTES.toNanos(1), clock::get);
+        graphs.putGraph(client(1), newGraph());
+        graphs.putGraph(client(2), newGraph());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        assertThat(graphs.getGraph(client(2)), notNullValue());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        assertThat("Unused for 80 seconds", graphs.getGraph(client(1)), nullValue());
+        assertThat("Used 40 seconds ago", graphs.getGraph(client(2)), notNullValue());
+        assertThat(graphs.getExpirationCount(), is(1L));
+    }
+
+    @Test
+    public void testRemoveGraph_shouldReleaseSize() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph());
+
+        assertThat(graphs.removeGraph(client(1)), is(true));
+        assertThat(graphs.removeGraph(client(1)), is(false));
+        assertThat(graphs.getSizeInBytes(), is(0L));
+        assertThat(graphs.getGraph(client(1)), nullValue());
+    }
+
+    @Test
+    public void testRemoveGraph_shouldDropScratchOfLargerGraphsOnly() {
+        Graphs graphs = new Graphs(Long.MAX_VALUE, 0, clock::get);
+        graphs.putGraph(client(1), newGraph(5));
+        graphs.putGraph(client(2), newGraph(40));
+        graphs.getCompiledGraph(client(1));
+        CompiledGraph largeGraph = graphs.getCompiledGraph(client(2));
+
+        // IntBFSVisit takes 4 ints per vertex
+        long largeScratchSize = 4L * largeGraph.vertexCount() * Integer.BYTES;
+        new IntBFSVisit().traverse(largeGraph);
+        assertThat(ScratchPool.idleSizeInBytes() >= largeScratchSize, is(true));
+
+        graphs.removeGraph(client(2));
+        assertThat(ScratchPool.idleSizeInBytes() < largeScratchSize, is(true));
+    }
+
+    @Test
+    public void testGetCompiledGraph_noRoomLeftInBudget_shouldNotKeepScratch() {
+        IGraph<Index> graph = newGraph(40);
+        Graphs graphs = new Graphs(graph.sizeInBytes(), 0, clock::get);
+        graphs.putGraph(client(1), graph);
+
+        new IntBFSVisit().traverse(graphs.getCompiledGraph(client(1)));
+        assertThat(ScratchPool.idleSizeInBytes(), is(0L));
+    }
+
+    private static ClientInfo client(int port) {
+        return new ClientInfo(InetAddress.getLoopbackAddress(), port, 8005);
+    }
+
+    private static IGraph<Index> newGraph() {
+        IntStandardMatrix matrix = new IntStandardMatrix(10, 10);
+        matrix.setIntValue(0, 0, 1);
+        matrix.setIntValue(0, 1, 1);
+        return new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+    }
+
+    private static IGraph<Index> newGraph(int size) {
+        IntStandardMatrix matrix = new IntStandardMatrix(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                matrix.setIntValue(row, col, 1);
+            }
+        }
+
+        return new MatrixGraphAdapter<>(matrix, Index.from(0, 0));
+    }
+}
@@ -0,0 +1,95 @@
+package org.hit.internetprogramming.eoh.server.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hit.internetprogramming.eoh.common.action.ActionType;
+import org.hit.internetprogramming.eoh.common.comms.HttpStatus;
+import org.hit.internetprogramming.eoh.common.comms.Request;
+import org.hit.internetprogramming.eoh.common.comms.Response;
+import org.hit.internetprogramming.eoh.common.comms.ShortestPathsBody;
+import org.hit.internetprogramming.eoh.common.graph.IGraph;
+import org.hit.internetprogramming.eoh.common.graph.MatrixGraphAdapter;
+import org.hit.internetprogramming.eoh.common.mat.Index;
+import org.hit.internetprogramming.eoh.common.mat.impl.StandardMatrix;
+import org.hit.internetprogramming.eoh.common.util.JsonUtils;
+import org.hit.internetprogramming.eoh.server.common.ClientInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test the streaming path of {@link MatrixClientHandler}, where requests are parsed right out of the received bytes,
+ * and responses are written right into the output stream.
+ * @author Haim Adrian
+ * @since 16-Oct-26
+ */
+public class MatrixClientHandlerTest {
+    private final ObjectMapper objectMapper = JsonUtils.createObjectMapper();
+    private final MatrixClientHandler handler = new MatrixClientHandler();
+    private final ClientInfo client = new ClientInfo(InetAddress.getLoopbackAddress(), 50000, 8005);
+
+    @Test
+    public void testPutGraphThenGetGraph_graphShouldBeTheSame() throws Exception {
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, 0, 1}, {1, 1, 0}, {0, 0, 1}}), Index.from(0, 0));
+
+        Response putResponse = execute(new Request(ActionType.PUT_GRAPH, graph));
+        assertThat(putResponse.getStatus(), is(HttpStatus.OK.getCode()));
+
+        ByteArrayOutputStream getResponseJson = new ByteArrayOutputStream();
+        handler.onRequest(client, ByteBuffer.wrap(objectMapper.writeValueAsBytes(new Request(ActionType.GET_GRAPH))), getResponseJson, stop -> {});
+        IGraph<Index> result = objectMapper.readValue(getResponseJson.toByteArray(), Response.class).getBodyAs(new TypeReference<>() {});
+
+        assertThat(getResponseJson.toString(), containsString("\"_type\":\"matrix\""));
+        assertThat(result.printGraph(), is(graph.printGraph()));
+    }
+
+    @Test
+    public void testGetReachables_indexBody_shouldDecodeIndex() throws Exception {
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, 1, 0}, {0, 1, 1}, {1, 0, 1}}), Index.from(0, 0));
+        execute(new Request(ActionType.PUT_GRAPH, graph));
+
+        Response response = execute(new Request(ActionType.GET_REACHABLES, Index.from(1, 1)));
+        List<Index> reachables = response.getBodyAs(new TypeReference<>() {});
+
+        assertThat(response.getStatus(), is(HttpStatus.OK.getCode()));
+        assertThat(reachables, is(graph.getReachableVertices(Index.from(1, 1))));
+    }
+
+    @Test
+    public void testDisconnect_noBody_shouldStopCommunication() throws Exception {
+        AtomicBoolean stopped = new AtomicBoolean();
+        ByteArrayOutputStream responseJson = new ByteArrayOutputStream();
+        handler.onRequest(client, ByteBuffer.wrap("{\"actionType\":\"DISCONNECT\",\"body\":null}".getBytes()), responseJson, stopped::set);
+
+        assertThat(stopped.get(), is(true));
+        assertThat(objectMapper.readValue(responseJson.toByteArray(), Response.class).getStatus(), is(HttpStatus.OK.getCode()));
+    }
+
+    @Test
+    public void testDisconnect_afterPutGraph_shouldReleaseGraph() throws Exception {
+        IGraph<Index> graph = new MatrixGraphAdapter<>(new StandardMatrix<>(new Integer[][] {{1, 1}, {0, 1}}), Index.from(0, 0));
+        execute(new Request(ActionType.PUT_GRAPH, graph));
+
+        execute(new Request(ActionType.DISCONNECT));
+
+        assertThat(Graphs.getInstance().getGraph(client), nullValue());
+        assertThat(execute(new Request(ActionType.GET_GRAPH)).getStatus(), is(HttpStatus.NOT_FOUND.getCode()));
+        assertThat(execute(new Request(ActionType.SHORTEST_PATHS, new ShortestPathsBody<>(Index.from(0, 0), Index.from(1, 1)))).getStatus(),
+                is(HttpStatus.NOT_FOUND.getCode()));
+    }
+
+    private Response execute(Request request) throws Exception {
+        ByteArrayOutputStream responseJson = new ByteArrayOutputStream();
+        handler.onRequest(client, ByteBuffer.wrap(objectMapper.writeValueAsBytes(request)), responseJson, stop -> {});
+        return objectMapper.readValue(responseJson.toByteArray(), Response.class);
+    }
+}